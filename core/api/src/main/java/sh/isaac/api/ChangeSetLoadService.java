@@ -67,8 +67,8 @@ public interface ChangeSetLoadService {
 
    /**
     *
-    * @return map of the filename of a change set, and the size of the change set
-    * when last processed.
+    * @return map of the filename of a change set, and the offset after the last record
+    * processed, from which the next read of the change set resumes.
     */
    ConcurrentMap<String, Integer> getProcessedChangesets();
 }
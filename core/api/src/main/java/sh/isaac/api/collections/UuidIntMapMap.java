@@ -142,6 +142,18 @@ public abstract class UuidIntMapMap implements UuidToIntMap {
         }
     }
 
+    /**
+     * Restore an assignment made after the map was last written, such as one recovered from a log, and make sure 
+     * that its nid is not generated again.
+     *
+     * @param uuidKey the uuid
+     * @param nid the nid the uuid was assigned
+     */
+    public void putRecovered(UUID uuidKey, int nid) {
+        put(uuidKey, nid);
+        NEXT_NID_PROVIDER.accumulateAndGet(nid, Math::max);
+    }
+
     /**
      * Report stats.
      *
@@ -110,5 +110,17 @@ public class SystemPropertyConstants {
     */
    public static final String FAIL_ON_DATABASE_IDENTITY_MISMATCH = "FAIL_ON_DATABASE_IDENTITY_MISMATCH";
 
+   /** 
+    * Used to specify the maximum size, in bytes of serialized chronology data, of the chronology cache. Defaults to a 
+    * twentieth of the maximum heap size.
+    */
+   public static final String CHRONOLOGY_CACHE_MAX_BYTES = "CHRONOLOGY_CACHE_MAX_BYTES";
+
+   /** 
+    * Used to specify that the chronology cache should hold its entries by soft reference, so they may be reclaimed 
+    * under memory pressure, by providing a value of 'true'.
+    */
+   public static final String CHRONOLOGY_CACHE_SOFT_VALUES = "CHRONOLOGY_CACHE_SOFT_VALUES";
+
 }
 
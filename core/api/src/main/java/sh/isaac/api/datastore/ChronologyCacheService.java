@@ -0,0 +1,71 @@
+/* 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributions from 2013-2017 where performed either by US government 
+ * employees, or under US Veterans Health Administration contracts. 
+ *
+ * US Veterans Health Administration contributions by government employees
+ * are work of the U.S. Government and are not subject to copyright
+ * protection in the United States. Portions contributed by government 
+ * employees are USGovWork (17USC §105). Not subject to copyright. 
+ * 
+ * Contribution by contractors to the US Veterans Health Administration
+ * during this period are contractually contributed under the
+ * Apache License, Version 2.0.
+ *
+ * See: https://www.usa.gov/government-works
+ * 
+ * Contributions prior to 2013:
+ *
+ * Copyright (C) International Health Terminology Standards Development Organisation.
+ * Licensed under the Apache License, Version 2.0.
+ *
+ */
+
+package sh.isaac.api.datastore;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.jvnet.hk2.annotations.Contract;
+
+/**
+ * Statistics and control of the cache of chronologies decoded from the data store, for tuning
+ * the cache size of a deployment.
+ *
+ * @author kec
+ */
+@Contract
+public interface ChronologyCacheService {
+
+   /**
+    * @return the hit, miss, load time, and eviction statistics since the cache was created.
+    */
+   CacheStats getChronologyCacheStats();
+
+   /**
+    * @return the serialized size, in bytes, of the chronologies in the cache.
+    */
+   long getChronologyCacheWeightedSize();
+
+   /**
+    * @return the maximum serialized size, in bytes, of the chronologies in the cache.
+    */
+   long getChronologyCacheMaximumWeight();
+
+   /**
+    * Discard every cached chronology.
+    */
+   void invalidateChronologyCache();
+}
@@ -196,6 +196,14 @@ public interface DataStore
     */
    IntStream getNidsForAssemblage(int assemblageNid, boolean parallel);
 
+   /**
+    * Wait until the changes written so far would survive a crash.  Called once a commit, or a bulk import, has written
+    * all of its changes, so that a store which logs its changes forces the log once per commit, rather than once per 
+    * change.  Stores that are only durable after a sync don't need to do anything.
+    */
+   default void awaitDurable() {
+   }
+
    /**
     * @return true, if this implementation also implements {@link SequenceStore}
     */
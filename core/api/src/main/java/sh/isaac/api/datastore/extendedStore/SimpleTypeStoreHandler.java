@@ -25,7 +25,7 @@ public enum SimpleTypeStoreHandler
 {
 	STRING, INTEGER, UUID, BYTE_ARRAY, INSTANT, UNKNOWN;
 
-	protected void write(Object data, DataOutputStream dos) throws IOException
+	public void write(Object data, DataOutputStream dos) throws IOException
 	{
 		switch (this)
 		{
@@ -52,7 +52,7 @@ public enum SimpleTypeStoreHandler
 		}
 	}
 
-	protected Object read(DataInputStream dis) throws IOException
+	public Object read(DataInputStream dis) throws IOException
 	{
 		switch (this)
 		{
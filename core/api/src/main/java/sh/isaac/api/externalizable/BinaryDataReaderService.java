@@ -60,5 +60,15 @@ public interface BinaryDataReaderService
     * @return the stream
     */
    Stream<IsaacExternalizable> getStream();
+
+   /**
+    * Return a parallel stream of the ochreExternlizables, already parsed
+    *
+    * The objects are read and parsed by several threads, so they are not in file order, unless the stream is
+    * consumed with an ordered operation.  Readers of an input stream, rather than of a file, may not split.
+    *
+    * @return the stream
+    */
+   Stream<IsaacExternalizable> getParallelStream();
 }
 
@@ -112,6 +112,11 @@ public class ByteArrayDataBuffer {
    /** The stamp service. */
    protected StampService stampService;
 
+   /**
+    * The UUID table of external data in the compact IBDF format, or null if UUID references are written in full.
+    */
+   protected ExternalUuidTable uuidTable;
+
    /** The data. */
    private byte[] data;
 
@@ -428,9 +433,7 @@ public class ByteArrayDataBuffer {
     */
    public void putNid(int nid) {
       if (this.externalData) {
-         final UUID uuid = this.identifierService.getUuidPrimordialForNid(nid);
-            putLong(uuid.getMostSignificantBits());
-            putLong(uuid.getLeastSignificantBits());
+         putUuidReference(this.identifierService.getUuidPrimordialForNid(nid));
       } else {
          putInt(nid);
       }
@@ -543,6 +546,25 @@ public class ByteArrayDataBuffer {
       putLong(uuid.getLeastSignificantBits());
    }
 
+   /**
+    * Put a reference to a component by its UUID. With a UUID table, the reference is written as a varint index
+    * into the table, otherwise it is written as the UUID.
+    *
+    * @param uuid the uuid
+    */
+   public void putUuidReference(UUID uuid) {
+      if (this.uuidTable == null) {
+         putUuid(uuid);
+         return;
+      }
+      int index = this.uuidTable.indexOf(uuid);
+      while ((index & ~0x7F) != 0) {
+         putByte((byte) ((index & 0x7F) | 0x80));
+         index >>>= 7;
+      }
+      putByte((byte) index);
+   }
+
    public int getUsed() {
        return this.used;
    }
@@ -1019,6 +1041,25 @@ public class ByteArrayDataBuffer {
       this.externalData = externalData;
    }
 
+   /**
+    * Gets the UUID table.
+    *
+    * @return the UUID table, or null if UUID references are written in full
+    */
+   public ExternalUuidTable getUuidTable() {
+      return this.uuidTable;
+   }
+
+   /**
+    * Sets the UUID table, through which the nid and stamp references of external data are written and read as
+    * varint indexes, rather than as UUIDs.
+    *
+    * @param uuidTable the UUID table, or null to write UUID references in full
+    */
+   public void setUuidTable(ExternalUuidTable uuidTable) {
+      this.uuidTable = uuidTable;
+   }
+
    //~--- get methods ---------------------------------------------------------
 
    /**
@@ -1263,6 +1304,9 @@ public class ByteArrayDataBuffer {
     */
    public int getNid() {
       if (this.externalData) {
+         if (this.uuidTable != null) {
+            return this.uuidTable.getNid(getUuidReferenceIndex());
+         }
          UUID uuid = new UUID(getLong(), getLong());
          if (this.identifierService.hasUuid(uuid)) {
             return this.identifierService.getNidForUuids(uuid);
@@ -1280,6 +1324,10 @@ public class ByteArrayDataBuffer {
          int length = this.getInt();
          int[] nids = new int[length];
          for (int i = 0; i < length; i++) {
+            if (this.uuidTable != null) {
+               nids[i] = this.uuidTable.getNid(getUuidReferenceIndex());
+               continue;
+            }
             UUID uuid = new UUID(getLong(), getLong());
             if (this.identifierService.hasUuid(uuid)) {
                nids[i] = this.identifierService.getNidForUuids(uuid);
@@ -1297,7 +1345,7 @@ public class ByteArrayDataBuffer {
       if (this.externalData) {
          putInt(nids.length);
          for (int i = 0; i < nids.length; i++) {
-            putUuid(Get.identifierService().getUuidPrimordialForNid(nids[i]));
+            putUuidReference(Get.identifierService().getUuidPrimordialForNid(nids[i]));
          }
       } else {
          putIntArray(nids);
@@ -1314,7 +1362,7 @@ public class ByteArrayDataBuffer {
       if (this.externalData) {
          putInt(nids.length);
          for (int i = 0; i < nids.length; i++) {
-            putUuid(Get.identifierService().getUuidPrimordialForNid(nids[i]));
+            putUuidReference(Get.identifierService().getUuidPrimordialForNid(nids[i]));
          }
       } else {
          putIntArray(nids);
@@ -1581,6 +1629,29 @@ public class ByteArrayDataBuffer {
       return new UUID(getLong(), getLong());
    }
 
+   /**
+    * Gets a reference to a component, written by {@link #putUuidReference(UUID)}.
+    *
+    * @return the uuid
+    */
+   public UUID getUuidReference() {
+      if (this.uuidTable == null) {
+         return getUuid();
+      }
+      return this.uuidTable.getUuid(getUuidReferenceIndex());
+   }
+
+   private int getUuidReferenceIndex() {
+      int index = 0;
+      for (int shift = 0; ; shift += 7) {
+         final byte b = getByte();
+         index |= (b & 0x7F) << shift;
+         if (b >= 0) {
+            return index;
+         }
+      }
+   }
+
    public byte[][] toDataArray() {
       // TODO eliminate the differences between the byte[][] data formatting, and the ByteArrayDataBuffer
       // Thus simplify the serialization representation.
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2018 Organizations participating in ISAAC, ISAAC's KOMET, and SOLOR development include the
+         US Veterans Health Administration, OSHERA, and the Health Services Platform Consortium..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.api.externalizable;
+
+import java.util.UUID;
+
+/**
+ * The UUID table of an IBDF file in the compact format. Nid and stamp references in the file's records are
+ * written as varint indexes into the table, rather than as UUIDs, and each UUID of the table is written once.
+ * See {@link ByteArrayDataBuffer#setUuidTable(ExternalUuidTable)}.
+ *
+ * @author kec
+ */
+public interface ExternalUuidTable {
+
+   /**
+    * Used when writing. Adds the UUID to the table if it is not already in the table.
+    *
+    * @param uuid the uuid
+    * @return the index of the UUID in the table
+    */
+   int indexOf(UUID uuid);
+
+   /**
+    * Used when reading.
+    *
+    * @param index the index of a UUID in the table
+    * @return the UUID
+    */
+   UUID getUuid(int index);
+
+   /**
+    * Used when reading.
+    *
+    * @param index the index of a UUID in the table
+    * @return the nid for the UUID, which is assigned when the table is read
+    */
+   int getNid(int index);
+}
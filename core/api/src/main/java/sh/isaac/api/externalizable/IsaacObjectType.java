@@ -72,6 +72,8 @@ public enum IsaacObjectType {
    STAMP_ALIAS((byte) 5, (byte) 1, "Stamp Alias"),
    STAMP((byte) 6, (byte) 1, "Stamp"),
    //7 was logical expression, deprecated, should not be reused
+   CONCEPT_DELTA((byte) 8, (byte) 1, "Concept delta"),
+   SEMANTIC_DELTA((byte) 9, (byte) 1, "Semantic delta"),
    UNKNOWN((byte) 128, (byte) 0, "Unknown");
 
    private final byte token;
@@ -133,6 +135,12 @@ public enum IsaacObjectType {
       case 7:
          throw new UnsupportedOperationException("Logical Expression deprecated: " + token);
 
+      case 8:
+         return CONCEPT_DELTA;
+
+      case 9:
+         return SEMANTIC_DELTA;
+
       default:
          return UNKNOWN;
       }
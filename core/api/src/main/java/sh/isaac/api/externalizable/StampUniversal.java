@@ -93,9 +93,9 @@ public class StampUniversal implements IsaacExternalizable {
       }
       this.status     = Status.getFromBoolean(in.getBoolean());
       this.time       = in.getLong();
-      this.authorUuid = new UUID(in.getLong(), in.getLong());
-      this.moduleUuid = new UUID(in.getLong(), in.getLong());
-      this.pathUuid   = new UUID(in.getLong(), in.getLong());
+      this.authorUuid = in.getUuidReference();
+      this.moduleUuid = in.getUuidReference();
+      this.pathUuid   = in.getUuidReference();
       Get.identifierService().assignNid(this.authorUuid);
       Get.identifierService().assignNid(this.moduleUuid);
       Get.identifierService().assignNid(this.pathUuid);
@@ -136,12 +136,9 @@ public class StampUniversal implements IsaacExternalizable {
    public void writeExternal(ByteArrayDataBuffer out) {
       out.putBoolean(this.status.getBoolean());
       out.putLong(this.time);
-      out.putLong(this.authorUuid.getMostSignificantBits());
-      out.putLong(this.authorUuid.getLeastSignificantBits());
-      out.putLong(this.moduleUuid.getMostSignificantBits());
-      out.putLong(this.moduleUuid.getLeastSignificantBits());
-      out.putLong(this.pathUuid.getMostSignificantBits());
-      out.putLong(this.pathUuid.getLeastSignificantBits());
+      out.putUuidReference(this.authorUuid);
+      out.putUuidReference(this.moduleUuid);
+      out.putUuidReference(this.pathUuid);
    }
 
    //~--- get methods ---------------------------------------------------------
@@ -41,6 +41,7 @@ import java.util.List;
 import java.util.function.Predicate;
 
 import org.jvnet.hk2.annotations.Contract;
+import sh.isaac.api.collections.NidSet;
 
 /**
  * An extended query interface that supports very specific querying of semantics - especially with dynamic and/or multi-column semantic data
@@ -113,4 +114,19 @@ public interface IndexDescriptionQueryService extends IndexQueryService {
          Integer pageNum,
          Integer sizeLimit,
          Long targetGeneration);
+
+   /**
+    * Find every description that matches the query, as {@link #query(String, boolean, int[], Predicate, AuthorModulePathRestriction, Integer, Integer, Long)}
+    * does without a prefix search, but without scoring or ranking the matches, so that all of them can be found without allocating
+    * room for a ranked result list of every possible match.
+    *
+    * @param query The query to apply.
+    * @param filter - Optional - a parameter that allows application of exclusionary criteria to the returned result.
+    * @param targetGeneration - optional - target generation that must be waited for prior to performing the search or Long.MIN_VALUE if there
+    *           is no need to wait for a target generation.
+    * @return the nids of the matching descriptions
+    */
+   public NidSet queryMatchingNids(String query,
+         Predicate<Integer> filter,
+         Long targetGeneration);
 }
@@ -0,0 +1,86 @@
+package sh.isaac.api.navigation;
+
+/**
+ * What a navigation view shows for one child of a concept: the child, the type of the edge to it, and
+ * the flags and text of the row, computed once for a manifold coordinate by {@link Navigator#getChildRows(int)}.
+ */
+public final class NavigationRow {
+
+    /**
+     * The text nid of a row whose concept has no description for the language coordinate.
+     */
+    public static final int NO_TEXT_NID = Integer.MAX_VALUE;
+
+    private final int conceptNid;
+    private final int typeNid;
+    private final boolean defined;
+    private final boolean multiParent;
+    private final boolean leaf;
+    private final int textNid;
+    private final String sortKey;
+
+    public NavigationRow(int conceptNid, int typeNid, boolean defined, boolean multiParent, boolean leaf, int textNid, String sortKey) {
+        this.conceptNid = conceptNid;
+        this.typeNid = typeNid;
+        this.defined = defined;
+        this.multiParent = multiParent;
+        this.leaf = leaf;
+        this.textNid = textNid;
+        this.sortKey = sortKey;
+    }
+
+    /**
+     * @return the nid of the child concept
+     */
+    public int getConceptNid() {
+        return conceptNid;
+    }
+
+    /**
+     * @return the nid of the type of the edge from the parent to the child
+     */
+    public int getTypeNid() {
+        return typeNid;
+    }
+
+    /**
+     * @return true if the stated definition of the child has a sufficient set
+     */
+    public boolean isDefined() {
+        return defined;
+    }
+
+    /**
+     * @return true if the child has more than one parent
+     */
+    public boolean isMultiParent() {
+        return multiParent;
+    }
+
+    /**
+     * @return true if the child has no children
+     */
+    public boolean isLeaf() {
+        return leaf;
+    }
+
+    /**
+     * @return the nid of the preferred description of the child, or {@link #NO_TEXT_NID}
+     */
+    public int getTextNid() {
+        return textNid;
+    }
+
+    /**
+     * @return the label of the child, which the rows are sorted on
+     */
+    public String getSortKey() {
+        return sortKey;
+    }
+
+    @Override
+    public String toString() {
+        return "NavigationRow{" + sortKey + ", nid=" + conceptNid + ", defined=" + defined
+                + ", multiParent=" + multiParent + ", leaf=" + leaf + '}';
+    }
+}
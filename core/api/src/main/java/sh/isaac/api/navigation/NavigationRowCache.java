@@ -0,0 +1,132 @@
+package sh.isaac.api.navigation;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.jvnet.hk2.annotations.Service;
+import sh.isaac.api.Edge;
+import sh.isaac.api.Get;
+import sh.isaac.api.StaticIsaacCache;
+import sh.isaac.api.chronicle.LatestVersion;
+import sh.isaac.api.commit.CommitListener;
+import sh.isaac.api.commit.CommitRecord;
+import sh.isaac.api.component.semantic.version.DescriptionVersion;
+import sh.isaac.api.component.semantic.version.LogicGraphVersion;
+import sh.isaac.api.coordinate.ManifoldCoordinate;
+import sh.isaac.api.coordinate.ManifoldCoordinateImmutable;
+import sh.isaac.api.coordinate.PremiseType;
+import sh.isaac.api.logic.NodeSemantic;
+import sh.isaac.api.util.NaturalOrder;
+
+/**
+ * The child rows of the concepts that have been expanded, for each manifold coordinate. The rows of a
+ * parent are computed in one parallel pass over its children, and kept until the next commit, since a
+ * commit may change any definition, description, or edge.
+ */
+//This class is not treated as a service, however, it needs the annotation, so that the reset() gets fired at appropriate times.
+@Service
+public class NavigationRowCache implements CommitListener, StaticIsaacCache {
+
+    private static final UUID LISTENER_UUID = UUID.fromString("6f0c9e1e-5f43-4b6a-9a3c-2a5f3e0b7d41");
+
+    private static final NavigationRowCache LISTENER = new NavigationRowCache();
+
+    /**
+     * Whether the listener is registered with the commit service. It stays registered until the system is reset,
+     * when the commit service it is registered with is stopped.
+     */
+    private static final AtomicBoolean LISTENING = new AtomicBoolean();
+
+    /**
+     * Counts the commits, so that rows computed across a commit are returned but not kept.
+     */
+    private static final AtomicLong GENERATION = new AtomicLong();
+
+    private static final ConcurrentHashMap<ManifoldCoordinateImmutable, ConcurrentHashMap<Integer, NavigationRow[]>> CACHE = new ConcurrentHashMap<>();
+
+    private static final Comparator<NavigationRow> ROW_ORDER = (NavigationRow r1, NavigationRow r2) -> {
+        int compare = NaturalOrder.compareStrings(r1.getSortKey(), r2.getSortKey());
+        if (compare != 0) {
+            return compare;
+        }
+        return Integer.compare(r1.getConceptNid(), r2.getConceptNid());
+    };
+
+    private NavigationRowCache() {
+        // For HK2
+    }
+
+    @Override
+    public void reset() {
+        LISTENING.set(false);
+        GENERATION.incrementAndGet();
+        CACHE.clear();
+    }
+
+    @Override
+    public UUID getListenerUuid() {
+        return LISTENER_UUID;
+    }
+
+    @Override
+    public void handleCommit(CommitRecord commitRecord) {
+        GENERATION.incrementAndGet();
+        CACHE.clear();
+    }
+
+    /**
+     * @param navigator the navigator, which defines the children and the coordinate of the rows
+     * @param parentNid the parent concept
+     * @return the rows of the children of the parent, sorted on their labels, which callers must not modify
+     */
+    static NavigationRow[] getChildRows(Navigator navigator, int parentNid) {
+        ManifoldCoordinateImmutable manifoldCoordinate = navigator.getManifoldCoordinate().toManifoldCoordinateImmutable();
+        if (LISTENING.compareAndSet(false, true)) {
+            Get.commitService().addCommitListener(LISTENER);
+        }
+        long generation = GENERATION.get();
+        ConcurrentHashMap<Integer, NavigationRow[]> parentRows = CACHE.computeIfAbsent(manifoldCoordinate, (coordinate) -> new ConcurrentHashMap<>());
+        NavigationRow[] rows = parentRows.get(parentNid);
+        if (rows == null) {
+            // Computed outside of the map, so other parents aren't blocked while the children are read.
+            rows = computeChildRows(navigator, manifoldCoordinate, parentNid);
+            if (generation == GENERATION.get()) {
+                NavigationRow[] previousRows = parentRows.putIfAbsent(parentNid, rows);
+                if (previousRows != null) {
+                    rows = previousRows;
+                }
+            }
+        }
+        return rows;
+    }
+
+    private static NavigationRow[] computeChildRows(Navigator navigator, ManifoldCoordinate manifoldCoordinate, int parentNid) {
+        Edge[] childLinks = navigator.getChildLinks(parentNid).toArray(new Edge[0]);
+        NavigationRow[] rows = Arrays.stream(childLinks)
+                .parallel()
+                .map(childLink -> computeRow(navigator, manifoldCoordinate, childLink))
+                .toArray(NavigationRow[]::new);
+        Arrays.sort(rows, ROW_ORDER);
+        return rows;
+    }
+
+    private static NavigationRow computeRow(Navigator navigator, ManifoldCoordinate manifoldCoordinate, Edge childLink) {
+        int childNid = childLink.getDestinationNid();
+        LatestVersion<LogicGraphVersion> statedDefinition = manifoldCoordinate.getLogicCoordinate()
+                .getLogicGraphVersion(childNid, PremiseType.STATED, manifoldCoordinate.getVertexStampFilter());
+        boolean defined = statedDefinition.isPresent()
+                && statedDefinition.get().getLogicalExpression().contains(NodeSemantic.SUFFICIENT_SET);
+        LatestVersion<DescriptionVersion> description = manifoldCoordinate.getLanguageCoordinate()
+                .getDescription(childNid, manifoldCoordinate.getViewStampFilter());
+        return new NavigationRow(childNid,
+                childLink.getTypeNid(),
+                defined,
+                navigator.getParentNids(childNid).length > 1,
+                navigator.isLeaf(childNid),
+                description.isPresent() ? description.get().getNid() : NavigationRow.NO_TEXT_NID,
+                manifoldCoordinate.getVertexLabel(childNid));
+    }
+}
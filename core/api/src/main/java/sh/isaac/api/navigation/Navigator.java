@@ -43,6 +43,17 @@ public interface Navigator {
      */
     boolean isLeaf(int conceptNid);
 
+    /**
+     * Gets what a navigation view shows for each child of a concept, computed in one pass over the children,
+     * and cached for the manifold coordinate of this navigator until the next commit.
+     *
+     * @param parentNid the parent id
+     * @return the child rows, sorted on their labels, which callers must not modify
+     */
+    default NavigationRow[] getChildRows(int parentNid) {
+        return NavigationRowCache.getChildRows(this, parentNid);
+    }
+
     /**
      * Checks if child of.
      *
@@ -41,7 +41,10 @@ package sh.isaac.api.query;
 import sh.isaac.api.collections.NidSet;
 import sh.isaac.api.component.concept.ConceptSpecification;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -88,8 +91,9 @@ public class And
         Set<ConceptSpecification> iteratedAssemblages = new HashSet<>();
         Map<ConceptSpecification, NidSet> outgoingComponents = deepClone(incomingComponents);
         
-        for (Clause child: getChildren()) {
-            Map<ConceptSpecification, NidSet> computedComponents = child.computeComponents(deepClone(incomingComponents));
+        for (Clause child: getChildrenInComputeOrder()) {
+            // Each child only needs to consider the components that passed the children computed before it. 
+            Map<ConceptSpecification, NidSet> computedComponents = child.computeComponents(deepClone(outgoingComponents));
             if (iteratedAssemblages.contains(child.getAssemblageForIteration())) {
                 // Do an or with existing nid set...
                 NidSet childNids = computedComponents.get(child.getAssemblageForIteration());
@@ -114,8 +118,9 @@ public class And
         Set<ConceptSpecification> iteratedAssemblages = new HashSet<>();
         Map<ConceptSpecification, NidSet> outgoingPossibleComponents = deepClone(incomingPossibleComponents);
         
-        for (Clause child: getChildren()) {
-            Map<ConceptSpecification, NidSet> computedComponents = child.computePossibleComponents(deepClone(incomingPossibleComponents));
+        for (Clause child: getChildrenInComputeOrder()) {
+            // Each child only needs to consider the components that passed the children computed before it. 
+            Map<ConceptSpecification, NidSet> computedComponents = child.computePossibleComponents(deepClone(outgoingPossibleComponents));
             if (iteratedAssemblages.contains(child.getAssemblageForIteration())) {
                 // Do an or with existing nid set...
                 NidSet childNids = computedComponents.get(child.getAssemblageForIteration());
@@ -130,6 +135,20 @@ public class And
     }
   
     //~--- get methods ---------------------------------------------------------
+
+    /**
+     * The intersection does not depend on the order of the children, so children that are computed from 
+     * indexes or the taxonomy are computed first, and children that must test components one at a time are 
+     * computed last, when the fewest components remain. Otherwise the order of the children is kept.
+     *
+     * @return the children, in the order they are computed
+     */
+    @Override
+    public List<Clause> getChildrenInComputeOrder() {
+        List<Clause> orderedChildren = new ArrayList<>(getChildren());
+        orderedChildren.sort(Comparator.comparing(ParentClause::requiresIteration));
+        return orderedChildren;
+    }
     /**
      * Gets the where clause.
      *
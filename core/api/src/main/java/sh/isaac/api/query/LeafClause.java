@@ -47,6 +47,8 @@ import sh.isaac.api.component.concept.ConceptSpecification;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
 
 //~--- non-JDK imports --------------------------------------------------------
 
@@ -120,6 +122,22 @@ public abstract class LeafClause
     public void resetResults() {
         // nothing to do...
     }
+
+    /**
+     * Test each of the components in parallel, over partitions of the component nids. The predicate is called
+     * concurrently, so it must not depend on mutable state, and should be prepared (patterns compiled, let items
+     * resolved) before filtering starts.
+     *
+     * @param components the components to test, which are not changed
+     * @param predicate the test each component must pass
+     * @return a new set of the components that pass the test
+     */
+    protected static NidSet filter(NidSet components, IntPredicate predicate) {
+        return NidSet.of(IntStream.of(components.asArray())
+                .parallel()
+                .filter(predicate)
+                .toArray());
+    }
      
 }
 
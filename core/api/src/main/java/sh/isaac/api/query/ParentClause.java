@@ -108,6 +108,36 @@ public abstract class ParentClause
    public List<Clause> getChildren() {
       return Collections.unmodifiableList(this.children);
    }
+
+   /**
+    * Gets the children in the order they are computed. Parent clauses whose result does not depend on the
+    * order of their children may reorder them, so cheaper children can narrow the components that more
+    * expensive children must consider.
+    *
+    * @return the children, in the order they are computed
+    */
+   public List<Clause> getChildrenInComputeOrder() {
+      return getChildren();
+   }
+
+   /**
+    * Checks if a clause, or any clause it encloses, must load and test components one at a time, rather
+    * than computing its result from an index or the taxonomy.
+    *
+    * @param clause the clause
+    * @return true if computing the clause requires iteration
+    */
+   protected static boolean requiresIteration(Clause clause) {
+      if (clause.getComputePhases().contains(ClauseComputeType.ITERATION)) {
+         return true;
+      }
+      for (Clause child : clause.getChildren()) {
+         if (requiresIteration(child)) {
+            return true;
+         }
+      }
+      return false;
+   }
    public final void addChild(Clause child) {
          child.parent = this;
          child.enclosingQuery = this.enclosingQuery;
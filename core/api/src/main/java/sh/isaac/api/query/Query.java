@@ -38,17 +38,12 @@ package sh.isaac.api.query;
 
 //~--- JDK imports ------------------------------------------------------------
 
-import javafx.beans.property.ReadOnlyProperty;
-import org.apache.mahout.math.map.OpenIntIntHashMap;
-import sh.isaac.api.Get;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import sh.isaac.api.bootstrap.TermAux;
-import sh.isaac.api.chronicle.LatestVersion;
 import sh.isaac.api.collections.NidSet;
 import sh.isaac.api.component.concept.ConceptSpecification;
 import sh.isaac.api.coordinate.PremiseType;
-import sh.isaac.api.coordinate.StampFilter;
-import sh.isaac.api.observable.ObservableSnapshotService;
-import sh.isaac.api.observable.ObservableVersion;
 import sh.isaac.api.query.clauses.*;
 
 import java.io.Reader;
@@ -63,6 +58,8 @@ import java.util.*;
  */
 public class Query {
 
+    private static final Logger LOG = LogManager.getLogger();
+
     /**
      * The Constant DEFAULT_MANIFOLD_COORDINATE_KEY.
      */
@@ -195,10 +192,51 @@ public class Query {
         getLetDeclarations();
         validateLet();
         this.rootClause = Where();
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Query plan:\n{}", explain());
+        }
 
+        final long startTime = System.currentTimeMillis();
         final Map<ConceptSpecification, NidSet> possibleComponentMap = this.rootClause.computePossibleComponents(this.forSetSpecification.getPossibleComponents());
+        final long possibleComponentsTime = System.currentTimeMillis();
+        final Map<ConceptSpecification, NidSet> componentMap = this.rootClause.computeComponents(possibleComponentMap);
+
+        LOG.debug("Computed possible components in {} ms, and components in {} ms", 
+                possibleComponentsTime - startTime, System.currentTimeMillis() - possibleComponentsTime);
+        return componentMap;
+    }
+
+    /**
+     * Describes how the query is computed: the clauses in the order they are computed, the phases each 
+     * is computed in, and the assemblage each iterates.
+     *
+     * @return the query plan, one clause per line, indented by depth
+     */
+    public String explain() {
+        final StringBuilder sb = new StringBuilder();
+        if (this.rootClause != null) {
+            explain(this.rootClause, 0, sb);
+        }
+        return sb.toString();
+    }
 
-        return this.rootClause.computeComponents(possibleComponentMap);
+    private static void explain(Clause clause, int depth, StringBuilder sb) {
+        for (int i = 0; i < depth; i++) {
+            sb.append("   ");
+        }
+        sb.append(clause.getClass().getSimpleName())
+                .append(' ')
+                .append(clause.getComputePhases());
+        if (clause instanceof LeafClause) {
+            sb.append(" for ")
+                    .append(clause.getAssemblageForIteration().getFullyQualifiedName());
+        }
+        sb.append('\n');
+        final List<Clause> children = clause instanceof ParentClause 
+                ? ((ParentClause) clause).getChildrenInComputeOrder() : clause.getChildren();
+        for (Clause child : children) {
+            explain(child, depth + 1, sb);
+        }
     }
 
     private void validateLet() {
@@ -255,6 +293,29 @@ public class Query {
      * @return an array of component nids in an array...
      */
     public int[][] reify() {
+        return getResults().getRows();
+    }
+
+    /**
+     * Compute the query, and sort the result rows.
+     *
+     * @return the result rows, in sort order
+     */
+    public QueryResults getResults() {
+        return getResults(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Compute the query, and keep the first result rows in sort order, without sorting every row.
+     *
+     * @param limit the maximum number of rows to keep
+     * @return the first result rows, in sort order
+     */
+    public QueryResults getResults(int limit) {
+        return new QueryResults(this, computeRows(), limit);
+    }
+
+    private int[][] computeRows() {
             Map<ConceptSpecification, NidSet> assemlageMapResults = compute();
             assemlageMapResults.remove(TermAux.UNINITIALIZED_COMPONENT_ID); // TODO remove cause, not the symptom...
             if (assemlageMapResults.size() == 1) {
@@ -264,34 +325,17 @@ public class Query {
                     for (int nid : entry.getValue().asArray()) {
                         resultArray[row++] = new int[]{nid};
                     }
-                    return sort(resultArray);
+                    return resultArray;
                 }
                 throw new IllegalStateException("No entry found, though list is not empty. ");
             } else if (assemlageMapResults.size() == 2 && getRoot() instanceof Join) {                
                 Join join = (Join) getRoot();
-                return sort(join.getJoinResults());
+                return join.getJoinResults();
             } else {
                 throw new UnsupportedOperationException("Can't handle complex joins yet" + assemlageMapResults);
             }
     }
 
-    private int[][] sort(int[][] resultArray) {
-        if (sortReturnSpecifications.isEmpty()) {
-            return resultArray;
-        }
-        Arrays.sort(resultArray, (int[] o1, int[] o2) -> {
-            int comparison = 0;
-            for (SortSpecification sortSpecification: sortReturnSpecifications) {
-                comparison = sortSpecification.compare(o1, o2, this);
-                if (comparison != 0) {
-                    return comparison;
-                }
-            }
-            return comparison;            
-        });
-        return resultArray;
-    }
-
     /**
      * Let.
      *
@@ -612,53 +656,9 @@ public class Query {
     }
 
     public List<List<String>> executeQuery() throws NoSuchElementException {
-        int[][] resultArray = reify();
-
-        List<List<String>> results = new ArrayList<>();
-        List<AttributeSpecification> resultColumns = getReturnAttributeList();
-        int columnCount = resultColumns.size();
-        
-        OpenIntIntHashMap fastAssemblageNidToIndexMap = new OpenIntIntHashMap();
-        for (Map.Entry<ConceptSpecification, Integer> entry : getForSetSpecification().getAssembalgeToIndexMap().entrySet()) {
-            fastAssemblageNidToIndexMap.put(entry.getKey().getNid(), entry.getValue());
-        }
-        ObservableSnapshotService[] snapshotArray = new ObservableSnapshotService[columnCount];
-        for (int column = 0; column < resultColumns.size(); column++) {
-            AttributeSpecification columnSpecification = resultColumns.get(column);
-            if (columnSpecification.getStampFilterKey() != null) {
-                StampFilter stamp = (StampFilter) getLetDeclarations().get(columnSpecification.getStampFilterKey());
-                snapshotArray[column] = Get.observableSnapshotService(stamp);
-            }
-        }
-        
-        for (int row = 0; row < resultArray.length; row++) {
-            String[] resultRow = new String[columnCount];
-            LatestVersion[] latestVersionArray = new LatestVersion[resultArray[row].length];
-            List[] propertyListArray = new List[resultArray[row].length];
-            for (int column = 0; column < latestVersionArray.length; column++) {
-                latestVersionArray[column] = snapshotArray[column].getObservableVersion(resultArray[row][column]);
-                if (latestVersionArray[column].isPresent()) {
-                    propertyListArray[column] = ((ObservableVersion) latestVersionArray[column].get()).getProperties();
-                } else {
-                    propertyListArray[column] = null;
-                }
-            }
-            for (int column = 0; column < columnCount; column++) {
-                AttributeSpecification columnSpecification = resultColumns.get(column);
-                int resultArrayNidIndex = fastAssemblageNidToIndexMap.get(columnSpecification.getAssemblageNid());
-                if (latestVersionArray[resultArrayNidIndex].isPresent()) {
-                    List<ReadOnlyProperty<?>> propertyList = propertyListArray[resultArrayNidIndex];
-                    ReadOnlyProperty<?> property = propertyList.get(columnSpecification.getPropertyIndex());
-                    if (columnSpecification.getAttributeFunction() != null) {
-                        StampFilter stampFilter = (StampFilter) getLetDeclarations().get(columnSpecification.getStampFilterKey());
-                        resultRow[column] = columnSpecification.getAttributeFunction().apply(property.getValue().toString(), stampFilter, this);
-                    } else {
-                        resultRow[column] = property.getValue().toString();
-                    }
-                }
-            }
-            results.add(Arrays.asList(resultRow));
-        }
+        QueryResults queryResults = getResults();
+        List<List<String>> results = new ArrayList<>(queryResults.size());
+        queryResults.stream().forEach(results::add);
         return results;
     }
 }
@@ -0,0 +1,240 @@
+/*
+ * Copyright 2018 Organizations participating in ISAAC, ISAAC's KOMET, and SOLOR development include the
+         US Veterans Health Administration, OSHERA, and the Health Services Platform Consortium..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.api.query;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import javafx.beans.property.ReadOnlyProperty;
+import org.apache.mahout.math.map.OpenIntIntHashMap;
+import sh.isaac.api.Get;
+import sh.isaac.api.chronicle.LatestVersion;
+import sh.isaac.api.component.concept.ConceptSpecification;
+import sh.isaac.api.coordinate.StampFilter;
+import sh.isaac.api.observable.ObservableSnapshotService;
+import sh.isaac.api.observable.ObservableVersion;
+
+/**
+ * The rows of a {@link Query} result, in sort order. Each row is an array of one or more nids,
+ * one from each assemblage of the FOR clause. Only the nids of the rows are held. The values of
+ * the return attributes of a row are read when the row is read, so callers that read a page at a
+ * time, or consume the stream, hold the values of no more than the rows they are processing.
+ * <p>
+ * The sort keys of a row are computed once, rather than on every comparison. When a limit is
+ * given, only the first rows up to the limit are kept as the keys are computed, rather than
+ * sorting every row.
+ *
+ * @author kec
+ */
+public class QueryResults {
+
+    /**
+     * The number of rows to compute sort keys for in parallel, when only the first rows are kept.
+     */
+    private static final int KEY_BATCH_SIZE = 4096;
+
+    private final Query query;
+
+    private final int[][] rows;
+
+    private final List<AttributeSpecification> resultColumns;
+
+    private final OpenIntIntHashMap fastAssemblageNidToIndexMap = new OpenIntIntHashMap();
+
+    private final ObservableSnapshotService[] snapshotArray;
+
+    /**
+     * @param query the query that computed the rows
+     * @param unsortedRows the rows, in no particular order
+     * @param limit the maximum number of rows to keep
+     */
+    QueryResults(Query query, int[][] unsortedRows, int limit) {
+        this.query = query;
+        this.rows = sort(unsortedRows, Math.max(0, limit));
+        this.resultColumns = query.getReturnAttributeList();
+        for (Map.Entry<ConceptSpecification, Integer> entry : query.getForSetSpecification().getAssembalgeToIndexMap().entrySet()) {
+            this.fastAssemblageNidToIndexMap.put(entry.getKey().getNid(), entry.getValue());
+        }
+        this.snapshotArray = new ObservableSnapshotService[this.resultColumns.size()];
+        for (int column = 0; column < this.resultColumns.size(); column++) {
+            AttributeSpecification columnSpecification = this.resultColumns.get(column);
+            if (columnSpecification.getStampFilterKey() != null) {
+                StampFilter stamp = (StampFilter) query.getLetDeclarations().get(columnSpecification.getStampFilterKey());
+                this.snapshotArray[column] = Get.observableSnapshotService(stamp);
+            }
+        }
+    }
+
+    /**
+     * A row, with the keys it is sorted on, and its position in the unsorted rows,
+     * which keeps the sort stable.
+     */
+    private static class KeyedRow {
+        final int[] row;
+        final String[] keys;
+        final int position;
+
+        KeyedRow(int[] row, String[] keys, int position) {
+            this.row = row;
+            this.keys = keys;
+            this.position = position;
+        }
+    }
+
+    private int[][] sort(int[][] unsortedRows, int limit) {
+        List<SortSpecification> sortSpecifications = this.query.getSortAttributeList();
+        if (sortSpecifications.isEmpty() || unsortedRows.length == 0 || limit == 0) {
+            return unsortedRows.length <= limit ? unsortedRows : Arrays.copyOf(unsortedRows, limit);
+        }
+        SortSpecification[] specifications = sortSpecifications.toArray(new SortSpecification[sortSpecifications.size()]);
+        Comparator<KeyedRow> comparator = (KeyedRow r1, KeyedRow r2) -> {
+            for (int i = 0; i < specifications.length; i++) {
+                int comparison = specifications[i].compareSortKeys(r1.keys[i], r2.keys[i]);
+                if (comparison != 0) {
+                    return comparison;
+                }
+            }
+            return Integer.compare(r1.position, r2.position);
+        };
+
+        KeyedRow[] sortedRows;
+        if (limit >= unsortedRows.length) {
+            sortedRows = keyRows(unsortedRows, specifications, 0, unsortedRows.length);
+            Arrays.parallelSort(sortedRows, comparator);
+        } else {
+            // Keep the first rows in a heap with the last of them on top, and the keys of only those rows.
+            PriorityQueue<KeyedRow> firstRows = new PriorityQueue<>(limit + 1, comparator.reversed());
+            for (int start = 0; start < unsortedRows.length; start += KEY_BATCH_SIZE) {
+                for (KeyedRow keyedRow : keyRows(unsortedRows, specifications, start, Math.min(start + KEY_BATCH_SIZE, unsortedRows.length))) {
+                    if (firstRows.size() < limit) {
+                        firstRows.add(keyedRow);
+                    } else if (comparator.compare(keyedRow, firstRows.peek()) < 0) {
+                        firstRows.poll();
+                        firstRows.add(keyedRow);
+                    }
+                }
+            }
+            sortedRows = firstRows.toArray(new KeyedRow[firstRows.size()]);
+            Arrays.sort(sortedRows, comparator);
+        }
+        int[][] result = new int[sortedRows.length][];
+        for (int i = 0; i < sortedRows.length; i++) {
+            result[i] = sortedRows[i].row;
+        }
+        return result;
+    }
+
+    private KeyedRow[] keyRows(int[][] unsortedRows, SortSpecification[] specifications, int start, int end) {
+        return IntStream.range(start, end)
+                .parallel()
+                .mapToObj(position -> {
+                    String[] keys = new String[specifications.length];
+                    for (int i = 0; i < specifications.length; i++) {
+                        keys[i] = specifications[i].getSortKey(unsortedRows[position], this.query);
+                    }
+                    return new KeyedRow(unsortedRows[position], keys, position);
+                })
+                .toArray(KeyedRow[]::new);
+    }
+
+    /**
+     * @return the number of rows
+     */
+    public int size() {
+        return this.rows.length;
+    }
+
+    /**
+     * @param index the position of the row in sort order
+     * @return the nids of the row
+     */
+    public int[] getRow(int index) {
+        return this.rows[index];
+    }
+
+    /**
+     * @return the nids of every row, in sort order
+     */
+    public int[][] getRows() {
+        return this.rows;
+    }
+
+    /**
+     * Gets a page of rows, with the values of the return attributes read for just the rows of the page.
+     *
+     * @param pageNum the page, starting with 1
+     * @param pageSize the number of rows in a page
+     * @return the values of the rows of the page, which is empty past the last page
+     */
+    public List<List<String>> getPage(int pageNum, int pageSize) {
+        int start = (int) Math.min((long) Math.max(0, pageNum - 1) * pageSize, this.rows.length);
+        int end = (int) Math.min((long) start + pageSize, this.rows.length);
+        List<List<String>> page = new ArrayList<>(end - start);
+        for (int row = start; row < end; row++) {
+            page.add(getValues(this.rows[row]));
+        }
+        return page;
+    }
+
+    /**
+     * @return a sequential stream of the values of the rows, in sort order, which reads the
+     * values of each row as the row is consumed
+     */
+    public Stream<List<String>> stream() {
+        return Arrays.stream(this.rows)
+                .map(this::getValues);
+    }
+
+    /**
+     * @param row the nids of a row
+     * @return the values of the return attributes of the row
+     */
+    public List<String> getValues(int[] row) {
+        int columnCount = this.resultColumns.size();
+        String[] resultRow = new String[columnCount];
+        LatestVersion[] latestVersionArray = new LatestVersion[row.length];
+        List[] propertyListArray = new List[row.length];
+        for (int column = 0; column < latestVersionArray.length; column++) {
+            latestVersionArray[column] = this.snapshotArray[column].getObservableVersion(row[column]);
+            if (latestVersionArray[column].isPresent()) {
+                propertyListArray[column] = ((ObservableVersion) latestVersionArray[column].get()).getProperties();
+            } else {
+                propertyListArray[column] = null;
+            }
+        }
+        for (int column = 0; column < columnCount; column++) {
+            AttributeSpecification columnSpecification = this.resultColumns.get(column);
+            int resultArrayNidIndex = this.fastAssemblageNidToIndexMap.get(columnSpecification.getAssemblageNid());
+            if (latestVersionArray[resultArrayNidIndex].isPresent()) {
+                List<ReadOnlyProperty<?>> propertyList = propertyListArray[resultArrayNidIndex];
+                ReadOnlyProperty<?> property = propertyList.get(columnSpecification.getPropertyIndex());
+                if (columnSpecification.getAttributeFunction() != null) {
+                    StampFilter stampFilter = (StampFilter) this.query.getLetDeclarations().get(columnSpecification.getStampFilterKey());
+                    resultRow[column] = columnSpecification.getAttributeFunction().apply(property.getValue().toString(), stampFilter, this.query);
+                } else {
+                    resultRow[column] = property.getValue().toString();
+                }
+            }
+        }
+        return Arrays.asList(resultRow);
+    }
+}
@@ -239,11 +239,23 @@ public class SortSpecification implements QueryFieldSpecification {
     }
 
     public int compare(int[] o1, int[] o2, Query q) {
+        return compareSortKeys(getSortKey(o1, q), getSortKey(o2, q));
+    }
+
+    /**
+     * Gets the value a result row is sorted on. Result sets compute the key once per row, 
+     * and sort on the keys, rather than reading the row's versions for every comparison. 
+     * 
+     * @param row the nids of a result row
+     * @param q the query that computed the row
+     * @return the sort key of the row
+     */
+    public String getSortKey(int[] row, Query q) {
         // Get index...
         int comparisonIndex = 0;
-        if (o1.length != 1) {
-            for (int i = 0; i < o1.length; i++) {
-                OptionalInt optionalAssemblageNid = Get.identifierService().getAssemblageNid(o1[i]);
+        if (row.length != 1) {
+            for (int i = 0; i < row.length; i++) {
+                OptionalInt optionalAssemblageNid = Get.identifierService().getAssemblageNid(row[i]);
                 if (optionalAssemblageNid.isPresent() &&
                         optionalAssemblageNid.getAsInt() == getAssemblageNid()) {
                     comparisonIndex = i;
@@ -252,26 +264,25 @@ public class SortSpecification implements QueryFieldSpecification {
             }
         }
         StampFilter stampFilter = (StampFilter) q.getLetDeclarations().get(getStampFilterKey());
-        
-        ObservableChronology o1Chronology = Get.observableChronology(o1[comparisonIndex]);
-        LatestVersion<? extends ObservableVersion>  o1LatestVersion = o1Chronology.getLatestVersion(stampFilter);
-
-        ObservableChronology o2Chronology = Get.observableChronology(o2[comparisonIndex]);
-        LatestVersion<? extends ObservableVersion>  o2LatestVersion = o2Chronology.getLatestVersion(stampFilter);
-
-        String o1String = getAttributeFunction().apply(
-                o1LatestVersion.get().getProperties().get(getPropertyIndex()).getValue().toString(), 
-                stampFilter, q);
-        String o2String = getAttributeFunction().apply(
-                o2LatestVersion.get().getProperties().get(getPropertyIndex()).getValue().toString(), 
+        ObservableChronology chronology = Get.observableChronology(row[comparisonIndex]);
+        LatestVersion<? extends ObservableVersion>  latestVersion = chronology.getLatestVersion(stampFilter);
+        return getAttributeFunction().apply(
+                latestVersion.get().getProperties().get(getPropertyIndex()).getValue().toString(), 
                 stampFilter, q);
-        
-        int comparison = NaturalOrder.compareStrings(o1String, o2String);
+    }
+
+    /**
+     * Compare the sort keys of two rows, in the sort order of this specification. 
+     * 
+     * @param key1 the sort key of the first row
+     * @param key2 the sort key of the second row
+     * @return the comparison of the rows
+     */
+    public int compareSortKeys(String key1, String key2) {
+        int comparison = NaturalOrder.compareStrings(key1, key2);
         if (getSortType() == TableColumn.SortType.ASCENDING) {
             return comparison;
         }
         return -comparison;
     }
-    
-    
 }
@@ -134,25 +134,17 @@ public class ChangedBetweenVersions
         StampSequenceSet allowedStamps = Get.stampService().getStampsBetweenCoordinates(stampFilterOne, stampFilterTwo);
 
         
-        for (int nid: possibleComponents.asArray()) {
+        incomingPossibleComponents.put(getAssemblageForIteration(), filter(possibleComponents, nid -> {
             Optional<? extends Chronology> optionalChronology = Get.identifiedObjectService().getChronology(nid);
             if (optionalChronology.isPresent()) {
-                Chronology chronology = optionalChronology.get();
-                boolean found = false;
-                for (Version v: chronology.getVersionList()) {
+                for (Version v: optionalChronology.get().getVersionList()) {
                     if (allowedStamps.contains(v.getStampSequence())) {
-                        found = true;
-                        break;
+                        return true;
                     }
                 }
-                if (!found) {
-                    possibleComponents.remove(nid);
-                }
-            } else {
-                possibleComponents.remove(nid);
             }
-            
-        }
+            return false;
+        }));
         return incomingPossibleComponents;
     }
 
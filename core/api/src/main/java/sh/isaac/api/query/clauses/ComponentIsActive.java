@@ -66,19 +66,13 @@ public class ComponentIsActive extends LeafClause implements StampCoordinateClau
     public final Map<ConceptSpecification, NidSet> computeComponents(Map<ConceptSpecification, NidSet> incomingComponents) {
         StampFilter stampFilter = getLetItem(stampCoordinateKey);
         NidSet possibleComponents = incomingComponents.get(getAssemblageForIteration());
-        for (int nid: possibleComponents.asArray()) {
+        incomingComponents.put(getAssemblageForIteration(), filter(possibleComponents, nid -> {
             final Optional<? extends Chronology> chronology
                     = Get.identifiedObjectService()
                             .getChronology(nid);
-            if (chronology.isPresent()) {
-                if (!chronology.get()
-                        .isLatestVersionActive(stampFilter)) {
-                    possibleComponents.remove(nid);
-                }
-            } else {
-                possibleComponents.remove(nid);
-            }
-        }
+            return chronology.isPresent() && chronology.get()
+                        .isLatestVersionActive(stampFilter);
+        }));
          return incomingComponents;
     }
 
@@ -63,19 +63,13 @@ public class ComponentIsInactive extends LeafClause {
         
         NidSet possibleComponents = incomingComponents.get(getAssemblageForIteration());
         
-        for (int nid: possibleComponents.asArray()) {
+        incomingComponents.put(getAssemblageForIteration(), filter(possibleComponents, nid -> {
             final Optional<? extends Chronology> chronology
                     = Get.identifiedObjectService()
                             .getChronology(nid);
-            if (chronology.isPresent()) {
-                if (chronology.get()
-                        .isLatestVersionActive(stampFilter)) {
-                    possibleComponents.remove(nid);
-                }
-            } else {
-                possibleComponents.remove(nid);
-            }
-        }
+            return chronology.isPresent() && !chronology.get()
+                        .isLatestVersionActive(stampFilter);
+        }));
   
         return incomingComponents;
     }
@@ -42,12 +42,10 @@ import sh.isaac.api.LookupService;
 import sh.isaac.api.collections.NidSet;
 import sh.isaac.api.component.concept.ConceptSpecification;
 import sh.isaac.api.index.IndexDescriptionQueryService;
-import sh.isaac.api.index.SearchResult;
 import sh.isaac.api.query.*;
 import sh.isaac.api.query.properties.QueryStringClause;
 
 import java.util.EnumSet;
-import java.util.List;
 import java.util.Map;
 
 //~--- non-JDK imports --------------------------------------------------------
@@ -106,13 +104,12 @@ public class DescriptionLuceneMatch
             throw new IllegalStateException("No description indexer found on classpath");
         }
 
-        final List<SearchResult> queryResults = descriptionIndexer.query((String) this.enclosingQuery.getLetDeclarations().get(getQueryStringKey()), 1000);
-
         NidSet matchedComponents = new NidSet();
-        for (SearchResult result: queryResults) {
-            if (possibleComponents.contains(result.getNid())) {
-                matchedComponents.add(result.getNid());
-            }
+        if (!possibleComponents.isEmpty()) {
+            // Restrict the search to the possible components in the index, rather than after the search, and collect every
+            // match without ranking, since all of them are needed.
+            matchedComponents = descriptionIndexer.queryMatchingNids((String) this.enclosingQuery.getLetDeclarations().get(getQueryStringKey()), 
+                    possibleComponents::contains, null);
         }
         
         incomingPossibleComponents.put(getAssemblageForIteration(), matchedComponents);
@@ -52,6 +52,7 @@ import sh.isaac.api.query.properties.QueryStringClause;
 import java.util.EnumSet;
 import java.util.Map;
 import java.util.Optional;
+import java.util.regex.Pattern;
 
 //~--- non-JDK imports --------------------------------------------------------
 
@@ -92,23 +93,19 @@ public class DescriptionRegexMatch
      */
     @Override
     public Map<ConceptSpecification, NidSet> computePossibleComponents(Map<ConceptSpecification, NidSet> incomingPossibleComponents) {
-        String regex = getQueryText();
+        Pattern pattern = Pattern.compile(getQueryText());
         NidSet possibleComponents = incomingPossibleComponents.get(getAssemblageForIteration());
-        for (int nid : possibleComponents.asArray()) {
+        incomingPossibleComponents.put(getAssemblageForIteration(), filter(possibleComponents, nid -> {
             Optional<? extends Chronology> c = Get.identifiedObjectService().getChronology(nid);
-            boolean found = false;
             if (c.isPresent() && c.get() instanceof SemanticChronology && c.get().getVersionType() == VersionType.DESCRIPTION) {
                 for (Version dv : c.get().getVersionList()) {
-                    if (((DescriptionVersion) dv).getText().matches(regex)) {
-                        found = true;
-                        break;
+                    if (pattern.matcher(((DescriptionVersion) dv).getText()).matches()) {
+                        return true;
                     }
                 }
             }
-            if (!found) {
-                possibleComponents.remove(nid);
-            }
-        }
+            return false;
+        }));
 
         return incomingPossibleComponents;
     }
@@ -70,7 +70,7 @@ public class ReferencedComponentIsActive extends LeafClause implements StampCoor
         StampFilter stampCoordinate = getLetItem(stampCoordinateKey);
 
         NidSet possibleComponentSet = possibleComponents.get(getAssemblageForIteration());
-        for (int nid : possibleComponentSet.asArray()) {
+        possibleComponents.put(getAssemblageForIteration(), filter(possibleComponentSet, nid -> {
             final Optional<? extends Chronology> chronology
                     = Get.identifiedObjectService()
                             .getChronology(nid);
@@ -79,15 +79,12 @@ public class ReferencedComponentIsActive extends LeafClause implements StampCoor
                 Optional<? extends Chronology> referencedComponentChronology
                         = Get.identifiedObjectService()
                                 .getChronology(semanticChronology.getReferencedComponentNid());
-                if (referencedComponentChronology.isPresent()
-                        && !referencedComponentChronology.get()
-                                .isLatestVersionActive(stampCoordinate)) {
-                    possibleComponentSet.remove(nid);
-                }
-            } else {
-                possibleComponentSet.remove(nid);
+                return !referencedComponentChronology.isPresent()
+                        || referencedComponentChronology.get()
+                                .isLatestVersionActive(stampCoordinate);
             }
-        }
+            return false;
+        }));
         return possibleComponents;
 
     }
@@ -70,7 +70,7 @@ public class ReferencedComponentIsNotActive extends LeafClause implements StampC
         StampFilter stampCoordinate = getLetItem(stampCoordinateKey);
 
         NidSet possibleComponents = incomingPossibleComponents.get(getAssemblageForIteration());
-        for (int nid: possibleComponents.asArray()) {
+        incomingPossibleComponents.put(getAssemblageForIteration(), filter(possibleComponents, nid -> {
            final Optional<? extends Chronology> chronology
                     = Get.identifiedObjectService()
                             .getChronology(nid);
@@ -79,17 +79,13 @@ public class ReferencedComponentIsNotActive extends LeafClause implements StampC
                 Optional<? extends Chronology> referencedComponentChronology
                     = Get.identifiedObjectService()
                             .getChronology(semanticChronology.getReferencedComponentNid());
-                if (referencedComponentChronology.isPresent() &&
+                return !referencedComponentChronology.isPresent() ||
                         !referencedComponentChronology.get()
-                        .isLatestVersionActive(stampCoordinate)) {
-                    possibleComponents.remove(nid);
-                }
-            } else {
-                possibleComponents.remove(nid);
+                        .isLatestVersionActive(stampCoordinate);
             }
-        }
+            return false;
+        }));
 
-                
         return incomingPossibleComponents;
     }
 
@@ -65,12 +65,8 @@ public class SemanticContainsString extends QueryStringAbstract {
         }
 
         NidSet possibleComponents = incomingPossibleComponents.get(getAssemblageForIteration());
-        for (int nid : possibleComponents.asArray()) {
-            SemanticChronology sc = Get.assemblageService().getSemanticChronology(nid);
-            if (!regexMatch(sc, pattern)) {
-                possibleComponents.remove(nid);
-            }
-        }
+        incomingPossibleComponents.put(getAssemblageForIteration(), 
+                filter(possibleComponents, nid -> regexMatch(Get.assemblageService().getSemanticChronology(nid), pattern)));
         return incomingPossibleComponents;
     }
 
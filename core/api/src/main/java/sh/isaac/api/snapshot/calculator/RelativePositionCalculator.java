@@ -42,6 +42,7 @@ package sh.isaac.api.snapshot.calculator;
 import java.math.BigInteger;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
@@ -53,9 +54,6 @@ import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.eclipse.collections.api.set.primitive.ImmutableIntSet;
-import org.eclipse.collections.api.set.primitive.MutableIntSet;
-import org.eclipse.collections.impl.factory.primitive.IntSets;
 import org.jvnet.hk2.annotations.Service;
 import sh.isaac.api.Get;
 import sh.isaac.api.StaticIsaacCache;
@@ -89,9 +87,22 @@ public class RelativePositionCalculator implements StaticIsaacCache {
    /** The Constant LOG. */
    private static final Logger LOG = LogManager.getLogger();
 
+   /**
+    * Calculators are softly held, so their stamp caches survive until memory is needed. A calculator
+    * references its filter, so the filter key is retained as long as the calculator is.
+    */
    private static final ConcurrentReferenceHashMap<StampFilterImmutable, RelativePositionCalculator> SINGLETONS =
            new ConcurrentReferenceHashMap<>(ConcurrentReferenceHashMap.ReferenceType.WEAK,
-                   ConcurrentReferenceHashMap.ReferenceType.WEAK);
+                   ConcurrentReferenceHashMap.ReferenceType.SOFT);
+
+   /**
+    * Flags of a stamp entry. The bits above the flags hold the sequence of the segment
+    * for the stamp's path, when the stamp is on route.
+    */
+   private static final int COMPUTED = 1;
+   private static final int ON_ROUTE = 2;
+   private static final int ALLOWED_STATE = 4;
+   private static final int SEGMENT_SHIFT = 8;
 
    /** The error count. */
    private int  errorCount   = 0;
@@ -100,8 +111,12 @@ public class RelativePositionCalculator implements StaticIsaacCache {
    /** The coordinate. */
    private final StampFilterImmutable filter;
    private final StatusSet allowedStates;
-   private final ConcurrentHashMap<Integer, Boolean> stampOnRoute = new ConcurrentHashMap<>();
-   private final ConcurrentHashMap<Integer, Boolean> stampIsAllowedState = new ConcurrentHashMap<>();
+
+   /**
+    * Route, allowed state, and segment of each committed stamp, computed on first use. Uncommitted
+    * stamps may change when committed, so they are computed on every use.
+    */
+   private final StampEntryIndex stampEntries = new StampEntryIndex();
 
    /**
     * Mapping from pathNid to each segment for that pathNid. There is one entry
@@ -110,6 +125,11 @@ public class RelativePositionCalculator implements StaticIsaacCache {
     */
    ConcurrentHashMap<Integer, Segment> pathNidSegmentMap;
 
+   /**
+    * segmentPrecedes[a][b] is true if segment b precedes segment a.
+    */
+   private boolean[][] segmentPrecedes;
+
    /**
     * Instantiates a new relative position calculator.
     */
@@ -118,6 +138,7 @@ public class RelativePositionCalculator implements StaticIsaacCache {
       // This instance just enables reset functionality...
       this.filter = null;
       this.allowedStates = null;
+      this.segmentPrecedes = null;
    }
 
    /**
@@ -130,6 +151,57 @@ public class RelativePositionCalculator implements StaticIsaacCache {
       this.filter = filter;
       this.pathNidSegmentMap = setupPathNidSegmentMap(filter.getStampPosition().toStampPositionImmutable());
       this.allowedStates          = filter.getAllowedStates();
+      // Preceding segments always have a lower sequence than the segments they precede.
+      int segmentCount = 0;
+      for (Segment segment: this.pathNidSegmentMap.values()) {
+         segmentCount = Math.max(segmentCount, segment.segmentSequence + 1);
+      }
+      this.segmentPrecedes = new boolean[segmentCount][segmentCount];
+      for (Segment segment: this.pathNidSegmentMap.values()) {
+         for (int precedingSegment: segment.precedingSegments) {
+            this.segmentPrecedes[segment.segmentSequence][precedingSegment] = true;
+         }
+      }
+   }
+
+   /**
+    * @param stampSequence the stamp sequence
+    * @return the entry for the stamp, from the cache if the stamp is committed.
+    */
+   private int getStampEntry(int stampSequence) {
+      if (stampSequence < 0) {
+         return computeStampEntry(stampSequence);
+      }
+      return this.stampEntries.computeIfAbsent(stampSequence, this::computeCacheableStampEntry);
+   }
+
+   /**
+    * @return the entry for the stamp, or zero if the stamp is uncommitted and must not be cached.
+    */
+   private int computeCacheableStampEntry(int stampSequence) {
+      // Test before reading the stamp, since a stamp is updated before it is no longer uncommitted.
+      if (getStampService().isUncommitted(stampSequence)) {
+         return 0;
+      }
+      return computeStampEntry(stampSequence);
+   }
+
+   private int computeStampEntry(int stampSequence) {
+      final int pathNid = getStampService().getPathNidForStamp(stampSequence);
+      final Segment seg = this.pathNidSegmentMap.get(pathNid);
+      int entry = COMPUTED;
+      if (seg != null) {
+         entry |= seg.segmentSequence << SEGMENT_SHIFT;
+         if (seg.containsPosition(pathNid,
+               getStampService().getModuleNidForStamp(stampSequence),
+               getStampService().getTimeForStamp(stampSequence))) {
+            entry |= ON_ROUTE;
+         }
+      }
+      if (this.allowedStates.contains(getStampService().getStatusForStamp(stampSequence))) {
+         entry |= ALLOWED_STATE;
+      }
+      return entry;
    }
 
    /**
@@ -141,57 +213,37 @@ public class RelativePositionCalculator implements StaticIsaacCache {
     */
    public RelativePosition fastRelativePosition(int stampSequence1,
          int stampSequence2) {
-      final long ss1Time           = getStampService()
-                                        .getTimeForStamp(stampSequence1);
-      final int  ss1ModuleNid = getStampService()
-                                        .getModuleNidForStamp(stampSequence1);
-      final int  ss1PathNid   = getStampService()
-                                        .getPathNidForStamp(stampSequence1);
-      final long ss2Time           = getStampService()
-                                        .getTimeForStamp(stampSequence2);
-      final int  ss2ModuleNid = getStampService()
-                                        .getModuleNidForStamp(stampSequence2);
-      final int  ss2PathNid   = getStampService()
-                                        .getPathNidForStamp(stampSequence2);
-
-      if (ss1PathNid == ss2PathNid) {
-         final Segment seg = this.pathNidSegmentMap.get(ss1PathNid);
-
-         if (seg.containsPosition(ss1PathNid, ss1ModuleNid, ss1Time) &&
-               seg.containsPosition(ss2PathNid, ss2ModuleNid, ss2Time)) {
-            if (ss1Time < ss2Time) {
-               return RelativePosition.BEFORE;
-            }
-
-            if (ss1Time > ss2Time) {
-               return RelativePosition.AFTER;
-            }
-
-            if (ss1Time == ss2Time) {
-               return RelativePosition.EQUAL;
-            }
-         }
+      return fastRelativePosition(stampSequence1, getStampEntry(stampSequence1), stampSequence2, getStampEntry(stampSequence2));
+   }
 
+   private RelativePosition fastRelativePosition(int stampSequence1, int stampEntry1, int stampSequence2, int stampEntry2) {
+      // A stamp is on route only if its segment contains its position.
+      if ((stampEntry1 & stampEntry2 & ON_ROUTE) == 0) {
          return RelativePosition.UNREACHABLE;
       }
 
-      final Segment seg1 = this.pathNidSegmentMap.get(ss1PathNid);
-      final Segment seg2 = this.pathNidSegmentMap.get(ss2PathNid);
+      final int segment1 = stampEntry1 >>> SEGMENT_SHIFT;
+      final int segment2 = stampEntry2 >>> SEGMENT_SHIFT;
 
-      if ((seg1 == null) || (seg2 == null)) {
-         return RelativePosition.UNREACHABLE;
-      }
+      if (segment1 == segment2) {
+         final long ss1Time = getStampService().getTimeForStamp(stampSequence1);
+         final long ss2Time = getStampService().getTimeForStamp(stampSequence2);
+         if (ss1Time < ss2Time) {
+            return RelativePosition.BEFORE;
+         }
 
-      if (!(seg1.containsPosition(ss1PathNid, ss1ModuleNid, ss1Time) &&
-            seg2.containsPosition(ss2PathNid, ss2ModuleNid, ss2Time))) {
-         return RelativePosition.UNREACHABLE;
+         if (ss1Time > ss2Time) {
+            return RelativePosition.AFTER;
+         }
+
+         return RelativePosition.EQUAL;
       }
 
-      if (seg1.precedingSegments.contains(seg2.segmentSequence)) {
+      if (this.segmentPrecedes[segment1][segment2]) {
          return RelativePosition.BEFORE;
       }
 
-      if (seg2.precedingSegments.contains(seg1.segmentSequence)) {
+      if (this.segmentPrecedes[segment2][segment1]) {
          return RelativePosition.AFTER;
       }
 
@@ -270,23 +322,7 @@ public class RelativePositionCalculator implements StaticIsaacCache {
     * @return true, if successful
     */
    public boolean onRoute(int stampSequence) {
-      if (stampOnRoute.containsKey(stampSequence)) {
-         return stampOnRoute.get(stampSequence);
-      }
-      final Segment seg = this.pathNidSegmentMap.get(getStampService()
-                                                             .getPathNidForStamp(stampSequence));
-      boolean returnValue = false;
-      if (seg != null) {
-         returnValue = seg.containsPosition(
-             getStampService()
-                .getPathNidForStamp(stampSequence),
-             getStampService()
-                .getModuleNidForStamp(stampSequence),
-             getStampService()
-                .getTimeForStamp(stampSequence));
-      }
-      stampOnRoute.put(stampSequence, returnValue);
-      return returnValue;
+      return (getStampEntry(stampSequence) & ON_ROUTE) != 0;
    }
 
    /**
@@ -443,75 +479,71 @@ public class RelativePositionCalculator implements StaticIsaacCache {
    }
 
    /**
-    * Handle stamp.
+    * Add the stamp to the latest stamps, removing any it is after.
     *
-    * @param stampsForPosition the stamps for position
+    * @param latestStamps the latest stamps found so far, followed by unused capacity
+    * @param latestCount the number of latest stamps
     * @param stampSequence the stamp sequence
+    * @param allowUncommitted true if uncommitted stamps may be latest
+    * @return the latest stamps array, which is replaced when it must grow
     */
-   private void handleStamp(MutableIntSet stampsForPosition, int stampSequence, boolean allowUncommitted) {
-      if (!allowUncommitted) {
+   private int[] handleStamp(int[] latestStamps, int[] latestCount, int stampSequence, boolean allowUncommitted) {
+      // Only committed stamps have a cached entry.
+      if (!allowUncommitted && (stampSequence < 0 || this.stampEntries.get(stampSequence) == 0)) {
          if (getStampService()
                 .isUncommitted(stampSequence)) {
-            return;
+            return latestStamps;
          }
       }
 
-      if (!onRoute(stampSequence)) {
-         return;
+      final int stampEntry = getStampEntry(stampSequence);
+      if ((stampEntry & ON_ROUTE) == 0) {
+         return latestStamps;
       }
 
-      if (stampsForPosition.isEmpty()) {
-         stampsForPosition.add(stampSequence);
-         return;
-      }
-
-      // create a list of values so we don't have any
-      // concurrent modification issues with removing/adding
-      // items to the stampsForPosition.
-      final ImmutableIntSet stampsToCompare = IntSets.immutable.ofAll(stampsForPosition);
+      boolean addStamp = latestCount[0] == 0;
+      int kept = 0;
 
-      stampsToCompare.forEach(prevStamp -> {
-         switch (fastRelativePosition(stampSequence, prevStamp)) {
+      for (int i = 0; i < latestCount[0]; i++) {
+         final int prevStamp = latestStamps[i];
+         switch (fastRelativePosition(stampSequence, stampEntry, prevStamp, getStampEntry(prevStamp))) {
             case AFTER:
-               stampsForPosition.remove(prevStamp);
-               stampsForPosition.add(stampSequence);
-               break;
-
-            case BEFORE:
-               break;
+               addStamp = true;
+               // Drop the previous stamp
+               continue;
 
             case CONTRADICTION:
-               stampsForPosition.add(stampSequence);
+               addStamp = true;
                break;
 
             case EQUAL:
-
-               // Can only have one stampSequence per time/path
-               // combination.
-               if (prevStamp == stampSequence) {
-                  // stampSequence already added from another position.
-                  // No need to add again.
-                  break;
-               }
-
                // Duplicate values encountered.  Likely two stamps at the same time on different modules.
                //TODO this should be using the module preference order to determine which one to put at the top...
-               stampsForPosition.add(stampSequence);
-               break;
-
-            case UNREACHABLE:
-
-               // nothing to do...
+               if (prevStamp != stampSequence) {
+                  addStamp = true;
+               }
                break;
 
             default:
-               throw new UnsupportedOperationException(
-                       "n Can't handle: " + fastRelativePosition(
-                               stampSequence,
-                               prevStamp));
+               // BEFORE and UNREACHABLE leave the previous stamp as latest.
+               break;
          }
-      });
+         latestStamps[kept++] = prevStamp;
+      }
+      latestCount[0] = kept;
 
+      if (addStamp) {
+         for (int i = 0; i < kept; i++) {
+            if (latestStamps[i] == stampSequence) {
+               return latestStamps;
+            }
+         }
+         if (kept == latestStamps.length) {
+            latestStamps = Arrays.copyOf(latestStamps, kept * 2);
+         }
+         latestStamps[latestCount[0]++] = stampSequence;
+      }
+      return latestStamps;
    }
 
    /**
@@ -544,12 +576,7 @@ public class RelativePositionCalculator implements StaticIsaacCache {
    }
 
    private boolean isAllowedState(int stampSequence) {
-      if (stampIsAllowedState.containsKey(stampSequence)) {
-         return stampIsAllowedState.get(stampSequence);
-      }
-      boolean allowed = this.allowedStates.contains(getStampService().getStatusForStamp(stampSequence));
-      stampIsAllowedState.put(stampSequence, allowed);
-      return allowed;
+      return (getStampEntry(stampSequence) & ALLOWED_STATE) != 0;
    }
    
    /**
@@ -612,17 +639,13 @@ public class RelativePositionCalculator implements StaticIsaacCache {
    }
 
    /**
-    * Gets the latest (committed only) stamp sequences as a sorted set in an array.
+    * Gets the latest (committed only) stamp sequences as a set in an array.
     *
     * @param stampSequences the stamp sequence stream
-    * @return the latest stamp sequences as a sorted set in an array
+    * @return the latest stamp sequences as a set in an array
     */
    public int[] getLatestCommittedStampSequencesAsSet(int[] stampSequences) {
-      MutableIntSet stampsForPosition = IntSets.mutable.empty();
-      for (int stampToCompare: stampSequences) {
-         handleStamp(stampsForPosition, stampToCompare, false);
-      }
-      return getResults(stampsForPosition);
+      return getLatestStampSequences(stampSequences, false);
    }
 
    /**
@@ -636,24 +659,23 @@ public class RelativePositionCalculator implements StaticIsaacCache {
     * latest stamps match the allowed states of the stamp coordinate.
     */
    public int[] getLatestStampSequencesAsSet(int[] stampSequences) {
+      return getLatestStampSequences(stampSequences, true);
+   }
 
-      MutableIntSet stampsForPosition = IntSets.mutable.empty();
+   private int[] getLatestStampSequences(int[] stampSequences, boolean allowUncommitted) {
+      int[] latestStamps = new int[2];
+      final int[] latestCount = new int[1];
       for (int stampToCompare: stampSequences) {
-         handleStamp(stampsForPosition, stampToCompare, true);
+         latestStamps = handleStamp(latestStamps, latestCount, stampToCompare, allowUncommitted);
       }
 
-      return getResults(stampsForPosition);
-   }
-
-   private int[] getResults(MutableIntSet stampsForPosition) {
-      MutableIntSet resultList = IntSets.mutable.of();
-
-      stampsForPosition.forEach(stampSequence -> {
-         if (isAllowedState(stampSequence)) {
-            resultList.add(stampSequence);
+      int resultCount = 0;
+      for (int i = 0; i < latestCount[0]; i++) {
+         if (isAllowedState(latestStamps[i])) {
+            latestStamps[resultCount++] = latestStamps[i];
          }
-      });
-      return resultList.toArray();
+      }
+      return Arrays.copyOf(latestStamps, resultCount);
    }
 
    /**
@@ -0,0 +1,86 @@
+package sh.isaac.api.snapshot.calculator;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * A dense, lazily filled array of int entries indexed by stamp sequence, so a
+ * {@link RelativePositionCalculator} can answer per stamp questions without hashing or boxing the
+ * stamp sequence. An entry of zero means not yet computed, so computed entries must be non-zero.
+ * <p>
+ * The array is held in chunks, and the chunk directory is replaced when it must grow. Entries are
+ * published with release semantics, so a reader never sees a partially computed entry.
+ */
+final class StampEntryIndex {
+
+    private static final int CHUNK_SHIFT = 12;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private static final VarHandle ENTRY_HANDLE = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private final AtomicReference<int[][]> chunksReference = new AtomicReference<>(new int[16][]);
+
+    /**
+     * @param stampSequence a non-negative stamp sequence
+     * @return the entry for the stamp, or zero if it has not been computed.
+     */
+    int get(int stampSequence) {
+        int[][] chunks = chunksReference.get();
+        int chunkIndex = stampSequence >>> CHUNK_SHIFT;
+        if (chunkIndex < chunks.length) {
+            int[] chunk = chunks[chunkIndex];
+            if (chunk != null) {
+                return (int) ENTRY_HANDLE.getAcquire(chunk, stampSequence & CHUNK_MASK);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Get the entry for the stamp, computing and storing it if it has not been computed. If the
+     * computed entry is zero, it is returned but not stored.
+     *
+     * @param stampSequence a non-negative stamp sequence
+     * @param computer computes the entry for a stamp sequence
+     * @return the entry
+     */
+    int computeIfAbsent(int stampSequence, IntUnaryOperator computer) {
+        int entry = get(stampSequence);
+        if (entry != 0) {
+            return entry;
+        }
+        entry = computer.applyAsInt(stampSequence);
+        if (entry != 0) {
+            ENTRY_HANDLE.setRelease(getChunk(stampSequence >>> CHUNK_SHIFT), stampSequence & CHUNK_MASK, entry);
+        }
+        return entry;
+    }
+
+    private int[] getChunk(int chunkIndex) {
+        int[][] chunks = chunksReference.get();
+        if (chunkIndex < chunks.length && chunks[chunkIndex] != null) {
+            return chunks[chunkIndex];
+        }
+        return addChunk(chunkIndex);
+    }
+
+    private synchronized int[] addChunk(int chunkIndex) {
+        int[][] chunks = chunksReference.get();
+        if (chunkIndex >= chunks.length) {
+            int[][] newChunks = new int[Math.max(chunks.length * 2, chunkIndex + 1)][];
+            System.arraycopy(chunks, 0, newChunks, 0, chunks.length);
+            chunks = newChunks;
+        }
+        if (chunks[chunkIndex] == null) {
+            // Copy rather than set in place, so readers of the current directory see a complete array.
+            int[][] newChunks = chunks.clone();
+            newChunks[chunkIndex] = new int[CHUNK_SIZE];
+            chunks = newChunks;
+        }
+        chunksReference.set(chunks);
+        return chunks[chunkIndex];
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2018 Organizations participating in ISAAC, ISAAC's KOMET, and SOLOR development include the
+         US Veterans Health Administration, OSHERA, and the Health Services Platform Consortium..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.model;
+
+import java.util.function.IntPredicate;
+import sh.isaac.api.externalizable.ByteArrayDataBuffer;
+import sh.isaac.api.externalizable.IsaacExternalizable;
+import sh.isaac.api.externalizable.IsaacObjectType;
+import sh.isaac.model.concept.ConceptChronologyImpl;
+import sh.isaac.model.semantic.SemanticChronologyImpl;
+
+/**
+ * A change set record with only some of the versions of a chronology, usually the versions of one commit.
+ * The record is a delta type header, followed by an ordinary concept or semantic record that has the
+ * chronology fields and just those versions. A delta is imported by adding its versions to the stored
+ * chronology, without reading the stored chronology to find the versions it already has.
+ *
+ * @author kec
+ */
+public class ChronologyDelta implements IsaacExternalizable {
+
+    private final ChronologyImpl chronology;
+
+    /**
+     * Not written by the JSON change set writer, which writes the chronology.
+     */
+    private final transient IntPredicate stampsToWrite;
+
+    /**
+     * @param chronology the chronology
+     * @param stampsToWrite accepts the stamp sequences of the versions to write
+     */
+    public ChronologyDelta(ChronologyImpl chronology, IntPredicate stampsToWrite) {
+        this.chronology = chronology;
+        this.stampsToWrite = stampsToWrite;
+    }
+
+    /**
+     * Read a delta, with the buffer positioned after the delta type header.
+     *
+     * @param data the data
+     * @param deltaType the type of the delta
+     * @return the delta, with a chronology holding only the versions of the delta
+     */
+    public static ChronologyDelta make(ByteArrayDataBuffer data, IsaacObjectType deltaType) {
+        switch (deltaType) {
+            case CONCEPT_DELTA:
+                IsaacObjectType.CONCEPT.readAndValidateHeader(data);
+                return new ChronologyDelta(ConceptChronologyImpl.make(data), (stampSequence) -> true);
+            case SEMANTIC_DELTA:
+                IsaacObjectType.SEMANTIC.readAndValidateHeader(data);
+                return new ChronologyDelta(SemanticChronologyImpl.make(data), (stampSequence) -> true);
+            default:
+                throw new UnsupportedOperationException("Not a delta type: " + deltaType);
+        }
+    }
+
+    /**
+     * @return the chronology, which when read from a change set holds only the versions of the delta
+     */
+    public ChronologyImpl getChronology() {
+        return this.chronology;
+    }
+
+    @Override
+    public void putExternal(ByteArrayDataBuffer out) {
+        out.setExternalData(true);
+        getIsaacObjectType().writeTypeVersionHeader(out);
+        this.chronology.putExternal(out, this.stampsToWrite);
+    }
+
+    @Override
+    public IsaacObjectType getIsaacObjectType() {
+        switch (this.chronology.getIsaacObjectType()) {
+            case CONCEPT:
+                return IsaacObjectType.CONCEPT_DELTA;
+            case SEMANTIC:
+                return IsaacObjectType.SEMANTIC_DELTA;
+            default:
+                throw new UnsupportedOperationException("Can't make a delta of: " + this.chronology.getIsaacObjectType());
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ChronologyDelta{" + this.chronology + '}';
+    }
+}
@@ -40,6 +40,7 @@ import java.nio.ByteBuffer;
 import java.util.*;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntPredicate;
 import java.util.stream.Collectors;
 import java.util.stream.LongStream;
 import org.apache.logging.log4j.LogManager;
@@ -123,6 +124,33 @@ public abstract class ChronologyImpl
      */
     private final CopyOnWriteArrayList<Version> writtenVersions = new CopyOnWriteArrayList<>();
 
+    /**
+     * The version records not yet decoded, when the chronology was read for its latest versions
+     * only. Null once every version is decoded.
+     */
+    private volatile UndecodedVersions undecodedVersions;
+
+    /**
+     * Version records left in the data buffer by {@link #readData(ByteArrayDataBuffer, RelativePositionCalculator)},
+     * together with the calculator that selected the decoded versions, and the latest stamps it found.
+     */
+    private static final class UndecodedVersions {
+        final ByteArrayDataBuffer data;
+        final int[] stampSequences;
+        final int[] stampPositions;
+        final RelativePositionCalculator calculator;
+        final int[] latestStampSequences;
+
+        UndecodedVersions(ByteArrayDataBuffer data, int[] stampSequences, int[] stampPositions,
+                RelativePositionCalculator calculator, int[] latestStampSequences) {
+            this.data = data;
+            this.stampSequences = stampSequences;
+            this.stampPositions = stampPositions;
+            this.calculator = calculator;
+            this.latestStampSequences = latestStampSequences;
+        }
+    }
+
     /**
      * No argument constructor for reconstituting an object previously
      * serialized together with the readData(ByteArrayDataBuffer data) method.
@@ -137,6 +165,7 @@ public abstract class ChronologyImpl
      * @return true if uncommitted versions where removed. 
      */
     public boolean removeUncommittedVersions() {
+        decodeVersions();
         boolean anyRemoved = false;
         if (this.unwrittenVersions != null) {
             List<Version> toRemove = new ArrayList<>();
@@ -263,13 +292,25 @@ public abstract class ChronologyImpl
      */
     @Override
     public final void putExternal(ByteArrayDataBuffer out) {
+        putExternal(out, (stampSequence) -> true);
+    }
+
+    /**
+     * Write a binary representation of this chronicle, with only the versions
+     * whose stamps are accepted, to the ByteArrayDataBuffer using externally
+     * valid identifiers.
+     *
+     * @param out the buffer to write to.
+     * @param stampsToWrite accepts the stamp sequences of the versions to write
+     */
+    public final void putExternal(ByteArrayDataBuffer out, IntPredicate stampsToWrite) {
         out.setExternalData(true);
         writeChronicleData(out);
 
         // add versions...
         getVersionList().forEach(
                 (version) -> {
-                    if (Get.stampService()
+                    if (stampsToWrite.test(version.getStampSequence()) && Get.stampService()
                             .isNotCanceled(version.getStampSequence())) {
                         writeVersion(out, version);
                     }
@@ -343,6 +384,11 @@ public abstract class ChronologyImpl
      * @param version the version to add
      */
     public <V extends Version> void addVersion(V version) {
+        decodeVersions();
+        addDecodedVersion(version);
+    }
+
+    private void addDecodedVersion(Version version) {
         if (version.isUncommitted()) {
             this.unwrittenVersions.add(version);
         } else {
@@ -399,6 +445,19 @@ public abstract class ChronologyImpl
      * @param data the data
      */
     protected void readData(ByteArrayDataBuffer data) {
+        readData(data, null);
+    }
+
+    /**
+     * Reads data from the ByteArrayDataBuffer, decoding only the latest versions for the
+     * calculator if the data is internal. The other versions are decoded from the retained buffer
+     * the first time they are needed.
+     *
+     * @param data the data
+     * @param calculator the calculator that selects the versions to decode, or null to decode
+     * all versions
+     */
+    protected void readData(ByteArrayDataBuffer data, RelativePositionCalculator calculator) {
         if (data.getObjectDataFormatVersion() != getIsaacObjectType().getDataFormatVersion()) {
             throw new UnsupportedOperationException(
                     "Can't handle data format version: " + data.getObjectDataFormatVersion());
@@ -431,7 +490,11 @@ public abstract class ChronologyImpl
             setAdditionalChronicleFieldsFromBuffer(data);
             constructorEnd(data);
         }
-        readVersionList(data);
+        if (calculator == null || data.isExternalData()) {
+            readVersionList(data);
+        } else {
+            readLatestVersionList(data, calculator);
+        }
         if (data.isExternalData()) {
             ModelGet.identifierService().setupNid(this.nid, this.assemblageNid, this.getIsaacObjectType(), this.getVersionType());
         }
@@ -514,7 +577,7 @@ public abstract class ChronologyImpl
                 final int stampSequence = bb.getStampSequence();
 
                 if (stampSequence >= 0) {
-                    addVersion(makeVersion(stampSequence, bb));
+                    addDecodedVersion(makeVersion(stampSequence, bb));
                 } else {
                     LOG.warn("read a version length, but no stamp sequence? versionLength {}, stampSequence {}, {}", versionLength, stampSequence, bb);
                 }
@@ -524,6 +587,135 @@ public abstract class ChronologyImpl
         }
     }
 
+    /**
+     * Read only the stamp sequence of each version record, and decode the versions whose stamps
+     * are latest for the calculator. The positions of the other records are retained, so they can
+     * be decoded by {@link #decodeVersions()}.
+     *
+     * @param bb the bb
+     * @param calculator the calculator that selects the versions to decode
+     */
+    private void readLatestVersionList(ByteArrayDataBuffer bb, RelativePositionCalculator calculator) {
+        if (bb.getUsed() == 0) {
+            throw new IllegalStateException();
+        }
+        int[] stampSequences = new int[8];
+        int[] stampPositions = new int[8];
+        int versionCount = 0;
+        int nextPosition = bb.getPosition();
+
+        while (nextPosition < bb.getLimit()) {
+            bb.setPosition(nextPosition);
+            final int versionLength = bb.getInt();
+            assert versionLength >= 0 : "Length negative: " + versionLength + " buffer: " + bb;
+            if (versionLength <= 0) {
+                break;
+            }
+            nextPosition = nextPosition + versionLength;
+            final int stampPosition = bb.getPosition();
+            final int stampSequence = bb.getStampSequence();
+
+            if (stampSequence >= 0) {
+                if (versionCount == stampSequences.length) {
+                    stampSequences = Arrays.copyOf(stampSequences, versionCount * 2);
+                    stampPositions = Arrays.copyOf(stampPositions, versionCount * 2);
+                }
+                stampSequences[versionCount] = stampSequence;
+                stampPositions[versionCount] = stampPosition;
+                versionCount++;
+            } else {
+                LOG.warn("read a version length, but no stamp sequence? versionLength {}, stampSequence {}, {}", versionLength, stampSequence, bb);
+            }
+        }
+
+        final int[] latestStampSequences = calculator.getLatestStampSequencesAsSet(
+                getDistinctKeptStampSequences(stampSequences, versionCount));
+        final int[] undecodedStampSequences = new int[versionCount];
+        final int[] undecodedPositions = new int[versionCount];
+        int undecodedCount = 0;
+
+        for (int i = 0; i < versionCount; i++) {
+            if (contains(latestStampSequences, stampSequences[i]) && !getVersionForDecodedStamp(stampSequences[i]).isPresent()) {
+                bb.setPosition(stampPositions[i]);
+                addDecodedVersion(makeVersion(bb.getStampSequence(), bb));
+            } else {
+                undecodedStampSequences[undecodedCount] = stampSequences[i];
+                undecodedPositions[undecodedCount] = stampPositions[i];
+                undecodedCount++;
+            }
+        }
+        if (undecodedCount > 0) {
+            this.undecodedVersions = new UndecodedVersions(bb, Arrays.copyOf(undecodedStampSequences, undecodedCount),
+                    Arrays.copyOf(undecodedPositions, undecodedCount), calculator, latestStampSequences);
+        }
+    }
+
+    /**
+     * @return the distinct stamp sequences, less those whose versions {@link #addDecodedVersion(Version)}
+     * discards, so the calculator sees the same stamps as {@link #getVersionStampSequences()}
+     * would return once every version is decoded.
+     */
+    private static int[] getDistinctKeptStampSequences(int[] stampSequences, int count) {
+        final int[] sorted = Arrays.copyOf(stampSequences, count);
+        Arrays.sort(sorted);
+        int distinctCount = 0;
+        for (int i = 0; i < count; i++) {
+            final int stampSequence = sorted[i];
+            if ((distinctCount == 0 || sorted[distinctCount - 1] != stampSequence) && isKept(stampSequence)) {
+                sorted[distinctCount++] = stampSequence;
+            }
+        }
+        return Arrays.copyOf(sorted, distinctCount);
+    }
+
+    private static boolean isKept(int stampSequence) {
+        if (Get.stampService().isUncommitted(stampSequence)) {
+            return true;
+        }
+        return Get.stampService().getTimeForStamp(stampSequence) != Version.CANCELED_TIME
+                && Get.stampService().getStatusForStamp(stampSequence) != Status.CANCELED;
+    }
+
+    private static boolean contains(int[] values, int value) {
+        for (int candidate : values) {
+            if (candidate == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Decode any version records left undecoded by a latest only read. Called before any access
+     * that needs every version.
+     */
+    private void decodeVersions() {
+        if (this.undecodedVersions != null) {
+            synchronized (this) {
+                final UndecodedVersions toDecode = this.undecodedVersions;
+                if (toDecode != null) {
+                    for (int stampPosition : toDecode.stampPositions) {
+                        toDecode.data.setPosition(stampPosition);
+                        addDecodedVersion(makeVersion(toDecode.data.getStampSequence(), toDecode.data));
+                    }
+                    this.undecodedVersions = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the latest stamp sequences for the calculator, without decoding the remaining
+     * versions if they were left undecoded for the same calculator.
+     */
+    public int[] getLatestStampSequences(RelativePositionCalculator calculator) {
+        final UndecodedVersions undecoded = this.undecodedVersions;
+        if (undecoded != null && undecoded.calculator == calculator) {
+            return undecoded.latestStampSequences;
+        }
+        return calculator.getLatestStampSequencesAsSet(getVersionStampSequences());
+    }
+
     /**
      * Write if not canceled.
      *
@@ -595,6 +787,21 @@ public abstract class ChronologyImpl
      */
     @Override
     public CommitStates getCommitState() {
+        final UndecodedVersions undecoded = this.undecodedVersions;
+        if (undecoded != null) {
+            // Only the stamps are needed, and the decoded versions are those with the latest stamps.
+            for (int stampSequence : undecoded.stampSequences) {
+                if (Get.stampService().isUncommitted(stampSequence)) {
+                    return CommitStates.UNCOMMITTED;
+                }
+            }
+            for (int stampSequence : undecoded.latestStampSequences) {
+                if (Get.stampService().isUncommitted(stampSequence)) {
+                    return CommitStates.UNCOMMITTED;
+                }
+            }
+            return CommitStates.COMMITTED;
+        }
         for (int stampSequence : getVersionStampSequences()) {
             if (Get.stampService()
                     .isUncommitted(stampSequence)) {
@@ -781,7 +988,7 @@ public abstract class ChronologyImpl
     public <V extends Version> LatestVersion<V> getLatestVersion(StampFilter filter) {
         final RelativePositionCalculator calc = filter.getRelativePositionCalculator();
 
-        final int[] latestStampSequences = calc.getLatestStampSequencesAsSet(this.getVersionStampSequences());
+        final int[] latestStampSequences = getLatestStampSequences(calc);
 
         if (latestStampSequences.length == 0) {
             return new LatestVersion<>();
@@ -812,7 +1019,7 @@ public abstract class ChronologyImpl
     @Override
     public boolean isLatestVersionActive(StampFilter filter) {
         final RelativePositionCalculator calc = filter.getRelativePositionCalculator();
-        final int[] latestStampSequences = calc.getLatestStampSequencesAsSet(this.getVersionStampSequences());
+        final int[] latestStampSequences = getLatestStampSequences(calc);
 
         for (int stampSequence : latestStampSequences) {
             if (Get.stampService().getStatusForStamp(stampSequence) == Status.ACTIVE) {
@@ -874,6 +1081,7 @@ public abstract class ChronologyImpl
      */
     @Override
     public <V extends Version> List<V> getUnwrittenVersionList() {
+        decodeVersions();
         final ArrayList<V> results = new ArrayList<>();
 
         if (this.unwrittenVersions != null) {
@@ -911,7 +1119,15 @@ public abstract class ChronologyImpl
      * @return the version with the corresponding stamp sequence
      */
     public <V extends StampedVersion> Optional<V> getVersionForStamp(int stampSequence) {
+        Optional<V> version = getVersionForDecodedStamp(stampSequence);
+        if (!version.isPresent() && this.undecodedVersions != null) {
+            decodeVersions();
+            version = getVersionForDecodedStamp(stampSequence);
+        }
+        return version;
+    }
 
+    private <V extends StampedVersion> Optional<V> getVersionForDecodedStamp(int stampSequence) {
         if (Get.stampService().isUncommitted(stampSequence)) {
             for (Version version : this.unwrittenVersions) {
                 if (version.getStampSequence() == stampSequence) {
@@ -942,6 +1158,7 @@ public abstract class ChronologyImpl
      */
     @Override
     public <V extends Version> List<V> getVersionList() {
+        decodeVersions();
 
         ArrayList<Version> versionList = new ArrayList<>(this.unwrittenVersions.size()
                 + this.writtenVersions.size());
@@ -951,6 +1168,7 @@ public abstract class ChronologyImpl
     }
 
     public CopyOnWriteArrayList<Version> getCommittedVersionList() {
+        decodeVersions();
         return this.writtenVersions;
     }
 
@@ -968,6 +1186,7 @@ public abstract class ChronologyImpl
      */
     @Override
     public int[] getVersionStampSequences() {
+        decodeVersions();
         final OpenIntHashSet builder = new OpenIntHashSet();
 
         for (Version v : this.unwrittenVersions) {
@@ -992,6 +1211,7 @@ public abstract class ChronologyImpl
      * @param versions the new versions
      */
     public <V extends Version> void setVersions(Collection<V> versions) {
+        decodeVersions();
         this.unwrittenVersions.clear();
         this.writtenVersions.clear();
         versions.forEach((V version) -> addVersion(version));
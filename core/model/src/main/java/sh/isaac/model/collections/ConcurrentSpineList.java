@@ -2,26 +2,45 @@ package sh.isaac.model.collections;
 
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntFunction;
 import java.util.function.Supplier;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+/**
+ * A directory of spines that readers can walk without locking or boxing the spine index.
+ * The directory array is replaced (copy-on-grow) when a spine beyond its length is requested.
+ * New spines are only installed, and the directory only grown, while holding this list's monitor,
+ * so a spine installed concurrently with a grow can't be lost in the copy. Readers that see a
+ * stale directory, or an empty slot, fall through to the synchronized path.
+ *
+ * @param <E> the type of spine held by this list.
+ */
 public class ConcurrentSpineList<E extends Object> {
     private static final Logger LOG = LogManager.getLogger();
     private final int incrementSize = 4096;
     private final AtomicReference<AtomicReferenceArray<E>> spineArrayReference = new AtomicReference<>();
-    private final Supplier<E> supplier;
+    private final IntFunction<E> spineFactory;
 
     public ConcurrentSpineList(int size, Supplier<E> supplier) {
+        this(size, (spineIndex) -> supplier.get());
+    }
+
+    public ConcurrentSpineList(int size, IntFunction<E> spineFactory) {
         this.spineArrayReference.set(new AtomicReferenceArray<>(size));
-        this.supplier = supplier;
+        this.spineFactory = spineFactory;
     }
 
     public ConcurrentSpineList(E[] elements, Supplier<E> supplier) {
         this.spineArrayReference.set(new AtomicReferenceArray<>(elements));
-        this.supplier = supplier;
+        this.spineFactory = (spineIndex) -> supplier.get();
     }
 
+    /**
+     * Get the spine at the provided index, creating it with the spine factory if it doesn't yet exist.
+     * @param spineIndex the index of the spine
+     * @return the spine
+     */
     public E getSpine(int spineIndex) {
         AtomicReferenceArray<E> spineArray = spineArrayReference.get();
         if (spineIndex < spineArray.length()) {
@@ -29,13 +48,35 @@ public class ConcurrentSpineList<E extends Object> {
             if (spine != null) {
                 return spine;
             }
-            spineArrayReference.get().compareAndExchange(spineIndex, null, supplier.get());
-            return spineArrayReference.get().get(spineIndex);
         }
-        // need to grow array
-        // need to add spine to array
+        return installSpine(spineIndex);
+    }
+
+    /**
+     * @param spineIndex the index of the spine
+     * @return the spine at the provided index, or null if the spine has not been created.
+     */
+    public E getSpineIfPresent(int spineIndex) {
+        AtomicReferenceArray<E> spineArray = spineArrayReference.get();
+        if (spineIndex < spineArray.length()) {
+            return spineArray.get(spineIndex);
+        }
+        return null;
+    }
+
+    public boolean containsSpine(int spineIndex) {
+        return getSpineIfPresent(spineIndex) != null;
+    }
+
+    private synchronized E installSpine(int spineIndex) {
         growArray(spineIndex);
-        return getSpine(spineIndex);
+        AtomicReferenceArray<E> spineArray = spineArrayReference.get();
+        E spine = spineArray.get(spineIndex);
+        if (spine == null) {
+            spine = spineFactory.apply(spineIndex);
+            spineArray.set(spineIndex, spine);
+        }
+        return spine;
     }
 
     private void growArray(int spineIndex) {
@@ -45,11 +86,11 @@ public class ConcurrentSpineList<E extends Object> {
             for (int i = 0; i < spineArray.length(); i++) {
                 newSpineArray.set(i, spineArray.get(i));
             }
-            spineArrayReference.compareAndSet(spineArray, newSpineArray);
+            spineArrayReference.set(newSpineArray);
         }
     }
 
-    public void setSpine(int spineIndex, E spine) {
+    public synchronized void setSpine(int spineIndex, E spine) {
         AtomicReferenceArray<E> spineArray = spineArrayReference.get();
         if (spineIndex >= spineArray.length()) {
             LOG.debug("Growing for length: " + spineIndex);
@@ -67,7 +108,7 @@ public class ConcurrentSpineList<E extends Object> {
         return spineArrayReference.get().length();
     }
 
-    public void clear() {
+    public synchronized void clear() {
         spineArrayReference.set(new AtomicReferenceArray<>(0));
     }
 
@@ -20,11 +20,12 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
-import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BinaryOperator;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.LogManager;
-import sh.isaac.model.ModelGet;
+import sh.isaac.api.externalizable.ByteArrayDataBuffer;
+import sh.isaac.model.collections.store.ByteArrayArraySpineView;
 import sh.isaac.model.collections.store.ByteArrayArrayStore;
 
 /**
@@ -35,25 +36,82 @@ public class SpinedByteArrayArrayMap extends SpinedIntObjectMap<byte[][]> {
 
     private static final Logger LOG = LogManager.getLogger();
     private final ByteArrayArrayStore byteArrayArrayStore;
+    /**
+     * Views of the spines in the store. Elements are read from these views unless they have been
+     * changed since the spine was last written, in which case they are held in the heap spines
+     * of the superclass until the next write.
+     */
+    private final ConcurrentSpineList<ByteArrayArraySpineView> storedSpines = new ConcurrentSpineList<>(16, this::readStoredSpine);
 
     public SpinedByteArrayArrayMap(ByteArrayArrayStore byteArrayArrayStore) {
         this.byteArrayArrayStore = byteArrayArrayStore;
         spineCount.set(byteArrayArrayStore.getSpineCount());
+        if (spineCount.get() > 0) {
+            ByteArrayArraySpineView firstSpine = storedSpines.getSpine(0);
+            if (firstSpine != ByteArrayArraySpineView.EMPTY && firstSpine.length() != spineSize) {
+                respine(firstSpine.length());
+            }
+        }
+    }
+
+    /**
+     * Databases written before spines were a power of two in size hold spines of a different
+     * length. Redistribute those elements into spines of the current size, and mark every spine
+     * as changed so the next write replaces the files on disk.
+     *
+     * @param storedSpineSize the number of elements per spine in the store.
+     */
+    private void respine(int storedSpineSize) {
+        int storedSpineCount = spineCount.get();
+        LOG.info("Converting " + storedSpineCount + " spines of " + storedSpineSize
+                + " elements to spines of " + spineSize + " elements.");
+        for (int storedSpineIndex = 0; storedSpineIndex < storedSpineCount; storedSpineIndex++) {
+            Optional<AtomicReferenceArray<byte[][]>> optionalSpine = byteArrayArrayStore.get(storedSpineIndex);
+            if (optionalSpine.isPresent()) {
+                AtomicReferenceArray<byte[][]> storedSpine = optionalSpine.get();
+                int elementIndex = storedSpineIndex * storedSpineSize;
+                for (int indexInSpine = 0; indexInSpine < storedSpine.length(); indexInSpine++, elementIndex++) {
+                    byte[][] value = storedSpine.get(indexInSpine);
+                    if (value != null) {
+                        spines.getSpine(elementIndex >>> SPINE_SHIFT).set(elementIndex & SPINE_MASK, value);
+                    }
+                }
+            }
+        }
+        int newSpineCount = spineCount.get();
+        for (int spineIndex = 0; spineIndex < newSpineCount; spineIndex++) {
+            // Stored spines are in the old layout until written, so they must not be read through.
+            storedSpines.setSpine(spineIndex, ByteArrayArraySpineView.EMPTY);
+            spines.getSpine(spineIndex);
+            changedSpineIndexes.add(spineIndex);
+        }
+    }
+
+    private ByteArrayArraySpineView readStoredSpine(int spineIndex) {
+        return this.byteArrayArrayStore.getView(spineIndex).orElse(ByteArrayArraySpineView.EMPTY);
     }
 
     public int sizeOnDisk() {
         return byteArrayArrayStore.sizeOnDisk();
     }
 
+    /**
+     * @return the bytes held in the heap for elements changed since the last write.
+     * Elements that are unchanged since they were written are read from the store.
+     */
     public int memoryInUse() {
         int sizeInBytes = 0;
-        sizeInBytes = sizeInBytes + ((spineSize * 8) * spines.size()); // 8 bytes = pointer to an object
-        for (AtomicReferenceArray<byte[][]> spine : spines.values()) {
-            for (int i = 0; i < spine.length(); i++) {
-                byte[][] value = spine.get(i);
-                if (value != null) {
-                    for (byte[] byteArray : value) {
-                        sizeInBytes = sizeInBytes + byteArray.length + 4; // 4 bytes = integer length of the array of array length. 
+        AtomicReferenceArray<AtomicReferenceArray<byte[][]>> spineArray = spines.getSpines();
+        for (int spineIndex = 0; spineIndex < spineArray.length(); spineIndex++) {
+            AtomicReferenceArray<byte[][]> spine = spineArray.get(spineIndex);
+            if (spine != null) {
+                sizeInBytes = sizeInBytes + (spineSize * 8); // 8 bytes = pointer to an object
+                for (int i = 0; i < spine.length(); i++) {
+                    byte[][] value = spine.get(i);
+                    if (value != null) {
+                        for (byte[] byteArray : value) {
+                            sizeInBytes = sizeInBytes + byteArray.length + 4; // 4 bytes = integer length of the array of array length. 
+                        }
                     }
                 }
             }
@@ -61,87 +119,174 @@ public class SpinedByteArrayArrayMap extends SpinedIntObjectMap<byte[][]> {
         return sizeInBytes;
     }
 
+    /**
+     * Write the changed spines to the store. Once a spine is written, its elements are read back
+     * from the store, and the heap copy of the spine is released.
+     *
+     * @return true if any spines were written.
+     */
+    public boolean write() {
+        if (changedSpineIndexes.isEmpty()) {
+            return false;
+        }
+        lock();
+        try {
+            boolean wroteAny = false;
+            this.byteArrayArrayStore.writeSpineCount(spineCount.get());
+            AtomicReferenceArray<AtomicReferenceArray<byte[][]>> spineArray = spines.getSpines();
+            for (int spineIndex = 0; spineIndex < spineArray.length(); spineIndex++) {
+                AtomicReferenceArray<byte[][]> spine = spineArray.get(spineIndex);
+                if (spine != null && this.changedSpineIndexes.remove(spineIndex)) {
+                    wroteAny = true;
+                    ByteArrayArraySpineView storedSpine = storedSpines.getSpine(spineIndex);
+                    AtomicReferenceArray<byte[][]> spineToWrite = new AtomicReferenceArray<>(spineSize);
+                    for (int indexInSpine = 0; indexInSpine < spineSize; indexInSpine++) {
+                        byte[][] value = spine.get(indexInSpine);
+                        spineToWrite.set(indexInSpine, value != null ? value : storedSpine.get(indexInSpine));
+                    }
+                    this.byteArrayArrayStore.put(spineIndex, spineToWrite);
+                    // Readers see the new stored spine before the heap spine is released.
+                    storedSpines.setSpine(spineIndex, readStoredSpine(spineIndex));
+                    spines.setSpine(spineIndex, null);
+                }
+            }
+            return wroteAny;
+        } finally {
+            release();
+        }
+    }
+
     @Override
-    protected AtomicReferenceArray<byte[][]> newSpine(Integer spineKey) {
-        if (spineKey < this.spineCount.get()) {
-            return readSpine(spineKey);
+    public byte[][] get(int index) {
+        index = toElementIndex(index);
+        int spineIndex = index >>> SPINE_SHIFT;
+        int indexInSpine = index & SPINE_MASK;
+        AtomicReferenceArray<byte[][]> spine = this.spines.getSpineIfPresent(spineIndex);
+        if (spine != null) {
+            byte[][] value = spine.get(indexInSpine);
+            if (value != null) {
+                return value;
+            }
         }
-        return makeNewSpine(spineKey);
+        return this.storedSpines.getSpine(spineIndex).get(indexInSpine);
     }
 
+    /**
+     * Get the element in the form returned by {@link ByteArrayDataBuffer#dataArrayToBuffer(byte[][])}.
+     * Elements that are unchanged since the last write are copied directly from the store,
+     * without decoding them into a byte[][].
+     *
+     * @param index the element index or nid
+     * @return the element as a data buffer, or null if the element is not present.
+     */
+    public ByteArrayDataBuffer getDataBuffer(int index) {
+        index = toElementIndex(index);
+        int spineIndex = index >>> SPINE_SHIFT;
+        int indexInSpine = index & SPINE_MASK;
+        AtomicReferenceArray<byte[][]> spine = this.spines.getSpineIfPresent(spineIndex);
+        if (spine != null) {
+            byte[][] value = spine.get(indexInSpine);
+            if (value != null) {
+                return ByteArrayDataBuffer.dataArrayToBuffer(value);
+            }
+        }
+        return this.storedSpines.getSpine(spineIndex).getDataBuffer(indexInSpine);
+    }
 
-    private AtomicReferenceArray<byte[][]> readSpine(int spineIndex) {
-        Optional<AtomicReferenceArray<byte[][]>> optionalSpine = this.byteArrayArrayStore.get(spineIndex);
-        if (optionalSpine.isPresent()) {
-            return this.spines.putIfAbsent(spineIndex, optionalSpine.get());
+    @Override
+    public boolean containsKey(int index) {
+        index = toElementIndex(index);
+        int spineIndex = index >>> SPINE_SHIFT;
+        int indexInSpine = index & SPINE_MASK;
+        AtomicReferenceArray<byte[][]> spine = this.spines.getSpineIfPresent(spineIndex);
+        if (spine != null && spine.get(indexInSpine) != null) {
+            return true;
         }
-        return this.spines.putIfAbsent(spineIndex, makeNewSpine(spineIndex));
-        
+        return this.storedSpines.getSpine(spineIndex).contains(indexInSpine);
     }
 
-    public boolean write() {
-        lock();
+    /**
+     * Get the heap spine for an element that is about to change, copying the stored element
+     * into the heap spine so the change is applied to the current value.
+     */
+    private AtomicReferenceArray<byte[][]> getSpineForUpdate(int spineIndex, int indexInSpine) {
+        AtomicReferenceArray<byte[][]> spine = this.spines.getSpine(spineIndex);
+        if (spine.get(indexInSpine) == null) {
+            byte[][] storedValue = this.storedSpines.getSpine(spineIndex).get(indexInSpine);
+            if (storedValue != null) {
+                spine.compareAndSet(indexInSpine, null, storedValue);
+            }
+        }
+        return spine;
+    }
+
+    @Override
+    public boolean put(int index, byte[][] element) {
+        index = toElementIndex(index);
+        int spineIndex = index >>> SPINE_SHIFT;
+        int indexInSpine = index & SPINE_MASK;
+        acquireWritePermit();
         try {
-            AtomicBoolean wroteAny = new AtomicBoolean(false);
-            this.byteArrayArrayStore.writeSpineCount(spineCount.get());
-            spines.forEach((Integer spineIndex, AtomicReferenceArray<byte[][]> spine) -> {
-                boolean spineChanged = this.changedSpineIndexes.contains(spineIndex);
-                
-                if (spineChanged) {
-                    wroteAny.set(true);
-                    this.changedSpineIndexes.remove(spineIndex);
-                    this.byteArrayArrayStore.put(spineIndex, spine);
-                }
-                
-            });
-            return wroteAny.get();
+            // Marked while holding a permit, so a concurrent write can't clear the mark before the change is made.
+            this.changedSpineIndexes.add(spineIndex);
+            AtomicReferenceArray<byte[][]> spine = getSpineForUpdate(spineIndex, indexInSpine);
+            boolean returnValue = spine.get(indexInSpine) != null;
+            spine.accumulateAndGet(indexInSpine, element, this::merge);
+            return returnValue;
         } finally {
-            release();
+            releaseWritePermit();
         }
     }
 
     @Override
-    public byte[][] get(int index) {
-        index = indexToSpineIndex(index);
-        int spineIndex = index / spineSize;
-        int indexInSpine = index % spineSize;
-        if (spineIndex < this.spineCount.get()) {
-            if (!this.spines.containsKey(spineIndex)) {
-                readSpine(spineIndex);
+    public byte[][] getAndSet(int index, byte[][] element) {
+        index = toElementIndex(index);
+        int spineIndex = index >>> SPINE_SHIFT;
+        int indexInSpine = index & SPINE_MASK;
+        acquireWritePermit();
+        try {
+            this.changedSpineIndexes.add(spineIndex);
+            return getSpineForUpdate(spineIndex, indexInSpine).getAndSet(indexInSpine, element);
+        } finally {
+            releaseWritePermit();
+        }
+    }
+
+    @Override
+    public byte[][] accumulateAndGet(int index, byte[][] x, BinaryOperator<byte[][]> accumulatorFunction) {
+        index = toElementIndex(index);
+        int spineIndex = index >>> SPINE_SHIFT;
+        int indexInSpine = index & SPINE_MASK;
+        acquireWritePermit();
+        try {
+            this.changedSpineIndexes.add(spineIndex);
+            return getSpineForUpdate(spineIndex, indexInSpine).accumulateAndGet(indexInSpine, x, accumulatorFunction);
+        } finally {
+            releaseWritePermit();
+        }
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        int end = spineSize * spineCount.get();
+        for (int index = 0; index < end; index++) {
+            if (containsKey(index)) {
+                size++;
             }
         }
-        return this.spines.computeIfAbsent(spineIndex, this::newSpine).get(indexInSpine);
+        return size;
     }
 
     @Override
-    public boolean put(int index, byte[][] element) {
-        index = indexToSpineIndex(index);
-        int spineIndex = index / spineSize;
-        int indexInSpine = index % spineSize;
-        if (spineIndex < this.spineCount.get()) {
-            if (!this.spines.containsKey(spineIndex)) {
-                readSpine(spineIndex);
+    public void forEach(IntBiConsumer<byte[][]> consumer) {
+        int end = spineSize * spineCount.get();
+        for (int index = 0; index < end; index++) {
+            byte[][] element = get(index);
+            if (element != null) {
+                consumer.accept(index, element);
             }
         }
-        this.changedSpineIndexes.add(spineIndex);
-        
-        
-        AtomicReferenceArray<byte[][]> spine = this.spines.computeIfAbsent(spineIndex, this::newSpine);
-        boolean returnValue = spine.get(indexInSpine) != null;
-        spine.accumulateAndGet(indexInSpine, element, this::merge);
-        return returnValue;
-    }
-
-    private int indexToSpineIndex(int index) {
-        if (index < 0) {
-           if (ModelGet.sequenceStore() != null) {
-                index = ModelGet.sequenceStore().getElementSequenceForNid(index);
-             }
-             else {
-                index = Integer.MAX_VALUE + index;
-             }
-        }
-        return index;
     }
 
     private static int compare(byte[] one, byte[] another) {
@@ -43,7 +43,9 @@ public class SpinedIntIntArrayMap implements IntObjectMap<int[]> {
 
     private static final Logger LOG = LogManager.getLogger();
 
-    private static final int DEFAULT_ELEMENTS_PER_SPINE = 1024;
+    private static final int SPINE_SHIFT = 10;
+    private static final int DEFAULT_ELEMENTS_PER_SPINE = 1 << SPINE_SHIFT;
+    private static final int SPINE_MASK = DEFAULT_ELEMENTS_PER_SPINE - 1;
 
     protected final IntIntArrayStore intIntArrayStore;
     protected final int elementsPerSpine;
@@ -90,6 +92,9 @@ public class SpinedIntIntArrayMap implements IntObjectMap<int[]> {
     }
 
     public boolean write() {
+        if (changedSpineIndexes.isEmpty()) {
+            return false;
+        }
         AtomicBoolean wroteAny = new AtomicBoolean(false);
         this.intIntArrayStore.writeSpineCount(spines.getSpineCount());
         int length = this.spines.getSpineCount();
@@ -125,8 +130,8 @@ public class SpinedIntIntArrayMap implements IntObjectMap<int[]> {
                 index = Integer.MAX_VALUE + index;
             }
         }
-        int spineIndex = index / elementsPerSpine;
-        int indexInSpine = index % elementsPerSpine;
+        int spineIndex = index >>> SPINE_SHIFT;
+        int indexInSpine = index & SPINE_MASK;
         this.changedSpineIndexes.add(spineIndex);
         return this.spines.getSpine(spineIndex).getAndSet(indexInSpine, element) == null;
     }
@@ -143,8 +148,8 @@ public class SpinedIntIntArrayMap implements IntObjectMap<int[]> {
                 index = Integer.MAX_VALUE + index;
             }
         }
-        int spineIndex = index / elementsPerSpine;
-        int indexInSpine = index % elementsPerSpine;
+        int spineIndex = index >>> SPINE_SHIFT;
+        int indexInSpine = index & SPINE_MASK;
         return this.spines.getSpine(spineIndex).get(indexInSpine);
     }
 
@@ -168,8 +173,8 @@ public class SpinedIntIntArrayMap implements IntObjectMap<int[]> {
                 index = Integer.MAX_VALUE + index;
             }
         }
-        int spineIndex = index / elementsPerSpine;
-        int indexInSpine = index % elementsPerSpine;
+        int spineIndex = index >>> SPINE_SHIFT;
+        int indexInSpine = index & SPINE_MASK;
         this.changedSpineIndexes.add(spineIndex);
         return this.spines.getSpine(spineIndex).getAndSet(indexInSpine, element);
     }
@@ -194,8 +199,8 @@ public class SpinedIntIntArrayMap implements IntObjectMap<int[]> {
                 index = Integer.MAX_VALUE + index;
             }
         }
-        int spineIndex = index / elementsPerSpine;
-        int indexInSpine = index % elementsPerSpine;
+        int spineIndex = index >>> SPINE_SHIFT;
+        int indexInSpine = index & SPINE_MASK;
         return this.spines.getSpine(spineIndex).get(indexInSpine) != null;
     }
 
@@ -224,8 +229,8 @@ public class SpinedIntIntArrayMap implements IntObjectMap<int[]> {
                 index = Integer.MAX_VALUE + index;
             }
         }
-        int spineIndex = index / elementsPerSpine;
-        int indexInSpine = index % elementsPerSpine;
+        int spineIndex = index >>> SPINE_SHIFT;
+        int indexInSpine = index & SPINE_MASK;
         this.changedSpineIndexes.add(spineIndex);
         return this.spines.getSpine(spineIndex)
                 .accumulateAndGet(indexInSpine, x, accumulatorFunction);
@@ -26,13 +26,12 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.Spliterator;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.function.IntConsumer;
 import java.util.function.IntUnaryOperator;
 import java.util.function.Supplier;
@@ -50,9 +49,11 @@ public class SpinedIntIntMap {
 
     private static final Logger LOG = LogManager.getLogger();
 
-    private static final int DEFAULT_SPINE_SIZE = 1024;
+    private static final int SPINE_SHIFT = 10;
+    private static final int DEFAULT_SPINE_SIZE = 1 << SPINE_SHIFT;
+    private static final int SPINE_MASK = DEFAULT_SPINE_SIZE - 1;
     private final int spineSize;
-    private final ConcurrentMap<Integer, AtomicIntegerArray> spines = new ConcurrentHashMap<>();
+    private final ConcurrentSpineList<AtomicIntegerArray> spines = new ConcurrentSpineList<>(16, this::newSpine);
     private final int INITIALIZATION_VALUE = Integer.MAX_VALUE;
 
     private final Semaphore diskSemaphore = new Semaphore(1);
@@ -65,7 +66,12 @@ public class SpinedIntIntMap {
 
     public int sizeInBytes() {
         int sizeInBytes = 0;
-        sizeInBytes = sizeInBytes + ((spineSize * 4) * spines.size()); // 4 bytes = bytes of 32 bit integer
+        AtomicReferenceArray<AtomicIntegerArray> spineArray = spines.getSpines();
+        for (int spineIndex = 0; spineIndex < spineArray.length(); spineIndex++) {
+            if (spineArray.get(spineIndex) != null) {
+                sizeInBytes = sizeInBytes + (spineSize * 4); // 4 bytes = bytes of 32 bit integer
+            }
+        }
         return sizeInBytes;
     }
 
@@ -92,7 +98,7 @@ public class SpinedIntIntMap {
                     for (int i = 0; i < arraySize; i++) {
                         spineArray[i] = dis.readInt();
                     }
-                    spines.put(spine, new AtomicIntegerArray(spineArray));
+                    spines.setSpine(spine, new AtomicIntegerArray(spineArray));
                 } catch (IOException ex) {
                     LOG.error(ex);
                     throw new RuntimeException(ex);
@@ -105,16 +111,25 @@ public class SpinedIntIntMap {
     }
 
     public boolean write(File directory) {
+        if (changedSpineIndexes.isEmpty()) {
+            return false;
+        }
         AtomicBoolean wroteAny = new AtomicBoolean(false);
         
         try {
             SpineFileUtil.writeSpineCount(directory, spineCount.get());
-            spines.forEach((Integer key, AtomicIntegerArray spine) -> {
+            AtomicReferenceArray<AtomicIntegerArray> spineArray = spines.getSpines();
+            for (int key = 0; key < spineArray.length(); key++) {
+                AtomicIntegerArray spine = spineArray.get(key);
+                if (spine == null) {
+                    continue;
+                }
                 String spineKey = SpineFileUtil.SPINE_PREFIX + key;
                 boolean spineChanged = changedSpineIndexes.contains(key);
                 
                 if (spineChanged) {
                     wroteAny.set(true);
+                    changedSpineIndexes.remove(key);
                     File spineFile = new File(directory, spineKey);
                     diskSemaphore.acquireUninterruptibly();
                     try (DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(spineFile)))) {
@@ -130,7 +145,7 @@ public class SpinedIntIntMap {
                     }
                 }
                 
-            });
+            }
         } catch (IOException ex) {
             LOG.error(ex);
             throw new RuntimeException(ex);
@@ -138,14 +153,14 @@ public class SpinedIntIntMap {
         return wroteAny.get();
     }
 
-    private AtomicIntegerArray newSpine(Integer spineKey) {
+    private AtomicIntegerArray newSpine(int spineKey) {
         int[] spine = new int[spineSize];
         Arrays.fill(spine, INITIALIZATION_VALUE);
-        this.spineCount.set(Math.max(this.spineCount.get(), spineKey + 1));
+        this.spineCount.accumulateAndGet(spineKey + 1, Math::max);
         return new AtomicIntegerArray(spine);
     }
 
-    public ConcurrentMap<Integer, AtomicIntegerArray> getSpines() {
+    public ConcurrentSpineList<AtomicIntegerArray> getSpines() {
         return spines;
     }
 
@@ -158,13 +173,13 @@ public class SpinedIntIntMap {
                index = Integer.MAX_VALUE + index;
             }
         }
-        int spineIndex = index / spineSize;
-        int indexInSpine = index % spineSize;
-        if (spineIndex > this.spines.size() + 2) {
+        int spineIndex = index >>> SPINE_SHIFT;
+        int indexInSpine = index & SPINE_MASK;
+        if (spineIndex > this.spineCount.get() + 2) {
             throw new IllegalStateException("Trying to add spine: " + spineIndex + " for: " + index);
         }
         this.changedSpineIndexes.add(spineIndex);
-        this.spines.computeIfAbsent(spineIndex, this::newSpine).set(indexInSpine, element);
+        this.spines.getSpine(spineIndex).set(indexInSpine, element);
     }
 
     public int get(int index) {
@@ -176,9 +191,9 @@ public class SpinedIntIntMap {
                index = Integer.MAX_VALUE + index;
             }
         }
-        int spineIndex = index / spineSize;
-        int indexInSpine = index % spineSize;
-        return this.spines.computeIfAbsent(spineIndex, this::newSpine).get(indexInSpine);
+        int spineIndex = index >>> SPINE_SHIFT;
+        int indexInSpine = index & SPINE_MASK;
+        return this.spines.getSpine(spineIndex).get(indexInSpine);
     }
 
     public int getAndUpdate(int index, IntUnaryOperator generator) {
@@ -190,10 +205,10 @@ public class SpinedIntIntMap {
                index = Integer.MAX_VALUE + index;
             }
         }
-        int spineIndex = index / spineSize;
-        int indexInSpine = index % spineSize;
+        int spineIndex = index >>> SPINE_SHIFT;
+        int indexInSpine = index & SPINE_MASK;
         this.changedSpineIndexes.add(spineIndex);
-        return this.spines.computeIfAbsent(spineIndex, this::newSpine).updateAndGet(indexInSpine, generator);
+        return this.spines.getSpine(spineIndex).updateAndGet(indexInSpine, generator);
     }
 
     public boolean containsKey(int index) {
@@ -205,16 +220,16 @@ public class SpinedIntIntMap {
                index = Integer.MAX_VALUE + index;
             }
         }
-        int spineIndex = index / spineSize;
-        int indexInSpine = index % spineSize;
-        return this.spines.computeIfAbsent(spineIndex, this::newSpine).get(indexInSpine) != INITIALIZATION_VALUE;
+        int spineIndex = index >>> SPINE_SHIFT;
+        int indexInSpine = index & SPINE_MASK;
+        return this.spines.getSpine(spineIndex).get(indexInSpine) != INITIALIZATION_VALUE;
     }
 
     public void forEach(Processor processor) {
         int currentSpineCount = getSpineCount();
         int key = 0;
         for (int spineIndex = 0; spineIndex < currentSpineCount; spineIndex++) {
-            AtomicIntegerArray spine = this.spines.computeIfAbsent(spineIndex, this::newSpine);
+            AtomicIntegerArray spine = this.spines.getSpine(spineIndex);
             for (int indexInSpine = 0; indexInSpine < spineSize; indexInSpine++) {
                 int value = spine.get(indexInSpine);
                 if (value != INITIALIZATION_VALUE) {
@@ -18,8 +18,6 @@ package sh.isaac.model.collections;
 
 import java.util.Optional;
 import java.util.Spliterator;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -46,9 +44,15 @@ public class SpinedIntObjectMap<E> implements IntObjectMap<E> {
     private static final int SEMAPHORE_COUNT = Runtime.getRuntime().availableProcessors() * 2;
     private final Semaphore readWriteSemaphore = new Semaphore(SEMAPHORE_COUNT);
 
-    public static final int DEFAULT_SPINE_SIZE = 5096;
+    /**
+     * Spines are a power of two in size, so an element index is split into a spine index and an
+     * index in spine with a shift and a mask rather than a division and a remainder.
+     */
+    public static final int SPINE_SHIFT = 12;
+    public static final int DEFAULT_SPINE_SIZE = 1 << SPINE_SHIFT;
+    public static final int SPINE_MASK = DEFAULT_SPINE_SIZE - 1;
     protected final int spineSize;
-    protected final ConcurrentMap<Integer, AtomicReferenceArray<E>> spines = new ConcurrentHashMap<>();
+    protected final ConcurrentSpineList<AtomicReferenceArray<E>> spines = new ConcurrentSpineList<>(16, this::newSpine);
     protected final AtomicInteger spineCount = new AtomicInteger();
     protected final ConcurrentSkipListSet<Integer> changedSpineIndexes = new ConcurrentSkipListSet<>();
     private Function<E, String> elementStringConverter;
@@ -99,35 +103,46 @@ public class SpinedIntObjectMap<E> implements IntObjectMap<E> {
         readWriteSemaphore.release(SEMAPHORE_COUNT);
     }
 
-    protected AtomicReferenceArray<E> newSpine(Integer spineKey) {
+    protected void acquireWritePermit() {
+        readWriteSemaphore.acquireUninterruptibly();
+    }
+
+    protected void releaseWritePermit() {
+        readWriteSemaphore.release();
+    }
+
+    protected AtomicReferenceArray<E> newSpine(int spineKey) {
         return makeNewSpine(spineKey);
     }
 
-    public AtomicReferenceArray<E> makeNewSpine(Integer spineKey) {
+    public AtomicReferenceArray<E> makeNewSpine(int spineKey) {
         AtomicReferenceArray<E> spine = new AtomicReferenceArray<>(spineSize);
-        this.spineCount.set(Math.max(this.spineCount.get(), spineKey + 1));
+        this.spineCount.accumulateAndGet(spineKey + 1, Math::max);
         return spine;
     }
 
+    protected static int toElementIndex(int index) {
+        if (index < 0) {
+            if (ModelGet.sequenceStore() != null) {
+                return ModelGet.sequenceStore().getElementSequenceForNid(index);
+            }
+            return Integer.MAX_VALUE + index;
+        }
+        return index;
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public boolean put(int index, E element) {
-        if (index < 0) {
-            if (ModelGet.sequenceStore() != null) {
-                index = ModelGet.sequenceStore().getElementSequenceForNid(index);
-            }
-            else {
-                index = Integer.MAX_VALUE + index;
-            }
-        }
-        int spineIndex = index / spineSize;
-        int indexInSpine = index % spineSize;
+        index = toElementIndex(index);
+        int spineIndex = index >>> SPINE_SHIFT;
+        int indexInSpine = index & SPINE_MASK;
         this.changedSpineIndexes.add(spineIndex);
         readWriteSemaphore.acquireUninterruptibly();
         try {
-            return this.spines.computeIfAbsent(spineIndex, this::newSpine).getAndSet(indexInSpine, element) == null;
+            return this.spines.getSpine(spineIndex).getAndSet(indexInSpine, element) == null;
         } finally {
             readWriteSemaphore.release();
         }
@@ -139,22 +154,8 @@ public class SpinedIntObjectMap<E> implements IntObjectMap<E> {
      */
     @Override
     public E get(int index) {
-        if (index < 0) {
-            if (ModelGet.sequenceStore() != null) {
-                index = ModelGet.sequenceStore().getElementSequenceForNid(index);
-            }
-            else {
-                index = Integer.MAX_VALUE + index;
-            }
-        }
-        int spineIndex = index / spineSize;
-        int indexInSpine = index % spineSize;
-        readWriteSemaphore.acquireUninterruptibly();
-        try {
-            return this.spines.computeIfAbsent(spineIndex, this::newSpine).get(indexInSpine);
-        } finally {
-            readWriteSemaphore.release();
-        }
+        index = toElementIndex(index);
+        return this.spines.getSpine(index >>> SPINE_SHIFT).get(index & SPINE_MASK);
     }
 
 
@@ -164,18 +165,11 @@ public class SpinedIntObjectMap<E> implements IntObjectMap<E> {
     @Override
     public E getAndSet(int index, E element)
     {
-        if (index < 0) {
-             if (ModelGet.sequenceStore() != null) {
-                 index = ModelGet.sequenceStore().getElementSequenceForNid(index);
-             }
-             else {
-                 index = Integer.MAX_VALUE + index;
-             }
-         } 
-        int spineIndex = index/spineSize;
-        int indexInSpine = index % spineSize;
+        index = toElementIndex(index);
+        int spineIndex = index >>> SPINE_SHIFT;
+        int indexInSpine = index & SPINE_MASK;
         this.changedSpineIndexes.add(spineIndex);
-        return this.spines.computeIfAbsent(spineIndex, this::newSpine).getAndSet(indexInSpine, element);
+        return this.spines.getSpine(spineIndex).getAndSet(indexInSpine, element);
     }
 
     /**
@@ -183,22 +177,7 @@ public class SpinedIntObjectMap<E> implements IntObjectMap<E> {
      */
     @Override
     public Optional<E> getOptional(int index) {
-        if (index < 0) {
-            if (ModelGet.sequenceStore() != null) {
-                index = ModelGet.sequenceStore().getElementSequenceForNid(index);
-            }
-            else {
-                index = Integer.MAX_VALUE + index;
-            }
-        }
-        int spineIndex = index / spineSize;
-        int indexInSpine = index % spineSize;
-        readWriteSemaphore.acquireUninterruptibly();
-        try {
-            return Optional.ofNullable(this.spines.computeIfAbsent(spineIndex, this::newSpine).get(indexInSpine));
-        } finally {
-            readWriteSemaphore.release();
-        }
+        return Optional.ofNullable(get(index));
     }
 
     /**
@@ -206,22 +185,7 @@ public class SpinedIntObjectMap<E> implements IntObjectMap<E> {
      */
     @Override
     public boolean containsKey(int index) {
-        if (index < 0) {
-            if (ModelGet.sequenceStore() != null) {
-                index = ModelGet.sequenceStore().getElementSequenceForNid(index);
-            }
-            else {
-                index = Integer.MAX_VALUE + index;
-            }
-        }
-        int spineIndex = index / spineSize;
-        int indexInSpine = index % spineSize;
-        readWriteSemaphore.acquireUninterruptibly();
-        try {
-            return this.spines.computeIfAbsent(spineIndex, this::newSpine).get(indexInSpine) != null;
-        } finally {
-            readWriteSemaphore.release();
-        }
+        return get(index) != null;
     }
 
     /**
@@ -231,41 +195,31 @@ public class SpinedIntObjectMap<E> implements IntObjectMap<E> {
     public int size() {
         int size = 0;
         int currentSpineCount = this.spineCount.get();
-        readWriteSemaphore.acquireUninterruptibly();
-        try {
-            for (int spineIndex = 0; spineIndex < currentSpineCount; spineIndex++) {
-                AtomicReferenceArray<E> spine = this.spines.computeIfAbsent(spineIndex, this::newSpine);
-                for (int indexInSpine = 0; indexInSpine < spineSize; indexInSpine++) {
-                    E element = spine.get(indexInSpine);
-                    if (element != null) {
-                        size++;
-                    }
+        for (int spineIndex = 0; spineIndex < currentSpineCount; spineIndex++) {
+            AtomicReferenceArray<E> spine = this.spines.getSpine(spineIndex);
+            for (int indexInSpine = 0; indexInSpine < spineSize; indexInSpine++) {
+                E element = spine.get(indexInSpine);
+                if (element != null) {
+                    size++;
                 }
             }
-            return size;
-        } finally {
-            readWriteSemaphore.release();
         }
+        return size;
     }
 
     public void forEach(IntBiConsumer<E> consumer) {
         int currentSpineCount = this.spineCount.get();
         int key = 0;
-        readWriteSemaphore.acquireUninterruptibly();
-        try {
-            for (int spineIndex = 0; spineIndex < currentSpineCount; spineIndex++) {
-                AtomicReferenceArray<E> spine = this.spines.computeIfAbsent(spineIndex, this::newSpine);
-                for (int indexInSpine = 0; indexInSpine < spineSize; indexInSpine++) {
-                    E element = spine.get(indexInSpine);
-                    if (element != null) {
-                        consumer.accept(key, (E) element);
-                    }
-                    key++;
+        for (int spineIndex = 0; spineIndex < currentSpineCount; spineIndex++) {
+            AtomicReferenceArray<E> spine = this.spines.getSpine(spineIndex);
+            for (int indexInSpine = 0; indexInSpine < spineSize; indexInSpine++) {
+                E element = spine.get(indexInSpine);
+                if (element != null) {
+                    consumer.accept(key, (E) element);
                 }
-
+                key++;
             }
-        } finally {
-            readWriteSemaphore.release();
+
         }
     }
 
@@ -274,20 +228,13 @@ public class SpinedIntObjectMap<E> implements IntObjectMap<E> {
      */
     @Override
     public E accumulateAndGet(int index, E x, BinaryOperator<E> accumulatorFunction) {
-        if (index < 0) {
-            if (ModelGet.sequenceStore() != null) {
-                index = ModelGet.sequenceStore().getElementSequenceForNid(index);
-            }
-            else {
-                index = Integer.MAX_VALUE + index;
-            }
-        }
-        int spineIndex = index / spineSize;
-        int indexInSpine = index % spineSize;
+        index = toElementIndex(index);
+        int spineIndex = index >>> SPINE_SHIFT;
+        int indexInSpine = index & SPINE_MASK;
         this.changedSpineIndexes.add(spineIndex);
         readWriteSemaphore.acquireUninterruptibly();
         try {
-            return this.spines.computeIfAbsent(spineIndex, this::newSpine)
+            return this.spines.getSpine(spineIndex)
                     .accumulateAndGet(indexInSpine, x, accumulatorFunction);
         } finally {
             readWriteSemaphore.release();
@@ -378,6 +325,6 @@ public class SpinedIntObjectMap<E> implements IntObjectMap<E> {
     }
 
     public boolean containsSpine(int index) {
-        return this.spines.containsKey(index);
+        return this.spines.containsSpine(index);
     }
 }
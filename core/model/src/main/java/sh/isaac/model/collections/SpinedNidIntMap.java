@@ -52,7 +52,9 @@ public class SpinedNidIntMap {
 
     private static final Logger LOG = LogManager.getLogger();
 
-    private static final int DEFAULT_ELEMENTS_PER_SPINE = 1024;
+    private static final int SPINE_SHIFT = 10;
+    private static final int DEFAULT_ELEMENTS_PER_SPINE = 1 << SPINE_SHIFT;
+    private static final int SPINE_MASK = DEFAULT_ELEMENTS_PER_SPINE - 1;
     private final int elementsPerSpine;
     private final ConcurrentSpineList<AtomicIntegerArray> spines = new ConcurrentSpineList<>(16884, this::newSpine);
     private final int INITIALIZATION_VALUE = Integer.MAX_VALUE;
@@ -107,6 +109,9 @@ public class SpinedNidIntMap {
     }
 
     public boolean write(File directory) {
+        if (changedSpineIndexes.isEmpty()) {
+            return false;
+        }
         AtomicBoolean wroteAny = new AtomicBoolean(false);
         try {
             directory.mkdirs();
@@ -171,8 +176,8 @@ public class SpinedNidIntMap {
         if (index < 0) {
             index = Integer.MAX_VALUE + index;
         }
-        int spineIndex = index / elementsPerSpine;
-        int indexInSpine = index % elementsPerSpine;
+        int spineIndex = index >>> SPINE_SHIFT;
+        int indexInSpine = index & SPINE_MASK;
         this.changedSpineIndexes.add(spineIndex);
         this.spines.getSpine(spineIndex).set(indexInSpine, element);
     }
@@ -181,8 +186,8 @@ public class SpinedNidIntMap {
         if (index < 0) {
             index = Integer.MAX_VALUE + index;
         }
-        int spineIndex = index / elementsPerSpine;
-        int indexInSpine = index % elementsPerSpine;
+        int spineIndex = index >>> SPINE_SHIFT;
+        int indexInSpine = index & SPINE_MASK;
         return this.spines.getSpine(spineIndex).get(indexInSpine);
     }
 
@@ -190,8 +195,8 @@ public class SpinedNidIntMap {
         if (index < 0) {
             index = Integer.MAX_VALUE + index;
         }
-        int spineIndex = index / elementsPerSpine;
-        int indexInSpine = index % elementsPerSpine;
+        int spineIndex = index >>> SPINE_SHIFT;
+        int indexInSpine = index & SPINE_MASK;
         AtomicIntegerArray spine = this.spines.getSpine(spineIndex);
         int currentValue = spine.get(indexInSpine);
         if (currentValue != INITIALIZATION_VALUE) {
@@ -205,8 +210,8 @@ public class SpinedNidIntMap {
         if (index < 0) {
             index = Integer.MAX_VALUE + index;
         }
-        int spineIndex = index / elementsPerSpine;
-        int indexInSpine = index % elementsPerSpine;
+        int spineIndex = index >>> SPINE_SHIFT;
+        int indexInSpine = index & SPINE_MASK;
         return this.spines.getSpine(spineIndex).get(indexInSpine) != INITIALIZATION_VALUE;
     }
 
@@ -130,6 +130,9 @@ public class SpinedNidNidSetMap {
      * @return true if data spineChangedArray since last write.
      */
     public boolean write(File directory) {
+        if (changedSpineIndexes.isEmpty()) {
+            return false;
+        }
         AtomicBoolean wroteAny = new AtomicBoolean(false);
         try {
             directory.mkdirs();
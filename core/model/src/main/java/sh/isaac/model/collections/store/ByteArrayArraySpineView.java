@@ -0,0 +1,66 @@
+package sh.isaac.model.collections.store;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import sh.isaac.api.externalizable.ByteArrayDataBuffer;
+
+/**
+ * A read only view of a stored spine of byte[][] elements. Implementations may decode
+ * elements only when they are requested, rather than when the spine is read.
+ */
+public interface ByteArrayArraySpineView {
+
+    ByteArrayArraySpineView EMPTY = of(new AtomicReferenceArray<>(0));
+
+    /**
+     * @return the number of elements in the spine.
+     */
+    int length();
+
+    /**
+     * @param indexInSpine the index of the element in the spine
+     * @return the element, or null if there is no element at that index.
+     */
+    byte[][] get(int indexInSpine);
+
+    /**
+     * @param indexInSpine the index of the element in the spine
+     * @return true if there is an element at that index.
+     */
+    default boolean contains(int indexInSpine) {
+        return get(indexInSpine) != null;
+    }
+
+    /**
+     * @param indexInSpine the index of the element in the spine
+     * @return the element in the form returned by {@link ByteArrayDataBuffer#dataArrayToBuffer(byte[][])},
+     * or null if there is no element at that index.
+     */
+    default ByteArrayDataBuffer getDataBuffer(int indexInSpine) {
+        byte[][] data = get(indexInSpine);
+        if (data == null) {
+            return null;
+        }
+        return ByteArrayDataBuffer.dataArrayToBuffer(data);
+    }
+
+    /**
+     * @param spine a spine already decoded into the heap
+     * @return a view of the provided spine
+     */
+    static ByteArrayArraySpineView of(AtomicReferenceArray<byte[][]> spine) {
+        return new ByteArrayArraySpineView() {
+            @Override
+            public int length() {
+                return spine.length();
+            }
+
+            @Override
+            public byte[][] get(int indexInSpine) {
+                if (indexInSpine < spine.length()) {
+                    return spine.get(indexInSpine);
+                }
+                return null;
+            }
+        };
+    }
+}
@@ -8,6 +8,15 @@ public interface ByteArrayArrayStore {
 
     Optional<AtomicReferenceArray<byte[][]>> get(int spineIndex);
 
+    /**
+     * Unlike {@link #get(int)}, the returned view need not decode the spine into the heap.
+     * @param spineIndex the index of the spine
+     * @return a read only view of the stored spine, or empty if the spine has not been stored.
+     */
+    default Optional<ByteArrayArraySpineView> getView(int spineIndex) {
+        return get(spineIndex).map(ByteArrayArraySpineView::of);
+    }
+
     void put(int spineIndex, AtomicReferenceArray<byte[][]> spine);
 
     int sizeOnDisk();
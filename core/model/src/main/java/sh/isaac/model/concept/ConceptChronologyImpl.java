@@ -55,6 +55,7 @@ import sh.isaac.api.coordinate.LanguageCoordinate;
 import sh.isaac.api.coordinate.LogicCoordinate;
 import sh.isaac.api.coordinate.PremiseType;
 import sh.isaac.api.coordinate.StampFilter;
+import sh.isaac.api.snapshot.calculator.RelativePositionCalculator;
 import sh.isaac.api.externalizable.ByteArrayDataBuffer;
 import sh.isaac.api.externalizable.IsaacExternalizable;
 import sh.isaac.api.externalizable.IsaacObjectType;
@@ -152,6 +153,17 @@ public class ConceptChronologyImpl
     * @return the concept chronology impl
     */
    public static ConceptChronologyImpl make(ByteArrayDataBuffer data) {
+      return make(data, null);
+   }
+
+   /**
+    * Make, decoding only the latest versions for the calculator until other versions are needed.
+    *
+    * @param data the data
+    * @param calculator the calculator that selects the versions to decode, or null to decode all versions
+    * @return the concept chronology impl
+    */
+   public static ConceptChronologyImpl make(ByteArrayDataBuffer data, RelativePositionCalculator calculator) {
       if (data.getUsed() == 0) {
           throw new IllegalStateException();
       }
@@ -160,7 +172,7 @@ public class ConceptChronologyImpl
          throw new UnsupportedOperationException("Data format version not supported: " + data.getObjectDataFormatVersion());
       }
       final ConceptChronologyImpl conceptChronology = new ConceptChronologyImpl();
-      conceptChronology.readData(data);
+      conceptChronology.readData(data, calculator);
       return conceptChronology;
    }
 
@@ -92,8 +92,8 @@ public class ConceptSnapshotImpl
       this.conceptChronology  = conceptChronology;
       this.manifoldCoordinate    = manifoldCoordinate;
 
-      final LatestVersion<ConceptVersion> latestVersion = manifoldCoordinate.getVertexStampFilter()
-              .getRelativePositionCalculator().getLatestVersion(conceptChronology);
+      final LatestVersion<ConceptVersion> latestVersion = conceptChronology.getLatestVersion(
+              manifoldCoordinate.getVertexStampFilter());
       this.snapshotVersion = latestVersion;
    }
 
@@ -16,11 +16,16 @@
  */
 package sh.isaac.model.datastream;
 
+import java.io.BufferedInputStream;
 import java.io.DataInputStream;
 import java.io.EOFException;
 import java.io.FileInputStream;
 import java.io.InputStream;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadPoolExecutor;
@@ -56,6 +61,7 @@ public class BinaryDatastreamReader
     private final Semaphore processingSemaphore;
     private final long bytesToProcess;
     private final AtomicReference<Throwable> exception = new AtomicReference<>();
+    private final boolean processInOrder;
     private ThreadPoolExecutor parsingExecutor;
     
     /**
@@ -63,12 +69,14 @@ public class BinaryDatastreamReader
      * @param action where to send the parsed objects from the file
      * @param path - the file to read
      * @param processInOrder - if true, this runs single threaded, so the ibdf file will be parsed in order.  If false, 
-     * the parsing runs in parallel threads, and may happen out-of-order.
+     * the file is memory mapped and split into ranges of records, which are read and parsed in parallel threads, 
+     * so may happen out-of-order.  See {@link IbdfRecordIndex}.
      */
     public BinaryDatastreamReader(BiConsumer<? super IsaacExternalizable, byte[]> action, Path path, boolean processInOrder) {
         this.action = action;
         this.path = path;
         this.inputStream = null;
+        this.processInOrder = processInOrder;
         this.bytesToProcess = path.toFile().length();
         // TODO Consider replacement with TaskCountManager
         permits = Runtime.getRuntime().availableProcessors() * 2;
@@ -90,6 +98,7 @@ public class BinaryDatastreamReader
         this.action = action;
         this.path = null;
         this.inputStream = is;
+        this.processInOrder = false;
         this.bytesToProcess = -1;
         // TODO Consider replacement with TaskCountManager
         permits = Runtime.getRuntime().availableProcessors() * 2;
@@ -118,48 +127,13 @@ public class BinaryDatastreamReader
 
     @Override
     protected Integer call() throws Exception {
-        try (DataInputStream input = new DataInputStream(path == null ? inputStream : new FileInputStream(path.toFile()))) {
-            long bytesProcessed = 0;
-            int objectCount = 0;
-            while (true) {
-                throwIfException();
-                try
-                {
-                    if (this.bytesToProcess > 0 && bytesProcessed >= this.bytesToProcess) {
-                        //if we are processing a file, we know the byte count, so we can exit without an EOF exception.
-                        break;
-                    }
-                    final int recordSizeInBytes = input.readInt();
-                    objectCount++;
-                    bytesProcessed += 4;
-                    final byte[] objectData = new byte[recordSizeInBytes];
-                    input.readFully(objectData);
-                    bytesProcessed += recordSizeInBytes;
-     
-                    ByteArrayDataBuffer byteArrayDataBuffer = new ByteArrayDataBuffer(objectData);
-                    byteArrayDataBuffer.setExternalData(true);
-                    IsaacExternalizableUnparsed unparsedObject
-                            = new IsaacExternalizableUnparsed(byteArrayDataBuffer);
-                    completedUnitsOfWork(recordSizeInBytes);
-    
-                    this.processingSemaphore.acquireUninterruptibly();
-                    
-                    Processor processor = new Processor(unparsedObject);
-                    parsingExecutor.execute(processor);
-                }
-                catch (EOFException e) {
-                    if (path == null) {
-                        //Normal escape route, if we are processing a passed in stream
-                        break;
-                    }
-                    else {
-                        throw e;
-                    }
-                }
+        try {
+            if (path != null && !processInOrder) {
+                return CompactIbdfFile.isCompact(path) ? readCompactBlocks() : readMapped();
+            }
+            try (InputStream input = new BufferedInputStream(path == null ? inputStream : new FileInputStream(path.toFile()))) {
+                return CompactIbdfFile.isCompact(input) ? readCompactStream(input) : readStream(new DataInputStream(input));
             }
-            this.processingSemaphore.acquireUninterruptibly(permits);
-            throwIfException();
-            return objectCount;
         } finally {
             if (parsingExecutor != Get.executor()) {
                 //they asked for in-order parsing, we need to shut down our own executor
@@ -170,6 +144,135 @@ public class BinaryDatastreamReader
         }
     }
 
+    private int readStream(DataInputStream input) throws Exception {
+        long bytesProcessed = 0;
+        int objectCount = 0;
+        while (true) {
+            throwIfException();
+            try
+            {
+                if (this.bytesToProcess > 0 && bytesProcessed >= this.bytesToProcess) {
+                    //if we are processing a file, we know the byte count, so we can exit without an EOF exception.
+                    break;
+                }
+                final int recordSizeInBytes = input.readInt();
+                objectCount++;
+                bytesProcessed += 4;
+                final byte[] objectData = new byte[recordSizeInBytes];
+                input.readFully(objectData);
+                bytesProcessed += recordSizeInBytes;
+ 
+                ByteArrayDataBuffer byteArrayDataBuffer = new ByteArrayDataBuffer(objectData);
+                byteArrayDataBuffer.setExternalData(true);
+                IsaacExternalizableUnparsed unparsedObject
+                        = new IsaacExternalizableUnparsed(byteArrayDataBuffer);
+                completedUnitsOfWork(recordSizeInBytes);
+
+                this.processingSemaphore.acquireUninterruptibly();
+                
+                Processor processor = new Processor(unparsedObject);
+                parsingExecutor.execute(processor);
+            }
+            catch (EOFException e) {
+                if (path == null) {
+                    //Normal escape route, if we are processing a passed in stream
+                    break;
+                }
+                else {
+                    throw e;
+                }
+            }
+        }
+        this.processingSemaphore.acquireUninterruptibly(permits);
+        throwIfException();
+        return objectCount;
+    }
+
+    /**
+     * Read a compact IBDF stream in order, one block at a time, handing the records to the parsing executor.
+     */
+    private int readCompactStream(InputStream input) throws Exception {
+        CompactIbdfFile.StreamReader reader = new CompactIbdfFile.StreamReader(input);
+        int objectCount = 0;
+        IsaacExternalizableUnparsed unparsedObject;
+        while ((unparsedObject = reader.next()) != null) {
+            throwIfException();
+            objectCount++;
+            this.processingSemaphore.acquireUninterruptibly();
+            parsingExecutor.execute(new Processor(unparsedObject));
+        }
+        this.processingSemaphore.acquireUninterruptibly(permits);
+        throwIfException();
+        return objectCount;
+    }
+
+    /**
+     * Read and parse the blocks of a compact IBDF file in parallel, each block in one task.
+     */
+    private int readCompactBlocks() throws Exception {
+        try (CompactIbdfFile file = CompactIbdfFile.open(path)) {
+            List<Future<?>> futures = new ArrayList<>(file.getBlockCount());
+            for (int block = 0; block < file.getBlockCount(); block++) {
+                final int blockToRead = block;
+                futures.add(Get.executor().submit(() -> {
+                    try {
+                        List<IsaacExternalizableUnparsed> records = file.readBlock(blockToRead);
+                        for (IsaacExternalizableUnparsed unparsedObject : records) {
+                            if (exception.get() != null) {
+                                return;
+                            }
+                            action.accept(unparsedObject.parse(), unparsedObject.getBytes());
+                        }
+                        // The file size is of the compressed blocks, so progress is in proportion to records.
+                        completedUnitsOfWork(this.bytesToProcess * records.size() / Math.max(1, file.size()));
+                    } catch (Throwable t) {
+                        exception.set(t);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            throwIfException();
+            return file.size();
+        }
+    }
+
+    /**
+     * Read and parse ranges of records from a mapping of the file, several ranges per processor, so that
+     * threads that finish small records early can take further ranges.
+     */
+    private int readMapped() throws Exception {
+        IbdfRecordIndex recordIndex = IbdfRecordIndex.open(path);
+        int recordCount = recordIndex.size();
+        int rangeCount = Math.max(1, Math.min(permits * 4, recordCount / 1024));
+        List<Future<?>> futures = new ArrayList<>(rangeCount);
+        for (int range = 0; range < rangeCount; range++) {
+            int start = (int) ((long) recordCount * range / rangeCount);
+            int end = (int) ((long) recordCount * (range + 1) / rangeCount);
+            Spliterator<IsaacExternalizableUnparsed> records = recordIndex.spliterator(start, end);
+            futures.add(Get.executor().submit(() -> {
+                try {
+                    while (exception.get() == null && records.tryAdvance(unparsedObject -> {
+                        IsaacExternalizable isaacObject = unparsedObject.parse();
+                        byte[] objectData = unparsedObject.getBytes();
+                        action.accept(isaacObject, objectData);
+                        completedUnitsOfWork(4 + objectData.length);
+                    })) {
+                        // Parsed and processed in tryAdvance
+                    }
+                } catch (Throwable t) {
+                    exception.set(t);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        throwIfException();
+        return recordCount;
+    }
+
     private void throwIfException() throws Exception {
         if (exception.get() != null) {
             throw new Exception("Exceptions during import", exception.get());
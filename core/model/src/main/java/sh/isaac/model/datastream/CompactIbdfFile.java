@@ -0,0 +1,456 @@
+/*
+ * Copyright 2018 Organizations participating in ISAAC, ISAAC's KOMET, and SOLOR development include the
+         US Veterans Health Administration, OSHERA, and the Health Services Platform Consortium..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.model.datastream;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import sh.isaac.api.externalizable.ByteArrayDataBuffer;
+
+/**
+ * A compact (version 2) IBDF file. Nid and stamp references are written as varint indexes into a UUID table,
+ * rather than as UUIDs, and records are grouped into blocks that are compressed independently, so that blocks
+ * can be decoded by separate threads.
+ * <pre>
+ * int  FORMAT_MAGIC, which is negative, where a version 1 file starts with the length of its first record
+ * int  FORMAT_VERSION
+ * blocks, each:
+ *    int  record count
+ *    int  count of UUIDs first referenced in the block
+ *    int  compressed size of the UUIDs
+ *    int  size of the records
+ *    int  compressed size of the records
+ *    the compressed UUIDs, 16 bytes each, which continue the UUID table
+ *    the compressed records, each an int length followed by that many bytes
+ * int  END_OF_BLOCKS
+ * the block index: int block count, then the long offset and int record count of each block
+ * long offset of the block index
+ * int  FORMAT_MAGIC
+ * </pre>
+ * A file is read either in order, one block at a time, from a stream, or through the block index, which is
+ * how the UUIDs of every block are read, and their nids assigned, before any record is parsed.
+ *
+ * @author kec
+ */
+public class CompactIbdfFile
+         implements AutoCloseable {
+
+   public static final int FORMAT_MAGIC = 0x89494244;
+
+   public static final int FORMAT_VERSION = 2;
+
+   /**
+    * The size of the records of a block, before compression, at which a writer starts a new block.
+    */
+   public static final int BLOCK_SIZE = 1 << 20;
+
+   private static final int END_OF_BLOCKS = -1;
+
+   private static final int BLOCK_HEADER_SIZE = 20;
+
+   private static final int FILE_HEADER_SIZE = 8;
+
+   private static final int TRAILER_SIZE = 12;
+
+   private final FileChannel channel;
+
+   private final IbdfUuidTable uuidTable = new IbdfUuidTable();
+
+   private final long[] blockOffsets;
+
+   /** The position of the first record of each block, and the record count at the end. */
+   private final int[] blockFirstRecord;
+
+   private CompactIbdfFile(FileChannel channel) throws IOException {
+      this.channel = channel;
+      if (channel.size() < FILE_HEADER_SIZE + TRAILER_SIZE) {
+         throw new IOException("Not a compact IBDF file, or the file was not closed");
+      }
+      final ByteBuffer fileHeader = read(0, FILE_HEADER_SIZE);
+      if (fileHeader.getInt() != FORMAT_MAGIC) {
+         throw new IOException("Not a compact IBDF file");
+      }
+      final int version = fileHeader.getInt();
+      if (version != FORMAT_VERSION) {
+         throw new IOException("Unsupported compact IBDF version: " + version);
+      }
+      final ByteBuffer trailer = read(channel.size() - TRAILER_SIZE, TRAILER_SIZE);
+      final long indexOffset = trailer.getLong();
+      if (trailer.getInt() != FORMAT_MAGIC) {
+         throw new IOException("Not a compact IBDF file, or the file was not closed");
+      }
+      if (indexOffset < FILE_HEADER_SIZE || indexOffset > channel.size() - TRAILER_SIZE - 4) {
+         throw new IOException("Compact IBDF block index offset is outside the file: " + indexOffset);
+      }
+      final ByteBuffer index = read(indexOffset, (int) (channel.size() - TRAILER_SIZE - indexOffset));
+      final int blockCount = index.getInt();
+      this.blockOffsets = new long[blockCount];
+      this.blockFirstRecord = new int[blockCount + 1];
+      for (int block = 0; block < blockCount; block++) {
+         this.blockOffsets[block] = index.getLong();
+         this.blockFirstRecord[block + 1] = this.blockFirstRecord[block] + index.getInt();
+      }
+      final List<UUID> uuids = new ArrayList<>();
+      for (int block = 0; block < blockCount; block++) {
+         final BlockHeader header = new BlockHeader(read(this.blockOffsets[block], BLOCK_HEADER_SIZE));
+         final ByteBuffer compressedUuids = read(this.blockOffsets[block] + BLOCK_HEADER_SIZE, header.uuidsCompressedSize);
+         Collections.addAll(uuids, toUuids(inflate(compressedUuids.array(), header.uuidCount * 16)));
+      }
+      this.uuidTable.add(uuids.toArray(new UUID[uuids.size()]));
+   }
+
+   /**
+    * Open a compact IBDF file, and assign nids for every UUID of its UUID table.
+    *
+    * @param path the file
+    * @return the file
+    * @throws IOException if the file can't be read, or is not a compact IBDF file
+    */
+   public static CompactIbdfFile open(Path path) throws IOException {
+      final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+      try {
+         return new CompactIbdfFile(channel);
+      } catch (IOException | RuntimeException ex) {
+         channel.close();
+         throw ex;
+      }
+   }
+
+   /**
+    * @param path an IBDF file
+    * @return true if the file is in the compact format
+    * @throws IOException if the file can't be read
+    */
+   public static boolean isCompact(Path path) throws IOException {
+      try (FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ)) {
+         final ByteBuffer magic = ByteBuffer.allocate(4);
+         return fileChannel.read(magic, 0) == 4 && magic.getInt(0) == FORMAT_MAGIC;
+      }
+   }
+
+   /**
+    * @param input an IBDF stream, which must support mark, and is reset to where it was
+    * @return true if the stream is in the compact format
+    * @throws IOException if the stream can't be read
+    */
+   public static boolean isCompact(InputStream input) throws IOException {
+      input.mark(4);
+      try {
+         final byte[] magic = new byte[4];
+         int read = 0;
+         while (read < 4) {
+            final int count = input.read(magic, read, 4 - read);
+            if (count < 0) {
+               return false;
+            }
+            read += count;
+         }
+         return ByteBuffer.wrap(magic).getInt() == FORMAT_MAGIC;
+      } finally {
+         input.reset();
+      }
+   }
+
+   private ByteBuffer read(long position, int size) throws IOException {
+      final ByteBuffer buffer = ByteBuffer.allocate(size);
+      while (buffer.hasRemaining()) {
+         if (this.channel.read(buffer, position + buffer.position()) < 0) {
+            throw new IOException("Compact IBDF file ends at " + (position + buffer.position()));
+         }
+      }
+      buffer.flip();
+      return buffer;
+   }
+
+   /**
+    * @return the number of records in the file
+    */
+   public int size() {
+      return this.blockFirstRecord[this.blockOffsets.length];
+   }
+
+   /**
+    * @return the number of blocks in the file
+    */
+   public int getBlockCount() {
+      return this.blockOffsets.length;
+   }
+
+   /**
+    * Read and decompress a block. Blocks can be read by separate threads.
+    *
+    * @param block the position of the block in the file
+    * @return the records of the block, not yet parsed
+    */
+   public List<IsaacExternalizableUnparsed> readBlock(int block) {
+      try {
+         final BlockHeader header = new BlockHeader(read(this.blockOffsets[block], BLOCK_HEADER_SIZE));
+         final ByteBuffer compressedRecords = read(this.blockOffsets[block] + BLOCK_HEADER_SIZE + header.uuidsCompressedSize,
+                                                   header.recordsCompressedSize);
+         return toRecords(header, compressedRecords.array(), this.uuidTable);
+      } catch (IOException ex) {
+         throw new RuntimeException(ex);
+      }
+   }
+
+   /**
+    * @return the records of the file, in file order, not yet parsed
+    */
+   public Stream<IsaacExternalizableUnparsed> stream() {
+      return IntStream.range(0, this.blockOffsets.length)
+                      .mapToObj(this::readBlock)
+                      .flatMap(List::stream);
+   }
+
+   /**
+    * @return the records of the file, not yet parsed, with the blocks read by separate threads
+    */
+   public Stream<IsaacExternalizableUnparsed> parallelStream() {
+      return IntStream.range(0, this.blockOffsets.length)
+                      .parallel()
+                      .mapToObj(this::readBlock)
+                      .flatMap(List::stream);
+   }
+
+   @Override
+   public void close() throws IOException {
+      this.channel.close();
+   }
+
+   /**
+    * Write the start of a compact IBDF file.
+    *
+    * @param output the file
+    * @return the number of bytes written
+    * @throws IOException if the file can't be written
+    */
+   public static int writeFileHeader(DataOutputStream output) throws IOException {
+      output.writeInt(FORMAT_MAGIC);
+      output.writeInt(FORMAT_VERSION);
+      return FILE_HEADER_SIZE;
+   }
+
+   /**
+    * Compress and write a block.
+    *
+    * @param output the file
+    * @param newUuids the UUIDs added to the UUID table since the previous block
+    * @param records the records, each an int length followed by that many bytes
+    * @param recordsSize the size of the records
+    * @param recordCount the number of records
+    * @return the number of bytes written
+    * @throws IOException if the file can't be written
+    */
+   public static long writeBlock(DataOutputStream output, UUID[] newUuids, byte[] records, int recordsSize, int recordCount)
+            throws IOException {
+      final ByteBuffer uuidBytes = ByteBuffer.allocate(newUuids.length * 16);
+      for (final UUID uuid : newUuids) {
+         uuidBytes.putLong(uuid.getMostSignificantBits());
+         uuidBytes.putLong(uuid.getLeastSignificantBits());
+      }
+      final byte[] compressedUuids = deflate(uuidBytes.array(), uuidBytes.capacity());
+      final byte[] compressedRecords = deflate(records, recordsSize);
+      output.writeInt(recordCount);
+      output.writeInt(newUuids.length);
+      output.writeInt(compressedUuids.length);
+      output.writeInt(recordsSize);
+      output.writeInt(compressedRecords.length);
+      output.write(compressedUuids);
+      output.write(compressedRecords);
+      return BLOCK_HEADER_SIZE + compressedUuids.length + compressedRecords.length;
+   }
+
+   /**
+    * Write the end of a compact IBDF file.
+    *
+    * @param output the file
+    * @param indexOffset the offset in the file of the block index, which is the current offset plus 4
+    * @param blockOffsets the offset of each block
+    * @param blockRecordCounts the number of records in each block
+    * @throws IOException if the file can't be written
+    */
+   public static void writeFileEnd(DataOutputStream output, long indexOffset, List<Long> blockOffsets, List<Integer> blockRecordCounts)
+            throws IOException {
+      output.writeInt(END_OF_BLOCKS);
+      output.writeInt(blockOffsets.size());
+      for (int block = 0; block < blockOffsets.size(); block++) {
+         output.writeLong(blockOffsets.get(block));
+         output.writeInt(blockRecordCounts.get(block));
+      }
+      output.writeLong(indexOffset);
+      output.writeInt(FORMAT_MAGIC);
+   }
+
+   private static byte[] deflate(byte[] data, int size) {
+      final Deflater deflater = new Deflater();
+      try {
+         deflater.setInput(data, 0, size);
+         deflater.finish();
+         byte[] compressed = new byte[Math.max(64, size / 2)];
+         int compressedSize = 0;
+         while (!deflater.finished()) {
+            if (compressedSize == compressed.length) {
+               compressed = Arrays.copyOf(compressed, compressed.length * 2);
+            }
+            compressedSize += deflater.deflate(compressed, compressedSize, compressed.length - compressedSize);
+         }
+         return Arrays.copyOf(compressed, compressedSize);
+      } finally {
+         deflater.end();
+      }
+   }
+
+   private static byte[] inflate(byte[] compressed, int size) throws IOException {
+      final Inflater inflater = new Inflater();
+      try {
+         inflater.setInput(compressed);
+         final byte[] data = new byte[size];
+         int inflated = 0;
+         while (inflated < size) {
+            final int count = inflater.inflate(data, inflated, size - inflated);
+            if (count == 0 && (inflater.finished() || inflater.needsInput())) {
+               throw new IOException("Compact IBDF block is shorter than its header states");
+            }
+            inflated += count;
+         }
+         return data;
+      } catch (DataFormatException ex) {
+         throw new IOException(ex);
+      } finally {
+         inflater.end();
+      }
+   }
+
+   private static UUID[] toUuids(byte[] uuidBytes) {
+      final ByteBuffer buffer = ByteBuffer.wrap(uuidBytes);
+      final UUID[] uuids = new UUID[uuidBytes.length / 16];
+      for (int i = 0; i < uuids.length; i++) {
+         uuids[i] = new UUID(buffer.getLong(), buffer.getLong());
+      }
+      return uuids;
+   }
+
+   private static List<IsaacExternalizableUnparsed> toRecords(BlockHeader header, byte[] compressedRecords, IbdfUuidTable uuidTable)
+            throws IOException {
+      final ByteBuffer records = ByteBuffer.wrap(inflate(compressedRecords, header.recordsSize));
+      final List<IsaacExternalizableUnparsed> result = new ArrayList<>(header.recordCount);
+      for (int record = 0; record < header.recordCount; record++) {
+         final byte[] objectData = new byte[records.getInt()];
+         records.get(objectData);
+         final ByteArrayDataBuffer byteArrayDataBuffer = new ByteArrayDataBuffer(objectData);
+         byteArrayDataBuffer.setExternalData(true);
+         byteArrayDataBuffer.setUuidTable(uuidTable);
+         result.add(new IsaacExternalizableUnparsed(byteArrayDataBuffer));
+      }
+      return result;
+   }
+
+   private static class BlockHeader {
+      final int recordCount;
+      final int uuidCount;
+      final int uuidsCompressedSize;
+      final int recordsSize;
+      final int recordsCompressedSize;
+
+      BlockHeader(ByteBuffer header) {
+         this(header.getInt(), header);
+      }
+
+      BlockHeader(int recordCount, ByteBuffer header) {
+         this.recordCount           = recordCount;
+         this.uuidCount             = header.getInt();
+         this.uuidsCompressedSize   = header.getInt();
+         this.recordsSize           = header.getInt();
+         this.recordsCompressedSize = header.getInt();
+      }
+   }
+
+   /**
+    * Reads a compact IBDF stream in order, one block at a time, adding the UUIDs of each block to the UUID table
+    * before the records of the block are returned.
+    */
+   public static class StreamReader {
+
+      private final DataInputStream input;
+
+      private final IbdfUuidTable uuidTable = new IbdfUuidTable();
+
+      private List<IsaacExternalizableUnparsed> block = Collections.emptyList();
+
+      private int next = 0;
+
+      private boolean ended = false;
+
+      /**
+       * @param input the stream, positioned at the start of the file
+       * @throws IOException if the stream is not a compact IBDF file
+       */
+      public StreamReader(InputStream input) throws IOException {
+         this.input = new DataInputStream(input);
+         if (this.input.readInt() != FORMAT_MAGIC) {
+            throw new IOException("Not a compact IBDF file");
+         }
+         final int version = this.input.readInt();
+         if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported compact IBDF version: " + version);
+         }
+      }
+
+      /**
+       * @return the next record, not yet parsed, or null after the last record
+       * @throws IOException if the stream can't be read
+       */
+      public IsaacExternalizableUnparsed next() throws IOException {
+         while (this.next == this.block.size()) {
+            if (this.ended) {
+               return null;
+            }
+            final int recordCount = this.input.readInt();
+            if (recordCount == END_OF_BLOCKS) {
+               this.ended = true;
+               return null;
+            }
+            final byte[] headerBytes = new byte[BLOCK_HEADER_SIZE - 4];
+            this.input.readFully(headerBytes);
+            final BlockHeader header = new BlockHeader(recordCount, ByteBuffer.wrap(headerBytes));
+            final byte[] compressedUuids = new byte[header.uuidsCompressedSize];
+            this.input.readFully(compressedUuids);
+            this.uuidTable.add(toUuids(inflate(compressedUuids, header.uuidCount * 16)));
+            final byte[] compressedRecords = new byte[header.recordsCompressedSize];
+            this.input.readFully(compressedRecords);
+            this.block = toRecords(header, compressedRecords, this.uuidTable);
+            this.next = 0;
+         }
+         return this.block.get(this.next++);
+      }
+   }
+}
@@ -0,0 +1,314 @@
+/*
+ * Copyright 2018 Organizations participating in ISAAC, ISAAC's KOMET, and SOLOR development include the
+         US Veterans Health Administration, OSHERA, and the Health Services Platform Consortium..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.model.datastream;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import sh.isaac.api.externalizable.ByteArrayDataBuffer;
+
+/**
+ * The offsets of the records of an IBDF file, with read only mappings of the file, so that records can be
+ * read from any thread, in any order. An IBDF file is a sequence of records, each an int length followed
+ * by that many bytes, so without the offsets, reading a record means reading every record before it.
+ * <p>
+ * The offsets are found with one pass over the record lengths, and saved beside the file, along with the
+ * file's size and modification time, so that later loads of the same file skip the pass. If the offsets
+ * can't be saved, they are only kept in memory.
+ *
+ * @author kec
+ */
+public class IbdfRecordIndex {
+
+    private static final Logger LOG = LogManager.getLogger();
+
+    /**
+     * The suffix added to the name of an IBDF file, for the file that holds its record offsets.
+     */
+    public static final String OFFSETS_FILE_SUFFIX = ".offsets";
+
+    private static final long OFFSETS_FILE_MAGIC = 0x4942_4446_4f46_5331L;
+
+    /**
+     * A mapping is limited to the size of a byte buffer.
+     */
+    private static final long MAX_SEGMENT_SIZE = Integer.MAX_VALUE;
+
+    /**
+     * Ranges of fewer records are not split further.
+     */
+    private static final int MIN_SPLIT_SIZE = 1024;
+
+    private final long[] recordOffsets;
+
+    private final int[] segmentFirstRecord;
+
+    private final long[] segmentOffsets;
+
+    private final MappedByteBuffer[] segments;
+
+    private IbdfRecordIndex(long[] recordOffsets, long fileSize, FileChannel channel) throws IOException {
+        this.recordOffsets = recordOffsets;
+        int[] firstRecords = new int[8];
+        long[] offsets = new long[8];
+        int segmentCount = 0;
+        for (int record = 0; record < recordOffsets.length; record++) {
+            long recordEnd = record + 1 < recordOffsets.length ? recordOffsets[record + 1] : fileSize;
+            if (segmentCount == 0 || recordEnd - offsets[segmentCount - 1] > MAX_SEGMENT_SIZE) {
+                if (segmentCount == firstRecords.length) {
+                    firstRecords = Arrays.copyOf(firstRecords, segmentCount * 2);
+                    offsets = Arrays.copyOf(offsets, segmentCount * 2);
+                }
+                firstRecords[segmentCount] = record;
+                offsets[segmentCount] = recordOffsets[record];
+                segmentCount++;
+            }
+        }
+        this.segmentFirstRecord = Arrays.copyOf(firstRecords, segmentCount);
+        this.segmentOffsets = Arrays.copyOf(offsets, segmentCount);
+        this.segments = new MappedByteBuffer[segmentCount];
+        for (int segment = 0; segment < segmentCount; segment++) {
+            long segmentEnd = segment + 1 < segmentCount
+                    ? this.segmentOffsets[segment + 1] : fileSize;
+            this.segments[segment] = channel.map(FileChannel.MapMode.READ_ONLY,
+                    this.segmentOffsets[segment], segmentEnd - this.segmentOffsets[segment]);
+        }
+    }
+
+    /**
+     * Map an IBDF file, reading its record offsets from the offsets file beside it, or finding and saving
+     * them if the offsets file is missing or out of date.
+     *
+     * @param path the IBDF file
+     * @return the index
+     * @throws IOException if the file can't be read, or ends within a record
+     */
+    public static IbdfRecordIndex open(Path path) throws IOException {
+        long fileSize = Files.size(path);
+        long lastModified = Files.getLastModifiedTime(path).toMillis();
+        Path offsetsPath = path.resolveSibling(path.getFileName().toString() + OFFSETS_FILE_SUFFIX);
+        long[] recordOffsets = readOffsets(offsetsPath, fileSize, lastModified);
+        if (recordOffsets == null) {
+            recordOffsets = findOffsets(path, fileSize);
+            writeOffsets(offsetsPath, recordOffsets, fileSize, lastModified);
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // The mappings remain valid after the channel is closed.
+            return new IbdfRecordIndex(recordOffsets, fileSize, channel);
+        }
+    }
+
+    private static long[] findOffsets(Path path, long fileSize) throws IOException {
+        long[] recordOffsets = new long[1024];
+        int recordCount = 0;
+        long offset = 0;
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 16))) {
+            while (offset < fileSize) {
+                if (recordCount == recordOffsets.length) {
+                    recordOffsets = Arrays.copyOf(recordOffsets, recordCount * 2);
+                }
+                recordOffsets[recordCount++] = offset;
+                int recordSizeInBytes = input.readInt();
+                int skipped = 0;
+                while (skipped < recordSizeInBytes) {
+                    int skip = input.skipBytes(recordSizeInBytes - skipped);
+                    if (skip <= 0) {
+                        throw new EOFException("Record at " + offset + " in " + path + " ends past the end of the file");
+                    }
+                    skipped += skip;
+                }
+                offset += 4 + recordSizeInBytes;
+            }
+        }
+        return Arrays.copyOf(recordOffsets, recordCount);
+    }
+
+    private static long[] readOffsets(Path offsetsPath, long fileSize, long lastModified) {
+        if (!Files.isRegularFile(offsetsPath)) {
+            return null;
+        }
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(offsetsPath), 1 << 16))) {
+            if (input.readLong() != OFFSETS_FILE_MAGIC || input.readLong() != fileSize || input.readLong() != lastModified) {
+                return null;
+            }
+            long[] recordOffsets = new long[input.readInt()];
+            for (int record = 0; record < recordOffsets.length; record++) {
+                recordOffsets[record] = input.readLong();
+            }
+            return recordOffsets;
+        } catch (IOException ex) {
+            LOG.debug("Can't read record offsets from " + offsetsPath, ex);
+            return null;
+        }
+    }
+
+    private static void writeOffsets(Path offsetsPath, long[] recordOffsets, long fileSize, long lastModified) {
+        try {
+            Path tempPath = Files.createTempFile(offsetsPath.toAbsolutePath().getParent(), offsetsPath.getFileName().toString(), ".tmp");
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempPath), 1 << 16))) {
+                output.writeLong(OFFSETS_FILE_MAGIC);
+                output.writeLong(fileSize);
+                output.writeLong(lastModified);
+                output.writeInt(recordOffsets.length);
+                for (long recordOffset : recordOffsets) {
+                    output.writeLong(recordOffset);
+                }
+            } catch (IOException ex) {
+                Files.deleteIfExists(tempPath);
+                throw ex;
+            }
+            Files.move(tempPath, offsetsPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException ex) {
+            LOG.debug("Can't save record offsets to " + offsetsPath, ex);
+        }
+    }
+
+    /**
+     * @return the number of records in the file
+     */
+    public int size() {
+        return this.recordOffsets.length;
+    }
+
+    /**
+     * @param record the position of the record in the file
+     * @return the size of the record, not counting its length
+     */
+    public int getRecordSize(int record) {
+        int segment = getSegment(record);
+        return this.segments[segment].getInt((int) (this.recordOffsets[record] - this.segmentOffsets[segment]));
+    }
+
+    /**
+     * @param record the position of the record in the file
+     * @return the record, not yet parsed
+     */
+    public IsaacExternalizableUnparsed get(int record) {
+        int segment = getSegment(record);
+        return read(this.segments[segment].duplicate(), segment, record);
+    }
+
+    private int getSegment(int record) {
+        int segment = Arrays.binarySearch(this.segmentFirstRecord, record);
+        return segment >= 0 ? segment : -segment - 2;
+    }
+
+    private IsaacExternalizableUnparsed read(ByteBuffer segmentView, int segment, int record) {
+        int position = (int) (this.recordOffsets[record] - this.segmentOffsets[segment]);
+        byte[] objectData = new byte[segmentView.getInt(position)];
+        segmentView.position(position + 4);
+        segmentView.get(objectData);
+        ByteArrayDataBuffer byteArrayDataBuffer = new ByteArrayDataBuffer(objectData);
+        byteArrayDataBuffer.setExternalData(true);
+        return new IsaacExternalizableUnparsed(byteArrayDataBuffer);
+    }
+
+    /**
+     * @return a spliterator over every record, in file order, which splits into ranges of records that
+     * can be read by separate threads
+     */
+    public Spliterator<IsaacExternalizableUnparsed> spliterator() {
+        return spliterator(0, this.recordOffsets.length);
+    }
+
+    /**
+     * @param start the position of the first record
+     * @param end the position after the last record
+     * @return a spliterator over the records, in file order, which splits into ranges of records that can
+     * be read by separate threads
+     */
+    public Spliterator<IsaacExternalizableUnparsed> spliterator(int start, int end) {
+        return new RecordSpliterator(start, end);
+    }
+
+    /**
+     * @return a parallel stream of every record, not yet parsed
+     */
+    public Stream<IsaacExternalizableUnparsed> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    /**
+     * Reads a range of records, through its own views of the mappings, since reading moves a
+     * view's position.
+     */
+    private class RecordSpliterator implements Spliterator<IsaacExternalizableUnparsed> {
+
+        private final ByteBuffer[] segmentViews = new ByteBuffer[IbdfRecordIndex.this.segments.length];
+
+        private int next;
+
+        private final int end;
+
+        private RecordSpliterator(int start, int end) {
+            this.next = start;
+            this.end = end;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super IsaacExternalizableUnparsed> action) {
+            if (this.next >= this.end) {
+                return false;
+            }
+            int record = this.next++;
+            int segment = getSegment(record);
+            if (this.segmentViews[segment] == null) {
+                this.segmentViews[segment] = IbdfRecordIndex.this.segments[segment].duplicate();
+            }
+            action.accept(read(this.segmentViews[segment], segment, record));
+            return true;
+        }
+
+        @Override
+        public Spliterator<IsaacExternalizableUnparsed> trySplit() {
+            if (this.end - this.next < MIN_SPLIT_SIZE * 2) {
+                return null;
+            }
+            int middle = (this.next + this.end) >>> 1;
+            RecordSpliterator prefix = new RecordSpliterator(this.next, middle);
+            this.next = middle;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return this.end - this.next;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | IMMUTABLE | NONNULL;
+        }
+    }
+}
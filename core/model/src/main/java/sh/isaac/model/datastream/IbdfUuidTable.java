@@ -0,0 +1,126 @@
+/*
+ * Copyright 2018 Organizations participating in ISAAC, ISAAC's KOMET, and SOLOR development include the
+         US Veterans Health Administration, OSHERA, and the Health Services Platform Consortium..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.model.datastream;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+import sh.isaac.api.Get;
+import sh.isaac.api.IdentifierService;
+import sh.isaac.api.externalizable.ExternalUuidTable;
+
+/**
+ * The UUID table of a compact IBDF file. A writer adds UUIDs as records reference them, and writes the UUIDs
+ * that are new since the previous block at the start of each block. A reader adds the UUIDs of each block
+ * before the block's records are parsed, and assigns nids for them in one parallel pass, rather than as each
+ * reference is parsed. See {@link CompactIbdfFile}.
+ *
+ * @author kec
+ */
+public class IbdfUuidTable
+         implements ExternalUuidTable {
+
+   /**
+    * The entries are published as a whole, with the number of entries that are complete, so that threads parsing
+    * records of earlier blocks read a complete table while the UUIDs of a later block are added. The arrays are
+    * grown geometrically, and shared by successive entries; only the elements past the published size are written.
+    */
+   private static class Entries {
+      final UUID[] uuids;
+      final int[] nids;
+      final int size;
+
+      Entries(UUID[] uuids, int[] nids, int size) {
+         this.uuids = uuids;
+         this.nids  = nids;
+         this.size  = size;
+      }
+   }
+
+   /** The indexes of the UUIDs, when writing. */
+   private final ConcurrentHashMap<UUID, Integer> uuidToIndex = new ConcurrentHashMap<>();
+
+   /** The UUIDs in index order, when writing. */
+   private final List<UUID> writtenUuids = new ArrayList<>();
+
+   /** The UUIDs and their nids, when reading. */
+   private volatile Entries entries = new Entries(new UUID[0], new int[0], 0);
+
+   @Override
+   public int indexOf(UUID uuid) {
+      final Integer index = this.uuidToIndex.get(uuid);
+      if (index != null) {
+         return index;
+      }
+      synchronized (this.writtenUuids) {
+         return this.uuidToIndex.computeIfAbsent(uuid, (newUuid) -> {
+            this.writtenUuids.add(newUuid);
+            return this.writtenUuids.size() - 1;
+         });
+      }
+   }
+
+   /**
+    * @param start the index of the first UUID to return
+    * @return the UUIDs added by {@link #indexOf(UUID)}, from start, in index order
+    */
+   public UUID[] getUuidsFrom(int start) {
+      synchronized (this.writtenUuids) {
+         return this.writtenUuids.subList(start, this.writtenUuids.size())
+                                 .toArray(new UUID[this.writtenUuids.size() - start]);
+      }
+   }
+
+   /**
+    * Add the UUIDs of a block, read from a file, to the table, and assign their nids.
+    *
+    * @param uuids the UUIDs, in index order
+    */
+   public synchronized void add(UUID[] uuids) {
+      final Entries current = this.entries;
+      final int newSize = current.size + uuids.length;
+      UUID[] newUuids = current.uuids;
+      int[] newNids = current.nids;
+      if (newSize > newUuids.length) {
+         final int capacity = Math.max(newSize, newUuids.length + (newUuids.length >> 1));
+         newUuids = Arrays.copyOf(newUuids, capacity);
+         newNids = Arrays.copyOf(newNids, capacity);
+      }
+      System.arraycopy(uuids, 0, newUuids, current.size, uuids.length);
+      final UUID[] addedUuids = newUuids;
+      final int[] addedNids = newNids;
+      final IdentifierService identifierService = Get.identifierService();
+      IntStream.range(current.size, newSize)
+               .parallel()
+               .forEach(index -> addedNids[index] = identifierService.assignNid(addedUuids[index]));
+      // Publish the size after the UUIDs and nids are in place.
+      this.entries = new Entries(newUuids, newNids, newSize);
+   }
+
+   @Override
+   public UUID getUuid(int index) {
+      return this.entries.uuids[index];
+   }
+
+   @Override
+   public int getNid(int index) {
+      return this.entries.nids[index];
+   }
+}
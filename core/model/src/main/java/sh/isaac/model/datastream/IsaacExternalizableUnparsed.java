@@ -46,6 +46,7 @@ import sh.isaac.api.externalizable.ByteArrayDataBuffer;
 import sh.isaac.api.externalizable.IsaacObjectType;
 import sh.isaac.api.externalizable.StampAlias;
 import sh.isaac.api.externalizable.StampComment;
+import sh.isaac.model.ChronologyDelta;
 import sh.isaac.model.concept.ConceptChronologyImpl;
 import sh.isaac.model.semantic.SemanticChronologyImpl;
 import sh.isaac.api.externalizable.IsaacExternalizable;
@@ -120,6 +121,10 @@ public class IsaacExternalizableUnparsed {
       case STAMP:
          return new StampUniversal(data);
 
+      case CONCEPT_DELTA:
+      case SEMANTIC_DELTA:
+         return ChronologyDelta.make(this.data, this.type);
+
       default:
          throw new UnsupportedOperationException("aq Can't handle: " + this.type);
       }
@@ -53,6 +53,7 @@ import sh.isaac.api.externalizable.ByteArrayDataBuffer;
 import sh.isaac.api.externalizable.IsaacExternalizable;
 import sh.isaac.api.externalizable.IsaacObjectType;
 import sh.isaac.api.identity.StampedVersion;
+import sh.isaac.api.snapshot.calculator.RelativePositionCalculator;
 import sh.isaac.api.transaction.Transaction;
 import sh.isaac.model.ChronologyImpl;
 import sh.isaac.model.semantic.version.AbstractVersionImpl;
@@ -219,6 +220,17 @@ public class SemanticChronologyImpl
     * @return the semantic chronology impl
     */
    public static SemanticChronologyImpl make(ByteArrayDataBuffer data) {
+      return make(data, null);
+   }
+
+   /**
+    * Make, decoding only the latest versions for the calculator until other versions are needed.
+    *
+    * @param data the data
+    * @param calculator the calculator that selects the versions to decode, or null to decode all versions
+    * @return the semantic chronology impl
+    */
+   public static SemanticChronologyImpl make(ByteArrayDataBuffer data, RelativePositionCalculator calculator) {
       if (IsaacObjectType.SEMANTIC.getDataFormatVersion() != data.getObjectDataFormatVersion()) {
          throw new UnsupportedOperationException(
              "Data format version not supported: " + data.getObjectDataFormatVersion());
@@ -226,7 +238,7 @@ public class SemanticChronologyImpl
 
       final SemanticChronologyImpl semanticChronology = new SemanticChronologyImpl();
 
-      semanticChronology.readData(data);
+      semanticChronology.readData(data, calculator);
 //      ModelGet.identifierService()
 //              .addToSemanticIndex(semanticChronology.referencedComponentNid, semanticChronology.getNid());
       return semanticChronology;
@@ -99,6 +99,18 @@ public class GraphCollectorIsolated
      */
     @Override
     public void accept(HashTreeBuilderIsolated graphBuilder, int originNid) {
+        for (int destinationNid: getParentNids(originNid)) {
+            graphBuilder.add(destinationNid, originNid);
+        }
+    }
+
+    /**
+     * Gets the parents of a concept for this collector's coordinate.
+     *
+     * @param originNid the concept nid
+     * @return the parent nids, or an empty array if the concept has no taxonomy data
+     */
+    public int[] getParentNids(int originNid) {
         final int[] taxonomyData = this.taxonomyDataProvider.apply(originNid);
 
         if (taxonomyData == null) {
@@ -110,7 +122,7 @@ public class GraphCollectorIsolated
             }
 
             LOG.error("No taxonomy data for: {} {} with NID: {}", Get.identifierService().getUuidPrimordialForNid(originNid), sb.toString(), originNid);
-
+            return new int[0];
         } else {
             TaxonomyRecordPrimitive isaacPrimitiveTaxonomyRecord = new TaxonomyRecordPrimitive(taxonomyData);
             // For debugging.
@@ -137,22 +149,7 @@ public class GraphCollectorIsolated
 //             LOG.info("Second try equals: " + Arrays.equals(destinationConceptNids, destinationConceptNids2));
 //             LOG.info("Second try: " + Arrays.toString(destinationConceptNids2));
          }
-//         int parentCount = 0;
-            for (int destinationNid: destinationConceptNids) {
-//            parentCount++;
-                graphBuilder.add(destinationNid, originNid);
-            }
-//         if (parentCount == 0) {
-//            System.out.println("No parent for: " + Get.conceptDescriptionText(originNid));
-//            System.out.println("TaxonomyRecord: " + taxonomyRecordUnpacked);
-//            StringBuilder builder = new StringBuilder("[");
-//            for (int element: taxonomyData) {
-//               builder.append(element);
-//               builder.append(", ");
-//            }
-//            builder.replace(builder.length()-1, builder.length()-1, "]");
-//            System.out.println("Source data: " + builder.toString());
-//         }
+            return destinationConceptNids;
         }
     }
 
@@ -61,22 +61,15 @@ import sh.isaac.api.snapshot.calculator.RelativePositionCalculator;
 
 /**
  * The Class TaxonomyRecordPrimitive.
+ * <p>
+ * The taxonomy data is a sequence of destination records. Each is a destination concept nid, then
+ * the length of the records that follow it, including the length itself, then, for each record, a
+ * type nid, a stamp sequence, and the taxonomy flags. Every value has a full int, so stamp
+ * sequences are not limited by the flags, which are kept in their own word.
  *
  * @author kec
  */
 public class TaxonomyRecordPrimitive {
-   /** The Constant SEQUENCE_BIT_MASK. */
-   public static final int SEQUENCE_BIT_MASK = 0x00FFFFFF;
-
-   /** The Constant STAMP_BIT_MASK. */
-   public static final int STAMP_BIT_MASK = 0x00FFFFFF;
-
-   /** The Constant LENGTH_BIT_MASK. */
-   public static final int LENGTH_BIT_MASK = 0xFF000000;
-
-   /** The Constant FLAGS_BIT_MASK. */
-   public static final int FLAGS_BIT_MASK = 0xFF000000;
-
    //~--- fields --------------------------------------------------------------
 
    /** The unpacked. */
@@ -105,15 +98,6 @@ public class TaxonomyRecordPrimitive {
 
    //~--- methods -------------------------------------------------------------
 
-   /**
-    * Adds the concept nid stamp record.
-    *
-    * @param conceptNidStampRecord the concept nid stamp record
-    */
-   public void addConceptNidStampRecord(int[] conceptNidStampRecord) {
-      conceptNidStampRecord[0] = conceptNidStampRecord[0] + (conceptNidStampRecord.length << 24);
-   }
-
    /**
     * The even indexes are the nids... 0, 2, 4, ...
     * The odd indexes are the position within the array... 1, 3, 5, ...
@@ -456,36 +440,6 @@ public class TaxonomyRecordPrimitive {
       return getTaxonomyRecordUnpacked().containsStampOfTypeWithFlags(typeNid, flags);
    }
 
-   /**
-    * Inferred flag set.
-    *
-    * @param index the index
-    * @return true, if successful
-    */
-   public boolean inferredFlagSet(int index) {
-      return (this.taxonomyData[index] & TaxonomyFlag.INFERRED.bits) == TaxonomyFlag.INFERRED.bits;
-   }
-
-   /**
-    * Next record index.
-    *
-    * @param index the index
-    * @return the int
-    */
-   public int nextRecordIndex(int index) {
-      return this.taxonomyData[index] >>> 24;
-   }
-
-   /**
-    * Stated flag set.
-    *
-    * @param index the index
-    * @return true, if successful
-    */
-   public boolean statedFlagSet(int index) {
-      return (this.taxonomyData[index] & TaxonomyFlag.STATED.bits) == TaxonomyFlag.STATED.bits;
-   }
-
    /**
     * To string.
     *
@@ -546,40 +500,6 @@ public class TaxonomyRecordPrimitive {
       return false;
    }
 
-   /**
-    * Gets the concept nid.
-    *
-    * @param index the index
-    * @return the concept nid
-    */
-   public int getConceptNid(int index) {
-      return this.taxonomyData[index] & SEQUENCE_BIT_MASK;
-   }
-
-   /**
-    * Gets the concept nid index.
-    *
-    * @param conceptNid the concept nid
-    * @return the concept nid index
-    */
-   public int getConceptNidIndex(int conceptNid) {
-      throw new UnsupportedOperationException();
-   }
-
-   //~--- set methods ---------------------------------------------------------
-
-   /**
-    * Set concept nid stamp record length.
-    *
-    * @param index the index
-    * @param length the length
-    */
-   public void setConceptNidStampRecordLength(int index, int length) {
-      this.taxonomyData[index] = this.taxonomyData[index] & SEQUENCE_BIT_MASK;
-      length                   = length << 24;
-      this.taxonomyData[index] = this.taxonomyData[index] + length;
-   }
-
    //~--- get methods ---------------------------------------------------------
 
    /**
@@ -664,48 +584,6 @@ public class TaxonomyRecordPrimitive {
       return Optional.empty();
    }
 
-   //~--- set methods ---------------------------------------------------------
-
-   /**
-    * Set nid.
-    *
-    * @param index the index
-    * @param nid the nid
-    */
-   public void setNid(int index, int nid) {
-      this.taxonomyData[index] = nid;
-   }
-
-   //~--- get methods ---------------------------------------------------------
-
-   /**
-    * Gets the stamp.
-    *
-    * @param index the index
-    * @return the stamp
-    */
-   public int getStamp(int index) {
-      // clear any flag bits
-      return this.taxonomyData[index] & SEQUENCE_BIT_MASK;
-   }
-
-   //~--- set methods ---------------------------------------------------------
-
-   /**
-    * Set stamp and flags.
-    *
-    * @param index the index
-    * @param stamp the stamp
-    * @param flags the flags
-    */
-   public void setStampAndFlags(int index, int stamp, TaxonomyFlag... flags) {
-      this.taxonomyData[index] = stamp;
-
-      for (final TaxonomyFlag flag: flags) {
-         this.taxonomyData[index] = this.taxonomyData[index] | flag.bits;
-      }
-   }
-
    //~--- get methods ---------------------------------------------------------
 
    /**
@@ -85,7 +85,7 @@ public class HashTreeBuilderIsolated extends HashTreeWithIntArraySetsIsolated {
                     if (this.parentNid_ChildNidSetArray_Map.containsKey(parentSequence)) {
                         int[] childrenFromThis = this.parentNid_ChildNidSetArray_Map.get(parentSequence);
 
-                        this.childNid_ParentNidSetArray_Map.put(
+                        this.parentNid_ChildNidSetArray_Map.put(
                                 parentSequence,
                                 MergeIntArray.merge(childrenFromThis, childrenFromAnother));
                     } else {
@@ -52,19 +52,20 @@ public class HashTreeWithIntArraySetsIsolated
     static final int[] EMPTY_INT_ARRAY = new int[0];
 
     /**
-     * The concept nids with parents.
+     * The concept nids with parents. This and the following sets are replaced, rather than
+     * changed, by {@link #replaceParents(int, int[])}, so readers never see a set being changed.
      */
-    final OpenIntHashSet conceptNidsWithParents;
+    volatile OpenIntHashSet conceptNidsWithParents;
 
     /**
      * The concept nids with children.
      */
-    final OpenIntHashSet conceptNidsWithChildren;
+    volatile OpenIntHashSet conceptNidsWithChildren;
 
     /**
      * The concept nids.
      */
-    final OpenIntHashSet conceptNids;
+    volatile OpenIntHashSet conceptNids;
 
     /**
      * map from a nid key to an array of parent nids.
@@ -81,6 +82,12 @@ public class HashTreeWithIntArraySetsIsolated
     protected final String coordinateString;
     protected final StampFilterImmutable vertexFilter;
 
+    /**
+     * Answers subsumption tests for the current edges. Built on first use, and discarded when the
+     * edges change.
+     */
+    private volatile SubsumptionIndex subsumptionIndex;
+
     /**
      * Instantiates a new hash tree with bit sets.
      *
@@ -119,6 +126,7 @@ public class HashTreeWithIntArraySetsIsolated
      * @param childId the child id
      */
     private void addChild(int parentId, int childId) {
+        this.subsumptionIndex = null;
         if (this.parentNid_ChildNidSetArray_Map.containsKey(parentId)) {
             this.parentNid_ChildNidSetArray_Map.put(
                     parentId,
@@ -306,6 +314,10 @@ public class HashTreeWithIntArraySetsIsolated
         }
 
         childNid_ParentNidSetArray_Map.put(childNid, newParents);
+        if (this.parentNid_ChildNidSetArray_Map.containsKey(parentNid)) {
+            this.parentNid_ChildNidSetArray_Map.put(parentNid, removeFromArray(getChildNoFilter(parentNid), childNid));
+        }
+        this.subsumptionIndex = null;
     }
 
     /**
@@ -538,12 +550,12 @@ public class HashTreeWithIntArraySetsIsolated
     public float getTaxonomyDistance(int nid1, int nid2, boolean directed) {
         boolean debugDistance = false;
         Instant startInstant = Instant.now();
-        float taxonomyDistance = descendentDepth(nid1, nid2);
+        float taxonomyDistance = isDescendentOf(nid1, nid2) ? descendentDepth(nid1, nid2) : Float.NaN;
         if (!Float.isNaN(taxonomyDistance)) {
             if (debugDistance) LOG.debug("Distance time 1: " + DurationUtil.format(Duration.between(startInstant, Instant.now())));
             return taxonomyDistance;
         }
-        taxonomyDistance = descendentDepth(nid2, nid1);
+        taxonomyDistance = isDescendentOf(nid2, nid1) ? descendentDepth(nid2, nid1) : Float.NaN;
         if (!Float.isNaN(taxonomyDistance)) {
             if (debugDistance) LOG.debug("Distance time 2: " + DurationUtil.format(Duration.between(startInstant, Instant.now())));
             return taxonomyDistance;
@@ -707,12 +719,10 @@ public class HashTreeWithIntArraySetsIsolated
 
     @Override
     public int[] getLowestCommonAncestor(int nid1, int nid2) {
-        float taxonomyDistance = descendentDepth(nid1, nid2);
-        if (!Float.isNaN(taxonomyDistance)) {
+        if (isDescendentOf(nid1, nid2)) {
             return new int[] { nid2 };
         }
-        taxonomyDistance = descendentDepth(nid2, nid1);
-        if (!Float.isNaN(taxonomyDistance)) {
+        if (isDescendentOf(nid2, nid1)) {
             return new int[] { nid1 };
         }
         List<HashTreeWithIntArraySetsIsolated.Solution> solutionList = getMinimalCommonAncestorSolutions(nid1, nid2);
@@ -823,13 +833,7 @@ public class HashTreeWithIntArraySetsIsolated
      */
     @Override
     public final int[] getDescendentNids(int parentNid) {
-        final MutableIntSet descendentNids = IntSets.mutable.empty();
-        if (this.parentNid_ChildNidSetArray_Map.containsKey(parentNid)) {
-            getDescendentsRecursive(parentNid, descendentNids);
-            return descendentNids.toArray();
-        }
-
-        return descendentNids.toArray();
+        return getSubsumptionIndex().getDescendentNids(parentNid);
     }
 
     /**
@@ -837,6 +841,30 @@ public class HashTreeWithIntArraySetsIsolated
      */
     @Override
     public final boolean isDescendentOf(int childNid, int parentNid) {
+        return getSubsumptionIndex().isDescendentOf(childNid, parentNid);
+    }
+
+    private SubsumptionIndex getSubsumptionIndex() {
+        SubsumptionIndex index = this.subsumptionIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = this.subsumptionIndex;
+                if (index == null) {
+                    final OpenIntHashSet nids = this.conceptNids;
+                    final int[] startNids = IntStream.concat(IntStream.of(getRootNids()), IntStream.of(nids.keys().elements())).toArray();
+                    index = SubsumptionIndex.build(startNids, nids.size(), this::getChildNoFilter);
+                    this.subsumptionIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Search the parents of the child, rather than using the subsumption index, which would be
+     * built again after every change to the tree.
+     */
+    private boolean isDescendentOfUnindexed(int childNid, int parentNid) {
         int[] parentNids = getParentNidsNoFilter(childNid);
 
         if (Arrays.binarySearch(parentNids, parentNid) >= 0) {
@@ -1003,21 +1031,6 @@ public class HashTreeWithIntArraySetsIsolated
         return false;
     }
 
-    /**
-     * Gets the descendents recursive.
-     *
-     * @param parentNid the parentIndex nid
-     * @param descendentNids the descendent nids
-     */
-    private void getDescendentsRecursive(int parentNid, MutableIntSet descendentNids) {
-        if (this.parentNid_ChildNidSetArray_Map.containsKey(parentNid)) {
-            for (final int childNid: this.parentNid_ChildNidSetArray_Map.get(parentNid)) {
-                descendentNids.add(childNid);
-                getDescendentsRecursive(childNid, descendentNids);
-            }
-        }
-    }
-
     /**
      * Gets the node identifiers.
      *
@@ -1064,6 +1077,94 @@ public class HashTreeWithIntArraySetsIsolated
         return rootSet.keys().elements();
     }
 
+    /**
+     * Replace the parents of a concept in place, so that a committed change to the concept's
+     * definition does not require the tree to be built again. The roots are derived from the sets
+     * of concepts with parents and with children, which are updated here.
+     *
+     * @param childNid the concept whose parents changed
+     * @param newParentNids the parents of the concept for the coordinate of this tree
+     * @return false, leaving the tree unchanged, if a new parent is the concept or one of its
+     * descendants. The edge would create a cycle, which is reported when the tree is built.
+     */
+    public synchronized boolean replaceParents(int childNid, int[] newParentNids) {
+        final int[] oldParentNids = getParentNidsNoFilter(childNid);
+        final int[] parentNids = IntStream.of(newParentNids).distinct().sorted().toArray();
+
+        for (int parentNid : parentNids) {
+            if (Arrays.binarySearch(oldParentNids, parentNid) < 0
+                    && (parentNid == childNid || isDescendentOfUnindexed(parentNid, childNid))) {
+                return false;
+            }
+        }
+
+        final IntArrayList childlessNids = new IntArrayList();
+        for (int parentNid : oldParentNids) {
+            if (Arrays.binarySearch(parentNids, parentNid) < 0) {
+                final int[] children = removeFromArray(getChildNoFilter(parentNid), childNid);
+                this.parentNid_ChildNidSetArray_Map.put(parentNid, children);
+                if (children.length == 0) {
+                    childlessNids.add(parentNid);
+                }
+            }
+        }
+        for (int parentNid : parentNids) {
+            if (Arrays.binarySearch(oldParentNids, parentNid) < 0) {
+                this.parentNid_ChildNidSetArray_Map.put(parentNid, addToArray(getChildNoFilter(parentNid), childNid));
+            }
+        }
+        this.childNid_ParentNidSetArray_Map.put(childNid, parentNids);
+        this.subsumptionIndex = null;
+
+        this.conceptNids = withChanges(this.conceptNids, IntStream.concat(IntStream.of(childNid), IntStream.of(parentNids)).toArray(), EMPTY_INT_ARRAY);
+        if (parentNids.length == 0) {
+            this.conceptNidsWithParents = withChanges(this.conceptNidsWithParents, EMPTY_INT_ARRAY, new int[] { childNid });
+        } else {
+            this.conceptNidsWithParents = withChanges(this.conceptNidsWithParents, new int[] { childNid }, EMPTY_INT_ARRAY);
+        }
+        childlessNids.trimToSize();
+        this.conceptNidsWithChildren = withChanges(this.conceptNidsWithChildren, parentNids, childlessNids.elements());
+        return true;
+    }
+
+    /**
+     * @return the set, if adding and removing the nids would not change it, otherwise a changed copy.
+     */
+    private static OpenIntHashSet withChanges(OpenIntHashSet set, int[] toAdd, int[] toRemove) {
+        boolean changed = false;
+        for (int nid : toAdd) {
+            changed |= !set.contains(nid);
+        }
+        for (int nid : toRemove) {
+            changed |= set.contains(nid);
+        }
+        if (!changed) {
+            return set;
+        }
+        final OpenIntHashSet copy = (OpenIntHashSet) set.clone();
+        for (int nid : toAdd) {
+            copy.add(nid);
+        }
+        for (int nid : toRemove) {
+            copy.remove(nid);
+        }
+        return copy;
+    }
+
+    private static int[] removeFromArray(int[] array, int toRemove) {
+        int searchResult = Arrays.binarySearch(array, toRemove);
+
+        if (searchResult < 0) {
+            return array;
+        }
+
+        int[] array2 = new int[array.length - 1];
+
+        System.arraycopy(array, 0, array2, 0, searchResult);
+        System.arraycopy(array, searchResult + 1, array2, searchResult, array.length - searchResult - 1);
+        return array2;
+    }
+
     /**
      * Adds the.
      *
@@ -1078,6 +1179,7 @@ public class HashTreeWithIntArraySetsIsolated
         conceptNids.add(child);
         conceptNidsWithParents.add(child);
         conceptNidsWithChildren.add(parent);
+        this.subsumptionIndex = null;
         this.childNid_ParentNidSetArray_Map.accumulateAndGet(child, new int[]{parent}, MergeIntArray::merge);
         this.parentNid_ChildNidSetArray_Map.accumulateAndGet(parent, new int[]{child}, MergeIntArray::merge);
     }
@@ -0,0 +1,217 @@
+package sh.isaac.model.tree;
+
+import java.util.Arrays;
+import java.util.function.IntFunction;
+import org.eclipse.collections.impl.map.mutable.primitive.IntIntHashMap;
+
+/**
+ * A reachability index over the parent child edges of a tree, so that subsumption tests don't
+ * search the tree. Each concept is numbered in the post order of a depth first traversal from
+ * the roots. The descendants of a concept reached by the traversal through tree edges have the
+ * numbers just below the concept's own number, so they form one interval. Descendants reached
+ * through other parents add further intervals, which are merged where they touch, so a concept's
+ * descendants are described by a few sorted, disjoint intervals of post order numbers.
+ * <p>
+ * A subsumption test is a binary search of the ancestor's intervals for the descendant's number,
+ * and the descendants of a concept are read from the intervals. The index is immutable, and is
+ * built again after the tree changes. Edges that close a cycle are ignored, since cycles are
+ * reported as errors when the tree is built.
+ *
+ * @author kec
+ */
+final class SubsumptionIndex {
+
+    private static final int[] NO_INTERVALS = new int[0];
+
+    /**
+     * The post order number of each concept in the tree.
+     */
+    private final IntIntHashMap nidToPosition;
+
+    /**
+     * The concept nid for each post order number.
+     */
+    private final int[] positionToNid;
+
+    /**
+     * For each post order number, the intervals of the concept's descendants, as pairs of inclusive
+     * start and end numbers.
+     */
+    private final int[][] descendentIntervals;
+
+    private SubsumptionIndex(int conceptCount) {
+        this.nidToPosition = new IntIntHashMap(conceptCount);
+        this.positionToNid = new int[conceptCount];
+        this.descendentIntervals = new int[conceptCount][];
+    }
+
+    /**
+     * @param startNids the nids to start the traversal from, roots first. Every concept must be
+     * reachable from one of them.
+     * @param conceptCount the number of concepts in the tree
+     * @param childNidsFunction the children of a concept
+     * @return the index
+     */
+    static SubsumptionIndex build(int[] startNids, int conceptCount, IntFunction<int[]> childNidsFunction) {
+        SubsumptionIndex index = new SubsumptionIndex(conceptCount);
+        // Concepts on the traversal stack are marked with a negative position.
+        final int visiting = -1;
+        int nextPosition = 0;
+        int[] stackNids = new int[64];
+        int[][] stackChildren = new int[64][];
+        int[] stackNextChild = new int[64];
+        int[] stackLowPosition = new int[64];
+
+        for (int startNid : startNids) {
+            if (index.nidToPosition.containsKey(startNid)) {
+                continue;
+            }
+            int depth = 0;
+            stackNids[0] = startNid;
+            stackChildren[0] = childNidsFunction.apply(startNid);
+            stackNextChild[0] = 0;
+            stackLowPosition[0] = nextPosition;
+            index.nidToPosition.put(startNid, visiting);
+
+            while (depth >= 0) {
+                int[] children = stackChildren[depth];
+                if (stackNextChild[depth] < children.length) {
+                    int childNid = children[stackNextChild[depth]++];
+                    if (!index.nidToPosition.containsKey(childNid)) {
+                        depth++;
+                        if (depth == stackNids.length) {
+                            int newLength = stackNids.length * 2;
+                            stackNids = Arrays.copyOf(stackNids, newLength);
+                            stackChildren = Arrays.copyOf(stackChildren, newLength);
+                            stackNextChild = Arrays.copyOf(stackNextChild, newLength);
+                            stackLowPosition = Arrays.copyOf(stackLowPosition, newLength);
+                        }
+                        stackNids[depth] = childNid;
+                        stackChildren[depth] = childNidsFunction.apply(childNid);
+                        stackNextChild[depth] = 0;
+                        stackLowPosition[depth] = nextPosition;
+                        index.nidToPosition.put(childNid, visiting);
+                    }
+                } else {
+                    int position = nextPosition++;
+                    index.descendentIntervals[position] = index.computeIntervals(stackLowPosition[depth], position, children);
+                    index.positionToNid[position] = stackNids[depth];
+                    index.nidToPosition.put(stackNids[depth], position);
+                    stackChildren[depth] = null;
+                    depth--;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * @param lowPosition the first position assigned below the concept in the traversal
+     * @param position the position of the concept
+     * @param childNids the children of the concept, which have all been numbered, unless an edge to
+     * them closes a cycle
+     * @return the merged intervals of the concept's descendants
+     */
+    private int[] computeIntervals(int lowPosition, int position, int[] childNids) {
+        if (childNids.length == 0) {
+            return NO_INTERVALS;
+        }
+        int intervalCount = lowPosition < position ? 1 : 0;
+        for (int childNid : childNids) {
+            int childPosition = this.nidToPosition.get(childNid);
+            if (childPosition >= 0) {
+                intervalCount += 1 + this.descendentIntervals[childPosition].length / 2;
+            }
+        }
+        // A child's descendants may have been numbered before the concept was reached, through
+        // another parent, so the intervals of every child are merged, not just those of children
+        // numbered outside the concept's own interval.
+        long[] intervals = new long[intervalCount];
+        int count = 0;
+        if (lowPosition < position) {
+            intervals[count++] = toInterval(lowPosition, position - 1);
+        }
+        for (int childNid : childNids) {
+            int childPosition = this.nidToPosition.get(childNid);
+            if (childPosition >= 0) {
+                intervals[count++] = toInterval(childPosition, childPosition);
+                int[] childIntervals = this.descendentIntervals[childPosition];
+                for (int i = 0; i < childIntervals.length; i += 2) {
+                    intervals[count++] = toInterval(childIntervals[i], childIntervals[i + 1]);
+                }
+            }
+        }
+        Arrays.sort(intervals);
+        int[] merged = new int[intervals.length * 2];
+        int mergedLength = 0;
+        for (long interval : intervals) {
+            int start = (int) (interval >>> 32);
+            int end = (int) interval;
+            if (mergedLength > 0 && start <= merged[mergedLength - 1] + 1) {
+                merged[mergedLength - 1] = Math.max(merged[mergedLength - 1], end);
+            } else {
+                merged[mergedLength++] = start;
+                merged[mergedLength++] = end;
+            }
+        }
+        return Arrays.copyOf(merged, mergedLength);
+    }
+
+    /**
+     * Positions are not negative, so the packed intervals sort by start.
+     */
+    private static long toInterval(int start, int end) {
+        return ((long) start << 32) | (end & 0xFFFFFFFFL);
+    }
+
+    /**
+     * @param childNid the possible descendant
+     * @param parentNid the possible ancestor
+     * @return true if childNid is a descendant of parentNid.
+     */
+    boolean isDescendentOf(int childNid, int parentNid) {
+        int childPosition = this.nidToPosition.getIfAbsent(childNid, -1);
+        int parentPosition = this.nidToPosition.getIfAbsent(parentNid, -1);
+        if (childPosition < 0 || parentPosition < 0) {
+            return false;
+        }
+        int[] intervals = this.descendentIntervals[parentPosition];
+        int low = 0;
+        int high = intervals.length / 2 - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (childPosition < intervals[middle * 2]) {
+                high = middle - 1;
+            } else if (childPosition > intervals[middle * 2 + 1]) {
+                low = middle + 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param parentNid the ancestor
+     * @return the nids of the descendants of parentNid.
+     */
+    int[] getDescendentNids(int parentNid) {
+        int parentPosition = this.nidToPosition.getIfAbsent(parentNid, -1);
+        if (parentPosition < 0) {
+            return new int[0];
+        }
+        int[] intervals = this.descendentIntervals[parentPosition];
+        int size = 0;
+        for (int i = 0; i < intervals.length; i += 2) {
+            size += intervals[i + 1] - intervals[i] + 1;
+        }
+        int[] descendentNids = new int[size];
+        int count = 0;
+        for (int i = 0; i < intervals.length; i += 2) {
+            for (int position = intervals[i]; position <= intervals[i + 1]; position++) {
+                descendentNids[count++] = this.positionToNid[position];
+            }
+        }
+        return descendentNids;
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2017 Organizations participating in ISAAC, ISAAC's KOMET, and SOLOR development include the
+         US Veterans Health Administration, OSHERA, and the Health Services Platform Consortium..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.model.collections;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+
+/**
+ * Multi-threaded read throughput of {@link SpinedIntObjectMap} compared with the semaphore guarded,
+ * boxed spine key, implementation it replaced. Run the main method with an optional thread count,
+ * element count, and seconds per run.
+ *
+ * @author kec
+ */
+public class SpinedIntObjectMapReadBenchmark {
+
+    private static final int LEGACY_SPINE_SIZE = 5096;
+
+    /**
+     * The read path of SpinedIntObjectMap prior to the lock free spine directory.
+     */
+    private static class LegacySpinedIntObjectMap<E> {
+
+        private static final int SEMAPHORE_COUNT = Runtime.getRuntime().availableProcessors() * 2;
+        private final Semaphore readWriteSemaphore = new Semaphore(SEMAPHORE_COUNT);
+        private final ConcurrentMap<Integer, AtomicReferenceArray<E>> spines = new ConcurrentHashMap<>();
+
+        private AtomicReferenceArray<E> newSpine(Integer spineKey) {
+            return new AtomicReferenceArray<>(LEGACY_SPINE_SIZE);
+        }
+
+        public void put(int index, E element) {
+            int spineIndex = index / LEGACY_SPINE_SIZE;
+            int indexInSpine = index % LEGACY_SPINE_SIZE;
+            readWriteSemaphore.acquireUninterruptibly();
+            try {
+                this.spines.computeIfAbsent(spineIndex, this::newSpine).set(indexInSpine, element);
+            } finally {
+                readWriteSemaphore.release();
+            }
+        }
+
+        public E get(int index) {
+            int spineIndex = index / LEGACY_SPINE_SIZE;
+            int indexInSpine = index % LEGACY_SPINE_SIZE;
+            readWriteSemaphore.acquireUninterruptibly();
+            try {
+                return this.spines.computeIfAbsent(spineIndex, this::newSpine).get(indexInSpine);
+            } finally {
+                readWriteSemaphore.release();
+            }
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int threadCount = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        int elementCount = args.length > 1 ? Integer.parseInt(args[1]) : 2_000_000;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        LegacySpinedIntObjectMap<byte[][]> legacyMap = new LegacySpinedIntObjectMap<>();
+        SpinedIntObjectMap<byte[][]> spinedMap = new SpinedIntObjectMap<>();
+        byte[][] value = new byte[][]{new byte[]{1, 2, 3, 4}};
+        for (int i = 0; i < elementCount; i++) {
+            legacyMap.put(i, value);
+            spinedMap.put(i, value);
+        }
+        System.out.println("Threads: " + threadCount + " elements: " + elementCount + " seconds per run: " + seconds);
+
+        // Warm up both paths before measuring.
+        run("warmup legacy", legacyMap::get, threadCount, elementCount, 1);
+        run("warmup spined", spinedMap::get, threadCount, elementCount, 1);
+
+        double legacyRate = run("Legacy semaphore/ConcurrentHashMap", legacyMap::get, threadCount, elementCount, seconds);
+        double spinedRate = run("Lock free spine directory", spinedMap::get, threadCount, elementCount, seconds);
+        System.out.println(String.format("Speedup: %.2fx", spinedRate / legacyRate));
+    }
+
+    private static double run(String name, IntFunction<byte[][]> reader, int threadCount, int elementCount, int seconds)
+            throws InterruptedException {
+        LongAdder reads = new LongAdder();
+        LongAdder misses = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threadCount);
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        for (int t = 0; t < threadCount; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    long localReads = 0;
+                    while (System.nanoTime() < deadline) {
+                        for (int i = 0; i < 1024; i++) {
+                            if (reader.apply(random.nextInt(elementCount)) == null) {
+                                misses.increment();
+                            }
+                        }
+                        localReads += 1024;
+                    }
+                    reads.add(localReads);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }, name + "-" + t);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        start.countDown();
+        done.await();
+        double readsPerSecond = reads.sum() / (double) seconds;
+        System.out.println(String.format("%s: %,.0f reads/second (%d misses)", name, readsPerSecond, misses.sum()));
+        return readsPerSecond;
+    }
+}
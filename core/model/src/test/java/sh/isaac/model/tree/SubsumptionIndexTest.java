@@ -0,0 +1,127 @@
+package sh.isaac.model.tree;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link SubsumptionIndexTest}.
+ *
+ * @author kec
+ */
+public class SubsumptionIndexTest {
+   private static final int NID_OFFSET = Integer.MIN_VALUE + 1000;
+
+   /**
+    * Compare the index to a search of random multi parent hierarchies.
+    */
+   @Test
+   public void testRandomHierarchies() {
+      final Random random = new Random(42);
+
+      for (int trial = 0; trial < 200; trial++) {
+         final int              conceptCount = 2 + random.nextInt(100);
+         final List<Set<Integer>> children   = new ArrayList<>();
+
+         for (int i = 0; i < conceptCount; i++) {
+            children.add(new TreeSet<>());
+         }
+
+         for (int i = 1; i < conceptCount; i++) {
+            final int parentCount = 1 + random.nextInt(3);
+
+            for (int j = 0; j < parentCount; j++) {
+               children.get(random.nextInt(i))
+                       .add(i);
+            }
+         }
+
+         final SubsumptionIndex index = build(children);
+
+         for (int parent = 0; parent < conceptCount; parent++) {
+            final Set<Integer> expected = search(children, parent);
+
+            for (int child = 0; child < conceptCount; child++) {
+               assertEquals(expected.contains(child), index.isDescendentOf(NID_OFFSET + child, NID_OFFSET + parent));
+            }
+
+            final int[] descendentNids = index.getDescendentNids(NID_OFFSET + parent);
+
+            Arrays.sort(descendentNids);
+            assertArrayEquals(expected.stream()
+                                      .mapToInt(i -> NID_OFFSET + i)
+                                      .toArray(), descendentNids);
+         }
+      }
+   }
+
+   /**
+    * A cycle must not prevent the index from being built, or make a concept its own descendant
+    * through a self reference.
+    */
+   @Test
+   public void testCycles() {
+      final List<Set<Integer>> children = new ArrayList<>();
+
+      for (int i = 0; i < 4; i++) {
+         children.add(new TreeSet<>());
+      }
+
+      children.get(0).add(1);
+      children.get(1).add(2);
+      children.get(2).add(1);
+      children.get(3).add(3);
+
+      final SubsumptionIndex index = build(children);
+
+      assertTrue(index.isDescendentOf(NID_OFFSET + 2, NID_OFFSET));
+      assertTrue(index.isDescendentOf(NID_OFFSET + 2, NID_OFFSET + 1));
+      assertFalse(index.isDescendentOf(NID_OFFSET + 3, NID_OFFSET + 3));
+      assertFalse(index.isDescendentOf(NID_OFFSET + 1, NID_OFFSET + 4));
+   }
+
+   private static SubsumptionIndex build(List<Set<Integer>> children) {
+      final int[][] childNids = new int[children.size()][];
+
+      for (int i = 0; i < childNids.length; i++) {
+         childNids[i] = children.get(i)
+                                .stream()
+                                .mapToInt(child -> NID_OFFSET + child)
+                                .toArray();
+      }
+
+      return SubsumptionIndex.build(IntStream.range(0, childNids.length)
+                                             .map(i -> NID_OFFSET + i)
+                                             .toArray(),
+                                    childNids.length,
+                                    nid -> childNids[nid - NID_OFFSET]);
+   }
+
+   private static Set<Integer> search(List<Set<Integer>> children, int parent) {
+      final Set<Integer>   descendents = new TreeSet<>();
+      final Deque<Integer> toVisit     = new ArrayDeque<>(children.get(parent));
+
+      while (!toVisit.isEmpty()) {
+         final int nid = toVisit.pop();
+
+         if (descendents.add(nid)) {
+            toVisit.addAll(children.get(nid));
+         }
+      }
+
+      return descendents;
+   }
+}
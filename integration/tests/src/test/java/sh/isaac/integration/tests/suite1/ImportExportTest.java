@@ -54,12 +54,14 @@ import sh.isaac.api.Get;
 import sh.isaac.api.TaxonomySnapshot;
 import sh.isaac.api.classifier.ClassifierResults;
 import sh.isaac.api.classifier.ClassifierService;
+import sh.isaac.api.chronicle.Chronology;
 import sh.isaac.api.collections.NidSet;
 import sh.isaac.api.commit.CommitService;
 import sh.isaac.api.component.semantic.SemanticChronology;
 import sh.isaac.api.coordinate.*;
 import sh.isaac.api.externalizable.BinaryDataReaderService;
 import sh.isaac.api.externalizable.DataWriterService;
+import sh.isaac.api.externalizable.IsaacExternalizable;
 import sh.isaac.api.externalizable.IsaacObjectType;
 import sh.isaac.api.logic.ConcreteDomainOperators;
 import sh.isaac.api.logic.LogicalExpression;
@@ -67,13 +69,21 @@ import sh.isaac.api.logic.LogicalExpressionBuilder;
 import sh.isaac.api.tree.Tree;
 import sh.isaac.api.tree.TreeNodeVisitData;
 import sh.isaac.model.ModelGet;
+import sh.isaac.model.datastream.CompactIbdfFile;
+import sh.isaac.model.datastream.IsaacExternalizableUnparsed;
 import sh.isaac.model.logic.LogicByteArrayConverterService;
 import sh.isaac.model.logic.definition.LogicalExpressionBuilderProvider;
+import sh.isaac.provider.ibdf.CompactBinaryDataWriterProvider;
 
+import java.io.BufferedInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Arrays;
+import java.util.Optional;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicInteger;
 import sh.isaac.api.bootstrap.TermAux;
@@ -272,6 +282,106 @@ public class ImportExportTest {
       }
    }
 
+   /**
+    * Test a compact export, read back in file order and by block. The blocks are small, so that the export has many
+    * blocks, and records that reference UUIDs first written in earlier blocks.
+    */
+   @Test(
+      groups           = { "load" },
+      dependsOnMethods = { "testLoad" }
+   )
+   public void testCompactExportRead() {
+      LOG.info("Testing compact export and read");
+
+      try {
+         final Path exportPath = Paths.get("target", "data", "exported", "IsaacMetadataAuxiliary.compact.ibdf");
+         final IsaacExternalizableStatsTestFilter exportStats = new IsaacExternalizableStatsTestFilter();
+         final CompactBinaryDataWriterProvider writer = new CompactBinaryDataWriterProvider(exportPath, 1 << 12);
+
+         Get.isaacExternalizableStream()
+            .filter(exportStats)
+            .forEach(writer::put);
+         writer.close();
+         LOG.info("exported components: " + exportStats);
+
+         final IsaacExternalizableStatsTestFilter streamStats = new IsaacExternalizableStatsTestFilter();
+         try (InputStream input = new BufferedInputStream(Files.newInputStream(exportPath))) {
+            readCompactStream(input, streamStats);
+         }
+         Assert.assertEquals(streamStats, exportStats);
+
+         final IsaacExternalizableStatsTestFilter blockStats = new IsaacExternalizableStatsTestFilter();
+         try (CompactIbdfFile file = CompactIbdfFile.open(exportPath)) {
+            Assert.assertTrue(file.getBlockCount() > 1, "Only " + file.getBlockCount() + " block written");
+            file.parallelStream()
+                .map(IsaacExternalizableUnparsed::parse)
+                .filter(blockStats)
+                .forEach(this::assertMatchesStored);
+         }
+         Assert.assertEquals(blockStats, exportStats);
+
+         // Without the trailer, the file can't be opened for random access, but every record can be read in order.
+         final byte[] fileBytes = Files.readAllBytes(exportPath);
+         final Path noTrailerPath = Paths.get("target", "data", "exported", "IsaacMetadataAuxiliary.noTrailer.ibdf");
+         Files.write(noTrailerPath, Arrays.copyOf(fileBytes, fileBytes.length - 12));
+         try (CompactIbdfFile file = CompactIbdfFile.open(noTrailerPath)) {
+            Assert.fail("Opened a compact file without a trailer");
+         } catch (final IOException e) {
+            LOG.info("Compact file without a trailer not opened: " + e.getMessage());
+         }
+         final IsaacExternalizableStatsTestFilter noTrailerStats = new IsaacExternalizableStatsTestFilter();
+         try (InputStream input = new BufferedInputStream(Files.newInputStream(noTrailerPath))) {
+            readCompactStream(input, noTrailerStats);
+         }
+         Assert.assertEquals(noTrailerStats, exportStats);
+
+         // Cut off in the middle of the blocks, reading in order fails, rather than ending early.
+         final Path truncatedPath = Paths.get("target", "data", "exported", "IsaacMetadataAuxiliary.truncated.ibdf");
+         Files.write(truncatedPath, Arrays.copyOf(fileBytes, fileBytes.length / 2));
+         try (InputStream input = new BufferedInputStream(Files.newInputStream(truncatedPath))) {
+            readCompactStream(input, new IsaacExternalizableStatsTestFilter());
+            Assert.fail("Read every record of a truncated compact file");
+         } catch (final IOException e) {
+            LOG.info("Truncated compact file not read: " + e);
+         }
+      } catch (final IOException e) {
+         Assert.fail("Compact export failed", e);
+      }
+   }
+
+   /**
+    * Parse and count every record of a compact IBDF stream, in order.
+    *
+    * @param input the stream
+    * @param stats the counts of the records
+    * @throws IOException if the stream can't be read
+    */
+   private void readCompactStream(InputStream input, IsaacExternalizableStatsTestFilter stats)
+            throws IOException {
+      final CompactIbdfFile.StreamReader reader = new CompactIbdfFile.StreamReader(input);
+      IsaacExternalizableUnparsed record;
+
+      while ((record = reader.next()) != null) {
+         stats.test(record.parse());
+      }
+   }
+
+   /**
+    * Check a chronology read from a file against the stored chronology with the same nid.
+    *
+    * @param isaacExternalizable the object read
+    */
+   private void assertMatchesStored(IsaacExternalizable isaacExternalizable) {
+      if (isaacExternalizable instanceof Chronology) {
+         final Chronology chronology = (Chronology) isaacExternalizable;
+         final Optional<? extends Chronology> stored = Get.identifiedObjectService().getChronology(chronology.getNid());
+
+         Assert.assertTrue(stored.isPresent(), "Not stored: " + chronology.getPrimordialUuid());
+         Assert.assertEquals(chronology.getPrimordialUuid(), stored.get().getPrimordialUuid());
+         Assert.assertEquals(chronology.getVersionList().size(), stored.get().getVersionList().size());
+      }
+   }
+
    /**
     * Test inferred taxonomy.
     */
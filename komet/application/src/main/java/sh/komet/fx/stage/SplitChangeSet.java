@@ -4,6 +4,7 @@ import sh.isaac.api.Get;
 import sh.isaac.api.externalizable.BinaryDataReaderService;
 import sh.isaac.api.externalizable.DataWriterService;
 import sh.isaac.api.task.TimedTaskWithProgressTracker;
+import sh.isaac.model.ChronologyDelta;
 import sh.isaac.model.ChronologyImpl;
 
 import java.io.File;
@@ -39,7 +40,9 @@ public class SplitChangeSet extends TimedTaskWithProgressTracker<Integer>  {
             reader.getStream().forEach(object -> {
                 writerReference.get().put(object);
 
-                byte[] data = ((ChronologyImpl) object).getChronologyDataToWrite();
+                ChronologyImpl chronology = object instanceof ChronologyDelta
+                        ? ((ChronologyDelta) object).getChronology() : (ChronologyImpl) object;
+                byte[] data = chronology.getChronologyDataToWrite();
                 if (bytesWritten.addAndGet(data.length) > fileSize) {
                     setupNextWriter(writerReference, sequence, bytesWritten);
                     bytesWritten.set(0);
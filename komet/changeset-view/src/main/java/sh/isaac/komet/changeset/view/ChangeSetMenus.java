@@ -132,9 +132,11 @@ public class ChangeSetMenus implements MenuProvider {
                                     o -> {
                                         switch (o.getIsaacObjectType()) {
                                             case CONCEPT:
+                                            case CONCEPT_DELTA:
                                                 conceptCount.incrementAndGet();
                                                 break;
                                             case SEMANTIC:
+                                            case SEMANTIC_DELTA:
                                                 semanticCount.incrementAndGet();
                                                 break;
                                         }
@@ -26,6 +26,7 @@ import sh.isaac.api.externalizable.BinaryDataReaderService;
 import sh.isaac.api.externalizable.IsaacExternalizable;
 import sh.isaac.api.externalizable.IsaacObjectType;
 import sh.isaac.api.util.time.DateTimeUtil;
+import sh.isaac.model.ChronologyDelta;
 import sh.isaac.model.concept.ConceptChronologyImpl;
 import sh.isaac.model.semantic.SemanticChronologyImpl;
 
@@ -122,6 +123,11 @@ public class FXMLController {
                     }
                     break;
                 }
+                case CONCEPT_DELTA:
+                case SEMANTIC_DELTA: {
+                    processItem(parent, ((ChronologyDelta) item).getChronology());
+                    break;
+                }
                 case STAMP: {
                     parent.getChildren().add(new TreeItem(objectType));
                     break;
@@ -77,17 +77,12 @@ import javafx.scene.layout.AnchorPane;
 import javafx.stage.FileChooser;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.apache.mahout.math.map.OpenIntIntHashMap;
 import org.controlsfx.control.action.Action;
 import org.controlsfx.control.action.ActionGroup;
 import org.controlsfx.control.action.ActionUtils;
 import sh.isaac.api.Get;
 import sh.isaac.api.bootstrap.TermAux;
-import sh.isaac.api.chronicle.LatestVersion;
 import sh.isaac.api.component.concept.ConceptSpecification;
-import sh.isaac.api.coordinate.StampFilter;
-import sh.isaac.api.observable.ObservableSnapshotService;
-import sh.isaac.api.observable.ObservableVersion;
 import sh.isaac.api.query.*;
 import sh.isaac.api.query.clauses.DescriptionLuceneMatch;
 import sh.isaac.api.util.NaturalOrder;
@@ -125,6 +120,10 @@ public class FLWORQueryController extends ExplorationNodeAbstract {
     private static final Logger LOG = LogManager.getLogger();
     private static final String CLAUSE = "clause";
     public static final boolean OUTPUT_CSS_STYLE_INFO = false;
+    /**
+     * The number of result rows shown on a page of the result table.
+     */
+    private static final int RESULT_PAGE_SIZE = 500;
 
     //~--- fields --------------------------------------------------------------
     {
@@ -166,6 +165,8 @@ public class FLWORQueryController extends ExplorationNodeAbstract {
     private Button cancelButton;      // Value injected by FXMLLoader
     @FXML                                                                         // fx:id="resultTable"
     private TableView<List<String>> resultTable;       // Value injected by FXMLLoader
+    @FXML                                                                         // fx:id="resultPagination"
+    private Pagination resultPagination;       // Value injected by FXMLLoader
     @FXML                                                                         // fx:id="textColumn"
     private TableColumn<List<String>, String> textColumn;        // Value injected by FXMLLoader
     @FXML                                                                         // fx:id="typeColumn"
@@ -251,6 +252,7 @@ public class FLWORQueryController extends ExplorationNodeAbstract {
 
     private LetItemsController letItemsController;
     private Query query;
+    private QueryResults results;
     private final List<AttributeSpecification> resultColumns = new ArrayList<>();
 
     ObservableList<JoinProperty> joinProperties = FXCollections.observableArrayList();
@@ -294,57 +296,39 @@ public class FLWORQueryController extends ExplorationNodeAbstract {
 
     
      */
-    void displayResults(int[][] resultArray, Map<ConceptSpecification, Integer> assemblageToIndexMap) {
-        ObservableList<List<String>> tableItems = resultTable.getItems();
-        int columnCount = resultTable.getColumns().size();
-        tableItems.clear();
-        OpenIntIntHashMap fastAssemblageNidToIndexMap = new OpenIntIntHashMap();
-        for (Map.Entry<ConceptSpecification, Integer> entry : assemblageToIndexMap.entrySet()) {
-            fastAssemblageNidToIndexMap.put(entry.getKey().getNid(), entry.getValue());
-        }
-        //ObservableSnapshotService snapshot = Get.observableSnapshotService(this.manifold);
-        ObservableSnapshotService[] snapshotArray = new ObservableSnapshotService[columnCount];
-        for (int column = 0; column < resultColumns.size(); column++) {
-            AttributeSpecification columnSpecification = resultColumns.get(column);
-            if (columnSpecification.getStampFilterKey() != null) {
-                StampFilter stamp = (StampFilter) letPropertySheet.getLetItemObjectMap().get(columnSpecification.getStampFilterKey());
-                if (stamp == null) {
-                    throw new IllegalStateException("No coordinate for key: " + columnSpecification.getStampFilterKey());
-                }
-                snapshotArray[column] = Get.observableSnapshotService(stamp);
+    void displayResults(QueryResults results) {
+        for (AttributeSpecification columnSpecification : resultColumns) {
+            if (columnSpecification.getStampFilterKey() != null
+                    && letPropertySheet.getLetItemObjectMap().get(columnSpecification.getStampFilterKey()) == null) {
+                throw new IllegalStateException("No coordinate for key: " + columnSpecification.getStampFilterKey());
             }
         }
+        this.results = results;
+        this.resultPagination.setPageCount(Math.max(1, (results.size() + RESULT_PAGE_SIZE - 1) / RESULT_PAGE_SIZE));
+        this.resultPagination.setCurrentPageIndex(0);
+        displayResultPage(0);
+    }
 
-        for (int row = 0; row < resultArray.length; row++) {
-            String[] resultRow = new String[columnCount];
-            LatestVersion[] latestVersionArray = new LatestVersion[resultArray[row].length];
-            List[] propertyListArray = new List[resultArray[row].length];
-            for (int column = 0; column < latestVersionArray.length; column++) {
-                latestVersionArray[column] = snapshotArray[column].getObservableVersion(resultArray[row][column]);
-                if (latestVersionArray[column].isPresent()) {
-                    propertyListArray[column] = ((ObservableVersion) latestVersionArray[column].get()).getProperties();
-                } else {
-                    propertyListArray[column] = null;
-                }
-            }
-            for (int column = 0; column < resultColumns.size(); column++) {
-                AttributeSpecification columnSpecification = resultColumns.get(column);
-                int resultArrayNidIndex = fastAssemblageNidToIndexMap.get(columnSpecification.getAssemblageNid());
-                if (latestVersionArray[resultArrayNidIndex].isPresent()) {
-                    List<ReadOnlyProperty<?>> propertyList = propertyListArray[resultArrayNidIndex];
-                    ReadOnlyProperty<?> property = propertyList.get(columnSpecification.getPropertyIndex());
-                    if (columnSpecification.getAttributeFunction() != null) {
-                        StampFilter sc = (StampFilter) letPropertySheet.getLetItemObjectMap().get(columnSpecification.getStampFilterKey());
-                        resultRow[column] = columnSpecification.getAttributeFunction().apply(property.getValue().toString(), sc, query);
-                    } else {
-                        resultRow[column] = property.getValue().toString();
-                    }
-                }
-            }
-            tableItems.add(Arrays.asList(resultRow));
+    /**
+     * Show a page of the results in the result table. The values of the rows are read for just the rows of the page.
+     *
+     * @param pageIndex the page, starting with 0
+     */
+    private void displayResultPage(int pageIndex) {
+        if (this.results == null) {
+            resultTable.getItems().clear();
+        } else {
+            resultTable.getItems().setAll(this.results.getPage(pageIndex + 1, RESULT_PAGE_SIZE));
         }
     }
 
+    private void clearResults() {
+        this.results = null;
+        this.resultPagination.setPageCount(1);
+        this.resultPagination.setCurrentPageIndex(0);
+        displayResultPage(0);
+    }
+
     @FXML
     void importFlwor(ActionEvent event) {
         FileChooser fileChooser = new FileChooser();
@@ -445,8 +429,10 @@ public class FLWORQueryController extends ExplorationNodeAbstract {
                         writer.append("\n");
                     }
                 }
-                ObservableList<List<String>> tableRows = resultTable.getItems();
-                for (List<String> row : tableRows) {
+                // Export every row, not just the page in the table.
+                Iterator<List<String>> rows = this.results == null ? Collections.emptyIterator() : this.results.stream().iterator();
+                while (rows.hasNext()) {
+                    List<String> row = rows.next();
                     for (int i = 0; i < columnCount; i++) {
                         String cellString = row.get(i);
                         writer.append(cellString);
@@ -468,7 +454,7 @@ public class FLWORQueryController extends ExplorationNodeAbstract {
         this.forPropertySheet.reset();
         this.letItemsController.reset();
         this.returnSpecificationController.reset();
-        this.resultTable.getItems().clear();
+        clearResults();
         this.resultColumns.clear();
 
         Query q = new Query(forPropertySheet.getForSetSpecification());
@@ -482,7 +468,7 @@ public class FLWORQueryController extends ExplorationNodeAbstract {
 
     @FXML
     void cancelQuery(ActionEvent event) {
-        resultTable.getItems().clear();
+        clearResults();
         FxGet.statusMessageService()
                 .reportSceneStatus(anchorPane.getScene(), "FLWOR query canceled. (Cancel not completely implemented)");
     }
@@ -504,16 +490,15 @@ public class FLWORQueryController extends ExplorationNodeAbstract {
             this.query.setRoot(rootClause);
             rootClause.setEnclosingQuery(query);
 
-            int[][] resultArray = query.reify();
+            QueryResults results = query.getResults();
             LOG.info("Finished FLWOR query reify: " + DurationUtil.format(Duration.between(startTime, Instant.now())));
-            ForSet forSet = query.getForSetSpecification();
 
             NumberFormat formatter = new DecimalFormat("#0.000");
             FxGet.statusMessageService()
                     .reportSceneStatus(anchorPane.getScene(), "Query result count: "
-                            + resultArray.length + " in "
+                            + results.size() + " in "
                             + formatter.format((System.currentTimeMillis() - msStart) / 1000.0) + " seconds");
-            displayResults(resultArray, forSet.getAssembalgeToIndexMap());
+            displayResults(results);
             LOG.info("Finished FLWOR query display (combined total): " + DurationUtil.format(Duration.between(startTime, Instant.now())));
         } catch (Exception e) {
             FxGet.dialogs().showErrorDialog("Error during query...", e);
@@ -541,11 +526,13 @@ public class FLWORQueryController extends ExplorationNodeAbstract {
         assert progressBar != null : "fx:id=\"progressBar\" was not injected: check your FXML file 'FLOWRQuery.fxml'.";
         assert cancelButton != null : "fx:id=\"cancelButton\" was not injected: check your FXML file 'FLOWRQuery.fxml'.";
         assert resultTable != null : "fx:id=\"resultTable\" was not injected: check your FXML file 'FLOWRQuery.fxml'.";
+        assert resultPagination != null : "fx:id=\"resultPagination\" was not injected: check your FXML file 'FLOWRQuery.fxml'.";
         assert textColumn != null : "fx:id=\"textColumn\" was not injected: check your FXML file 'FLOWRQuery.fxml'.";
         assert typeColumn != null : "fx:id=\"typeColumn\" was not injected: check your FXML file 'FLOWRQuery.fxml'.";
         assert languageColumn != null : "fx:id=\"languageColumn\" was not injected: check your FXML file 'FLOWRQuery.fxml'.";
         assert forAnchorPane != null : "fx:id=\"forAnchorPane\" was not injected: check your FXML file 'FLOWRQuery.fxml'.";
         assert letAnchorPane != null : "fx:id=\"letAnchorPane\" was not injected: check your FXML file 'FLOWRQuery.fxml'.";
+        resultPagination.currentPageIndexProperty().addListener((observable, oldValue, newValue) -> displayResultPage(newValue.intValue()));
         resultTable.setOnDragDetected(new DragDetectedCellEventHandler());
         resultTable.setOnDragDone(new DragDoneEventHandler());
         resultTable.setContextMenu(null);
@@ -16,16 +16,15 @@
  */
 package sh.isaac.komet.gui.graphview;
 
-import java.util.Collection;
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 import javafx.application.Platform;
 import sh.isaac.api.Get;
-import sh.isaac.api.Edge;
 import sh.isaac.api.component.concept.ConceptChronology;
-import sh.isaac.api.coordinate.ManifoldCoordinate;
-import sh.isaac.api.navigation.Navigator;
-import sh.isaac.api.task.TaskCountManager;
+import sh.isaac.api.navigation.NavigationRow;
 import sh.isaac.api.task.TimedTaskWithProgressTracker;
 import sh.komet.gui.util.FxGet;
 
@@ -79,41 +78,26 @@ public class FetchChildren extends TimedTaskWithProgressTracker<Void> {
             if (conceptChronology == null) {
                 LOG.debug("addChildren(): conceptChronology={}", conceptChronology);
             } else {  // if (conceptChronology != null)
-                // Gather the children
-                ConcurrentSkipListSet<MultiParentGraphItemImpl> childrenToAdd = new ConcurrentSkipListSet<>();
-                Navigator navigator = parentGraphItem.getGraphView().getNavigator();
-                ManifoldCoordinate manifold = parentGraphItem.getGraphView().getManifoldCoordinate();
-                Collection<Edge>  children = (Collection<Edge>) navigator.getChildLinks(conceptChronology.getNid());
-                addToTotalWork(children.size() + 1);
-
-                TaskCountManager taskCountManager = Get.taskCountManager();
-                for (Edge childLink : children) {
-                    taskCountManager.acquire();
-                    Get.executor().execute(() -> {
-                        try {
-                            ConceptChronology childChronology = Get.concept(childLink.getDestinationNid());
-                            MultiParentGraphItemImpl childItem = new MultiParentGraphItemImpl(childChronology, parentGraphItem.getGraphView(), childLink.getTypeNid(), null);
-                            childItem.setDefined(childChronology.isSufficientlyDefined(manifold.getVertexStampFilter(), manifold.getLogicCoordinate()));
-                            childItem.toString();
-                            childItem.setMultiParent(navigator.getParentNids(childLink.getDestinationNid()).length > 1);
-                            childItem.isLeaf();
-
+                // Gather the children, from rows computed in one batch for the view's coordinate
+                NavigationRow[] childRows = parentGraphItem.getGraphView().getChildRows(conceptChronology.getNid());
+                addToTotalWork(childRows.length + 1);
+                List<MultiParentGraphItemImpl> childrenToAdd = Arrays.stream(childRows)
+                        .parallel()
+                        .map(childRow -> {
+                            MultiParentGraphItemImpl childItem = new MultiParentGraphItemImpl(childRow, parentGraphItem.getGraphView());
+                            completedUnitOfWork();
+                            return childItem;
+                        })
+                        .filter(childItem -> {
                             if (childItem.shouldDisplay()) {
-                                childrenToAdd.add(childItem);
-                            } else {
-                                LOG.debug(
-                                        "item.shouldDisplay() == false: not adding " + childItem.getConceptUuid() + " as child of "
-                                                + parentGraphItem.getConceptUuid());
+                                return true;
                             }
-                        } finally {
-                            taskCountManager.release();
-                        }
-                    });
-
-                    completedUnitOfWork();
-                    if (isCancelled()) return null;
-                }
-                taskCountManager.waitForCompletion();
+                            LOG.debug(
+                                    "item.shouldDisplay() == false: not adding " + childItem.getConceptUuid() + " as child of "
+                                            + parentGraphItem.getConceptUuid());
+                            return false;
+                        })
+                        .collect(Collectors.toList());
                 if (isCancelled()) return null;
                 Platform.runLater(
                         () -> {
@@ -55,8 +55,7 @@ import sh.isaac.api.Get;
 import sh.isaac.api.Edge;
 import sh.isaac.api.bootstrap.TermAux;
 import sh.isaac.api.component.concept.ConceptChronology;
-import sh.isaac.api.coordinate.ManifoldCoordinate;
-import sh.isaac.api.navigation.Navigator;
+import sh.isaac.api.navigation.NavigationRow;
 import sh.isaac.api.util.NaturalOrder;
 
 //~--- classes ----------------------------------------------------------------
@@ -128,6 +127,17 @@ public class MultiParentGraphItemImpl
         this.typeNid = typeNid;
     }
 
+    /**
+     * A child item, with its flags and text taken from its navigation row rather than looked up.
+     */
+    MultiParentGraphItemImpl(NavigationRow row, MultiParentGraphViewController graphView) {
+        this(Get.concept(row.getConceptNid()), graphView, row.getTypeNid(), null);
+        this.defined = row.isDefined();
+        this.multiParent = row.isMultiParent();
+        this.leafStatus = row.isLeaf() ? LeafStatus.IS_LEAF : LeafStatus.NOT_LEAF;
+        this.conceptDescriptionText = row.getSortKey();
+    }
+
     //~--- methods -------------------------------------------------------------
     public void blockUntilChildrenReady()
             throws InterruptedException {
@@ -239,19 +249,15 @@ public class MultiParentGraphItemImpl
                     // Gather the children
                     LOG.info("addChildrenNOW(): conceptChronology={}", conceptChronology);
                     ArrayList<MultiParentGraphItemImpl> childrenToAdd = new ArrayList<>();
-                    Navigator navigator = graphView.getNavigator();
+                    NavigationRow[] childRows = graphView.getChildRows(conceptChronology.getNid());
 
                     if (childLinks == null) {
-                        childLinks = navigator.getChildLinks(conceptChronology.getNid());
+                        childLinks = graphView.getNavigator().getChildLinks(conceptChronology.getNid());
                     }
 
-                    for (Edge childLink : childLinks) {
-                        ConceptChronology childChronology = Get.concept(childLink.getDestinationNid());
-                        MultiParentGraphItemImpl childItem = new MultiParentGraphItemImpl(childChronology, graphView, childLink.getTypeNid(), null);
-                        ManifoldCoordinate manifold = graphView.getManifoldCoordinate();
-                        childItem.setDefined(childChronology.isSufficientlyDefined(manifold.getVertexStampFilter(), manifold.getLogicCoordinate()));
-                        childItem.toString();
-                        childItem.setMultiParent(navigator.getParentNids(childLink.getDestinationNid()).length > 1);
+                    // The rows are already in sort order.
+                    for (NavigationRow childRow : childRows) {
+                        MultiParentGraphItemImpl childItem = new MultiParentGraphItemImpl(childRow, graphView);
 
                         if (childItem.shouldDisplay()) {
                             childrenToAdd.add(childItem);
@@ -262,8 +268,6 @@ public class MultiParentGraphItemImpl
                         }
                     }
 
-                    Collections.sort(childrenToAdd);
-
                     if (cancelLookup) {
                         return;
                     }
@@ -42,6 +42,7 @@ import sh.isaac.api.coordinate.ManifoldCoordinateImmutable;
 import sh.isaac.api.coordinate.StampPathImmutable;
 import sh.isaac.api.identity.IdentifiedObject;
 import sh.isaac.api.navigation.EmptyNavigator;
+import sh.isaac.api.navigation.NavigationRow;
 import sh.isaac.api.navigation.Navigator;
 import sh.isaac.api.observable.coordinate.ObservableManifoldCoordinate;
 import sh.isaac.api.preferences.IsaacPreferences;
@@ -740,6 +741,14 @@ public class MultiParentGraphViewController implements RefreshListener {
         return navigatorProperty.get();
     }
 
+    /**
+     * @param parentNid the concept being expanded
+     * @return the rows of its children, sorted, from the navigator's cache for this view's coordinate
+     */
+    protected NavigationRow[] getChildRows(int parentNid) {
+        return navigatorProperty.get().getChildRows(parentNid);
+    }
+
     public BorderPane getView() {
         return topBorderPane;
     }
@@ -26,7 +26,7 @@ import sh.isaac.api.component.semantic.SemanticChronology;
 import sh.isaac.api.externalizable.DataWriteListener;
 import sh.isaac.api.externalizable.DataWriterService;
 import sh.isaac.api.externalizable.IsaacObjectType;
-import sh.isaac.provider.ibdf.BinaryDataWriterProvider;
+import sh.isaac.provider.ibdf.CompactBinaryDataWriterProvider;
 
 /**
  * Used to intercept the data being written to the datastore, so we can also write out an IBDF file at the same time.
@@ -38,7 +38,7 @@ public class DataWriteListenerImpl implements DataWriteListener
 {
 	private Logger log = LogManager.getLogger();
 	
-	private BinaryDataWriterProvider writer;
+	private CompactBinaryDataWriterProvider writer;
 	private Set<Integer> assemblageTypesToIgnore;
 	private ConcurrentHashMap<Integer, Boolean> chainedIgnores = new ConcurrentHashMap<>(); 
 	int ignored = 0;
@@ -46,7 +46,7 @@ public class DataWriteListenerImpl implements DataWriteListener
 	public DataWriteListenerImpl(Path ibdfFileToWrite, Set<Integer> assemblageTypesToIgnore) throws IOException 
 	{
 		log.info("Writing IBDF to " + ibdfFileToWrite.toFile().getCanonicalPath());
-		this.writer = new BinaryDataWriterProvider(ibdfFileToWrite, true);
+		this.writer = new CompactBinaryDataWriterProvider(ibdfFileToWrite);
 		this.assemblageTypesToIgnore = assemblageTypesToIgnore;
 	}
 	
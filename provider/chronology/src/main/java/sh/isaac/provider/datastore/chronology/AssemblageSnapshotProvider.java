@@ -128,7 +128,7 @@ public class AssemblageSnapshotProvider<V extends SemanticVersion>
    public List<LatestVersion<V>> getLatestDescriptionVersionsForComponent(int componentNid) {
       List<LatestVersion<V>> results = new ArrayList<>();
       for (int semanticNid : this.semanticProvider.getSemanticNidsForComponent(componentNid).toArray()) {
-         SemanticChronologyImpl semanticChronology = (SemanticChronologyImpl) this.semanticProvider.getSemanticChronology(semanticNid);
+         SemanticChronologyImpl semanticChronology = getSemanticChronology(semanticNid);
          if (semanticChronology.getVersionType() == VersionType.DESCRIPTION) {
             results.add(this.getLatestSemanticVersion(semanticChronology));
          }
@@ -144,13 +144,26 @@ public class AssemblageSnapshotProvider<V extends SemanticVersion>
     */
    @Override
    public LatestVersion<V> getLatestSemanticVersion(int semanticNid) {
-      final SemanticChronologyImpl sc = (SemanticChronologyImpl) this.semanticProvider.getSemanticChronology(semanticNid);
+      final SemanticChronologyImpl sc = getSemanticChronology(semanticNid);
       return getLatestSemanticVersion(sc);
    }
 
+   /**
+    * Gets the semantic chronology, decoding only the versions that are latest for this snapshot's
+    * calculator when the chronology is read from the data store.
+    *
+    * @param semanticNid the semantic nid
+    * @return the semantic chronology
+    */
+   private SemanticChronologyImpl getSemanticChronology(int semanticNid) {
+      if (this.semanticProvider instanceof ChronologyProvider) {
+         return (SemanticChronologyImpl) ((ChronologyProvider) this.semanticProvider).getSemanticChronology(semanticNid, this.calculator);
+      }
+      return (SemanticChronologyImpl) this.semanticProvider.getSemanticChronology(semanticNid);
+   }
+
    private LatestVersion<V> getLatestSemanticVersion(final SemanticChronologyImpl sc) {
-      final int[] stampSequences = sc.getVersionStampSequences();
-      final int[] latestSequences = this.calculator.getLatestStampSequencesAsSet(stampSequences);
+      final int[] latestSequences = sc.getLatestStampSequences(this.calculator);
 
       if (latestSequences.length == 0) {
          return new LatestVersion<>();
@@ -182,7 +195,7 @@ public class AssemblageSnapshotProvider<V extends SemanticVersion>
 
       List<LatestVersion<V>> results = new ArrayList<>(semanticNidSet.size());
       for (int semanticNid : semanticNidSet.toArray()) {
-         final SemanticChronologyImpl sc = (SemanticChronologyImpl) this.semanticProvider.getSemanticChronology(semanticNid);
+         final SemanticChronologyImpl sc = getSemanticChronology(semanticNid);
          results.add(getLatestSemanticVersion(sc));
          for (ProgressTracker tracker: progressTrackers) {
             tracker.completedUnitOfWork();
@@ -249,10 +262,8 @@ public class AssemblageSnapshotProvider<V extends SemanticVersion>
            ProgressTracker... progressTrackers) {
       return semanticNidStream.mapToObj((int semanticNid) -> {
          try {
-            final SemanticChronologyImpl sc = (SemanticChronologyImpl) this.semanticProvider.getSemanticChronology(semanticNid);
-            final int[] stampSequences = sc.getVersionStampSequences();
-            final int[] latestStampSequences = this.calculator.getLatestStampSequencesAsSet(
-                    stampSequences);
+            final SemanticChronologyImpl sc = getSemanticChronology(semanticNid);
+            final int[] latestStampSequences = sc.getLatestStampSequences(this.calculator);
 
             if (latestStampSequences.length == 0) {
                return Optional.empty();
@@ -60,6 +60,9 @@ import org.glassfish.hk2.runlevel.RunLevel;
 import org.jvnet.hk2.annotations.Service;
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Policy;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.github.benmanes.caffeine.cache.stats.ConcurrentStatsCounter;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import sh.isaac.api.DatastoreServices.DataStoreStartState;
@@ -88,16 +91,19 @@ import sh.isaac.api.component.semantic.version.MutableStringVersion;
 import sh.isaac.api.component.semantic.version.SemanticVersion;
 import sh.isaac.api.component.semantic.version.StringVersion;
 import sh.isaac.api.constants.DatabaseInitialization;
+import sh.isaac.api.constants.SystemPropertyConstants;
 import sh.isaac.api.coordinate.Coordinates;
 import sh.isaac.api.coordinate.LanguageCoordinate;
 import sh.isaac.api.coordinate.ManifoldCoordinate;
 import sh.isaac.api.coordinate.ManifoldCoordinateImmutable;
 import sh.isaac.api.coordinate.StampFilter;
 import sh.isaac.api.coordinate.StampFilterImmutable;
+import sh.isaac.api.datastore.ChronologyCacheService;
 import sh.isaac.api.datastore.DataStore;
 import sh.isaac.api.externalizable.BinaryDataReaderService;
 import sh.isaac.api.externalizable.ByteArrayDataBuffer;
 import sh.isaac.api.externalizable.IsaacObjectType;
+import sh.isaac.api.snapshot.calculator.RelativePositionCalculator;
 import sh.isaac.api.task.LabelTaskWithIndeterminateProgress;
 import sh.isaac.api.transaction.Transaction;
 import sh.isaac.model.ChronologyImpl;
@@ -115,7 +121,7 @@ import sh.isaac.model.semantic.SemanticChronologyImpl;
 @Service
 @RunLevel(value = LookupService.SL_L2)
 public class ChronologyProvider
-        implements ChronologyService, MetadataService {
+        implements ChronologyService, MetadataService, ChronologyCacheService {
 
     /**
      * The Constant LOG.
@@ -131,8 +137,40 @@ public class ChronologyProvider
 
    private AtomicLong writeSequence = new AtomicLong();
 
-   private Cache<Integer, Chronology> nidToChronologyCache = Caffeine.newBuilder()
-           .initialCapacity(1000).maximumSize(1000).build();
+   private final ConcurrentStatsCounter chronologyCacheStats = new ConcurrentStatsCounter();
+
+   /**
+    * Chronologies decoded from the data store, weighed by the size of their serialized data.
+    */
+   private final Cache<Integer, CachedChronology> nidToChronologyCache = makeChronologyCache();
+
+   private static final class CachedChronology {
+      final Chronology chronology;
+      final int serializedSize;
+
+      CachedChronology(Chronology chronology, int serializedSize) {
+         this.chronology = chronology;
+         this.serializedSize = serializedSize;
+      }
+   }
+
+   private Cache<Integer, CachedChronology> makeChronologyCache() {
+      long maximumBytes = Long.getLong(SystemPropertyConstants.CHRONOLOGY_CACHE_MAX_BYTES, Runtime.getRuntime().maxMemory() / 20);
+      Caffeine<Integer, CachedChronology> builder = Caffeine.newBuilder()
+              .maximumWeight(maximumBytes)
+              .weigher((Integer nid, CachedChronology cached) -> cached.serializedSize)
+              .recordStats(() -> this.chronologyCacheStats);
+      if (Boolean.getBoolean(SystemPropertyConstants.CHRONOLOGY_CACHE_SOFT_VALUES)) {
+         builder.softValues();
+      }
+      LOG.info("Chronology cache maximum size: " + maximumBytes + " bytes");
+      return builder.build();
+   }
+
+   private Chronology getCachedChronology(int nid) {
+      CachedChronology cached = this.nidToChronologyCache.getIfPresent(nid);
+      return cached == null ? null : cached.chronology;
+   }
 
     //~--- methods -------------------------------------------------------------
 
@@ -292,9 +330,32 @@ public class ChronologyProvider
     private void stopMe() {
         LOG.info("Stopping chronology provider for change to runlevel: " + LookupService.getProceedingToRunLevel());
         this.metadataLoaded.set(-1);
+        this.nidToChronologyCache.invalidateAll();
         LOG.info("Stopped chronology provider for change to runlevel: " + LookupService.getProceedingToRunLevel());
     }
 
+    @Override
+    public CacheStats getChronologyCacheStats() {
+        return this.nidToChronologyCache.stats();
+    }
+
+    @Override
+    public long getChronologyCacheWeightedSize() {
+        return this.nidToChronologyCache.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0L))
+                .orElse(0L);
+    }
+
+    @Override
+    public long getChronologyCacheMaximumWeight() {
+        return this.nidToChronologyCache.policy().eviction().map(Policy.Eviction::getMaximum).orElse(0L);
+    }
+
+    @Override
+    public void invalidateChronologyCache() {
+        this.nidToChronologyCache.invalidateAll();
+    }
+
     //~--- get methods ---------------------------------------------------------
     @Override
     public IsaacObjectType getObjectTypeForAssemblage(int assemblageNid) {
@@ -323,22 +384,36 @@ public class ChronologyProvider
 
     @Override
     public ConceptChronologyImpl getConceptChronology(int conceptId) {
-        Object possibleConcept = nidToChronologyCache.getIfPresent(conceptId);
+        return getConceptChronology(conceptId, null);
+    }
+
+    /**
+     * Get the concept chronology. If it is not cached, decode only its latest versions for the
+     * calculator, leaving the remaining versions to be decoded if they are needed.
+     *
+     * @param conceptId the concept nid
+     * @param calculator the calculator that selects the versions to decode, or null to decode all versions
+     * @return the concept chronology
+     */
+    public ConceptChronologyImpl getConceptChronology(int conceptId, RelativePositionCalculator calculator) {
+        Object possibleConcept = getCachedChronology(conceptId);
         if (possibleConcept != null && !(possibleConcept instanceof ConceptChronologyImpl)) {
             throw new IllegalStateException("Concept cache cannot contain: " + possibleConcept);
         }
 
         ConceptChronologyImpl chronology = (ConceptChronologyImpl) possibleConcept;
         if (chronology == null) {
+            long loadStart = System.nanoTime();
             Optional<ByteArrayDataBuffer> optionalByteBuffer = store.getChronologyVersionData(conceptId);
 
             if (optionalByteBuffer.isPresent()) {
                 ByteArrayDataBuffer byteBuffer = optionalByteBuffer.get();
                 IsaacObjectType.CONCEPT.readAndValidateHeader(byteBuffer);
-                chronology = ConceptChronologyImpl.make(byteBuffer);
+                chronology = ConceptChronologyImpl.make(byteBuffer, calculator);
                 if (!chronology.isUncommitted()) {
-                    nidToChronologyCache.put(chronology.getNid(), chronology);
+                    nidToChronologyCache.put(chronology.getNid(), new CachedChronology(chronology, byteBuffer.getUsed()));
                 }
+                this.chronologyCacheStats.recordLoadSuccess(System.nanoTime() - loadStart);
 
             } else {
                 throw new NoSuchElementException("No element for: " + conceptId + " " + Arrays.toString(Get.identifierService().getUuidsForNid(conceptId).toArray()));
@@ -537,19 +612,32 @@ public class ChronologyProvider
 
     @Override
     public SemanticChronology getSemanticChronology(int semanticId) {
+        return getSemanticChronology(semanticId, null);
+    }
 
-        SemanticChronology chronology = (SemanticChronology) nidToChronologyCache.getIfPresent(semanticId);
+    /**
+     * Get the semantic chronology. If it is not cached, decode only its latest versions for the
+     * calculator, leaving the remaining versions to be decoded if they are needed.
+     *
+     * @param semanticId the semantic nid
+     * @param calculator the calculator that selects the versions to decode, or null to decode all versions
+     * @return the semantic chronology
+     */
+    public SemanticChronology getSemanticChronology(int semanticId, RelativePositionCalculator calculator) {
+        SemanticChronology chronology = (SemanticChronology) getCachedChronology(semanticId);
         if (chronology == null) {
+            long loadStart = System.nanoTime();
             Optional<ByteArrayDataBuffer> optionalByteBuffer = store.getChronologyVersionData(semanticId);
 
             if (optionalByteBuffer.isPresent()) {
                 ByteArrayDataBuffer byteBuffer = optionalByteBuffer.get();
 
                 IsaacObjectType.SEMANTIC.readAndValidateHeader(byteBuffer);
-                chronology = SemanticChronologyImpl.make(byteBuffer);
+                chronology = SemanticChronologyImpl.make(byteBuffer, calculator);
                 if (!chronology.isUncommitted()) {
-                    nidToChronologyCache.put(chronology.getNid(), chronology);
+                    nidToChronologyCache.put(chronology.getNid(), new CachedChronology(chronology, byteBuffer.getUsed()));
                 }
+                this.chronologyCacheStats.recordLoadSuccess(System.nanoTime() - loadStart);
             } else {
                 throw new NoSuchElementException("No element for: " + semanticId + " " + Arrays.toString(Get.identifierService().getUuidsForNid(semanticId).toArray()));
             }
@@ -844,7 +932,8 @@ public class ChronologyProvider
 
         @Override
         public ConceptSnapshot getConceptSnapshot(int conceptNid) {
-            return new ConceptSnapshotImpl(getConceptChronology(conceptNid), this.manifoldCoordinate);
+            return new ConceptSnapshotImpl(getConceptChronology(conceptNid,
+                    this.manifoldCoordinate.getVertexStampFilter().getRelativePositionCalculator()), this.manifoldCoordinate);
         }
 
         @Override
@@ -39,6 +39,7 @@ package sh.isaac.provider.datastore.taxonomy;
 import java.lang.ref.WeakReference;
 import java.nio.file.Path;
 import java.util.EnumSet;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Optional;
@@ -168,11 +169,16 @@ public class TaxonomyProvider
 
     @Override
     public void handleCommit(CommitRecord commitRecord) {
-        // If a logic graph changed, clear our cache.
+        // If a logic graph changed, find the concepts it defines, before the update task consumes the changes.
+        NidSet changedConceptNids = new NidSet();
         if (this.semanticNidsForUnhandledChanges.size() > 0) {
-            LOG.debug("Clearing snapshot cache due to commit");
-            this.snapshotCache.clear();
+            LOG.debug("Clearing no tree snapshot cache due to commit");
             this.noTreeSnapshotCache.clear();
+            for (int semanticNid : this.semanticNidsForUnhandledChanges) {
+                if (commitRecord.getSemanticNidsInCommit().contains(semanticNid)) {
+                    changedConceptNids.add(Get.assemblageService().getSemanticChronology(semanticNid).getReferencedComponentNid());
+                }
+            }
         }
 
         try {
@@ -185,6 +191,26 @@ public class TaxonomyProvider
             LOG.error("Unexpected error waiting for taxonomy update after commit", e);
             throw new RuntimeException(e);
         }
+        if (!changedConceptNids.isEmpty()) {
+            updateCachedTrees(changedConceptNids.asArray());
+        }
+    }
+
+    /**
+     * Apply changed concept definitions to the cached trees. A tree that can't be updated in place,
+     * because it is still being built or the change would create a cycle, is removed from the
+     * cache, so that it is built again when next requested.
+     *
+     * @param changedConceptNids the concepts whose logic graphs changed
+     */
+    private void updateCachedTrees(int[] changedConceptNids) {
+        for (Map.Entry<SnapshotCacheKey, Task<Tree>> entry : this.snapshotCache.entrySet()) {
+            Task<Tree> treeTask = entry.getValue();
+            if (!(treeTask instanceof TreeBuilderTask) || !((TreeBuilderTask) treeTask).updateParents(changedConceptNids)) {
+                LOG.debug("Removing {} from snapshot cache due to commit", entry.getKey());
+                this.snapshotCache.remove(entry.getKey(), treeTask);
+            }
+        }
     }
 
     @Override
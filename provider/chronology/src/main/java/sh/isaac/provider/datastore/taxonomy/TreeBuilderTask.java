@@ -39,9 +39,12 @@
 
 package sh.isaac.provider.datastore.taxonomy;
 
+import java.util.OptionalInt;
 import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 import java.util.function.IntFunction;
-import java.util.stream.IntStream;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import sh.isaac.api.Get;
@@ -54,6 +57,7 @@ import sh.isaac.api.task.TimedTaskWithProgressTracker;
 import sh.isaac.api.tree.Tree;
 import sh.isaac.model.taxonomy.GraphCollectorIsolated;
 import sh.isaac.model.tree.HashTreeBuilderIsolated;
+import sh.isaac.model.tree.HashTreeWithIntArraySetsIsolated;
 
 
 /**
@@ -68,13 +72,16 @@ public class TreeBuilderTask
    private final int                       conceptCount;
    private final IntFunction<int[]>        taxonomyDataProvider;
    private final int                       conceptAssemblageNid;
-   private boolean                         stopRequested = false;
+   private volatile boolean                stopRequested = false;
 
    private final ManifoldCoordinateImmutable manifoldCoordinate;
    private final VertexSort vertexSort;
 
    private static final Logger LOG = LogManager.getLogger();
 
+   /** The smallest range of concept nids that is split across threads. */
+   private static final int MIN_PARTITION_SIZE = 4096;
+
    public TreeBuilderTask(IntFunction<int[]> taxonomyDataProvider,
                           ManifoldCoordinate manifoldCoordinate) {
       this(taxonomyDataProvider, manifoldCoordinate.toManifoldCoordinateImmutable(), manifoldCoordinate.getVertexSort());
@@ -116,7 +123,8 @@ public class TreeBuilderTask
          return compute();
       }
       catch (Exception e) {
-         if (!(stopMessage.equals(e.getMessage()))) {
+         // The fork join pool may rethrow a copy of the cancellation, without the stop message.
+         if (!stopRequested && !(stopMessage.equals(e.getMessage()))) {
             LOG.error("Error in Tree Builder task", e);
          }
          else {
@@ -133,24 +141,18 @@ public class TreeBuilderTask
    private Tree compute() {
 
       GraphCollectorIsolated  collector = new GraphCollectorIsolated(this.taxonomyDataProvider,this.manifoldCoordinate, this.vertexSort);
-      long count =  Get.identifierService().getNidsForAssemblage(conceptAssemblageNid, true).count();
-      if (count == 0) {
+      int[] conceptNids = Get.identifierService().getNidsForAssemblage(conceptAssemblageNid, false).toArray();
+      if (conceptNids.length == 0) {
          LOG.info("Empty concept stream in TreeBuilderTask");
       } 
       
       if (stopRequested) {
          throw new CancellationException("Stop requested during compute");
       }
-      IntStream conceptNidStream = Get.identifierService().getNidsForAssemblage(conceptAssemblageNid, false);
 
-      HashTreeBuilderIsolated graphBuilder = conceptNidStream.filter((conceptNid) -> {
-               completedUnitOfWork();
-               return true;
-            }).collect(() -> new HashTreeBuilderIsolated(this.manifoldCoordinate.getVertexStampFilter().toStampFilterImmutable(),
-                                                         this.manifoldCoordinate.toUserString(),
-                                                         this.manifoldCoordinate.getPremiseTypes(),
-                                                         this.conceptAssemblageNid),
-                                                         collector, collector);
+      ForkJoinPool pool = Get.workExecutors().getForkJoinPoolExecutor();
+      int partitionSize = Math.max(MIN_PARTITION_SIZE, conceptNids.length / (pool.getParallelism() * 4));
+      HashTreeBuilderIsolated graphBuilder = pool.invoke(new PartitionBuilder(collector, conceptNids, 0, conceptNids.length, partitionSize));
 
       message = "searching for redundancies and cycles";
 
@@ -161,6 +163,92 @@ public class TreeBuilderTask
       return tree;
    }
 
+   private HashTreeBuilderIsolated newGraphBuilder() {
+      return new HashTreeBuilderIsolated(this.manifoldCoordinate.getVertexStampFilter().toStampFilterImmutable(),
+                                         this.manifoldCoordinate.toUserString(),
+                                         this.manifoldCoordinate.getPremiseTypes(),
+                                         this.conceptAssemblageNid);
+   }
+
+   /**
+    * Builds the tree for a range of the concept nids, splitting the range until it is no larger
+    * than the partition size. Each partition collects into its own builder, and the builders of
+    * the two halves of a range are combined as the halves complete.
+    */
+   private class PartitionBuilder extends RecursiveTask<HashTreeBuilderIsolated> {
+      private final GraphCollectorIsolated collector;
+      private final int[] conceptNids;
+      private final int start;
+      private final int end;
+      private final int partitionSize;
+
+      PartitionBuilder(GraphCollectorIsolated collector, int[] conceptNids, int start, int end, int partitionSize) {
+         this.collector = collector;
+         this.conceptNids = conceptNids;
+         this.start = start;
+         this.end = end;
+         this.partitionSize = partitionSize;
+      }
+
+      @Override
+      protected HashTreeBuilderIsolated compute() {
+         if (end - start <= partitionSize) {
+            HashTreeBuilderIsolated graphBuilder = newGraphBuilder();
+            for (int i = start; i < end; i++) {
+               completedUnitOfWork();
+               collector.accept(graphBuilder, conceptNids[i]);
+            }
+            return graphBuilder;
+         }
+         int middle = (start + end) >>> 1;
+         PartitionBuilder upper = new PartitionBuilder(collector, conceptNids, middle, end, partitionSize);
+         upper.fork();
+         HashTreeBuilderIsolated graphBuilder = new PartitionBuilder(collector, conceptNids, start, middle, partitionSize).compute();
+         collector.accept(graphBuilder, upper.join());
+         return graphBuilder;
+      }
+   }
+
+   /**
+    * Apply committed changes to the definitions of concepts to the tree this task built, rather
+    * than building the tree again.
+    *
+    * @param conceptNids the concepts whose parents may have changed
+    * @return false if the tree could not be updated, and must be built again: the task did not
+    * complete, or a changed parent would create a cycle.
+    */
+   public boolean updateParents(int[] conceptNids) {
+      if (!isDone() || isCancelled()) {
+         return false;
+      }
+      Tree tree;
+      try {
+         tree = get();
+      }
+      catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         return false;
+      }
+      catch (ExecutionException e) {
+         return false;
+      }
+      if (!(tree instanceof HashTreeWithIntArraySetsIsolated)) {
+         return false;
+      }
+      HashTreeWithIntArraySetsIsolated hashTree = (HashTreeWithIntArraySetsIsolated) tree;
+      GraphCollectorIsolated collector = new GraphCollectorIsolated(this.taxonomyDataProvider, this.manifoldCoordinate, this.vertexSort);
+      for (int conceptNid : conceptNids) {
+         OptionalInt assemblageNid = Get.identifierService().getAssemblageNid(conceptNid);
+         if (assemblageNid.isPresent() && assemblageNid.getAsInt() == this.conceptAssemblageNid) {
+            if (!hashTree.replaceParents(conceptNid, collector.getParentNids(conceptNid))) {
+               LOG.info("Taxonomy change to {} would create a cycle, rebuilding tree", conceptNid);
+               return false;
+            }
+         }
+      }
+      return true;
+   }
+
    /** 
     * {@inheritDoc}
     */
@@ -0,0 +1,59 @@
+package sh.isaac.provider.elk;
+
+import java.util.List;
+import org.semanticweb.elk.loading.AxiomLoader;
+import org.semanticweb.elk.loading.ElkLoadingException;
+import org.semanticweb.elk.owl.interfaces.ElkAxiom;
+import org.semanticweb.elk.owl.visitors.ElkAxiomProcessor;
+import org.semanticweb.elk.util.concurrent.computation.InterruptMonitor;
+
+/**
+ * Hands a reasoner one set of axiom deletions and additions. The first load of a reasoner has only
+ * additions; later loads have the axioms of the concepts whose stated definitions changed, which ELK
+ * applies incrementally.
+ */
+public class ElkChangeLoader implements AxiomLoader, AxiomLoader.Factory {
+    private final List<ElkAxiom> additions;
+    private final List<ElkAxiom> deletions;
+    private volatile boolean finished = false;
+
+    public ElkChangeLoader(List<ElkAxiom> additions, List<ElkAxiom> deletions) {
+        this.additions = additions;
+        this.deletions = deletions;
+    }
+
+    @Override
+    public synchronized void load(ElkAxiomProcessor axiomInserter,
+                                  ElkAxiomProcessor axiomDeleter) throws ElkLoadingException {
+        if (finished)
+            return;
+
+        for (ElkAxiom axiom : deletions) {
+            axiomDeleter.visit(axiom);
+        }
+        for (ElkAxiom axiom : additions) {
+            axiomInserter.visit(axiom);
+        }
+        finished = true;
+    }
+
+    @Override
+    public boolean isLoadingFinished() {
+        return finished;
+    }
+
+    @Override
+    public void dispose() {
+
+    }
+
+    @Override
+    public boolean isInterrupted() {
+        return false;
+    }
+
+    @Override
+    public AxiomLoader getAxiomLoader(InterruptMonitor interrupter) {
+        return this;
+    }
+}
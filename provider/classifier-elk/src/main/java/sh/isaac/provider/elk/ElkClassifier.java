@@ -2,66 +2,60 @@ package sh.isaac.provider.elk;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.semanticweb.elk.exceptions.ElkException;
-import org.semanticweb.elk.loading.AxiomLoader;
-import org.semanticweb.elk.owl.interfaces.ElkClass;
-import org.semanticweb.elk.owl.parsing.Owl2ParserFactory;
-import org.semanticweb.elk.reasoner.Reasoner;
-import org.semanticweb.elk.reasoner.ReasonerFactory;
-import org.semanticweb.elk.reasoner.config.ReasonerConfiguration;
-import org.semanticweb.elk.reasoner.taxonomy.model.Taxonomy;
 import sh.isaac.api.Get;
-import sh.isaac.api.SingleAssemblageSnapshot;
-import sh.isaac.api.bootstrap.TermAux;
 import sh.isaac.api.classifier.ClassifierResults;
 import sh.isaac.api.classifier.ClassifierService;
-import sh.isaac.api.component.semantic.version.LogicGraphVersion;
 import sh.isaac.api.coordinate.ManifoldCoordinate;
 import sh.isaac.api.coordinate.ManifoldCoordinateImmutable;
+import sh.isaac.api.coordinate.StatusSet;
 import sh.isaac.api.logic.LogicalExpression;
+import sh.isaac.api.observable.coordinate.ObservableManifoldCoordinate;
 import sh.isaac.api.task.TimedTask;
+import sh.isaac.model.observable.coordinate.ObservableManifoldCoordinateImpl;
 
+/**
+ * A classifier service backed by ELK. The reasoner for a coordinate is kept by the {@link ElkProvider},
+ * so each classification only gives ELK the stated definitions that changed since the previous one.
+ */
 public class ElkClassifier implements ClassifierService {
-    private final ManifoldCoordinateImmutable manifoldCoordinateImmutable;
-    private static final int BATCH_LENGTH = 100;
     private static final Logger LOG = LogManager.getLogger();
 
-    public ElkClassifier(ManifoldCoordinateImmutable manifoldCoordinateImmutable) {
+    private final ElkProvider elkProvider;
+    private final IncrementalElkReasoner reasoner;
+    private final ManifoldCoordinateImmutable manifoldCoordinateImmutable;
+
+    ElkClassifier(ElkProvider elkProvider, IncrementalElkReasoner reasoner, ManifoldCoordinateImmutable manifoldCoordinateImmutable) {
+        this.elkProvider = elkProvider;
+        this.reasoner = reasoner;
         this.manifoldCoordinateImmutable = manifoldCoordinateImmutable;
     }
 
     @Override
     public TimedTask<ClassifierResults> classify() {
-        SingleAssemblageSnapshot<LogicGraphVersion> snapshot = Get.assemblageService().getSingleAssemblageSnapshot(TermAux.EL_PLUS_PLUS_STATED_ASSEMBLAGE, LogicGraphVersion.class, manifoldCoordinateImmutable.getViewStampFilter());
-        ElkLoader loader = new ElkLoader(snapshot.getLatestSemanticVersionsFromAssemblage(), BATCH_LENGTH);
-
-        // create reasoner
-        ReasonerFactory reasoningFactory = new ReasonerFactory();
-
-        ReasonerConfiguration configuration = ReasonerConfiguration
-                .getConfiguration();
-        Reasoner reasoner = reasoningFactory.createReasoner(loader,
-                configuration);
-
-        // Classify the ontology.
-        
-        try {
-            Taxonomy<ElkClass> taxonomy = reasoner.getTaxonomyQuietly();
-            LOG.info("getTaxonomyQuietly complete: " + taxonomy.getTopNode());
-        } catch (ElkException e) {
-            e.printStackTrace();
-        }
-
-        return null;
+        ObservableManifoldCoordinate observableManifoldCoordinate = new ObservableManifoldCoordinateImpl(this.manifoldCoordinateImmutable);
+        observableManifoldCoordinate.setAllowedStates(StatusSet.ACTIVE_ONLY);
+        ManifoldCoordinate classifyCoordinate = observableManifoldCoordinate.getValue()
+                .makeCoordinateAnalog(Get.commitService().getTimeForCommit().toEpochMilli());
+        ElkClassifyTask classifyTask = new ElkClassifyTask(this.elkProvider, this.reasoner, classifyCoordinate);
+        this.elkProvider.getPendingLogicTasks().add(classifyTask);
+        Get.workExecutors().getExecutor().execute(classifyTask);
+        return classifyTask;
     }
 
+    /**
+     * ELK places the concepts of a stated cycle in one equivalent set, rather than failing, so there is
+     * no separate cycle check; the cycles show in the equivalent sets of the results.
+     */
     @Override
     public TimedTask<ClassifierResults> classify(boolean cycleCheck) {
-        return null;
+        if (cycleCheck) {
+            LOG.info("ELK reports stated cycles as equivalent sets, classifying without a cycle check");
+        }
+        return classify();
     }
 
     @Override
     public TimedTask<Integer> getConceptNidForExpression(LogicalExpression expression, ManifoldCoordinate manifoldCoordinate) {
-        return null;
+        return ElkGetConceptNidForExpressionTask.create(expression, this, manifoldCoordinate);
     }
 }
@@ -0,0 +1,187 @@
+package sh.isaac.provider.elk;
+
+import static sh.isaac.api.logic.LogicalExpressionBuilder.And;
+import static sh.isaac.api.logic.LogicalExpressionBuilder.NecessarySet;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.eclipse.collections.api.set.primitive.ImmutableIntSet;
+import sh.isaac.api.AssemblageService;
+import sh.isaac.api.DataTarget;
+import sh.isaac.api.Get;
+import sh.isaac.api.SingleAssemblageSnapshot;
+import sh.isaac.api.Status;
+import sh.isaac.api.chronicle.LatestVersion;
+import sh.isaac.api.classifier.ClassifierResults;
+import sh.isaac.api.commit.ChangeCheckerMode;
+import sh.isaac.api.commit.CommitRecord;
+import sh.isaac.api.component.semantic.SemanticBuilder;
+import sh.isaac.api.component.semantic.SemanticChronology;
+import sh.isaac.api.component.semantic.version.LogicGraphVersion;
+import sh.isaac.api.component.semantic.version.MutableLogicGraphVersion;
+import sh.isaac.api.coordinate.LogicCoordinate;
+import sh.isaac.api.coordinate.ManifoldCoordinate;
+import sh.isaac.api.coordinate.WriteCoordinate;
+import sh.isaac.api.coordinate.WriteCoordinateImpl;
+import sh.isaac.api.logic.LogicalExpression;
+import sh.isaac.api.logic.LogicalExpressionBuilder;
+import sh.isaac.api.logic.NodeSemantic;
+import sh.isaac.api.logic.assertions.ConceptAssertion;
+import sh.isaac.api.task.OptionalWaitTask;
+import sh.isaac.api.task.TimedTaskWithProgressTracker;
+import sh.isaac.api.transaction.Transaction;
+import sh.isaac.api.util.UuidT5Generator;
+import sh.isaac.api.util.time.DateTimeUtil;
+import sh.isaac.model.logic.ClassifierResultsImpl;
+
+/**
+ * Classifies the stated definitions with an {@link IncrementalElkReasoner}, and writes the inferred
+ * definitions of the concepts whose inferred parents or stated definitions changed.
+ *
+ * @author kec
+ */
+public class ElkClassifyTask extends TimedTaskWithProgressTracker<ClassifierResults> {
+    private static final Logger LOG = LogManager.getLogger();
+
+    private final ElkProvider elkProvider;
+    private final IncrementalElkReasoner reasoner;
+    private final ManifoldCoordinate manifoldCoordinate;
+    private final Instant effectiveCommitTime;
+
+    /**
+     * @param elkProvider the provider that keeps the classifier results
+     * @param reasoner the reasoner kept for the coordinate
+     * @param manifoldCoordinate the coordinate, at the time of the classification
+     */
+    ElkClassifyTask(ElkProvider elkProvider, IncrementalElkReasoner reasoner, ManifoldCoordinate manifoldCoordinate) {
+        if (manifoldCoordinate.getViewStampFilter().getTime() == Long.MAX_VALUE) {
+            throw new IllegalStateException("Filter position time must reflect the actual commit time, not 'latest' (Long.MAX_VALUE) ");
+        }
+        this.elkProvider = elkProvider;
+        this.reasoner = reasoner;
+        this.manifoldCoordinate = manifoldCoordinate;
+        this.effectiveCommitTime = manifoldCoordinate.getViewStampFilter().getTimeAsInstant();
+        updateTitle("ELK classify");
+        addToTotalWork(3);
+    }
+
+    @Override
+    protected ClassifierResults call() throws Exception {
+        Get.activeTasks().add(this);
+        setStartTime();
+        try {
+            updateMessage("Classifying changed definitions");
+            final SingleAssemblageSnapshot<LogicGraphVersion> statedSnapshot = Get.assemblageService()
+                    .getSingleAssemblageSnapshot(this.manifoldCoordinate.getLogicCoordinate().getStatedAssemblageNid(),
+                            LogicGraphVersion.class, this.manifoldCoordinate.getViewStampFilter());
+            final ClassifierResults classifierResults = this.reasoner.classify(statedSnapshot, classification -> {
+                completedUnitOfWork();
+
+                updateMessage("Writing " + classification.affectedConceptNids.size() + " inferred definitions");
+                this.addToTotalWork(classification.affectedConceptNids.size());
+                Transaction transaction = Get.commitService().newTransaction(Optional.of("Process ELK classification results: " + DateTimeUtil.timeNowSimple()), ChangeCheckerMode.INACTIVE);
+                WriteCoordinate wc = this.manifoldCoordinate.getWriteCoordinate(transaction);
+                return new ClassifierResultsImpl(classification.affectedConceptNids,
+                        classification.equivalentSets,
+                        writeBackInferred(wc, classification),
+                        this.manifoldCoordinate);
+            });
+            completedUnitOfWork();
+
+            this.elkProvider.addClassifierResults(classifierResults);
+            completedUnitOfWork();
+            LOG.info("ELK classification finished - summary: {}", classifierResults);
+            return classifierResults;
+        } finally {
+            Get.taxonomyService().notifyTaxonomyListenersToRefresh();
+            this.elkProvider.getPendingLogicTasks().remove(this);
+            Get.activeTasks().remove(this);
+        }
+    }
+
+    private Optional<CommitRecord> writeBackInferred(WriteCoordinate wc, IncrementalElkReasoner.ElkClassification classification) {
+        final AssemblageService assemblageService = Get.assemblageService();
+        final LogicCoordinate logicCoordinate = this.manifoldCoordinate.getLogicCoordinate();
+        final AtomicInteger sufficientSets = new AtomicInteger();
+        final ConcurrentHashMap<OptionalWaitTask<?>, Boolean> submitted = new ConcurrentHashMap<>();
+
+        classification.affectedConceptNids.parallelStream().forEach((conceptNid) -> {
+            completedUnitOfWork();
+            final ImmutableIntSet inferredSemanticNids
+                    = assemblageService.getSemanticNidsForComponentFromAssemblage(conceptNid, logicCoordinate.getInferredAssemblageNid());
+            final ImmutableIntSet statedSemanticNids
+                    = assemblageService.getSemanticNidsForComponentFromAssemblage(conceptNid, logicCoordinate.getStatedAssemblageNid());
+            if (statedSemanticNids.isEmpty()) {
+                LOG.error("No statedSemanticNid - skipping concept: " + Get.conceptDescriptionText(conceptNid));
+                return;
+            }
+            final SemanticChronology statedChronology = assemblageService.getSemanticChronology(statedSemanticNids.intIterator().next());
+            final LatestVersion<LogicGraphVersion> latestStatedDefinition
+                    = statedChronology.getLatestVersion(this.manifoldCoordinate.getViewStampFilter());
+            if (!latestStatedDefinition.isPresent()) {
+                LOG.error("Empty latest version for stated definition - skipping concept: " + statedChronology);
+                return;
+            }
+
+            final LogicalExpressionBuilder inferredBuilder = Get.logicalExpressionBuilderService().getLogicalExpressionBuilder();
+            final LogicalExpression statedDefinition = latestStatedDefinition.get().getLogicalExpression();
+            if (statedDefinition.contains(NodeSemantic.SUFFICIENT_SET)) {
+                sufficientSets.incrementAndGet();
+                // Sufficient sets are copied exactly to the inferred form.
+                statedDefinition.getNodesOfType(NodeSemantic.SUFFICIENT_SET).forEach((sufficientSetNode) -> {
+                    inferredBuilder.cloneSubTree(sufficientSetNode);
+                });
+            }
+
+            final int[] parentNids = classification.inferredParents.get(conceptNid);
+            if (parentNids == null || parentNids.length == 0) {
+                return;
+            }
+            final ConceptAssertion[] parents = new ConceptAssertion[parentNids.length];
+            for (int i = 0; i < parentNids.length; i++) {
+                parents[i] = inferredBuilder.conceptAssertion(parentNids[i]);
+            }
+            NecessarySet(And(parents));
+            final LogicalExpression inferredExpression = inferredBuilder.build();
+
+            if (inferredSemanticNids.isEmpty()) {
+                final SemanticBuilder<? extends SemanticChronology> builder = Get.semanticBuilderService()
+                        .getLogicalExpressionBuilder(inferredExpression, conceptNid, logicCoordinate.getInferredAssemblageNid());
+                builder.setPrimordialUuid(UuidT5Generator.singleSemanticUuid(logicCoordinate.getInferredAssemblageNid(), conceptNid));
+                submitted.put(builder.buildAndWrite(wc), true);
+            } else {
+                final SemanticChronology inferredChronology = assemblageService.getSemanticChronology(inferredSemanticNids.intIterator().next());
+                final LatestVersion<LogicGraphVersion> latestInferredDefinition
+                        = inferredChronology.getLatestVersion(this.manifoldCoordinate.getViewStampFilter());
+                if (!latestInferredDefinition.isPresent()
+                        || !latestInferredDefinition.get().getLogicalExpression().equals(inferredExpression)) {
+                    final MutableLogicGraphVersion newVersion
+                            = ((SemanticChronology) inferredChronology).createMutableVersion(new WriteCoordinateImpl(wc, Status.ACTIVE));
+                    newVersion.setGraphData(inferredExpression.getData(DataTarget.INTERNAL));
+                    submitted.put(new OptionalWaitTask<Void>(Get.commitService().addUncommitted(wc.getTransaction().get(), newVersion), null, null), true);
+                }
+            }
+        });
+
+        submitted.forEachKey(50, task -> {
+            try {
+                task.get();
+            } catch (InterruptedException | ExecutionException e) {
+                throw new RuntimeException("Failure writing logic graphs for classification", e);
+            }
+        });
+        try {
+            final Optional<CommitRecord> commitRecord = wc.getTransaction().get().commit("ELK classifier run", this.effectiveCommitTime).get();
+            LOG.info("Wrote {} inferred definitions, with {} sufficient sets, commit record: {}",
+                    submitted.size(), sufficientSets, commitRecord.isPresent() ? commitRecord.get() : "none");
+            return commitRecord;
+        } catch (InterruptedException | ExecutionException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package sh.isaac.provider.elk;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import sh.isaac.api.DataSource;
+import sh.isaac.api.Get;
+import sh.isaac.api.LookupService;
+import sh.isaac.api.bootstrap.TermAux;
+import sh.isaac.api.chronicle.LatestVersion;
+import sh.isaac.api.classifier.ClassifierService;
+import sh.isaac.api.commit.ChangeCheckerMode;
+import sh.isaac.api.component.concept.ConceptBuilder;
+import sh.isaac.api.component.concept.ConceptBuilderService;
+import sh.isaac.api.component.concept.ConceptChronology;
+import sh.isaac.api.component.semantic.SemanticSnapshotService;
+import sh.isaac.api.coordinate.ManifoldCoordinate;
+import sh.isaac.api.coordinate.WriteCoordinate;
+import sh.isaac.api.logic.LogicalExpression;
+import sh.isaac.api.task.TimedTask;
+import sh.isaac.model.logic.LogicalExpressionImpl;
+import sh.isaac.model.semantic.version.LogicGraphVersionImpl;
+
+/**
+ * Finds the concept with a stated definition equal to an expression, or makes one and classifies it
+ * with the ELK classifier.
+ *
+ * @author kec
+ */
+public class ElkGetConceptNidForExpressionTask extends TimedTask<Integer> {
+    private final LogicalExpression expression;
+    private final ClassifierService classifierService;
+    private final ManifoldCoordinate manifoldCoordinate;
+
+    private ElkGetConceptNidForExpressionTask(LogicalExpression expression,
+                                              ClassifierService classifierService,
+                                              ManifoldCoordinate manifoldCoordinate) {
+        this.expression = expression;
+        this.classifierService = classifierService;
+        this.manifoldCoordinate = manifoldCoordinate;
+        updateTitle("Get ID for Expression");
+        updateProgress(-1, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param expression the expression
+     * @param classifierService the classifier that classifies a new concept
+     * @param manifoldCoordinate the stated edit coordinate
+     * @return the task, already submitted to an executor
+     */
+    public static ElkGetConceptNidForExpressionTask create(LogicalExpression expression,
+                                                           ClassifierService classifierService,
+                                                           ManifoldCoordinate manifoldCoordinate) {
+        final ElkGetConceptNidForExpressionTask task = new ElkGetConceptNidForExpressionTask(expression,
+                classifierService, manifoldCoordinate);
+        Get.activeTasks().add(task);
+        Get.workExecutors().getExecutor().execute(task);
+        return task;
+    }
+
+    @Override
+    protected Integer call() throws Exception {
+        try {
+            final SemanticSnapshotService<LogicGraphVersionImpl> semanticSnapshot = Get.assemblageService()
+                    .getSnapshot(LogicGraphVersionImpl.class, this.manifoldCoordinate.getViewStampFilter());
+
+            updateMessage("Searching existing definitions...");
+            final LatestVersion<LogicGraphVersionImpl> match = semanticSnapshot.getLatestSemanticVersionsFromAssemblage(
+                    this.manifoldCoordinate.getLogicCoordinate().getStatedAssemblageNid())
+                    .filterVersion((LatestVersion<LogicGraphVersionImpl> t) -> {
+                        final LogicGraphVersionImpl lgs = t.get();
+                        return new LogicalExpressionImpl(lgs.getGraphData(), DataSource.INTERNAL).equals(this.expression);
+                    })
+                    .findFirstVersion();
+
+            if (match.isPresent()) {
+                return match.get().getReferencedComponentNid();
+            }
+
+            updateMessage("Building new concept...");
+            final UUID uuidForNewConcept = Get.newUuidWithAssignment();
+            final ConceptBuilderService conceptBuilderService = LookupService.getService(ConceptBuilderService.class);
+
+            conceptBuilderService.setDefaultLanguageForDescriptions(TermAux.ENGLISH_LANGUAGE);
+            conceptBuilderService.setDefaultDialectAssemblageForDescriptions(TermAux.US_DIALECT_ASSEMBLAGE);
+            conceptBuilderService.setDefaultLogicCoordinate(this.manifoldCoordinate.getLogicCoordinate());
+
+            final ConceptBuilder builder = conceptBuilderService.getDefaultConceptBuilder(
+                    uuidForNewConcept.toString(),
+                    "expression",
+                    this.expression,
+                    TermAux.SOLOR_CONCEPT_ASSEMBLAGE.getNid());
+            WriteCoordinate wc = this.manifoldCoordinate.getWriteCoordinate(Get.commitService().newTransaction(Optional.of("ElkGetConceptNidForExpressionTask"), ChangeCheckerMode.INACTIVE));
+            final ConceptChronology concept = builder.buildAndWrite(wc).get();
+
+            updateMessage("Commiting new expression...");
+            try {
+                wc.getTransaction().get().commit("Expression commit.").get();
+                updateMessage("Classifying new concept...");
+                this.classifierService.classify().get();
+            } catch (InterruptedException | ExecutionException ex) {
+                throw new RuntimeException(ex);
+            }
+            return concept.getNid();
+        } finally {
+            updateProgress(-1, Integer.MAX_VALUE);
+            Get.activeTasks().remove(this);
+        }
+    }
+}
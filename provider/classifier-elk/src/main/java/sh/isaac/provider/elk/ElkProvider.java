@@ -53,6 +53,11 @@ public class ElkProvider
 
     private final Set<Task<?>> pendingLogicTasks = ConcurrentHashMap.newKeySet();
 
+    /**
+     * The reasoners, kept between classifications, for coordinates that differ in more than time.
+     */
+    private final ConcurrentHashMap<ManifoldCoordinateImmutable, IncrementalElkReasoner> reasonerMap = new ConcurrentHashMap<>();
+
     private final ConcurrentHashMap<Instant, ClassifierResults[]> classifierResultMap = new ConcurrentHashMap<>();
 
     private final ObservableList<Instant> classifierInstants = FXCollections.observableArrayList();
@@ -83,6 +88,7 @@ public class ElkProvider
         LOG.info("Starting LogicProvider-ELK for change to runlevel: " + LookupService.getProceedingToRunLevel());
         classifierServiceMap.clear();
         pendingLogicTasks.clear();
+        reasonerMap.clear();
         // read from disk...
         DataStore store = Get.service(DataStore.class);
         File logicProviderDir = new File(store.getDataStorePath().toAbsolutePath().toFile(), "logic-provider-elk");
@@ -154,6 +160,8 @@ public class ElkProvider
                 updateMessage("Writing elk classifier results");
                 ElkProvider.this.classifierServiceMap.clear();
                 ElkProvider.this.pendingLogicTasks.clear();
+                ElkProvider.this.reasonerMap.values().forEach(IncrementalElkReasoner::reset);
+                ElkProvider.this.reasonerMap.clear();
                 ByteArrayDataBuffer buff = new ByteArrayDataBuffer();
                 Set<Map.Entry<Instant, ClassifierResults[]>> classifierResultsEntrySet = classifierResultMap.entrySet();
                 buff.putInt(classifierResultsEntrySet.size());
@@ -205,8 +213,10 @@ public class ElkProvider
         final ClassifierServiceKey key = new ClassifierServiceKey(manifoldCoordinateImmutable);
 
         if (!classifierServiceMap.containsKey(key)) {
+            IncrementalElkReasoner reasoner = reasonerMap.computeIfAbsent(manifoldCoordinateImmutable.makeCoordinateAnalog(Long.MAX_VALUE),
+                    (coordinate) -> new IncrementalElkReasoner());
             classifierServiceMap.putIfAbsent(key,
-                    new ElkClassifier(manifoldCoordinateImmutable));
+                    new ElkClassifier(this, reasoner, manifoldCoordinateImmutable));
         }
 
         return classifierServiceMap.get(key);
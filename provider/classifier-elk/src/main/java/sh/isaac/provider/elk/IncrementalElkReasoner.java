@@ -0,0 +1,220 @@
+package sh.isaac.provider.elk;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.mahout.math.list.IntArrayList;
+import org.semanticweb.elk.exceptions.ElkException;
+import org.semanticweb.elk.owl.interfaces.ElkAxiom;
+import org.semanticweb.elk.owl.interfaces.ElkClass;
+import org.semanticweb.elk.reasoner.Reasoner;
+import org.semanticweb.elk.reasoner.ReasonerFactory;
+import org.semanticweb.elk.reasoner.config.ReasonerConfiguration;
+import org.semanticweb.elk.reasoner.taxonomy.model.Node;
+import org.semanticweb.elk.reasoner.taxonomy.model.Taxonomy;
+import org.semanticweb.elk.reasoner.taxonomy.model.TaxonomyNode;
+import sh.isaac.api.SingleAssemblageSnapshot;
+import sh.isaac.api.component.semantic.version.LogicGraphVersion;
+
+/**
+ * An ELK reasoner that is kept between classifications, with the axioms it was given for each concept.
+ * A classification translates only the stated definitions whose latest version changed since the previous
+ * classification, deletes the axioms previously given for those concepts, and adds the new ones, so that
+ * ELK updates its taxonomy incrementally rather than loading and classifying every concept again.
+ * <p>
+ * The inferred parents of each concept are kept as well, so that only the concepts whose parents changed,
+ * or whose stated definitions changed, are written back. The axioms, stamps and inferred parents kept
+ * are only updated once a classification has been written back, so a failed translation leaves them, and
+ * the reasoner, as they were, and a failure after ELK has been given the changes discards the reasoner.
+ */
+final class IncrementalElkReasoner {
+    private static final Logger LOG = LogManager.getLogger();
+    private static final int[] NO_PARENTS = new int[0];
+
+    private final GraphToElkTranslator graphToElkTranslator = new GraphToElkTranslator();
+
+    /**
+     * The stamp of the stated definition that each concept's axioms were translated from.
+     */
+    private final Map<Integer, Integer> conceptNidToStamp = new HashMap<>();
+
+    private final Map<Integer, List<ElkAxiom>> conceptNidToAxioms = new HashMap<>();
+
+    private final Map<Integer, int[]> conceptNidToInferredParents = new HashMap<>();
+
+    private Reasoner reasoner;
+
+    /**
+     * The result of a classification.
+     */
+    static final class ElkClassification {
+        final Set<Integer> affectedConceptNids;
+        final Map<Integer, int[]> inferredParents;
+        final Set<IntArrayList> equivalentSets;
+        final boolean incremental;
+
+        ElkClassification(Set<Integer> affectedConceptNids, Map<Integer, int[]> inferredParents,
+                          Set<IntArrayList> equivalentSets, boolean incremental) {
+            this.affectedConceptNids = affectedConceptNids;
+            this.inferredParents = inferredParents;
+            this.equivalentSets = equivalentSets;
+            this.incremental = incremental;
+        }
+    }
+
+    /**
+     * Bring the reasoner up to date with the latest stated definitions, classify, and write back the results.
+     * Classifications with the same reasoner are serialized, since each one starts from the state the previous
+     * one left behind.
+     *
+     * @param statedSnapshot the stated logic graphs, at the time of the classification
+     * @param writeBack writes back the concepts whose inferred parents or stated definitions changed, with their
+     * inferred parents
+     * @return the result of the write back
+     * @throws ElkException if ELK fails, after which the next classification starts again with a new reasoner
+     */
+    synchronized <T> T classify(SingleAssemblageSnapshot<LogicGraphVersion> statedSnapshot,
+                                Function<ElkClassification, T> writeBack) throws ElkException {
+        final List<ElkAxiom> additions = new ArrayList<>();
+        final List<ElkAxiom> deletions = new ArrayList<>();
+        final Map<Integer, Integer> changedStamps = new HashMap<>();
+        final Map<Integer, List<ElkAxiom>> changedAxioms = new HashMap<>();
+        final Set<Integer> currentConceptNids = new HashSet<>();
+        final Set<Integer> removedConceptNids = new HashSet<>();
+
+        statedSnapshot.getLatestSemanticVersionsFromAssemblage().sequential().forEach(latestVersion -> {
+            if (latestVersion.isPresent()) {
+                LogicGraphVersion logicGraphVersion = latestVersion.get();
+                int conceptNid = logicGraphVersion.getReferencedComponentNid();
+                currentConceptNids.add(conceptNid);
+                Integer previousStamp = conceptNidToStamp.get(conceptNid);
+                if (previousStamp == null || previousStamp != logicGraphVersion.getStampSequence()) {
+                    List<ElkAxiom> axioms = graphToElkTranslator.translate(logicGraphVersion);
+                    List<ElkAxiom> previousAxioms = conceptNidToAxioms.get(conceptNid);
+                    if (previousAxioms != null) {
+                        deletions.addAll(previousAxioms);
+                    }
+                    additions.addAll(axioms);
+                    changedStamps.put(conceptNid, logicGraphVersion.getStampSequence());
+                    changedAxioms.put(conceptNid, axioms);
+                }
+            }
+        });
+        // Concepts without a current stated definition, such as retired concepts, leave the ontology.
+        for (Integer conceptNid : conceptNidToStamp.keySet()) {
+            if (!currentConceptNids.contains(conceptNid)) {
+                removedConceptNids.add(conceptNid);
+                List<ElkAxiom> previousAxioms = conceptNidToAxioms.get(conceptNid);
+                if (previousAxioms != null) {
+                    deletions.addAll(previousAxioms);
+                }
+            }
+        }
+
+        final boolean incremental = reasoner != null;
+        LOG.info("ELK {} classification: {} stated definitions changed, {} axioms added, {} axioms deleted",
+                incremental ? "incremental" : "full", changedStamps.size(), additions.size(), deletions.size());
+        final T result;
+        try {
+            if (reasoner == null) {
+                reasoner = new ReasonerFactory().createReasoner(new ElkChangeLoader(additions, Collections.emptyList()),
+                        ReasonerConfiguration.getConfiguration());
+                reasoner.setAllowIncrementalMode(true);
+            } else if (!additions.isEmpty() || !deletions.isEmpty()) {
+                reasoner.registerAxiomLoader(new ElkChangeLoader(additions, deletions));
+            }
+            final ElkClassification classification = collectChanges(reasoner.getTaxonomy(), currentConceptNids,
+                    changedStamps.keySet(), incremental);
+            result = writeBack.apply(classification);
+            conceptNidToInferredParents.putAll(classification.inferredParents);
+        } catch (ElkException | RuntimeException e) {
+            // The reasoner may hold changes that the kept axioms don't reflect.
+            reset();
+            throw e;
+        }
+        conceptNidToStamp.putAll(changedStamps);
+        conceptNidToAxioms.putAll(changedAxioms);
+        for (Integer conceptNid : removedConceptNids) {
+            conceptNidToStamp.remove(conceptNid);
+            conceptNidToAxioms.remove(conceptNid);
+            conceptNidToInferredParents.remove(conceptNid);
+        }
+        return result;
+    }
+
+    private ElkClassification collectChanges(Taxonomy<ElkClass> taxonomy, Set<Integer> currentConceptNids,
+                                             Set<Integer> changedConceptNids, boolean incremental) {
+        final Set<Integer> affectedConceptNids = new HashSet<>();
+        final Map<Integer, int[]> inferredParents = new HashMap<>();
+        final Set<IntArrayList> equivalentSets = new HashSet<>();
+
+        for (Integer conceptNid : currentConceptNids) {
+            TaxonomyNode<ElkClass> node = taxonomy.getNode(graphToElkTranslator.getConcept(conceptNid));
+            if (node == null) {
+                LOG.error("No taxonomy node for: {}", conceptNid);
+                continue;
+            }
+            int[] parentNids = NO_PARENTS;
+            for (TaxonomyNode<ElkClass> parentNode : node.getDirectSuperNodes()) {
+                int[] nids = toNids(parentNode);
+                if (nids.length > 0) {
+                    int start = parentNids.length;
+                    parentNids = Arrays.copyOf(parentNids, start + nids.length);
+                    System.arraycopy(nids, 0, parentNids, start, nids.length);
+                }
+            }
+            Arrays.sort(parentNids);
+            if (changedConceptNids.contains(conceptNid)
+                    || !Arrays.equals(conceptNidToInferredParents.get(conceptNid), parentNids)) {
+                affectedConceptNids.add(conceptNid);
+                inferredParents.put(conceptNid, parentNids);
+            }
+            int[] equivalentNids = toNids(node);
+            if (equivalentNids.length > 1 && equivalentNids[0] == conceptNid) {
+                equivalentSets.add(new IntArrayList(equivalentNids));
+            }
+        }
+        return new ElkClassification(affectedConceptNids, inferredParents, equivalentSets, incremental);
+    }
+
+    /**
+     * @return the sorted nids of the members of the node, leaving out owl:Thing and owl:Nothing
+     */
+    private static int[] toNids(Node<ElkClass> node) {
+        IntArrayList nids = new IntArrayList();
+        for (ElkClass member : node) {
+            try {
+                nids.add(Integer.parseInt(member.getIri().getFullIriAsString()));
+            } catch (NumberFormatException numberFormatException) {
+                // owl:Thing or owl:Nothing
+            }
+        }
+        nids.sort();
+        return nids.toArray(new int[nids.size()]);
+    }
+
+    /**
+     * Discard the reasoner and the axioms it was given, so the next classification loads every concept.
+     */
+    synchronized void reset() {
+        if (reasoner != null) {
+            try {
+                reasoner.shutdown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            reasoner = null;
+        }
+        conceptNidToStamp.clear();
+        conceptNidToAxioms.clear();
+        conceptNidToInferredParents.clear();
+    }
+}
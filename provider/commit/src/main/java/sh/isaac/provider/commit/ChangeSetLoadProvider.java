@@ -42,21 +42,17 @@ import org.glassfish.hk2.runlevel.RunLevel;
 import org.jvnet.hk2.annotations.Service;
 import sh.isaac.api.*;
 import sh.isaac.api.bootstrap.TermAux;
-import sh.isaac.api.chronicle.Chronology;
 import sh.isaac.api.chronicle.LatestVersion;
 import sh.isaac.api.chronicle.Version;
-import sh.isaac.api.commit.CommitRecord;
 import sh.isaac.api.commit.CommitService;
 import sh.isaac.api.component.semantic.SemanticChronology;
 import sh.isaac.api.component.semantic.version.StringVersion;
 import sh.isaac.api.coordinate.Coordinates;
-import sh.isaac.api.externalizable.IsaacObjectType;
 import sh.isaac.api.metacontent.MetaContentService;
 import sh.isaac.api.util.metainf.MetaInfReader;
 
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
@@ -124,7 +120,9 @@ public class ChangeSetLoadProvider
 
     //~--- methods -------------------------------------------------------------
     /**
-     * Read changeset files.
+     * Read changeset files. A file that was processed by an earlier load is read from the offset where that
+     * load stopped, so only the records appended to it since are replayed. The files are replayed in parallel,
+     * as are the records within a file; see {@link ChangesetReplay}.
      *
      * @return the int
      * @throws IOException Signals that an I/O exception has occurred.
@@ -143,6 +141,7 @@ public class ChangeSetLoadProvider
         stampProvider.setCancelUncommittedStamps(true);
 
         ArrayList<String> files = new ArrayList<>();
+        ArrayList<ChangesetReplay> replays = new ArrayList<>();
 
         try (DirectoryStream<Path> stream = Files.newDirectoryStream(this.changesetPath, path -> path.toFile().isFile()
                 && path.toString().endsWith(".ibdf")
@@ -151,70 +150,41 @@ public class ChangeSetLoadProvider
                     path -> {
                         LOG.debug("File {}", path.toAbsolutePath());
                         files.add(path.toString());
-                        try {
-                            if ((this.processedChangesets != null)
-                            && this.processedChangesets.getOrDefault(path.getFileName().toString(), 0) >= path.toFile().length()) {
-                                skipped.incrementAndGet();
-                                LOG.debug("Skipping already processed changeset: " + path.getFileName().toString());
-                            } else {
-                                loaded.incrementAndGet();
-                                LOG.debug("Importing changeset: " + path.getFileName().toString());
-                                // TODO import change sets with a transaction
-                                CommitRecord commitRecord = new CommitRecord("Importing changeset: " + path.getFileName().toString());
-
-                                Get.binaryDataReader(path)
-                                        .getStream()
-                                        .forEach(
-                                                o -> {
-                                                    try {
-                                                        commitService.importIfContentChanged(o).ifPresent(chronology -> {
-                                                            switch (chronology.getIsaacObjectType()) {
-                                                                case CONCEPT:
-                                                                    commitRecord.getConceptsInCommit().add(chronology.getNid());
-                                                                    break;
-                                                                case SEMANTIC:
-                                                                    commitRecord.getSemanticNidsInCommit().add(chronology.getNid());
-                                                                    SemanticChronology semanticChronology = (SemanticChronology) chronology;
-
-                                                                    Optional<? extends Chronology> optionalComponent = Get.identifiedObjectService().getChronology(semanticChronology.getReferencedComponentNid());
-                                                                    while (optionalComponent.isPresent()) {
-                                                                        if (optionalComponent.get().getIsaacObjectType() == IsaacObjectType.CONCEPT) {
-                                                                            commitRecord.getConceptsInCommit().add(optionalComponent.get().getNid());
-                                                                            optionalComponent = Optional.empty();
-                                                                        } else {
-                                                                            commitRecord.getSemanticNidsInCommit().add(optionalComponent.get().getNid());
-                                                                            SemanticChronology referencedSemanticChronology = (SemanticChronology) optionalComponent.get();
-                                                                            optionalComponent = Get.identifiedObjectService().getChronology(referencedSemanticChronology.getReferencedComponentNid());
-                                                                        }
-                                                                    }
-
-                                                                    break;
-                                                                default:
-                                                                    LOG.error("Can't handle: " + chronology.getIsaacObjectType() + "\n" +chronology);
-                                                            }
-                                                        });
-                                                    } catch (Throwable e) {
-                                                        LOG.error("Error importing: "
-                                                                + path.toAbsolutePath() + "\n" + o + "\n", e);
-                                                    }
-                                                });
-                                if (this.processedChangesets != null) {
-                                    this.processedChangesets.put(path.getFileName()
-                                            .toString(), (int) path.toFile().length());
-                                }
-                                Get.commitService().notifyListeners(commitRecord);
-                            }
-                        } catch (final FileNotFoundException e) {
-                            LOG.error("Change Set Load Provider failed to load {}", path.toAbsolutePath());
-                            throw new RuntimeException(e);
+                        long processedOffset = (this.processedChangesets == null) ? 0
+                                : this.processedChangesets.getOrDefault(path.getFileName().toString(), 0);
+                        if (processedOffset >= path.toFile().length()) {
+                            skipped.incrementAndGet();
+                            LOG.debug("Skipping already processed changeset: " + path.getFileName().toString());
+                        } else {
+                            loaded.incrementAndGet();
+                            replays.add(new ChangesetReplay(path, processedOffset));
                         }
                     });
-            try {
-                commitService.postProcessImportNoChecks();
-            } catch (Throwable e) {
-                LOG.error("Error post processing: " + files, e);
-            }
+        }
 
+        // TODO import change sets with a transaction
+        replays.parallelStream().forEach(
+                replay -> {
+                    String fileName = replay.getPath().getFileName().toString();
+                    LOG.debug("Importing changeset: " + fileName + " from offset " + replay.getStartOffset());
+                    try {
+                        long processedOffset = replay.replay(commitService);
+                        if (this.processedChangesets != null) {
+                            this.processedChangesets.put(fileName, (int) processedOffset);
+                        }
+                    } catch (final IOException e) {
+                        LOG.error("Change Set Load Provider failed to load {}", replay.getPath().toAbsolutePath());
+                        throw new RuntimeException(e);
+                    }
+                });
+        for (ChangesetReplay replay : replays) {
+            LOG.debug("Imported {} records from changeset: {}", replay.getRecordCount(), replay.getPath().getFileName());
+            Get.commitService().notifyListeners(replay.getCommitRecord());
+        }
+        try {
+            commitService.postProcessImportNoChecks();
+        } catch (Throwable e) {
+            LOG.error("Error post processing: " + files, e);
         }
 
         stampProvider.setCancelUncommittedStamps(false);
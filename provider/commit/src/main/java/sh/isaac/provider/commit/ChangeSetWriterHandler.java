@@ -57,6 +57,7 @@ import sh.isaac.api.Get;
 import sh.isaac.api.LookupService;
 import sh.isaac.api.SystemStatusService;
 import sh.isaac.api.collections.NidSet;
+import sh.isaac.api.collections.StampSequenceSet;
 import sh.isaac.api.commit.ChangeSetListener;
 import sh.isaac.api.commit.ChangeSetWriterService;
 import sh.isaac.api.commit.CommitRecord;
@@ -67,6 +68,8 @@ import sh.isaac.api.progress.ActiveTasks;
 import sh.isaac.api.task.TimedTask;
 import sh.isaac.api.task.TimedTaskWithProgressTracker;
 import sh.isaac.api.util.NamedThreadFactory;
+import sh.isaac.model.ChronologyDelta;
+import sh.isaac.model.ChronologyImpl;
 import sh.isaac.model.concept.ConceptChronologyImpl;
 import sh.isaac.model.semantic.SemanticChronologyImpl;
 
@@ -187,14 +190,18 @@ public class ChangeSetWriterHandler
    }
 
    /**
+   * Writes a delta with just the versions of the commit, for each concept of the commit, so that the
+   * size of a change set follows the size of the edit, rather than the history of the concepts.
+   *
    * @param conceptNidSet the concept nid set
+   * @param stampsInCommit the stamps of the commit
    */
-   private void conceptNidSetChange(NidSet conceptNidSet, WriteChangeSetTask task) {
+   private void conceptNidSetChange(NidSet conceptNidSet, StampSequenceSet stampsInCommit, WriteChangeSetTask task) {
       conceptNidSet.stream().forEach((conceptSequence) -> {
          final ConceptChronologyImpl concept = (ConceptChronologyImpl) Get.conceptService().getConceptChronology(conceptSequence);
          concept.removeUncommittedVersions();
          try {
-            writeToFile(concept);
+            writeToFile(toChangeSetRecord(concept, stampsInCommit));
          } catch (final IOException e) {
             throw new RuntimeException("Error writing concept " + conceptSequence, e);
          }
@@ -204,13 +211,14 @@ public class ChangeSetWriterHandler
 
    /**
    * @param semanticNidSet the semantic sequence set
+   * @param stampsInCommit the stamps of the commit
    */
-   private void semanticNidSetChange(NidSet semanticNidSet, WriteChangeSetTask task) {
+   private void semanticNidSetChange(NidSet semanticNidSet, StampSequenceSet stampsInCommit, WriteChangeSetTask task) {
       semanticNidSet.stream().forEach((semanticSequence) -> {
          final SemanticChronologyImpl semantic = (SemanticChronologyImpl) Get.assemblageService().getSemanticChronology(semanticSequence);
          semantic.removeUncommittedVersions();
          try {
-            writeToFile(semantic);
+            writeToFile(toChangeSetRecord(semantic, stampsInCommit));
          } catch (final IOException e) {
             throw new RuntimeException("Error writing semantic " + semanticSequence, e);
          }
@@ -218,6 +226,19 @@ public class ChangeSetWriterHandler
       });
    }
 
+   /**
+   * @param chronology a chronology of the commit
+   * @param stampsInCommit the stamps of the commit
+   * @return a delta with the versions of the commit, or the whole chronology if the commit has no stamps,
+   * as for commits that only change identifiers
+   */
+   private static IsaacExternalizable toChangeSetRecord(ChronologyImpl chronology, StampSequenceSet stampsInCommit) {
+      if (stampsInCommit == null || stampsInCommit.isEmpty()) {
+         return chronology;
+      }
+      return new ChronologyDelta(chronology, stampsInCommit::contains);
+   }
+
    /**
    * For HK2
    */
@@ -329,12 +350,12 @@ public class ChangeSetWriterHandler
 
          try {
             if ((commitRecord.getConceptsInCommit() != null) && (commitRecord.getConceptsInCommit().size() > 0)) {
-               conceptNidSetChange(commitRecord.getConceptsInCommit(), this);
+               conceptNidSetChange(commitRecord.getConceptsInCommit(), commitRecord.getStampsInCommit(), this);
                LOG.debug("handle Post Commit: {} concepts", commitRecord.getConceptsInCommit().size());
             }
 
             if ((commitRecord.getSemanticNidsInCommit() != null) && (commitRecord.getSemanticNidsInCommit().size() > 0)) {
-               semanticNidSetChange(commitRecord.getSemanticNidsInCommit(), this);
+               semanticNidSetChange(commitRecord.getSemanticNidsInCommit(), commitRecord.getStampsInCommit(), this);
                LOG.debug("handle Post Commit: {} semantics", commitRecord.getSemanticNidsInCommit().size());
             }
          }
@@ -0,0 +1,194 @@
+package sh.isaac.provider.commit;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import sh.isaac.api.Get;
+import sh.isaac.api.chronicle.Chronology;
+import sh.isaac.api.commit.CommitRecord;
+import sh.isaac.api.commit.CommitService;
+import sh.isaac.api.component.semantic.SemanticChronology;
+import sh.isaac.api.externalizable.ByteArrayDataBuffer;
+import sh.isaac.api.externalizable.IsaacExternalizable;
+import sh.isaac.model.datastream.CompactIbdfFile;
+import sh.isaac.model.datastream.IsaacExternalizableUnparsed;
+
+/**
+ * Replays one change set file into the data store, starting at the offset that an earlier load had
+ * processed. Records are read in file order, and imported in parallel batches; the data store merges
+ * the versions of a component, so the order of the imports within a batch doesn't matter.
+ * <p>
+ * The components that a commit record for the replay must name, besides the imported ones, are the
+ * components the imported semantics reference, up to their concepts. These are resolved after the
+ * records are imported, a level at a time, and each one only once.
+ */
+class ChangesetReplay {
+
+    private static final Logger LOG = LogManager.getLogger();
+
+    /**
+     * The number of records read before they are imported together.
+     */
+    private static final int BATCH_SIZE = 1024;
+
+    private final Path path;
+    private final long startOffset;
+    private final AtomicInteger recordCount = new AtomicInteger();
+    private final Set<Integer> conceptNids = ConcurrentHashMap.newKeySet();
+    private final Set<Integer> semanticNids = ConcurrentHashMap.newKeySet();
+    private final Set<Integer> referencedNids = ConcurrentHashMap.newKeySet();
+    private long processedOffset;
+
+    /**
+     * @param path the change set file
+     * @param startOffset the offset after the last record that was processed by an earlier load, which is
+     * ignored for a compact file, as a compact file is only replayed as a whole
+     */
+    ChangesetReplay(Path path, long startOffset) {
+        this.path = path;
+        this.startOffset = startOffset;
+        this.processedOffset = startOffset;
+    }
+
+    /**
+     * Import the records of the file after the start offset.
+     *
+     * @param commitService the service that imports the records
+     * @return the offset after the last complete record, from which the next load resumes
+     * @throws IOException if the file can't be read
+     */
+    long replay(CommitService commitService) throws IOException {
+        if (CompactIbdfFile.isCompact(this.path)) {
+            // A compact file has its index at the end, so it is written once, and never appended to.
+            try (CompactIbdfFile compactFile = CompactIbdfFile.open(this.path)) {
+                compactFile.parallelStream().forEach(unparsedObject -> importRecord(commitService, unparsedObject));
+            }
+            this.processedOffset = Files.size(this.path);
+        } else {
+            replayRecords(commitService);
+        }
+        resolveReferencedComponents();
+        return this.processedOffset;
+    }
+
+    private void replayRecords(CommitService commitService) throws IOException {
+        final long fileSize = Files.size(this.path);
+        long offset = this.startOffset;
+        try (FileChannel channel = FileChannel.open(this.path, StandardOpenOption.READ);
+             DataInputStream input = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel.position(offset)), 1 << 16))) {
+            final List<IsaacExternalizableUnparsed> batch = new ArrayList<>(BATCH_SIZE);
+            while (offset + 4 <= fileSize) {
+                final int recordSizeInBytes = input.readInt();
+                if (recordSizeInBytes < 0 || offset + 4 + recordSizeInBytes > fileSize) {
+                    // The record is still being written, for example by a sync that hasn't finished.
+                    LOG.warn("Change set {} ends within the record at {}, which will be read by the next load", this.path, offset);
+                    break;
+                }
+                final byte[] objectData = new byte[recordSizeInBytes];
+                input.readFully(objectData);
+                final ByteArrayDataBuffer byteArrayDataBuffer = new ByteArrayDataBuffer(objectData);
+                byteArrayDataBuffer.setExternalData(true);
+                batch.add(new IsaacExternalizableUnparsed(byteArrayDataBuffer));
+                offset += 4 + recordSizeInBytes;
+                if (batch.size() == BATCH_SIZE) {
+                    importBatch(commitService, batch);
+                    batch.clear();
+                }
+            }
+            importBatch(commitService, batch);
+        }
+        this.processedOffset = offset;
+    }
+
+    private void importBatch(CommitService commitService, List<IsaacExternalizableUnparsed> batch) {
+        batch.parallelStream().forEach(unparsedObject -> importRecord(commitService, unparsedObject));
+    }
+
+    private void importRecord(CommitService commitService, IsaacExternalizableUnparsed unparsedObject) {
+        IsaacExternalizable object = null;
+        try {
+            object = unparsedObject.parse();
+            commitService.importIfContentChanged(object).ifPresent(this::addImported);
+            this.recordCount.incrementAndGet();
+        } catch (Throwable e) {
+            LOG.error("Error importing: " + this.path.toAbsolutePath() + "\n" + object + "\n", e);
+        }
+    }
+
+    private void addImported(Chronology chronology) {
+        switch (chronology.getIsaacObjectType()) {
+            case CONCEPT:
+                this.conceptNids.add(chronology.getNid());
+                break;
+            case SEMANTIC:
+                this.semanticNids.add(chronology.getNid());
+                this.referencedNids.add(((SemanticChronology) chronology).getReferencedComponentNid());
+                break;
+            default:
+                LOG.error("Can't handle: " + chronology.getIsaacObjectType() + "\n" + chronology);
+        }
+    }
+
+    /**
+     * Add the components referenced by the imported semantics, up to their concepts. Each level of
+     * references is resolved in parallel, and a semantic is only read once, however many of the imported
+     * semantics reference it.
+     */
+    private void resolveReferencedComponents() {
+        Set<Integer> levelNids = this.referencedNids;
+        while (!levelNids.isEmpty()) {
+            final Set<Integer> nextLevelNids = ConcurrentHashMap.newKeySet();
+            levelNids.parallelStream().forEach(nid -> {
+                switch (Get.identifierService().getObjectTypeForComponent(nid)) {
+                    case CONCEPT:
+                        this.conceptNids.add(nid);
+                        break;
+                    case SEMANTIC:
+                        // An imported semantic has already added its referenced component.
+                        if (this.semanticNids.add(nid)) {
+                            Get.assemblageService().getOptionalSemanticChronology(nid)
+                                    .ifPresent(semantic -> nextLevelNids.add(semantic.getReferencedComponentNid()));
+                        }
+                        break;
+                    default:
+                        break;
+                }
+            });
+            levelNids = nextLevelNids;
+        }
+    }
+
+    /**
+     * @return the commit record of the replay, naming the imported components and the components they reference
+     */
+    CommitRecord getCommitRecord() {
+        final CommitRecord commitRecord = new CommitRecord("Importing changeset: " + this.path.getFileName().toString());
+        commitRecord.getConceptsInCommit().addAll(this.conceptNids.stream().mapToInt(Integer::intValue));
+        commitRecord.getSemanticNidsInCommit().addAll(this.semanticNids.stream().mapToInt(Integer::intValue));
+        return commitRecord;
+    }
+
+    Path getPath() {
+        return this.path;
+    }
+
+    long getStartOffset() {
+        return this.startOffset;
+    }
+
+    int getRecordCount() {
+        return this.recordCount.get();
+    }
+}
@@ -119,6 +119,7 @@ import sh.isaac.api.task.TimedTask;
 import sh.isaac.api.task.TimedTaskWithProgressTracker;
 import sh.isaac.api.transaction.Transaction;
 import sh.isaac.api.util.DataToBytesUtils;
+import sh.isaac.model.ChronologyDelta;
 import sh.isaac.model.ChronologyImpl;
 import sh.isaac.model.DataStoreSubService;
 import sh.isaac.model.concept.ConceptChronologyImpl;
@@ -496,6 +497,11 @@ public class CommitProvider
                 }
                 break;
 
+            case CONCEPT_DELTA:
+            case SEMANTIC_DELTA:
+                importDelta((ChronologyDelta) isaacExternalizable);
+                break;
+
             case STAMP_ALIAS:
                 final StampAlias stampAlias = (StampAlias) isaacExternalizable;
 
@@ -557,6 +563,9 @@ public class CommitProvider
                     }
                 }
                 return Optional.empty();
+            case CONCEPT_DELTA:
+            case SEMANTIC_DELTA:
+                return importDelta((ChronologyDelta) isaacExternalizable);
             case STAMP_ALIAS:
                 final StampAlias stampAlias = (StampAlias) isaacExternalizable;
 
@@ -578,6 +587,30 @@ public class CommitProvider
 
     }
 
+    /**
+     * Add the versions of a delta to the stored chronology. The data store merges versions it already has,
+     * so the stored chronology is not read to remove them first.
+     *
+     * @param delta the delta
+     * @return the chronology of the delta, with only the versions of the delta, if it has any committed versions
+     */
+    private Optional<Chronology> importDelta(ChronologyDelta delta) {
+        final ChronologyImpl chronology = delta.getChronology();
+        if (chronology.removeUncommittedVersions()) {
+            LOG.warn("Removed uncommitted versions on import from: " + chronology);
+        }
+        if (chronology.getVersionList().isEmpty()) {
+            return Optional.empty();
+        }
+        if (chronology instanceof ConceptChronologyImpl) {
+            Get.conceptService().writeConcept((ConceptChronologyImpl) chronology);
+        } else {
+            Get.assemblageService().writeSemanticChronology((SemanticChronologyImpl) chronology);
+            deferNidAction(chronology.getNid());
+        }
+        return Optional.of(chronology);
+    }
+
     private void removeDuplicates(Optional<? extends Chronology> optionalExistingChronology, ChronologyImpl newChronology) {
         HashSet<String> existingSamps = new HashSet<>();
         for (Version v : optionalExistingChronology.get().getVersionList()) {
@@ -683,6 +716,8 @@ public class CommitProvider
             }
             LOG.info("Post processing import complete");
         }
+        // The imported chronologies were logged without waiting, this makes the whole import durable at once.
+        Get.dataStore().awaitDurable();
         if (exceptions.size() > 0) {
             LOG.error("Encountered {} errors during postProcessImportNoChecks", exceptions.size());
             throw new RuntimeException("Errors during import!", exceptions.get(0));
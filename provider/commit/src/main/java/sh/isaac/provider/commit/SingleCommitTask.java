@@ -134,6 +134,7 @@ public class SingleCommitTask extends CommitTask {
         }
         Task<Void> stampCommitTask = Get.stampService().commit(this.transaction, commitTime);
         stampCommitTask.get();
+        Get.dataStore().awaitDurable();
         this.changeListeners.forEach((listenerRef) -> {
             final ChronologyChangeListener listener = listenerRef.get();
 
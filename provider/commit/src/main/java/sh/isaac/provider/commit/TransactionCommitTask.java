@@ -78,6 +78,8 @@ public class TransactionCommitTask extends CommitTask {
             }
             Task<Void> stampCommitTask = Get.stampService().commit(this.transaction, commitTime.toEpochMilli());
             stampCommitTask.get();
+            // The versions were written as they were added to the transaction, so one wait covers all of them.
+            Get.dataStore().awaitDurable();
 
 
             if (!transaction.getStampsForTransaction().isEmpty()) {
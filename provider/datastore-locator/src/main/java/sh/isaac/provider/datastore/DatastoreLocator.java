@@ -343,6 +343,15 @@ public class DatastoreLocator implements SequenceStore, ExtendedStore, MasterDat
 		dataStore.unregisterDataWriteListener(dataWriteListener);
 	}
 
+	/** 
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void awaitDurable()
+	{
+		dataStore.awaitDurable();
+	}
+
 	/** 
 	 * {@inheritDoc}
 	 */
@@ -1,16 +1,36 @@
 package sh.isaac.provider.datastore;
 
+import sh.isaac.api.util.SystemUtils;
+import sh.isaac.model.collections.store.ByteArrayArraySpineView;
 import sh.isaac.model.collections.store.ByteArrayArrayStore;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.Optional;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import static sh.isaac.model.collections.SpineFileUtil.SPINE_PREFIX;
 
+/**
+ * Stores each spine in its own file, in the {@link MappedByteArrayArraySpine} format. Spines are
+ * written to a temporary file, forced to disk, and then atomically renamed over the previous
+ * spine file, so a crash during a sync leaves either the old or the new spine, never a torn one.
+ * Spine files in the legacy format are still read, and are replaced the next time they are written.
+ */
 public class ByteArrayArrayFileStore extends SpinedArrayFileStore implements ByteArrayArrayStore {
 
+    private static final String TEMP_SPINE_PREFIX = "tmp-" + SPINE_PREFIX;
+
+    /**
+     * Windows won't replace a file that is mapped, so on Windows spine files are read into the heap.
+     */
+    private static final boolean MAP_SPINE_FILES = !SystemUtils.isWindows();
+
     public ByteArrayArrayFileStore(File directory) {
         super(directory);
     }
@@ -21,29 +41,35 @@ public class ByteArrayArrayFileStore extends SpinedArrayFileStore implements Byt
 
     @Override
     public Optional<AtomicReferenceArray<byte[][]>> get(int spineIndex) {
+        Optional<ByteArrayArraySpineView> optionalView = getView(spineIndex);
+        if (optionalView.isEmpty()) {
+            return Optional.empty();
+        }
+        ByteArrayArraySpineView view = optionalView.get();
+        AtomicReferenceArray<byte[][]> spine = new AtomicReferenceArray<>(view.length());
+        for (int i = 0; i < view.length(); i++) {
+            spine.set(i, view.get(i));
+        }
+        return Optional.of(spine);
+    }
+
+    @Override
+    public Optional<ByteArrayArraySpineView> getView(int spineIndex) {
         String spineKey = SPINE_PREFIX + spineIndex;
         File spineFile = new File(directory, spineKey);
         if (spineFile.exists()) {
             diskSemaphore.acquireUninterruptibly();
-            try (DataInputStream dis = new DataInputStream(new BufferedInputStream(new FileInputStream(spineFile)))) {
-                int arraySize = dis.readInt();
-                byte[][][] spineArray = new byte[arraySize][][];
-                for (int i = 0; i < arraySize; i++) {
-                    int valueSize = dis.readInt();
-                    if (valueSize != 0) {
-                        byte[][] value = new byte[valueSize][];
-                        for (int j = 0; j < valueSize; j++) {
-                            int valuePartSize = dis.readInt();
-                            byte[] valuePart = new byte[valuePartSize];
-                            dis.readFully(valuePart);
-                            value[j] = valuePart;
-                        }
-                        spineArray[i] = value;
-                    }
+            try (FileChannel channel = FileChannel.open(spineFile.toPath(), StandardOpenOption.READ)) {
+                ByteBuffer buffer;
+                if (MAP_SPINE_FILES) {
+                    buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                } else {
+                    buffer = ByteBuffer.wrap(Files.readAllBytes(spineFile.toPath()));
                 }
-                AtomicReferenceArray<byte[][]> spine = new AtomicReferenceArray<>(spineArray);
-                return Optional.of(spine);
-
+                if (MappedByteArrayArraySpine.isMappedSpine(buffer)) {
+                    return Optional.of(new MappedByteArrayArraySpine(buffer));
+                }
+                return Optional.of(ByteArrayArraySpineView.of(readLegacySpine(spineFile)));
             } catch (IOException ex) {
                 LOG.error(ex);
             } finally {
@@ -53,30 +79,60 @@ public class ByteArrayArrayFileStore extends SpinedArrayFileStore implements Byt
         return Optional.empty();
     }
 
+    private AtomicReferenceArray<byte[][]> readLegacySpine(File spineFile) throws IOException {
+        try (DataInputStream dis = new DataInputStream(new BufferedInputStream(new FileInputStream(spineFile)))) {
+            int arraySize = dis.readInt();
+            byte[][][] spineArray = new byte[arraySize][][];
+            for (int i = 0; i < arraySize; i++) {
+                int valueSize = dis.readInt();
+                if (valueSize != 0) {
+                    byte[][] value = new byte[valueSize][];
+                    for (int j = 0; j < valueSize; j++) {
+                        int valuePartSize = dis.readInt();
+                        byte[] valuePart = new byte[valuePartSize];
+                        dis.readFully(valuePart);
+                        value[j] = valuePart;
+                    }
+                    spineArray[i] = value;
+                }
+            }
+            return new AtomicReferenceArray<>(spineArray);
+        }
+    }
+
     @Override
     public void put(int spineIndex, AtomicReferenceArray<byte[][]> spine) {
         String spineKey = SPINE_PREFIX + spineIndex;
         File spineFile = new File(directory, spineKey);
+        File tempFile = new File(directory, TEMP_SPINE_PREFIX + spineIndex);
         diskSemaphore.acquireUninterruptibly();
-        try (DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(spineFile)))) {
-            dos.writeInt(spine.length());
-            for (int i = 0; i < spine.length(); i++) {
-                byte[][] value = spine.get(i);
-                if (value == null) {
-                    dos.writeInt(0);
-                } else {
-                    dos.writeInt(value.length);
-                    for (byte[] valuePart : value) {
-                        dos.writeInt(valuePart.length);
-                        dos.write(valuePart);
-                    }
-                }
+        try {
+            try (FileOutputStream fos = new FileOutputStream(tempFile);
+                    DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(fos))) {
+                MappedByteArrayArraySpine.write(spine, dos);
+                dos.flush();
+                fos.getChannel().force(true);
             }
+            Files.move(tempFile.toPath(), spineFile.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            forceDirectory();
         } catch (IOException ex) {
             LOG.error(ex);
+            throw new RuntimeException(ex);
         } finally {
             diskSemaphore.release();
         }
     }
 
+    /**
+     * Force the rename of the spine file to disk. Not every platform supports opening a
+     * directory as a channel, in which case the rename is left to the file system.
+     */
+    private void forceDirectory() {
+        try (FileChannel channel = FileChannel.open(directory.toPath(), StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException ex) {
+            LOG.trace("Unable to force directory: " + directory, ex);
+        }
+    }
+
 }
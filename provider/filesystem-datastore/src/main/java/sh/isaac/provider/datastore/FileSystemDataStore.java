@@ -38,6 +38,7 @@ package sh.isaac.provider.datastore;
 
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.File;
@@ -58,6 +59,7 @@ import java.util.Optional;
 import java.util.OptionalInt;
 import java.util.OptionalLong;
 import java.util.Properties;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -109,6 +111,7 @@ import sh.isaac.model.collections.SpinedNidNidSetMap;
 import sh.isaac.model.collections.store.ByteArrayArrayStoreProvider;
 import sh.isaac.model.collections.store.IntIntArrayStoreProvider;
 import sh.isaac.model.semantic.SemanticChronologyImpl;
+import sh.isaac.model.taxonomy.TaxonomyRecordPrimitive;
 
 /**
  * TODO: evaluate how the canceling of changes will impact the array approach
@@ -160,11 +163,17 @@ public class FileSystemDataStore
     private File propertiesFile;
     private File nidToAssemblageNidMapDirectory;
     private File nidToElementSequenceMapDirectory;
+    private File writeAheadLogDirectory;
+    private WriteAheadLog writeAheadLog;
+    /** Directories known to have an assemblage info file, so sync need not list them again. */
+    private final Set<File> infoFileDirectories = ConcurrentHashMap.newKeySet();
     
     //Extended store storage
     private File extendedLongMapFile;
     private final ConcurrentHashMap<String, Long> extendedLongMap = new ConcurrentHashMap<>();
     private final ConcurrentHashMap<String, ExtendedStoreWithSerializer<Object, Object>> extendedStoreMap = new ConcurrentHashMap<>(); ;
+    /** Logged changes to extended stores, by store name, replayed when the store is opened, since only its user can deserialize it. */
+    private final ConcurrentHashMap<String, List<byte[]>> replayedStoreChanges = new ConcurrentHashMap<>();
     
     private final ArrayList<DataWriteListener> writeListeners = new ArrayList<>();
 
@@ -183,31 +192,150 @@ public class FileSystemDataStore
     @Override
     public void putChronologyData(ChronologySerializeable chronology) {
         try {
-            int assemblageNid = chronology.getAssemblageNid();
- 
+            int referencedComponentNid = Integer.MAX_VALUE;
             if (chronology instanceof SemanticChronologyImpl) {
-                SemanticChronologyImpl semanticChronology = (SemanticChronologyImpl) chronology;
-                int referencedComponentNid = semanticChronology.getReferencedComponentNid();
-
-                //We could optionally check and see if this chronology is already listed for this nid, but its likely cheaper to just let it merge internally
-                componentToSemanticNidsMap.add(referencedComponentNid, semanticChronology.getNid());
-              }
-
-            SpinedByteArrayArrayMap spinedByteArrayArrayMap = getChronologySpinedMap(assemblageNid);
-            int elementSequence = getElementSequenceForNid(chronology.getNid(), assemblageNid);
+                referencedComponentNid = ((SemanticChronologyImpl) chronology).getReferencedComponentNid();
+            }
+            List<byte[]> dataList = getDataList(chronology);
+            putChronologyData(chronology.getNid(), chronology.getAssemblageNid(), referencedComponentNid, dataList);
+
+            if (isLogging()) {
+                try (WriteAheadLog.RecordWriter record = WriteAheadLog.newRecord(WriteAheadLog.PUT_CHRONOLOGY)) {
+                    record.writeInt(chronology.getNid());
+                    record.writeInt(chronology.getAssemblageNid());
+                    record.writeInt(referencedComponentNid);
+                    record.writeInt(dataList.size());
+                    for (byte[] data : dataList) {
+                        record.writeInt(data.length);
+                        record.write(data);
+                    }
+                    log(record);
+                }
+            }
 
-            spinedByteArrayArrayMap.put(elementSequence, getDataList(chronology));
-            
             for (DataWriteListener dwl : writeListeners) {
                dwl.writeData(chronology);
             }
 
+        } catch (IOException e) {
+            LOG.error("Unexpected error logging chronology data!", e);
+            throw new RuntimeException(e);
         } catch (Throwable e) {
             LOG.error("Unexpected error putting chronology data!", e);
             throw e;
         }
     }
 
+    /**
+     * @param referencedComponentNid the referenced component of a semantic, or Integer.MAX_VALUE if not a semantic.
+     */
+    private void putChronologyData(int nid, int assemblageNid, int referencedComponentNid, List<byte[]> dataList) {
+        if (referencedComponentNid != Integer.MAX_VALUE) {
+            //We could optionally check and see if this chronology is already listed for this nid, but its likely cheaper to just let it merge internally
+            componentToSemanticNidsMap.add(referencedComponentNid, nid);
+        }
+
+        SpinedByteArrayArrayMap spinedByteArrayArrayMap = getChronologySpinedMap(assemblageNid);
+        int elementSequence = getElementSequenceForNid(nid, assemblageNid);
+
+        spinedByteArrayArrayMap.put(elementSequence, dataList);
+    }
+
+    /**
+     * Changes are only logged once the data store has started, and not while building a database,
+     * since a database build ends with a sync.
+     */
+    private boolean isLogging() {
+        return this.writeAheadLog != null && !Get.configurationService().isInDBBuildMode();
+    }
+
+    /**
+     * Append the record to the write ahead log. The change the record describes must already be applied,
+     * so that a checkpoint begun after the append includes it. The record is made durable by the next
+     * {@link #awaitDurable()}, at the end of the commit or import that wrote it.
+     */
+    private void log(WriteAheadLog.RecordWriter record) {
+        WriteAheadLog log = this.writeAheadLog;
+        if (log != null) {
+            log.append(record.toByteArray());
+        }
+    }
+
+    /**
+     * Log a change to an extended store, such as the assignment of a stamp sequence. The change is
+     * replayed when the store is next opened after a crash.
+     */
+    private void logStoreChange(String storeName, LoggedExtendedStore.ChangeWriter changeWriter) {
+        if (isLogging()) {
+            try (WriteAheadLog.RecordWriter record = WriteAheadLog.newRecord(WriteAheadLog.EXTENDED_STORE)) {
+                record.writeUTF(storeName);
+                changeWriter.write(record);
+                log(record);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void awaitDurable() {
+        WriteAheadLog log = this.writeAheadLog;
+        if (log != null) {
+            log.awaitDurable();
+        }
+    }
+
+    private void replayLogRecord(byte recordType, DataInputStream payload) throws IOException {
+        switch (recordType) {
+            case WriteAheadLog.PUT_CHRONOLOGY: {
+                int nid = payload.readInt();
+                int assemblageNid = payload.readInt();
+                int referencedComponentNid = payload.readInt();
+                int dataCount = payload.readInt();
+                List<byte[]> dataList = new ArrayList<>(dataCount);
+                for (int i = 0; i < dataCount; i++) {
+                    byte[] data = new byte[payload.readInt()];
+                    payload.readFully(data);
+                    dataList.add(data);
+                }
+                putChronologyData(nid, assemblageNid, referencedComponentNid, dataList);
+                break;
+            }
+            case WriteAheadLog.SET_ASSEMBLAGE:
+                nidToAssemblageNidMap.put(payload.readInt(), payload.readInt());
+                break;
+            case WriteAheadLog.ACCUMULATE_TAXONOMY: {
+                int assemblageNid = payload.readInt();
+                int conceptNid = payload.readInt();
+                int[] taxonomyData = new int[payload.readInt()];
+                for (int i = 0; i < taxonomyData.length; i++) {
+                    taxonomyData[i] = payload.readInt();
+                }
+                // Resolve the element sequence here, rather than through ModelGet, which may not be available during startup.
+                getTaxonomyMap(assemblageNid).accumulateAndGet(getElementSequenceForNid(conceptNid), taxonomyData, FileSystemDataStore::mergeTaxonomyData);
+                break;
+            }
+            case WriteAheadLog.EXTENDED_STORE:
+                replayedStoreChanges.computeIfAbsent(payload.readUTF(), storeName -> new ArrayList<>()).add(payload.readAllBytes());
+                break;
+            default:
+                throw new IllegalStateException("Unknown write ahead log record type: " + recordType);
+        }
+    }
+
+    private static int[] mergeTaxonomyData(int[] existing, int[] update) {
+        if (existing == null || existing.length == 0) {
+            return update;
+        }
+        if (update == null || update.length == 0) {
+            return existing;
+        }
+        return TaxonomyRecordPrimitive.merge(existing, update);
+    }
+
     /**
      * Get the data as a list of immutable byte arrays. With an append only data
      * model, these records are safe for concurrent writes without destroying
@@ -307,6 +435,7 @@ public class FileSystemDataStore
             
             this.extendedLongMap.clear();
             this.extendedStoreMap.clear();
+            this.replayedStoreChanges.clear();
 
             this.isaacDbDirectory = folderPath.toFile();
             this.chronologySpinesDirectory = new File(isaacDbDirectory, "chronologies");
@@ -321,6 +450,8 @@ public class FileSystemDataStore
             this.nidToElementSequenceMapDirectory = new File(isaacDbDirectory, "componentToAssemblageElementMap");
             
             this.extendedLongMapFile = new File(isaacDbDirectory, "extendedLongMap");
+            this.writeAheadLogDirectory = new File(isaacDbDirectory, "writeAheadLog");
+            this.infoFileDirectories.clear();
 
             if (isaacDbDirectory.exists() && this.propertiesFile.isFile()) {
                 try (Reader reader = new FileReader(propertiesFile)) {
@@ -365,6 +496,14 @@ public class FileSystemDataStore
             readExtendedLongMapFile();
             //extended storage is read on demand
 
+            // Apply the changes made since the last checkpoint
+            WriteAheadLog log = new WriteAheadLog(writeAheadLogDirectory);
+            int recordsReplayed = log.replay(this::replayLogRecord);
+            if (recordsReplayed > 0) {
+                LOG.info("Replayed " + recordsReplayed + " write ahead log records");
+            }
+            this.writeAheadLog = log;
+
             // assemblage_ElementToNid_Map is lazily loaded
         } catch (IOException ex) {
             LOG.error("Error starting FileSystemDataStore", ex);
@@ -417,6 +556,10 @@ public class FileSystemDataStore
 
                 pendingSync.acquire();
                 executor.submit(syncTask).get();
+                if (FileSystemDataStore.this.writeAheadLog != null) {
+                    FileSystemDataStore.this.writeAheadLog.close();
+                    FileSystemDataStore.this.writeAheadLog = null;
+                }
                 completedUnitOfWork();
                 this.updateMessage("Clearing caches");
                 FileSystemDataStore.this.datastoreStartState = DataStoreStartState.NOT_YET_CHECKED;
@@ -432,6 +575,7 @@ public class FileSystemDataStore
                 FileSystemDataStore.this.nidToElementSequenceMap.clear();
                 FileSystemDataStore.this.extendedLongMap.clear();
                 FileSystemDataStore.this.extendedStoreMap.clear();
+                FileSystemDataStore.this.replayedStoreChanges.clear();
                 FileSystemDataStore.this.lastSyncTask = null;
                 FileSystemDataStore.this.lastSyncFuture = null;
                 FileSystemDataStore.this.writeListeners.clear();
@@ -609,14 +753,7 @@ public class FileSystemDataStore
 
         int elementSequence = getElementSequenceForNid(nid, assemblageNidOptional.getAsInt());
         SpinedByteArrayArrayMap spinedByteArrayArrayMap = getChronologySpinedMap(assemblageNidOptional.getAsInt());
-        byte[][] data = spinedByteArrayArrayMap.get(elementSequence);
-
-        if (data == null) {
-            return Optional.empty();
-        }
-
-
-        return Optional.of(ByteArrayDataBuffer.dataArrayToBuffer(data));
+        return Optional.ofNullable(spinedByteArrayArrayMap.getDataBuffer(elementSequence));
     }
 
     @Override
@@ -698,7 +835,21 @@ public class FileSystemDataStore
        if (conceptNid == TermAux.SOLOR_ROOT.getNid() && Get.configurationService().isVerboseDebugEnabled()) {
            LOG.info(" root update watch");
        }
-      return getTaxonomyMap(assemblageId).accumulateAndGet(conceptNid, newData, accumulatorFunction);
+      int[] result = getTaxonomyMap(assemblageId).accumulateAndGet(conceptNid, newData, accumulatorFunction);
+      if (isLogging()) {
+          try (WriteAheadLog.RecordWriter record = WriteAheadLog.newRecord(WriteAheadLog.ACCUMULATE_TAXONOMY)) {
+              record.writeInt(assemblageId);
+              record.writeInt(conceptNid);
+              record.writeInt(newData.length);
+              for (int value : newData) {
+                  record.writeInt(value);
+              }
+              log(record);
+          } catch (IOException e) {
+              throw new RuntimeException(e);
+          }
+      }
+      return result;
    }
 
    /**
@@ -713,9 +864,7 @@ public class FileSystemDataStore
             }
             int elementSequence = getElementSequenceForNid(nid, assemblageNid.getAsInt());
             SpinedByteArrayArrayMap spinedByteArrayArrayMap = getChronologySpinedMap(assemblageNid.getAsInt());
-            byte[][] data = spinedByteArrayArrayMap.get(elementSequence);
-
-            return data != null;
+            return spinedByteArrayArrayMap.containsKey(elementSequence);
         } else {
             return false;
         }
@@ -752,6 +901,14 @@ public class FileSystemDataStore
                     completedUnitOfWork();
                     FileSystemDataStore.LOG.info("Skipping write secondary to BuildMode.IBDF");
                 } else {
+                    // Changes logged from here on go to a new log segment, which this checkpoint won't remove.
+                    int checkpointSegment = writeAheadLog == null ? -1 : writeAheadLog.rotate();
+                    // Changes to stores that haven't been opened since they were replayed aren't in this checkpoint, so log them again.
+                    replayedStoreChanges.forEach((storeName, changes) -> {
+                        for (byte[] change : changes) {
+                            logStoreChange(storeName, record -> record.write(change));
+                        }
+                    });
                     addToTotalWork(11);
                     updateMessage("Writing sequence generator map...");
                     writeSequenceGeneratorMapFile();
@@ -838,6 +995,10 @@ public class FileSystemDataStore
                         writeExtendedStoreMapFiles();
                     }
                     completedUnitOfWork();  // 11
+
+                    if (writeAheadLog != null) {
+                        writeAheadLog.deleteSegmentsThrough(checkpointSegment);
+                    }
                     
                     writeListeners.forEach(listener -> listener.sync());
                 }
@@ -852,11 +1013,14 @@ public class FileSystemDataStore
         }
 
         private void addInfoFile(File directory, Integer assemblageNid) {
-            if (LookupService.getCurrentRunLevel() >= LookupService.SL_L5_ISAAC_STARTED_RUNLEVEL) {
+            if (LookupService.getCurrentRunLevel() >= LookupService.SL_L5_ISAAC_STARTED_RUNLEVEL
+                    && !infoFileDirectories.contains(directory)) {
                 File parentDirectory = directory.getParentFile();
                 File[] filesWithPrefix = parentDirectory.listFiles((dir, name) -> name.startsWith(directory.getName()));
 
-                if (filesWithPrefix.length < 2 && Get.conceptService().hasConcept(assemblageNid)) {
+                if (filesWithPrefix.length >= 2) {
+                    infoFileDirectories.add(directory);
+                } else if (Get.conceptService().hasConcept(assemblageNid)) {
                     try {
                         Optional<String> descriptionOptional = Get.concept(assemblageNid)
                                 .getRegularName();
@@ -879,6 +1043,7 @@ public class FileSystemDataStore
                                 try {
                                     descriptionFile.getParentFile().mkdirs();
                                     descriptionFile.createNewFile();
+                                    infoFileDirectories.add(directory);
                                 } catch (IOException ex) {
                                     LOG.warn("Failed to write assemblage description file", ex);
                                 }
@@ -1006,6 +1171,15 @@ public class FileSystemDataStore
       }
       else {
          nidToAssemblageNidMap.put(nid,  assemblage);
+         if (isLogging()) {
+            try (WriteAheadLog.RecordWriter record = WriteAheadLog.newRecord(WriteAheadLog.SET_ASSEMBLAGE)) {
+               record.writeInt(nid);
+               record.writeInt(assemblage);
+               log(record);
+            } catch (IOException e) {
+               throw new RuntimeException(e);
+            }
+         }
       }
    }
    
@@ -1045,38 +1219,57 @@ public class FileSystemDataStore
     @SuppressWarnings("unchecked")
     @Override
     public <K, VI, VE> ExtendedStoreData<K, VE> getStore(String storeName, Function<VE, VI> valueSerializer, Function<VI, VE> valueDeserializer) {
-        return (ExtendedStoreData<K, VE>) extendedStoreMap.computeIfAbsent(storeName, nameAgain ->  {
-            try {
-                File extendedStoreMapFile = new File(isaacDbDirectory, "extendedStoreMap-" + storeName);
-                if (!extendedStoreMapFile.exists()) {
-                    extendedStoreMapFile.getParentFile().mkdirs();
-                    extendedStoreMapFile.createNewFile();
-                }
-                if (extendedStoreMapFile.length() > 1) {
-                    try (DataInputStream dis = new DataInputStream(new FileInputStream(extendedStoreMapFile)))
-                    {
-                        String serviceName = dis.readUTF();
-                        ExtendedStoreWithSerializer<K, VE> store = LookupService.getService(ExtendedStoreWithSerializer.class, serviceName);
-                        store.init(dis, (Function<Object, Object>)valueSerializer, (Function<Object, Object>)valueDeserializer);
-                        LOG.debug("Loaded {} entries from the mapfile {}", () -> store.size(), () -> extendedStoreMapFile.getAbsolutePath());
-                        return (ExtendedStoreWithSerializer<Object, Object>) store;
+        ExtendedStoreData<K, VE> store = (ExtendedStoreData<K, VE>) extendedStoreMap.computeIfAbsent(storeName, nameAgain ->  {
+            ExtendedStoreWithSerializer<Object, Object> openedStore = openStore(storeName, valueSerializer, valueDeserializer);
+            List<byte[]> changes = replayedStoreChanges.remove(storeName);
+            if (changes != null) {
+                LOG.info("Replaying {} logged changes to extended store {}", changes.size(), storeName);
+                for (byte[] change : changes) {
+                    try (DataInputStream dis = new DataInputStream(new ByteArrayInputStream(change))) {
+                        LoggedExtendedStore.replay(openedStore, (Function<Object, Object>) valueDeserializer, dis);
                     }
-                }
-                else {
-                    LOG.debug("Created a new, blank mapfile for {}", () -> extendedStoreMapFile.getAbsolutePath());
-                    if (valueSerializer == null) {
-                        return new SimpleTypeStoreMap();
-                    }
-                    else {
-                        return new ArbitraryTypeStoreMap((Function<Object, Object>)valueSerializer, (Function<Object, Object>)valueDeserializer);
+                    catch (IOException e) {
+                        throw new RuntimeException("Problem replaying a logged change to extended store " + storeName, e);
                     }
                 }
             }
-            catch (Exception e) {
-                LOG.error("Failure reading {}", storeName, e);
-                throw new RuntimeException("Problem reading extended store map file for " + storeName);
-            }
+            return openedStore;
         });
+        return new LoggedExtendedStore<>(storeName, store, valueSerializer, this::logStoreChange);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <VI, VE> ExtendedStoreWithSerializer<Object, Object> openStore(String storeName, Function<VE, VI> valueSerializer, Function<VI, VE> valueDeserializer) {
+        try {
+            File extendedStoreMapFile = new File(isaacDbDirectory, "extendedStoreMap-" + storeName);
+            if (!extendedStoreMapFile.exists()) {
+                extendedStoreMapFile.getParentFile().mkdirs();
+                extendedStoreMapFile.createNewFile();
+            }
+            if (extendedStoreMapFile.length() > 1) {
+                try (DataInputStream dis = new DataInputStream(new FileInputStream(extendedStoreMapFile)))
+                {
+                    String serviceName = dis.readUTF();
+                    ExtendedStoreWithSerializer<Object, Object> store = LookupService.getService(ExtendedStoreWithSerializer.class, serviceName);
+                    store.init(dis, (Function<Object, Object>)valueSerializer, (Function<Object, Object>)valueDeserializer);
+                    LOG.debug("Loaded {} entries from the mapfile {}", () -> store.size(), () -> extendedStoreMapFile.getAbsolutePath());
+                    return store;
+                }
+            }
+            else {
+                LOG.debug("Created a new, blank mapfile for {}", () -> extendedStoreMapFile.getAbsolutePath());
+                if (valueSerializer == null) {
+                    return new SimpleTypeStoreMap();
+                }
+                else {
+                    return new ArbitraryTypeStoreMap((Function<Object, Object>)valueSerializer, (Function<Object, Object>)valueDeserializer);
+                }
+            }
+        }
+        catch (Exception e) {
+            LOG.error("Failure reading {}", storeName, e);
+            throw new RuntimeException("Problem reading extended store map file for " + storeName);
+        }
     }
     
     private void writeStoreData(String storeName) throws IOException {
@@ -0,0 +1,195 @@
+package sh.isaac.provider.datastore;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import sh.isaac.api.datastore.ExtendedStoreData;
+import sh.isaac.api.datastore.extendedStore.SimpleTypeStoreHandler;
+
+/**
+ * An extended store of a {@link FileSystemDataStore} that logs each change to the write ahead log, so that
+ * state kept in extended stores, such as the stamps of the stamp provider, is recovered with the chronologies
+ * that refer to it. Reads go straight to the store.
+ * <p>
+ * A change is logged as the store name, an operation, and the key and serialized value of the entry, in
+ * their {@link SimpleTypeStoreHandler} form, so that it can be replayed without the value types of the store.
+ *
+ * @param <K> the type of the keys
+ * @param <VE> the type of the values, as the users of the store see them
+ */
+class LoggedExtendedStore<K, VE> implements ExtendedStoreData<K, VE> {
+
+    static final byte PUT = 0;
+    static final byte REMOVE = 1;
+    static final byte CLEAR = 2;
+
+    /**
+     * Appends the record of a change, whose payload is written by the provided writer, to the log.
+     */
+    interface ChangeLogger {
+        void log(String storeName, ChangeWriter changeWriter);
+    }
+
+    interface ChangeWriter {
+        void write(DataOutputStream record) throws IOException;
+    }
+
+    private final String storeName;
+    private final ExtendedStoreData<K, VE> store;
+    private final Function<VE, Object> valueSerializer;
+    private final ChangeLogger changeLogger;
+
+    @SuppressWarnings("unchecked")
+    LoggedExtendedStore(String storeName, ExtendedStoreData<K, VE> store, Function<VE, ?> valueSerializer, ChangeLogger changeLogger) {
+        this.storeName = storeName;
+        this.store = store;
+        this.valueSerializer = valueSerializer == null ? value -> value : (Function<VE, Object>) valueSerializer;
+        this.changeLogger = changeLogger;
+    }
+
+    private void logPut(K key, VE value) {
+        if (value == null) {
+            logRemove(key);
+            return;
+        }
+        Object serializedValue = valueSerializer.apply(value);
+        changeLogger.log(storeName, record -> {
+            record.writeByte(PUT);
+            writeSimpleType(key, record);
+            writeSimpleType(serializedValue, record);
+        });
+    }
+
+    private void logRemove(Object key) {
+        changeLogger.log(storeName, record -> {
+            record.writeByte(REMOVE);
+            writeSimpleType(key, record);
+        });
+    }
+
+    private static void writeSimpleType(Object data, DataOutputStream record) throws IOException {
+        SimpleTypeStoreHandler type = SimpleTypeStoreHandler.forType(data.getClass());
+        record.writeUTF(type.name());
+        type.write(data, record);
+    }
+
+    private static Object readSimpleType(DataInputStream record) throws IOException {
+        return SimpleTypeStoreHandler.fromStream(record).read(record);
+    }
+
+    /**
+     * Apply a change read from the log to a store, without logging it again.
+     *
+     * @param store the store the change was made to
+     * @param valueDeserializer the deserializer of the store, or null, for a store of simple types
+     * @param record the logged change, after the store name
+     */
+    @SuppressWarnings("unchecked")
+    static void replay(ExtendedStoreData<Object, Object> store, Function<Object, Object> valueDeserializer, DataInputStream record) throws IOException {
+        byte operation = record.readByte();
+        switch (operation) {
+            case PUT: {
+                Object key = readSimpleType(record);
+                Object value = readSimpleType(record);
+                store.put(key, valueDeserializer == null ? value : valueDeserializer.apply(value));
+                break;
+            }
+            case REMOVE:
+                store.remove(readSimpleType(record));
+                break;
+            case CLEAR:
+                store.clearStore();
+                break;
+            default:
+                throw new IllegalStateException("Unknown extended store operation: " + operation);
+        }
+    }
+
+    @Override
+    public VE remove(K key) {
+        VE removed = store.remove(key);
+        if (removed != null) {
+            logRemove(key);
+        }
+        return removed;
+    }
+
+    @Override
+    public VE get(K key) {
+        return store.get(key);
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return store.containsKey(key);
+    }
+
+    @Override
+    public Set<K> keySet() {
+        return store.keySet();
+    }
+
+    @Override
+    public VE computeIfAbsent(K key, Function<? super K, ? extends VE> mappingFunction) {
+        boolean[] computed = new boolean[1];
+        VE value = store.computeIfAbsent(key, keyAgain -> {
+            computed[0] = true;
+            return mappingFunction.apply(keyAgain);
+        });
+        if (computed[0] && value != null) {
+            logPut(key, value);
+        }
+        return value;
+    }
+
+    @Override
+    public VE put(K key, VE value) {
+        VE previous = store.put(key, value);
+        logPut(key, value);
+        return previous;
+    }
+
+    @Override
+    public VE accumulateAndGet(K key, VE newData, BinaryOperator<VE> accumulatorFunction) {
+        VE value = store.accumulateAndGet(key, newData, accumulatorFunction);
+        logPut(key, value);
+        return value;
+    }
+
+    @Override
+    public Set<Map.Entry<K, VE>> getEntrySet() {
+        return store.getEntrySet();
+    }
+
+    @Override
+    public void clearStore() {
+        store.clearStore();
+        changeLogger.log(storeName, record -> record.writeByte(CLEAR));
+    }
+
+    @Override
+    public int size() {
+        return store.size();
+    }
+
+    @Override
+    public long sizeAsLong() {
+        return store.sizeAsLong();
+    }
+
+    @Override
+    public Stream<VE> getValueStream(boolean parallel) {
+        return store.getValueStream(parallel);
+    }
+
+    @Override
+    public Stream<Entry<K, VE>> getStream(boolean parallel) {
+        return store.getStream(parallel);
+    }
+}
@@ -0,0 +1,163 @@
+package sh.isaac.provider.datastore;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import sh.isaac.api.externalizable.ByteArrayDataBuffer;
+import sh.isaac.model.collections.store.ByteArrayArraySpineView;
+
+/**
+ * A spine file of byte[][] elements, read through a (usually memory mapped) buffer without
+ * decoding the spine into the heap. The file layout is:
+ * <pre>
+ * int    MAGIC
+ * int    FORMAT_VERSION
+ * int    element count (n)
+ * int[n + 1] offset table, the file position of each element record; element i is
+ *        absent when offset[i] == offset[i + 1]
+ * data region, for each present element:
+ *        int part count, then for each part: int part length, part bytes
+ * </pre>
+ * The legacy spine format starts with the element count, which never collides with MAGIC.
+ */
+public class MappedByteArrayArraySpine implements ByteArrayArraySpineView {
+
+    public static final int MAGIC = 0x49535350; // "ISSP"
+    public static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 12;
+
+    private final ByteBuffer buffer;
+    private final int length;
+
+    public MappedByteArrayArraySpine(ByteBuffer buffer) {
+        this.buffer = buffer;
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IllegalStateException("Not a mapped spine file");
+        }
+        int formatVersion = buffer.getInt(4);
+        if (formatVersion != FORMAT_VERSION) {
+            throw new IllegalStateException("Unsupported spine format version: " + formatVersion);
+        }
+        this.length = buffer.getInt(8);
+    }
+
+    public static boolean isMappedSpine(ByteBuffer buffer) {
+        return buffer.limit() >= HEADER_SIZE && buffer.getInt(0) == MAGIC;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    private int recordStart(int indexInSpine) {
+        return buffer.getInt(HEADER_SIZE + (indexInSpine * 4));
+    }
+
+    @Override
+    public boolean contains(int indexInSpine) {
+        if (indexInSpine >= length) {
+            return false;
+        }
+        return recordStart(indexInSpine) != recordStart(indexInSpine + 1);
+    }
+
+    @Override
+    public byte[][] get(int indexInSpine) {
+        if (!contains(indexInSpine)) {
+            return null;
+        }
+        int position = recordStart(indexInSpine);
+        int partCount = buffer.getInt(position);
+        position += 4;
+        ByteBuffer reader = buffer.duplicate();
+        byte[][] value = new byte[partCount][];
+        for (int i = 0; i < partCount; i++) {
+            int partLength = buffer.getInt(position);
+            position += 4;
+            byte[] part = new byte[partLength];
+            reader.position(position);
+            reader.get(part);
+            value[i] = part;
+            position += partLength;
+        }
+        return value;
+    }
+
+    /**
+     * Copies the element straight from the buffer into the layout produced by
+     * {@link ByteArrayDataBuffer#dataArrayToBuffer(byte[][])}: the leading zero integer
+     * of the chronology part is dropped, and a zero integer terminates the versions.
+     */
+    @Override
+    public ByteArrayDataBuffer getDataBuffer(int indexInSpine) {
+        if (!contains(indexInSpine)) {
+            return null;
+        }
+        int recordStart = recordStart(indexInSpine);
+        int recordEnd = recordStart(indexInSpine + 1);
+        int partCount = buffer.getInt(recordStart);
+        // part bytes, less the part length integers, less the leading zero, plus the terminating zero.
+        int size = (recordEnd - recordStart - 4) - (partCount * 4);
+        byte[] data = new byte[size];
+        ByteBuffer reader = buffer.duplicate();
+        int position = recordStart + 4;
+        int dataPosition = 0;
+        for (int i = 0; i < partCount; i++) {
+            int partLength = buffer.getInt(position);
+            position += 4;
+            if (i == 0) {
+                if (buffer.getInt(position) != 0) {
+                    throw new IllegalStateException("Record does not start with zero...");
+                }
+                reader.position(position + 4);
+                reader.get(data, dataPosition, partLength - 4);
+                dataPosition += partLength - 4;
+            } else {
+                reader.position(position);
+                reader.get(data, dataPosition, partLength);
+                dataPosition += partLength;
+            }
+            position += partLength;
+        }
+        return new ByteArrayDataBuffer(data);
+    }
+
+    /**
+     * Write a spine in the mapped spine format.
+     *
+     * @param spine the spine to write
+     * @param dos the stream to write to
+     * @throws IOException if the write fails
+     */
+    public static void write(AtomicReferenceArray<byte[][]> spine, DataOutputStream dos) throws IOException {
+        int length = spine.length();
+        byte[][][] values = new byte[length][][];
+        dos.writeInt(MAGIC);
+        dos.writeInt(FORMAT_VERSION);
+        dos.writeInt(length);
+        int offset = HEADER_SIZE + ((length + 1) * 4);
+        for (int i = 0; i < length; i++) {
+            dos.writeInt(offset);
+            byte[][] value = spine.get(i);
+            values[i] = value;
+            if (value != null && value.length != 0) {
+                offset += 4;
+                for (byte[] part : value) {
+                    offset += 4 + part.length;
+                }
+            }
+        }
+        dos.writeInt(offset);
+        for (byte[][] value : values) {
+            if (value != null && value.length != 0) {
+                dos.writeInt(value.length);
+                for (byte[] part : value) {
+                    dos.writeInt(part.length);
+                    dos.write(part);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,345 @@
+package sh.isaac.provider.datastore;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * An append only log of the changes made to a {@link FileSystemDataStore} since its last checkpoint.
+ * <p>
+ * Records are appended to an in-memory buffer, which is written to the current segment, without
+ * a force, whenever it grows past {@link #WRITE_THRESHOLD}. Appending never waits for the disk;
+ * {@link #awaitDurable(long)} blocks until a record is forced to disk, and is called once a commit
+ * or an import has appended all of its records, rather than per record. Concurrent waiters share a
+ * single force (group commit): whichever waiting thread acquires the flush lock writes and forces
+ * everything appended so far, and the rest wait for it to finish.
+ * <p>
+ * The log is kept as numbered segment files. A checkpoint calls {@link #rotate()} before it writes
+ * the data store, and {@link #deleteSegmentsThrough(int)} once the write completes, so records
+ * appended while the checkpoint runs are kept for the next one. On startup, {@link #replay(RecordHandler)}
+ * reads every remaining segment in order, stopping at a torn or corrupt record. Appends after startup
+ * go to a new segment, so they are never written behind a torn record that replay would stop at.
+ * <p>
+ * Each record is framed as an int payload length, the payload (whose first byte is the record type),
+ * and an int CRC32 of the payload. Replayed records must be idempotent, since records in the newest
+ * segment may already be reflected in the checkpoint.
+ */
+public class WriteAheadLog {
+
+    private static final Logger LOG = LogManager.getLogger();
+    private static final String SEGMENT_PREFIX = "wal-";
+
+    /**
+     * The size of the buffered records at which an append writes them out, so that a bulk import
+     * doesn't hold its whole log in memory until it waits for durability.
+     */
+    private static final int WRITE_THRESHOLD = 1 << 20;
+
+    public static final byte PUT_CHRONOLOGY = 1;
+    public static final byte SET_ASSEMBLAGE = 2;
+    public static final byte ACCUMULATE_TAXONOMY = 3;
+    public static final byte EXTENDED_STORE = 4;
+
+    public interface RecordHandler {
+        void handle(byte recordType, DataInputStream payload) throws IOException;
+    }
+
+    private final File directory;
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final Object durableMonitor = new Object();
+    private final Object appendLock = new Object();
+
+    private ByteArrayOutputStream pending = new ByteArrayOutputStream();
+    private long appendedSequence = 0;
+    private boolean unforcedWrites = false;
+    private volatile long durableSequence = 0;
+    private int segmentNumber;
+    private FileChannel channel;
+
+    public WriteAheadLog(File directory) {
+        this.directory = directory;
+        directory.mkdirs();
+        int[] segments = getSegmentNumbers();
+        // Never append to an existing segment, which may end with a record torn by a crash.
+        this.segmentNumber = segments.length == 0 ? 0 : segments[segments.length - 1] + 1;
+    }
+
+    private int[] getSegmentNumbers() {
+        File[] segmentFiles = directory.listFiles((dir, name) -> name.startsWith(SEGMENT_PREFIX));
+        if (segmentFiles == null) {
+            return new int[0];
+        }
+        int[] segments = new int[segmentFiles.length];
+        for (int i = 0; i < segmentFiles.length; i++) {
+            segments[i] = Integer.parseInt(segmentFiles[i].getName().substring(SEGMENT_PREFIX.length()));
+        }
+        Arrays.sort(segments);
+        return segments;
+    }
+
+    private File getSegmentFile(int segment) {
+        return new File(directory, SEGMENT_PREFIX + segment);
+    }
+
+    /**
+     * Replay every record in the log, in the order appended. Must be called before the first append.
+     *
+     * @param handler the handler to apply each record with
+     * @return the number of records replayed
+     */
+    public int replay(RecordHandler handler) throws IOException {
+        int recordCount = 0;
+        CRC32 crc = new CRC32();
+        for (int segment : getSegmentNumbers()) {
+            File segmentFile = getSegmentFile(segment);
+            long remaining = segmentFile.length();
+            try (DataInputStream dis = new DataInputStream(new BufferedInputStream(new FileInputStream(segmentFile)))) {
+                while (true) {
+                    byte[] payload;
+                    try {
+                        int length = dis.readInt();
+                        remaining -= 4;
+                        if (length <= 0) {
+                            LOG.warn("Invalid record length in " + segmentFile + ", ignoring the rest of the segment");
+                            break;
+                        }
+                        if (length > remaining - 4) {
+                            // The record, and its CRC, extend past the end of the segment.
+                            LOG.warn("Torn record in " + segmentFile + ", ignoring the rest of the segment");
+                            break;
+                        }
+                        remaining -= length + 4;
+                        payload = new byte[length];
+                        dis.readFully(payload);
+                        crc.reset();
+                        crc.update(payload);
+                        if ((int) crc.getValue() != dis.readInt()) {
+                            LOG.warn("Corrupt record in " + segmentFile + ", ignoring the rest of the segment");
+                            break;
+                        }
+                    } catch (EOFException e) {
+                        // End of the segment, or a record torn by a crash during append.
+                        break;
+                    }
+                    try (DataInputStream payloadStream = new DataInputStream(new ByteArrayInputStream(payload, 1, payload.length - 1))) {
+                        handler.handle(payload[0], payloadStream);
+                    }
+                    recordCount++;
+                }
+            }
+        }
+        return recordCount;
+    }
+
+    /**
+     * Append a record to the log, without waiting for it to be written. The record is not durable
+     * until {@link #awaitDurable(long)} returns.
+     *
+     * @param payload the record payload, starting with the record type.
+     * @return the sequence of the appended record.
+     */
+    public long append(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        long sequence;
+        boolean writePending;
+        synchronized (appendLock) {
+            ByteBuffer frame = ByteBuffer.allocate(payload.length + 8);
+            frame.putInt(payload.length).put(payload).putInt((int) crc.getValue());
+            pending.write(frame.array(), 0, frame.capacity());
+            sequence = ++appendedSequence;
+            writePending = pending.size() >= WRITE_THRESHOLD;
+        }
+        // If another thread holds the flush lock, it is already writing.
+        if (writePending && flushLock.tryLock()) {
+            try {
+                flush(false);
+            } finally {
+                flushLock.unlock();
+            }
+        }
+        return sequence;
+    }
+
+    /**
+     * Block until every record appended so far is on disk.
+     */
+    public void awaitDurable() {
+        long sequence;
+        synchronized (appendLock) {
+            sequence = appendedSequence;
+        }
+        awaitDurable(sequence);
+    }
+
+    /**
+     * Block until the record with the provided sequence, and all records before it, are on disk.
+     *
+     * @param sequence the sequence returned by {@link #append(byte[])}
+     */
+    public void awaitDurable(long sequence) {
+        while (durableSequence < sequence) {
+            if (flushLock.tryLock()) {
+                try {
+                    if (durableSequence < sequence) {
+                        flush(true);
+                    }
+                } finally {
+                    flushLock.unlock();
+                }
+            } else {
+                synchronized (durableMonitor) {
+                    if (durableSequence < sequence) {
+                        try {
+                            // Timed, since the flushing thread may finish without covering this sequence.
+                            durableMonitor.wait(5);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            throw new RuntimeException(e);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Write all pending records. Must be called holding the flush lock.
+     *
+     * @param force true to force the segment to disk, which makes every record written so far durable
+     */
+    private void flush(boolean force) {
+        byte[] toWrite;
+        long targetSequence;
+        synchronized (appendLock) {
+            toWrite = pending.toByteArray();
+            pending = new ByteArrayOutputStream();
+            targetSequence = appendedSequence;
+        }
+        if (toWrite.length > 0) {
+            try {
+                if (channel == null) {
+                    channel = FileChannel.open(getSegmentFile(segmentNumber).toPath(),
+                            StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+                }
+                ByteBuffer buffer = ByteBuffer.wrap(toWrite);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                unforcedWrites = true;
+            } catch (IOException ex) {
+                LOG.error("Unable to write the write ahead log", ex);
+                throw new RuntimeException(ex);
+            }
+        }
+        if (!force) {
+            return;
+        }
+        if (unforcedWrites) {
+            try {
+                channel.force(false);
+                unforcedWrites = false;
+            } catch (IOException ex) {
+                LOG.error("Unable to force the write ahead log", ex);
+                throw new RuntimeException(ex);
+            }
+        }
+        synchronized (durableMonitor) {
+            durableSequence = targetSequence;
+            durableMonitor.notifyAll();
+        }
+    }
+
+    /**
+     * Flush the current segment, and direct subsequent appends to a new segment.
+     *
+     * @return the number of the last segment whose records are all reflected in the data store
+     * once the checkpoint that called this method completes.
+     */
+    public int rotate() {
+        flushLock.lock();
+        try {
+            synchronized (appendLock) {
+                flush(true);
+                closeChannel();
+                return segmentNumber++;
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Delete the segments that a completed checkpoint has made redundant.
+     *
+     * @param lastSegment the segment number returned by {@link #rotate()}
+     */
+    public void deleteSegmentsThrough(int lastSegment) {
+        for (int segment : getSegmentNumbers()) {
+            if (segment <= lastSegment) {
+                File segmentFile = getSegmentFile(segment);
+                if (!segmentFile.delete()) {
+                    LOG.warn("Unable to delete write ahead log segment: " + segmentFile);
+                }
+            }
+        }
+    }
+
+    public void close() {
+        flushLock.lock();
+        try {
+            flush(true);
+            closeChannel();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void closeChannel() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException ex) {
+                LOG.warn("Error closing write ahead log", ex);
+            }
+            channel = null;
+        }
+    }
+
+    /**
+     * @param recordType the type of record to create
+     * @return a stream to write the record payload to, starting with the record type.
+     */
+    public static RecordWriter newRecord(byte recordType) {
+        return new RecordWriter(recordType);
+    }
+
+    public static class RecordWriter extends DataOutputStream {
+        private RecordWriter(byte recordType) {
+            super(new ByteArrayOutputStream());
+            try {
+                writeByte(recordType);
+            } catch (IOException ex) {
+                throw new RuntimeException(ex);
+            }
+        }
+
+        public byte[] toByteArray() {
+            return ((ByteArrayOutputStream) this.out).toByteArray();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package sh.isaac.provider.datastore;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * {@link WriteAheadLogTest}.
+ */
+public class WriteAheadLogTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static void append(WriteAheadLog log, int... values) throws IOException {
+        for (int value : values) {
+            WriteAheadLog.RecordWriter record = WriteAheadLog.newRecord(WriteAheadLog.PUT_CHRONOLOGY);
+            record.writeInt(value);
+            log.append(record.toByteArray());
+        }
+        log.awaitDurable();
+    }
+
+    private static List<Integer> replay(File directory) throws IOException {
+        List<Integer> values = new ArrayList<>();
+        WriteAheadLog log = new WriteAheadLog(directory);
+        log.replay((recordType, payload) -> {
+            Assert.assertEquals(WriteAheadLog.PUT_CHRONOLOGY, recordType);
+            values.add(payload.readInt());
+        });
+        log.close();
+        return values;
+    }
+
+    private static File onlySegment(File directory) {
+        File[] segments = directory.listFiles();
+        Assert.assertEquals(1, segments.length);
+        return segments[0];
+    }
+
+    private void assertAppendAfterTornTail(byte[] tornTail) throws IOException {
+        File directory = folder.newFolder();
+        WriteAheadLog log = new WriteAheadLog(directory);
+        append(log, 1, 2);
+        log.close();
+
+        try (RandomAccessFile segment = new RandomAccessFile(onlySegment(directory), "rw")) {
+            segment.seek(segment.length());
+            segment.write(tornTail);
+        }
+
+        log = new WriteAheadLog(directory);
+        Assert.assertEquals(2, log.replay((recordType, payload) -> { }));
+        append(log, 3);
+        log.close();
+
+        Assert.assertEquals(List.of(1, 2, 3), replay(directory));
+    }
+
+    @Test
+    public void replayInOrder() throws IOException {
+        File directory = folder.newFolder();
+        WriteAheadLog log = new WriteAheadLog(directory);
+        append(log, 1, 2);
+        log.rotate();
+        append(log, 3);
+        log.close();
+        Assert.assertEquals(List.of(1, 2, 3), replay(directory));
+    }
+
+    @Test
+    public void appendAfterTornRecord() throws IOException {
+        // The length and part of the payload of a record, without its CRC.
+        assertAppendAfterTornTail(new byte[] {0, 0, 0, 5, WriteAheadLog.PUT_CHRONOLOGY, 0, 0});
+    }
+
+    @Test
+    public void appendAfterCorruptLength() throws IOException {
+        // A length far larger than the segment, which must not be allocated.
+        assertAppendAfterTornTail(new byte[] {0x7f, (byte) 0xff, (byte) 0xff, (byte) 0xff, 0, 0, 0, 0});
+    }
+
+    @Test
+    public void checkpointDeletesReplayedSegments() throws IOException {
+        File directory = folder.newFolder();
+        WriteAheadLog log = new WriteAheadLog(directory);
+        append(log, 1);
+        log.close();
+
+        log = new WriteAheadLog(directory);
+        log.replay((recordType, payload) -> { });
+        append(log, 2);
+        log.deleteSegmentsThrough(log.rotate());
+        append(log, 3);
+        log.close();
+
+        Assert.assertEquals(List.of(3), replay(directory));
+    }
+}
@@ -41,7 +41,10 @@ package sh.isaac.provider.ibdf;
 
 //~--- JDK imports ------------------------------------------------------------
 
+import sh.isaac.model.datastream.CompactIbdfFile;
+import sh.isaac.model.datastream.IbdfRecordIndex;
 import sh.isaac.model.datastream.IsaacExternalizableUnparsed;
+import java.io.BufferedInputStream;
 import java.io.DataInputStream;
 import java.io.EOFException;
 import java.io.FileInputStream;
@@ -53,6 +56,7 @@ import java.nio.file.Path;
 
 import java.util.Spliterator;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
@@ -75,7 +79,7 @@ public class BinaryDataReaderProvider
         extends TimedTaskWithProgressTracker<Integer>
          implements BinaryDataReaderService, Spliterator<IsaacExternalizable> {
    /** The objects. */
-   int objects = 0;
+   AtomicInteger objects = new AtomicInteger();
 
    /** The complete. */
    CountDownLatch complete = new CountDownLatch(1);
@@ -86,6 +90,15 @@ public class BinaryDataReaderProvider
    /** The stream bytes. */
    int streamBytes;
 
+   /** The data path, or null when reading an input stream. */
+   Path dataPath;
+
+   /** The reader of a compact (version 2) file, or null when reading a version 1 file. */
+   CompactIbdfFile.StreamReader compactReader;
+
+   /** The compact file, when it is read through its block index by {@link #getParallelStream()}. */
+   CompactIbdfFile compactFile;
+
    //~--- constructors --------------------------------------------------------
 
    /**
@@ -96,22 +109,23 @@ public class BinaryDataReaderProvider
     */
    public BinaryDataReaderProvider(Path dataPath)
             throws FileNotFoundException {
-      this.input    = new DataInputStream(new FileInputStream(dataPath.toFile()));
-
-      try {
-         this.streamBytes = this.input.available();
-         addToTotalWork(this.streamBytes);
-      } catch (final IOException ex) {
-         throw new RuntimeException(ex);
-      }
+      this.dataPath = dataPath;
+      open(new FileInputStream(dataPath.toFile()));
    }
    public BinaryDataReaderProvider(InputStream inputStream)
             throws FileNotFoundException {
-      this.input    = new DataInputStream(inputStream);
+      open(inputStream);
+   }
+
+   private void open(InputStream inputStream) {
+      this.input    = new DataInputStream(new BufferedInputStream(inputStream));
 
       try {
          this.streamBytes = this.input.available();
          addToTotalWork(this.streamBytes);
+         if (CompactIbdfFile.isCompact(this.input)) {
+            this.compactReader = new CompactIbdfFile.StreamReader(this.input);
+         }
       } catch (final IOException ex) {
          throw new RuntimeException(ex);
       }
@@ -136,6 +150,9 @@ public class BinaryDataReaderProvider
    public void close() {
       try {
          this.input.close();
+         if (this.compactFile != null) {
+            this.compactFile.close();
+         }
          done();
          this.complete.countDown();
       } catch (final IOException ex) {
@@ -162,6 +179,18 @@ public class BinaryDataReaderProvider
    @Override
    public boolean tryAdvance(Consumer<? super IsaacExternalizable> action) {
       try {
+         if (this.compactReader != null) {
+            final int startBytesAvailable = this.input.available();
+            final IsaacExternalizableUnparsed unparsedObject = this.compactReader.next();
+            if (unparsedObject == null) {
+               close();
+               return false;
+            }
+            action.accept(unparsedObject.parse());
+            this.objects.incrementAndGet();
+            completedUnitsOfWork(startBytesAvailable - this.input.available());
+            return true;
+         }
          final int                           startBytesAvailable        = this.input.available();
          final int                           recordSizeInBytes        = this.input.readInt();
          final byte[]                        objectData        = new byte[recordSizeInBytes];
@@ -172,7 +201,7 @@ public class BinaryDataReaderProvider
          IsaacExternalizableUnparsed unparsedObject = new IsaacExternalizableUnparsed(byteArrayDataBuffer);
          action.accept(unparsedObject.parse());
 
-         this.objects++;
+         this.objects.incrementAndGet();
          completedUnitsOfWork(startBytesAvailable - this.input.available());
          return true;
       } catch (final EOFException ex) {
@@ -206,7 +235,7 @@ public class BinaryDataReaderProvider
          throw new RuntimeException(ex);
       }
 
-      return this.objects;
+      return this.objects.get();
    }
 
    //~--- get methods ---------------------------------------------------------
@@ -221,5 +250,49 @@ public class BinaryDataReaderProvider
       running();
       return StreamSupport.stream(this, false);
    }
-}
 
+   /**
+    * Gets a parallel stream. A version 1 data path is memory mapped, and split into ranges of records that
+    * are read and parsed by separate threads. See {@link IbdfRecordIndex}. The blocks of a compact data path
+    * are read and parsed by separate threads. See {@link CompactIbdfFile}.
+    *
+    * @return the stream
+    */
+   @Override
+   public Stream<IsaacExternalizable> getParallelStream() {
+      if (this.dataPath == null) {
+         return getStream();
+      }
+      running();
+      final Stream<IsaacExternalizableUnparsed> records;
+      final int recordCount;
+      try {
+         if (this.compactReader != null) {
+            this.compactFile = CompactIbdfFile.open(this.dataPath);
+            records = this.compactFile.parallelStream();
+            recordCount = this.compactFile.size();
+         } else {
+            final IbdfRecordIndex recordIndex = IbdfRecordIndex.open(this.dataPath);
+            records = recordIndex.parallelStream();
+            recordCount = recordIndex.size();
+         }
+      } catch (final IOException ex) {
+         throw new RuntimeException(ex);
+      }
+      if (recordCount == 0) {
+         close();
+         return Stream.empty();
+      }
+      final AtomicInteger remaining = new AtomicInteger(recordCount);
+      final long bytesPerRecord = Math.max(1, this.streamBytes / recordCount);
+      return records.map(unparsedObject -> {
+                       final IsaacExternalizable parsedObject = unparsedObject.parse();
+                       this.objects.incrementAndGet();
+                       completedUnitsOfWork(bytesPerRecord);
+                       if (remaining.decrementAndGet() == 0) {
+                          close();
+                       }
+                       return parsedObject;
+                    });
+   }
+}
\ No newline at end of file
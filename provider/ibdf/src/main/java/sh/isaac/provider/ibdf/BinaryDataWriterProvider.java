@@ -152,11 +152,30 @@ public class BinaryDataWriterProvider
      try {
         this.output.flush();
         this.output.close();
+        recordProcessedLength();
      } finally {
         this.output = null;
      }
   }
 
+   /*
+    * The records written here are already in the database, so the change set loader resumes after them.
+    */
+   private void recordProcessedLength() {
+      if (Get.configurationService().isInDBBuildMode()) {
+         return;
+      }
+      try {
+         final MetaContentService mcs = LookupService.get().getService(MetaContentService.class);
+         if (mcs != null) {
+            mcs.getChangesetStore().put(this.dataPath.getFileName().toString(), (int) this.dataPath.toFile().length());
+         }
+      } catch (RuntimeException e) {
+         // The meta content store may already be closed, when shutting down.
+         LOG.debug("Can't record the processed length of " + this.dataPath, e);
+      }
+   }
+
    /**
     * {@inheritDoc}
     */
@@ -0,0 +1,224 @@
+/* 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributions from 2013-2017 where performed either by US government 
+ * employees, or under US Veterans Health Administration contracts. 
+ *
+ * US Veterans Health Administration contributions by government employees
+ * are work of the U.S. Government and are not subject to copyright
+ * protection in the United States. Portions contributed by government 
+ * employees are USGovWork (17USC §105). Not subject to copyright. 
+ * 
+ * Contribution by contractors to the US Veterans Health Administration
+ * during this period are contractually contributed under the
+ * Apache License, Version 2.0.
+ *
+ * See: https://www.usa.gov/government-works
+ * 
+ * Contributions prior to 2013:
+ *
+ * Copyright (C) International Health Terminology Standards Development Organisation.
+ * Licensed under the Apache License, Version 2.0.
+ *
+ */
+
+package sh.isaac.provider.ibdf;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import sh.isaac.api.externalizable.ByteArrayDataBuffer;
+import sh.isaac.api.externalizable.DataWriterService;
+import sh.isaac.api.externalizable.IsaacExternalizable;
+import sh.isaac.model.datastream.CompactIbdfFile;
+import sh.isaac.model.datastream.IbdfUuidTable;
+
+/**
+ * Writes a compact (version 2) IBDF file, with a UUID table and compressed blocks. See {@link CompactIbdfFile}.
+ * The file is written in one pass, and is complete once the writer is closed, so unlike
+ * {@link BinaryDataWriterProvider}, the writer can't be paused and resumed, and is not suitable for change sets.
+ *
+ * @author kec
+ */
+public class CompactBinaryDataWriterProvider
+         implements DataWriterService {
+
+   private static final int BUFFER_SIZE = 1024;
+   private static final Logger LOG = LogManager.getLogger();
+
+   private final IbdfUuidTable uuidTable = new IbdfUuidTable();
+
+   private final List<Long> blockOffsets = new ArrayList<>();
+
+   private final List<Integer> blockRecordCounts = new ArrayList<>();
+
+   //The size of the records of a block at which a new block is started.
+   private final int blockSize;
+
+   //Where the file is written.
+   private Path dataPath;
+
+   private DataOutputStream output;
+
+   //The records of the block being filled, each an int length followed by that many bytes.
+   private final ByteArrayDataBuffer block;
+
+   private int blockRecordCount = 0;
+
+   //The count of UUIDs of the UUID table that have been written.
+   private int uuidsWritten = 0;
+
+   private long offset = 0;
+
+   /**
+    * @param dataPath the data path
+    * @throws IOException Signals that an I/O exception has occurred.
+    */
+   public CompactBinaryDataWriterProvider(Path dataPath)
+            throws IOException {
+      this(dataPath, CompactIbdfFile.BLOCK_SIZE);
+   }
+
+   /**
+    * @param dataPath the data path
+    * @param blockSize the size of the records of a block, before compression, at which a new block is started
+    * @throws IOException Signals that an I/O exception has occurred.
+    */
+   public CompactBinaryDataWriterProvider(Path dataPath, int blockSize)
+            throws IOException {
+      this.blockSize = blockSize;
+      this.block = new ByteArrayDataBuffer(blockSize + BUFFER_SIZE);
+      configure(dataPath);
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public final void configure(Path path)
+            throws IOException {
+      if (this.output != null) {
+         throw new UnsupportedOperationException("Reconfiguration is not supported");
+      }
+
+      this.dataPath = path;
+      this.dataPath.toFile().getParentFile().mkdirs();
+      this.output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(this.dataPath.toFile()), 1 << 16));
+      this.offset = CompactIbdfFile.writeFileHeader(this.output);
+      LOG.info("compact ibdf writer has been configured to write to " + this.dataPath.toAbsolutePath().toString());
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public void put(IsaacExternalizable ochreObject)
+            throws RuntimeException {
+
+      //Convert the content in the calling thread.
+      ByteArrayDataBuffer buffer = new ByteArrayDataBuffer(BUFFER_SIZE);
+      buffer.setExternalData(true);
+      buffer.setUuidTable(this.uuidTable);
+      ochreObject.putExternal(buffer);
+      synchronized (this) {
+         this.block.putInt(buffer.getLimit());
+         this.block.put(buffer.getData(), 0, buffer.getLimit());
+         this.blockRecordCount++;
+         if (this.block.getPosition() >= this.blockSize) {
+            try {
+               writeBlock();
+            } catch (final IOException e) {
+               throw new RuntimeException(e);
+            }
+         }
+      }
+   }
+
+   /**
+    * Write the block being filled. Every UUID that the records of the block reference was added to the UUID table
+    * before the record was added to the block, so it is written with this block, or an earlier one.
+    */
+   private void writeBlock()
+            throws IOException {
+      if (this.blockRecordCount == 0) {
+         return;
+      }
+      final UUID[] newUuids = this.uuidTable.getUuidsFrom(this.uuidsWritten);
+      this.blockOffsets.add(this.offset);
+      this.blockRecordCounts.add(this.blockRecordCount);
+      this.offset += CompactIbdfFile.writeBlock(this.output, newUuids, this.block.getData(), this.block.getPosition(), this.blockRecordCount);
+      this.uuidsWritten += newUuids.length;
+      this.block.clear();
+      this.blockRecordCount = 0;
+   }
+
+   /**
+    * Writes the block being filled, so the blocks on disk hold every record put so far. The file is only complete
+    * once the writer is closed.
+    */
+   @Override
+   public synchronized void flush()
+            throws IOException {
+      writeBlock();
+      this.output.flush();
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public synchronized void close()
+            throws IOException {
+      try {
+         writeBlock();
+         CompactIbdfFile.writeFileEnd(this.output, this.offset + 4, this.blockOffsets, this.blockRecordCounts);
+         this.output.flush();
+      } finally {
+         this.output.close();
+      }
+   }
+
+   /**
+    * Not supported, since the file is only complete once the writer is closed.
+    */
+   @Override
+   public void pause() {
+      throw new UnsupportedOperationException("A compact ibdf file is written in one pass");
+   }
+
+   /**
+    * Not supported, since the file is only complete once the writer is closed.
+    */
+   @Override
+   public void resume() {
+      throw new UnsupportedOperationException("A compact ibdf file is written in one pass");
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public Path getCurrentPath() {
+      return this.dataPath;
+   }
+}
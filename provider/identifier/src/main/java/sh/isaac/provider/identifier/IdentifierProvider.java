@@ -70,6 +70,7 @@ import sh.isaac.api.component.concept.ConceptSpecification;
 import sh.isaac.api.constants.DatabaseImplementation;
 import sh.isaac.api.datastore.DataStore;
 import sh.isaac.api.datastore.ExtendedStore;
+import sh.isaac.api.datastore.ExtendedStoreData;
 import sh.isaac.api.externalizable.IsaacObjectType;
 import sh.isaac.api.task.LabelTaskWithIndeterminateProgress;
 import sh.isaac.model.DataStoreSubService;
@@ -85,10 +86,22 @@ public class IdentifierProvider
 
     private static final Logger LOG = LogManager.getLogger();
 
+    private static final String UUID_NID_JOURNAL_STORE_NAME = "uuidNidJournal";
+    private static final String NID_UUID_JOURNAL_STORE_NAME = "nidUuidJournal";
+
     private transient DataStore store;
     private UuidToIntMap uuidIntMapMap;
 
+    /**
+     * The uuid to nid assignments, and primordial uuids, recorded since the file based map and index were last 
+     * synced.  They are kept in data store extended stores, whose changes the data store logs, so that after a crash,
+     * the nids in the recovered chronologies still resolve.  Null when the data store keeps the map itself.
+     */
+    private ExtendedStoreData<UUID, Integer> uuidNidJournal;
+    private ExtendedStoreData<Integer, UUID> nidUuidJournal;
+
     private File uuidNidMapDirectory;
+    private NidToUuidIndex nidToPrimordialIndex;
 
     private IdentifierProvider() {
         //Construct with HK2 only
@@ -101,6 +114,17 @@ public class IdentifierProvider
             throw new IllegalArgumentException("Reassignment of nid for " + uuid + " from " + old + " to " + nid);
         }
         this.uuidIntMapMap.put(uuid, nid);
+        journal(uuid, nid, this.nidToPrimordialIndex.putIfAbsent(nid, uuid));
+    }
+
+    private void journal(UUID uuid, int nid, boolean primordial) {
+        // A database build ends with a sync, rather than relying on the log.
+        if (this.uuidNidJournal != null && !Get.configurationService().isInDBBuildMode()) {
+            this.uuidNidJournal.put(uuid, nid);
+            if (primordial) {
+                this.nidUuidJournal.put(nid, uuid);
+            }
+        }
     }
 
     /**
@@ -121,12 +145,32 @@ public class IdentifierProvider
                 uuidIntMapMap = new DataStoreUuidToIntMap((ExtendedStore) this.store);
             } else {
                 this.uuidIntMapMap = UuidIntMapMapFileBased.create(uuidNidMapDirectory);
+                if (this.store.implementsExtendedStoreAPI()) {
+                    this.uuidNidJournal = ((ExtendedStore) this.store).getStore(UUID_NID_JOURNAL_STORE_NAME);
+                    this.nidUuidJournal = ((ExtendedStore) this.store).getStore(NID_UUID_JOURNAL_STORE_NAME);
+                }
+            }
+            uuidNidMapDirectory.mkdirs();
+            if (this.uuidNidJournal != null) {
+                // Before the index is opened, since it discards the entries above the max nid.
+                this.uuidNidJournal.getStream(false)
+                        .forEach(entry -> ((UuidIntMapMapFileBased) this.uuidIntMapMap).putRecovered(entry.getKey(), entry.getValue()));
+            }
+            this.nidToPrimordialIndex = new NidToUuidIndex(new File(uuidNidMapDirectory, "nid-uuid.index"), this.uuidIntMapMap.getMaxNid());
+            if (this.nidUuidJournal != null) {
+                this.nidUuidJournal.getStream(false).forEach(entry -> this.nidToPrimordialIndex.putIfAbsent(entry.getKey(), entry.getValue()));
+                if (this.uuidNidJournal.size() > 0) {
+                    LOG.info("Recovered {} uuid to nid assignments made after the last sync", this.uuidNidJournal.size());
+                }
             }
 
             //bootstrap our nids for core metadata concepts.
             for (ConceptSpecification cs : TermAux.getAllSpecs()) {
                 assignNid(cs.getUuids());
             }
+        } catch (IOException ex) {
+            LOG.error("Error starting identifier provider", ex);
+            throw new RuntimeException(ex);
         } finally {
             progressTask.finished();
         }
@@ -140,8 +184,16 @@ public class IdentifierProvider
         try {
             LOG.info("Stopping identifier provider for change to runlevel: " + LookupService.getProceedingToRunLevel());
             this.sync().get();
+            if (this.uuidNidJournal != null) {
+                ((ExtendedStore) this.store).closeStore(UUID_NID_JOURNAL_STORE_NAME);
+                ((ExtendedStore) this.store).closeStore(NID_UUID_JOURNAL_STORE_NAME);
+                this.uuidNidJournal = null;
+                this.nidUuidJournal = null;
+            }
             uuidIntMapMap.shutdown();
             uuidIntMapMap = null;
+            nidToPrimordialIndex.close();
+            nidToPrimordialIndex = null;
             store = null;
         } catch (Throwable ex) {
             LOG.error("Unexpected error while stopping identifier provider", ex);
@@ -238,9 +290,11 @@ public class IdentifierProvider
             return lastFoundNid;
         }
         final int nid = this.uuidIntMapMap.getWithGeneration(uuids[0]);
+        journal(uuids[0], nid, this.nidToPrimordialIndex.putIfAbsent(nid, uuids[0]));
 
         for (int i = 1; i < uuids.length; i++) {
             this.uuidIntMapMap.put(uuids[i], nid);
+            journal(uuids[i], nid, false);
         }
         return nid;
     }
@@ -274,7 +328,14 @@ public class IdentifierProvider
 
     @Override
     public UUID getUuidPrimordialForNid(int nid) throws NoSuchElementException {
-        return getUuidsForNid(nid).get(0);
+        Optional<UUID> primordial = this.nidToPrimordialIndex.get(nid);
+        if (primordial.isPresent()) {
+            return primordial.get();
+        }
+        //Nids assigned before the index existed are added to it as they are looked up.
+        UUID uuid = getUuidsForNid(nid).get(0);
+        this.nidToPrimordialIndex.putIfAbsent(nid, uuid);
+        return uuid;
     }
 
     @Override
@@ -364,9 +425,17 @@ public class IdentifierProvider
         return Get.executor().submit(() -> {
             try {
                 LOG.info("writing uuid-nid-map.");
+                // Only what was journaled before the write is known to be written.
+                List<UUID> journaledUuids = this.uuidNidJournal == null ? null : new ArrayList<>(this.uuidNidJournal.keySet());
+                List<Integer> journaledNids = this.nidUuidJournal == null ? null : new ArrayList<>(this.nidUuidJournal.keySet());
                 if (this.uuidIntMapMap instanceof UuidIntMapMapFileBased) {
                     ((UuidIntMapMapFileBased) this.uuidIntMapMap).write();
                 }
+                this.nidToPrimordialIndex.sync();
+                if (journaledUuids != null) {
+                    journaledUuids.forEach(uuid -> this.uuidNidJournal.remove(uuid));
+                    journaledNids.forEach(nid -> this.nidUuidJournal.remove(nid));
+                }
                 //Don't sync the data store here, and we don't need to do anything if it is an extended store based storage
             } catch (IOException ex) {
                 LOG.error("error syncing identifier provider", ex);
@@ -382,7 +451,7 @@ public class IdentifierProvider
 
     @Override
     public long getSizeOnDisk() {
-        return uuidIntMapMap.getDiskSpaceUsed();
+        return uuidIntMapMap.getDiskSpaceUsed() + nidToPrimordialIndex.getSizeOnDisk();
     }
 
     @Override
@@ -0,0 +1,177 @@
+package sh.isaac.provider.identifier;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * A memory mapped, dense array from nid to the primordial UUID of the nid, so that the reverse
+ * lookup doesn't have to scan every UUID to nid map. Each nid occupies two longs at
+ * {@code (nid - Integer.MIN_VALUE) * 16}, the most significant bits first. A most significant
+ * bits value of zero marks an empty slot, which can't collide with a real UUID since the
+ * version bits of name based and random UUIDs are never zero.
+ * <p>
+ * The file is mapped in chunks as nids are used, and is forced to disk by {@link #sync()}. A slot
+ * is written once, and readers see either the complete UUID or an empty slot.
+ *
+ * @author kec
+ */
+public class NidToUuidIndex {
+
+    private static final Logger LOG = LogManager.getLogger();
+
+    private static final int BYTES_PER_NID = 16;
+    private static final int CHUNK_SHIFT = 20;
+    private static final int NIDS_PER_CHUNK = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = NIDS_PER_CHUNK - 1;
+    private static final long CHUNK_BYTES = (long) NIDS_PER_CHUNK * BYTES_PER_NID;
+    private static final int MAX_CHUNKS = (int) ((1L << 32) >>> CHUNK_SHIFT);
+
+    /**
+     * Give the buffer accesses acquire/release semantics, so a reader that sees the most
+     * significant bits also sees the least significant bits written before them.
+     */
+    private static final VarHandle LONG_HANDLE = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+    private final File indexFile;
+    private final RandomAccessFile file;
+    private final FileChannel channel;
+    private final AtomicReferenceArray<MappedByteBuffer> chunks = new AtomicReferenceArray<>(MAX_CHUNKS);
+
+    /**
+     * Open the index, discarding any entries for nids above maxNid. Those entries were written after
+     * the last time the UUID to nid maps were written, so the nids may be reassigned.
+     *
+     * @param indexFile the file to map
+     * @param maxNid the largest nid assigned in the persisted UUID to nid maps
+     * @throws IOException if the file can't be opened
+     */
+    public NidToUuidIndex(File indexFile, int maxNid) throws IOException {
+        this.indexFile = indexFile;
+        this.file = new RandomAccessFile(indexFile, "rw");
+        long validLength = (toIndex(maxNid) + 1) * BYTES_PER_NID;
+        if (this.file.length() > validLength) {
+            LOG.info("Discarding nid to uuid index entries above nid " + maxNid);
+            this.file.setLength(validLength);
+        }
+        this.channel = this.file.getChannel();
+    }
+
+    private static long toIndex(int nid) {
+        return (long) nid - Integer.MIN_VALUE;
+    }
+
+    private MappedByteBuffer getChunk(int chunkIndex) {
+        MappedByteBuffer chunk = this.chunks.get(chunkIndex);
+        if (chunk == null) {
+            chunk = mapChunk(chunkIndex);
+        }
+        return chunk;
+    }
+
+    private long getFileLength() {
+        try {
+            return this.channel.size();
+        } catch (IOException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    private synchronized MappedByteBuffer mapChunk(int chunkIndex) {
+        MappedByteBuffer chunk = this.chunks.get(chunkIndex);
+        if (chunk == null) {
+            try {
+                // Mapping read/write extends the file to cover the chunk.
+                chunk = this.channel.map(FileChannel.MapMode.READ_WRITE, chunkIndex * CHUNK_BYTES, CHUNK_BYTES);
+                this.chunks.set(chunkIndex, chunk);
+            } catch (IOException ex) {
+                LOG.error("Unable to map nid to uuid index: " + this.indexFile, ex);
+                throw new RuntimeException(ex);
+            }
+        }
+        return chunk;
+    }
+
+    /**
+     * @param nid the nid to look up
+     * @return the primordial UUID recorded for the nid, if any.
+     */
+    public Optional<UUID> get(int nid) {
+        long index = toIndex(nid);
+        int chunkIndex = (int) (index >>> CHUNK_SHIFT);
+        MappedByteBuffer chunk = this.chunks.get(chunkIndex);
+        if (chunk == null) {
+            // Don't grow the file to look up a nid that was never recorded.
+            if (chunkIndex * CHUNK_BYTES >= getFileLength()) {
+                return Optional.empty();
+            }
+            chunk = mapChunk(chunkIndex);
+        }
+        int offset = ((int) index & CHUNK_MASK) * BYTES_PER_NID;
+        long msb = (long) LONG_HANDLE.getAcquire(chunk, offset);
+        if (msb == 0) {
+            return Optional.empty();
+        }
+        return Optional.of(new UUID(msb, (long) LONG_HANDLE.get(chunk, offset + 8)));
+    }
+
+    /**
+     * Record the primordial UUID for a nid, unless one is already recorded.
+     *
+     * @param nid the nid
+     * @param uuid the primordial UUID of the nid
+     * @return true if the UUID was recorded.
+     */
+    public boolean putIfAbsent(int nid, UUID uuid) {
+        long index = toIndex(nid);
+        MappedByteBuffer chunk = getChunk((int) (index >>> CHUNK_SHIFT));
+        int offset = ((int) index & CHUNK_MASK) * BYTES_PER_NID;
+        if ((long) LONG_HANDLE.getAcquire(chunk, offset) != 0) {
+            return false;
+        }
+        synchronized (chunk) {
+            if ((long) LONG_HANDLE.getAcquire(chunk, offset) != 0) {
+                return false;
+            }
+            LONG_HANDLE.set(chunk, offset + 8, uuid.getLeastSignificantBits());
+            LONG_HANDLE.setRelease(chunk, offset, uuid.getMostSignificantBits());
+            return true;
+        }
+    }
+
+    /**
+     * Force the mapped chunks to disk.
+     */
+    public void sync() {
+        for (int i = 0; i < MAX_CHUNKS; i++) {
+            MappedByteBuffer chunk = this.chunks.get(i);
+            if (chunk != null) {
+                chunk.force();
+            }
+        }
+    }
+
+    public long getSizeOnDisk() {
+        return this.indexFile.length();
+    }
+
+    public void close() {
+        sync();
+        try {
+            this.channel.close();
+            this.file.close();
+        } catch (IOException ex) {
+            LOG.warn("Error closing nid to uuid index: " + this.indexFile, ex);
+        }
+    }
+}
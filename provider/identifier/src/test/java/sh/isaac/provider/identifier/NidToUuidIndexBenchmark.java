@@ -0,0 +1,80 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.provider.identifier;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import sh.isaac.api.collections.UuidIntMapMapMemoryBased;
+
+/**
+ * Compares nid to primordial UUID lookups through {@link NidToUuidIndex} with the scan of the
+ * UUID to nid maps that export used whenever the inverse cache was disabled. Run the main method
+ * with an optional nid count and lookup count.
+ *
+ * @author kec
+ */
+public class NidToUuidIndexBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int nidCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int lookupCount = args.length > 1 ? Integer.parseInt(args[1]) : 1_000;
+
+        File directory = Files.createTempDirectory("nid-uuid-index").toFile();
+        File indexFile = new File(directory, "nid-uuid.index");
+        UuidIntMapMapMemoryBased uuidToNidMap = new UuidIntMapMapMemoryBased();
+        NidToUuidIndex index = new NidToUuidIndex(indexFile, Integer.MIN_VALUE);
+        int[] nids = new int[nidCount];
+        for (int i = 0; i < nidCount; i++) {
+            UUID uuid = UUID.randomUUID();
+            nids[i] = uuidToNidMap.getWithGeneration(uuid);
+            index.putIfAbsent(nids[i], uuid);
+        }
+        System.out.println("Nids: " + nidCount + " lookups: " + lookupCount);
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long start = System.nanoTime();
+        for (int i = 0; i < lookupCount; i++) {
+            int nid = nids[random.nextInt(nidCount)];
+            if (uuidToNidMap.getKeysForValue(nid).length == 0) {
+                throw new IllegalStateException("No uuid for " + nid);
+            }
+        }
+        double scanMicros = (System.nanoTime() - start) / 1000.0 / lookupCount;
+
+        // Many more lookups through the index, since each is too fast to time individually.
+        int indexLookupCount = lookupCount * 1000;
+        start = System.nanoTime();
+        for (int i = 0; i < indexLookupCount; i++) {
+            int nid = nids[random.nextInt(nidCount)];
+            if (index.get(nid).isEmpty()) {
+                throw new IllegalStateException("No uuid for " + nid);
+            }
+        }
+        double indexMicros = (System.nanoTime() - start) / 1000.0 / indexLookupCount;
+
+        System.out.println(String.format("Map scan: %.3f microseconds/lookup", scanMicros));
+        System.out.println(String.format("Index: %.3f microseconds/lookup", indexMicros));
+        System.out.println(String.format("Speedup: %.0fx", scanMicros / indexMicros));
+
+        index.close();
+        indexFile.delete();
+        directory.delete();
+    }
+}
@@ -0,0 +1,258 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributions from 2013-2017 where performed either by US government
+ * employees, or under US Veterans Health Administration contracts.
+ *
+ * US Veterans Health Administration contributions by government employees
+ * are work of the U.S. Government and are not subject to copyright
+ * protection in the United States. Portions contributed by government
+ * employees are USGovWork (17USC §105). Not subject to copyright.
+ * 
+ * Contribution by contractors to the US Veterans Health Administration
+ * during this period are contractually contributed under the
+ * Apache License, Version 2.0.
+ *
+ * See: https://www.usa.gov/government-works
+ * 
+ */
+package sh.isaac.provider.qa;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.glassfish.hk2.runlevel.RunLevel;
+import org.jvnet.hk2.annotations.Service;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import sh.isaac.api.Get;
+import sh.isaac.api.LookupService;
+import sh.isaac.api.chronicle.VersionType;
+import sh.isaac.api.commit.ChronologyChangeListener;
+import sh.isaac.api.commit.CommitRecord;
+import sh.isaac.api.component.concept.ConceptChronology;
+import sh.isaac.api.component.semantic.SemanticChronology;
+import sh.isaac.api.coordinate.Coordinates;
+import sh.isaac.api.coordinate.StampFilter;
+import sh.isaac.api.coordinate.StampFilterImmutable;
+import sh.isaac.api.qa.QAResults;
+import sh.isaac.api.task.TimedTask;
+import sh.isaac.api.util.NamedThreadFactory;
+
+/**
+ * Keeps the QA results of the development path up to date as content is committed.  A full check of every concept
+ * builds the {@link QARuleIndex} in the background once the service starts, and after that, each commit only checks the 
+ * concepts it touched, directly or through their descriptions, so authors get the results of the rules when they save.  
+ * The checks run one at a time, in the order they were started, so the check of a commit never replaces the state of 
+ * a concept with that of an earlier check.
+ * 
+ * Each run is a {@link QATask}, so its results are stored by the {@link QARunStorage}, like any other QA run.
+ */
+@Service
+@RunLevel(value = LookupService.SL_L6_ISAAC_DEPENDENTS_RUNLEVEL)
+public class IncrementalQA implements ChronologyChangeListener
+{
+	private static final Logger LOG = LogManager.getLogger();
+
+	private final UUID listenerUuid = UUID.randomUUID();
+	private final StampFilterImmutable coordinate = Coordinates.Filter.DevelopmentLatest();
+	private final QARuleIndex index = new QARuleIndex();
+	private volatile boolean enabled = true;
+	private volatile Future<QAResults> indexBuild;
+	private ExecutorService checkExecutor;
+
+	private IncrementalQA()
+	{
+		//For HK2
+	}
+
+	@PostConstruct
+	private void startMe()
+	{
+		if (Get.configurationService().isInDBBuildMode())
+		{
+			LOG.info("Disabling due to DBBuildMode - will not receive events even if enabled.");
+			disable();
+			return;
+		}
+		checkExecutor = Executors.newSingleThreadExecutor(new NamedThreadFactory("ISAAC-incremental-QA", true));
+		Get.commitService().addChangeListener(this);
+		runQA();
+		
+		Get.configurationService().getDBBuildMode().addListener((change) -> {
+			if (Get.configurationService().isInDBBuildMode())
+			{
+				disable();
+			}
+		});
+	}
+
+	@PreDestroy
+	private void stopMe()
+	{
+		Get.commitService().removeChangeListener(this);
+		enabled = false;
+		if (indexBuild != null)
+		{
+			indexBuild.cancel(true);
+		}
+		indexBuild = null;
+		if (checkExecutor != null)
+		{
+			checkExecutor.shutdownNow();
+			checkExecutor = null;
+		}
+	}
+
+	@Override
+	public void disable()
+	{
+		LOG.info("Disabling");
+		enabled = false;
+	}
+
+	@Override
+	public void enable()
+	{
+		LOG.info("Enabling");
+		enabled = true;
+	}
+
+	@Override
+	public UUID getListenerUuid()
+	{
+		return listenerUuid;
+	}
+
+	@Override
+	public void handleChange(ConceptChronology cc)
+	{
+		// Only using handleCommit(), which names the committed concepts
+	}
+
+	@Override
+	public void handleChange(SemanticChronology sc)
+	{
+		// Only using handleCommit(), so changes of transactions that are canceled are never seen
+	}
+
+	@Override
+	public void handleCommit(CommitRecord commitRecord)
+	{
+		if (!enabled)
+		{
+			LOG.trace("Ignoring, while listener disabled, commit {}", commitRecord);
+			return;
+		}
+		
+		Set<Integer> conceptNids = new HashSet<>();
+		commitRecord.getConceptsInCommit().stream().forEach(conceptNid -> conceptNids.add(conceptNid));
+		// The rules only read descriptions, which are checked as part of their concept
+		commitRecord.getSemanticNidsInCommit().stream().forEach(semanticNid -> {
+			SemanticChronology semantic = Get.assemblageService().getSemanticChronology(semanticNid);
+			if (semantic.getVersionType() == VersionType.DESCRIPTION)
+			{
+				conceptNids.add(semantic.getReferencedComponentNid());
+			}
+		});
+		if (conceptNids.isEmpty())
+		{
+			return;
+		}
+		
+		int[] nids = conceptNids.stream().mapToInt(Integer::intValue).sorted().toArray();
+		checkExecutor.execute(() -> {
+			try
+			{
+				SimpleQA qa = new SimpleQA(coordinate, index, nids);
+				qa.run();
+				LOG.debug("QA of {} committed concepts found {} issues", nids.length, qa.get().getResult().size());
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+			}
+			catch (ExecutionException e)
+			{
+				LOG.error("QA of committed concepts failed", e);
+			}
+		});
+	}
+
+	/**
+	 * @return the coordinate the incremental results are for
+	 */
+	public StampFilterImmutable getCoordinate()
+	{
+		return coordinate;
+	}
+
+	/**
+	 * The results of the last check of a concept, including any fully qualified names it shares with another concept.
+	 * 
+	 * @param conceptNid the concept
+	 * @return the results, which are empty, if the concept passed, or isn't subject to the rules
+	 */
+	public QAResults getResults(int conceptNid)
+	{
+		Future<QAResults> build = indexBuild;
+		if (build != null)
+		{
+			try
+			{
+				build.get();
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+			}
+			catch (ExecutionException | CancellationException e)
+			{
+				//Already stored as the failure of the run, the index only holds the concepts that were checked
+			}
+		}
+		return index.getResults(new int[] {conceptNid});
+	}
+
+	/**
+	 * Check every concept again, replacing the state of the index.  Checks of later commits run after this check.
+	 * 
+	 * @return the task of the check, which is already executed
+	 */
+	public synchronized TimedTask<QAResults> runQA()
+	{
+		SimpleQA qa = new SimpleQA(coordinate, index, null);
+		indexBuild = qa;
+		checkExecutor.execute(qa);
+		return qa;
+	}
+
+	/**
+	 * @param stampFilter a coordinate
+	 * @return true, if this keeps the results of the coordinate up to date
+	 */
+	boolean isMaintaining(StampFilter stampFilter)
+	{
+		return enabled && coordinate.equals(stampFilter.toStampFilterImmutable());
+	}
+}
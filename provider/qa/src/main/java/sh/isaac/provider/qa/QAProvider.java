@@ -53,6 +53,12 @@ public class QAProvider implements QAService
 	@Override
 	public TimedTask<QAResults> runQA(StampFilter coordinate)
 	{
+		IncrementalQA incrementalQA = Get.service(IncrementalQA.class);
+		if (incrementalQA != null && incrementalQA.isMaintaining(coordinate))
+		{
+			//Refresh the index that commits are checked against, rather than building another one
+			return incrementalQA.runQA();
+		}
 		SimpleQA sqa = new SimpleQA(coordinate);
 		Get.workExecutors().getExecutor().execute(sqa);
 		return sqa;
@@ -0,0 +1,174 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributions from 2013-2017 where performed either by US government
+ * employees, or under US Veterans Health Administration contracts.
+ *
+ * US Veterans Health Administration contributions by government employees
+ * are work of the U.S. Government and are not subject to copyright
+ * protection in the United States. Portions contributed by government
+ * employees are USGovWork (17USC §105). Not subject to copyright.
+ * 
+ * Contribution by contractors to the US Veterans Health Administration
+ * during this period are contractually contributed under the
+ * Apache License, Version 2.0.
+ *
+ * See: https://www.usa.gov/government-works
+ * 
+ */
+package sh.isaac.provider.qa;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import sh.isaac.api.qa.QAInfo;
+import sh.isaac.api.qa.QAResults;
+import sh.isaac.api.qa.Severity;
+
+/**
+ * The QA state of the concepts that have been checked for one stamp filter, kept between runs, so that a commit
+ * only needs the concepts it touched to be checked again.
+ * 
+ * For each concept, the index holds the results of the rules that only look at the concept itself, and its active
+ * fully qualified names.  The fully qualified names of all concepts are indexed on their language and text, so
+ * duplicates are found when the results are read, rather than by comparing against every other concept, and a
+ * duplicate is no longer reported once the other name is changed or retired.
+ * 
+ * Safe for use by several threads at once.
+ */
+class QARuleIndex
+{
+	/**
+	 * The description nids of each active fully qualified name, by language and text
+	 */
+	private final ConcurrentHashMap<String, Set<Integer>> fqnIndex = new ConcurrentHashMap<>();
+	
+	/**
+	 * The state of each checked concept that the rules apply to
+	 */
+	private final ConcurrentHashMap<Integer, ConceptState> conceptStates = new ConcurrentHashMap<>();
+
+	/**
+	 * Replace the state of a concept, after it has been checked.
+	 * 
+	 * @param conceptNid the concept that was checked
+	 * @param state the new state of the concept, or null, if the rules don't apply to it (anymore)
+	 */
+	void update(int conceptNid, ConceptState state)
+	{
+		// compute serializes the updates of one concept, so its names are never indexed twice, or left behind.
+		conceptStates.compute(conceptNid, (nid, oldState) -> {
+			if (oldState != null)
+			{
+				for (FullyQualifiedName fqn : oldState.fqns)
+				{
+					fqnIndex.computeIfPresent(fqn.key, (key, descriptionNids) -> {
+						descriptionNids.remove(fqn.descriptionNid);
+						return descriptionNids.isEmpty() ? null : descriptionNids;
+					});
+				}
+			}
+			if (state != null)
+			{
+				for (FullyQualifiedName fqn : state.fqns)
+				{
+					fqnIndex.computeIfAbsent(fqn.key, key -> ConcurrentHashMap.newKeySet()).add(fqn.descriptionNid);
+				}
+			}
+			return state;
+		});
+	}
+
+	/**
+	 * @param conceptNids the concepts to read the results of
+	 * @return the results of the concepts, including the fully qualified names they share with any other checked concept
+	 */
+	QAResults getResults(int[] conceptNids)
+	{
+		QAResults results = new QAResults();
+		for (int conceptNid : conceptNids)
+		{
+			addResults(conceptStates.get(conceptNid), results.getResult());
+		}
+		return results;
+	}
+
+	/**
+	 * @return the results of all of the checked concepts
+	 */
+	QAResults getResults()
+	{
+		QAResults results = new QAResults();
+		conceptStates.values().forEach(state -> addResults(state, results.getResult()));
+		return results;
+	}
+
+	private void addResults(ConceptState state, List<QAInfo> results)
+	{
+		if (state == null)
+		{
+			return;
+		}
+		results.addAll(state.results);
+		for (FullyQualifiedName fqn : state.fqns)
+		{
+			Set<Integer> descriptionNids = fqnIndex.get(fqn.key);
+			if (descriptionNids != null && descriptionNids.size() > 1)
+			{
+				results.add(new QAInfo(Severity.ERROR, fqn.descriptionNid, "Duplicate Fully Qualified Name", fqn.text));
+			}
+		}
+	}
+
+	/**
+	 * What the rules found for one concept
+	 */
+	static class ConceptState
+	{
+		private final List<QAInfo> results = new ArrayList<>();
+		private final List<FullyQualifiedName> fqns = new ArrayList<>();
+
+		List<QAInfo> getResults()
+		{
+			return results;
+		}
+
+		void addResult(QAInfo result)
+		{
+			results.add(result);
+		}
+
+		void addFullyQualifiedName(int descriptionNid, int languageNid, String text)
+		{
+			fqns.add(new FullyQualifiedName(descriptionNid, languageNid + ":" + text, text));
+		}
+	}
+
+	private static class FullyQualifiedName
+	{
+		private final int descriptionNid;
+		private final String key;
+		private final String text;
+
+		private FullyQualifiedName(int descriptionNid, String key, String text)
+		{
+			this.descriptionNid = descriptionNid;
+			this.key = key;
+			this.text = text;
+		}
+	}
+}
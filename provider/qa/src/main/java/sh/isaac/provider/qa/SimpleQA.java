@@ -31,8 +31,9 @@
  */
 package sh.isaac.provider.qa;
 
-import java.util.HashMap;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import java.util.regex.Pattern;
 import sh.isaac.MetaData;
 import sh.isaac.api.Get;
@@ -52,68 +53,119 @@ import sh.isaac.utility.Frills;
 
 public class SimpleQA extends QATask
 {
+	private static final int MIN_PARTITION_SIZE = 1000;
+	
 	private final Pattern illegalChars = Pattern.compile(".*[\\t\\r\\n@$#\\\\].*");
 	private final QAResults results = new QAResults();
 	
-	private HashMap<String, Integer> uniqueFQNs = new HashMap<>();
+	private final QARuleIndex index;
+	private final int[] conceptNids;
 
+	/**
+	 * Check every concept, with an index of its own
+	 * @param coordinate
+	 */
 	public SimpleQA(StampFilter coordinate)
+	{
+		this(coordinate, new QARuleIndex(), null);
+	}
+
+	/**
+	 * @param coordinate
+	 * @param index the index to update with the state of the checked concepts, which must only be used with this coordinate
+	 * @param conceptNids the concepts to check, or null, to check every concept
+	 */
+	SimpleQA(StampFilter coordinate, QARuleIndex index, int[] conceptNids)
 	{
 		super(coordinate);
+		this.index = index;
+		this.conceptNids = conceptNids;
 	}
 
 	@Override
 	protected QAResults call() throws Exception
 	{
-		//Just a one-off rule for now, for testing the overall API flow
+		if (conceptNids == null)
+		{
+			//Partitioned over the fork join pool, each partition checking its concepts sequentially
+			int[] allConceptNids = Get.conceptService().getConceptNidStream(false).toArray();
+			addToTotalWork(allConceptNids.length);
+			ForkJoinPool pool = Get.workExecutors().getForkJoinPoolExecutor();
+			int partitionSize = Math.max(MIN_PARTITION_SIZE, allConceptNids.length / (pool.getParallelism() * 4));
+			pool.invoke(new PartitionCheck(allConceptNids, 0, allConceptNids.length, partitionSize));
+			return index.getResults();
+		}
+		else
+		{
+			addToTotalWork(conceptNids.length);
+			for (int conceptNid : conceptNids)
+			{
+				checkConcept(conceptNid);
+				completedUnitOfWork();
+			}
+			return index.getResults(conceptNids);
+		}
+	}
+	
+	/**
+	 * Check one concept, and its active descriptions, and replace its state in the index.
+	 * @param conceptNid
+	 */
+	private void checkConcept(int conceptNid)
+	{
+		Optional<? extends ConceptChronology> concept = Get.conceptService().getOptionalConcept(conceptNid);
+		if (!concept.isPresent())
+		{
+			index.update(conceptNid, null);
+			return;
+		}
 		
-		Get.conceptService().getConceptChronologyStream(true).forEach((ConceptChronology concept) -> {
-			
-			LatestVersion<ConceptVersion> cv = concept.getLatestVersion(coordinate);
-			if (cv.isPresent() && cv.get().isActive())
+		LatestVersion<ConceptVersion> cv = concept.get().getLatestVersion(coordinate);
+		if (cv.isPresent() && cv.get().isActive())
+		{
+			final int termType = Frills.getTerminologyTypeForModule(cv.get().getModuleNid(), coordinate);
+			if (Frills.getSCTRulesTermTypes().contains(termType))
 			{
-				final int termType = Frills.getTerminologyTypeForModule(cv.get().getModuleNid(), coordinate);
-				if (Frills.getSCTRulesTermTypes().contains(termType))
+				QARuleIndex.ConceptState state = new QARuleIndex.ConceptState();
+				int fqnCount = 0;
+				int rnCount = 0;
+				for (SemanticChronology semantic : (Iterable<SemanticChronology>) Get.assemblageService()
+						.getSemanticChronologyStreamForComponent(conceptNid, false)::iterator)
 				{
-					AtomicInteger fqnCount = new AtomicInteger();
-					AtomicInteger rnCount = new AtomicInteger();
-					Get.assemblageService().getSemanticChronologyStreamForComponent(concept.getNid(), true).forEach((SemanticChronology semantic) -> {
-						if (semantic.getVersionType() == VersionType.DESCRIPTION)
+					if (semantic.getVersionType() == VersionType.DESCRIPTION)
+					{
+						LatestVersion<DescriptionVersion> dv = semantic.getLatestVersion(coordinate);
+						if (dv.isPresent() && dv.get().isActive())
 						{
-							LatestVersion<DescriptionVersion> dv = semantic.getLatestVersion(coordinate);
-							if (dv.isPresent() && dv.get().isActive())
+							checkDescription(dv.get(), state);
+							
+							if (dv.get().getDescriptionTypeConceptNid() == MetaData.FULLY_QUALIFIED_NAME_DESCRIPTION_TYPE____SOLOR.getNid())
 							{
-								checkVersion(dv.get());
-								
-								if (dv.get().getDescriptionTypeConceptNid() == MetaData.FULLY_QUALIFIED_NAME_DESCRIPTION_TYPE____SOLOR.getNid())
-								{
-									fqnCount.getAndIncrement();
-									Integer existing = uniqueFQNs.put(dv.get().getText() + dv.get().getLanguageConceptNid(), dv.get().getNid());
-									if (existing != null)
-									{
-										addResult(new QAInfo(Severity.ERROR, existing, "Duplicate Fully Qualified Name", dv.get().getText()));
-									}
-								}
-								else if (dv.get().getDescriptionTypeConceptNid() == MetaData.REGULAR_NAME_DESCRIPTION_TYPE____SOLOR.getNid())
-								{
-									rnCount.getAndIncrement();
-								}
+								fqnCount++;
+								state.addFullyQualifiedName(dv.get().getNid(), dv.get().getLanguageConceptNid(), dv.get().getText());
+							}
+							else if (dv.get().getDescriptionTypeConceptNid() == MetaData.REGULAR_NAME_DESCRIPTION_TYPE____SOLOR.getNid())
+							{
+								rnCount++;
 							}
 						}
-					});
-					
-					if (fqnCount.get() < 1)
-					{
-						addResult(new QAInfo(Severity.ERROR, concept.getNid(), "No active Fully Quallifed Name"));
-					}
-					if (rnCount.get() < 1)
-					{
-						addResult(new QAInfo(Severity.ERROR, concept.getNid(), "No active Regular Name"));
 					}
 				}
+				
+				if (fqnCount < 1)
+				{
+					state.addResult(new QAInfo(Severity.ERROR, conceptNid, "No active Fully Quallifed Name"));
+				}
+				if (rnCount < 1)
+				{
+					state.addResult(new QAInfo(Severity.ERROR, conceptNid, "No active Regular Name"));
+				}
+				index.update(conceptNid, state);
+				return;
 			}
-		});
-		return results;
+		}
+		//Inactive, or not a terminology the rules apply to
+		index.update(conceptNid, null);
 	}
 	
 	@Override
@@ -121,26 +173,28 @@ public class SimpleQA extends QATask
 	{
 		if (v instanceof DescriptionVersion)
 		{
-			//TODO I need a list of parent modules that snomed QA rules should apply to
-			final String descriptionText = ((DescriptionVersion)v).getText();
-			if (illegalChars.matcher(descriptionText).matches())
+			QARuleIndex.ConceptState state = new QARuleIndex.ConceptState();
+			checkDescription((DescriptionVersion)v, state);
+			synchronized (results)
 			{
-				addResult(new QAInfo(Severity.ERROR, v.getNid(),
-						"An active term should not contain tabs, newlines, or characters @, $, #, \\\\.", descriptionText));
-			}
-			if (descriptionText.contains("  "))
-			{
-				addResult(new QAInfo(Severity.WARNING, v.getNid(), "An active term should not contain double spaces", descriptionText));
+				results.getResult().addAll(state.getResults());
 			}
 		}
 		return results;
 	}
 	
-	private void addResult(QAInfo result)
+	private void checkDescription(DescriptionVersion dv, QARuleIndex.ConceptState state)
 	{
-		synchronized (results)
+		//TODO I need a list of parent modules that snomed QA rules should apply to
+		final String descriptionText = dv.getText();
+		if (illegalChars.matcher(descriptionText).matches())
+		{
+			state.addResult(new QAInfo(Severity.ERROR, dv.getNid(),
+					"An active term should not contain tabs, newlines, or characters @, $, #, \\\\.", descriptionText));
+		}
+		if (descriptionText.contains("  "))
 		{
-			results.addResult(result);
+			state.addResult(new QAInfo(Severity.WARNING, dv.getNid(), "An active term should not contain double spaces", descriptionText));
 		}
 	}
 
@@ -149,4 +203,40 @@ public class SimpleQA extends QATask
 	{
 		return coordinate.toStampFilterImmutable();
 	}
+	
+	/**
+	 * Checks a range of the concept nids, splitting the range until it is no larger than the partition size.
+	 */
+	private class PartitionCheck extends RecursiveAction
+	{
+		private static final long serialVersionUID = 1L;
+		private final int[] nids;
+		private final int start;
+		private final int end;
+		private final int partitionSize;
+
+		PartitionCheck(int[] nids, int start, int end, int partitionSize)
+		{
+			this.nids = nids;
+			this.start = start;
+			this.end = end;
+			this.partitionSize = partitionSize;
+		}
+
+		@Override
+		protected void compute()
+		{
+			if (end - start <= partitionSize)
+			{
+				for (int i = start; i < end; i++)
+				{
+					checkConcept(nids[i]);
+					completedUnitOfWork();
+				}
+				return;
+			}
+			int middle = (start + end) >>> 1;
+			invokeAll(new PartitionCheck(nids, start, middle, partitionSize), new PartitionCheck(nids, middle, end, partitionSize));
+		}
+	}
 }
@@ -0,0 +1,115 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributions from 2013-2017 where performed either by US government
+ * employees, or under US Veterans Health Administration contracts.
+ *
+ * US Veterans Health Administration contributions by government employees
+ * are work of the U.S. Government and are not subject to copyright
+ * protection in the United States. Portions contributed by government
+ * employees are USGovWork (17USC §105). Not subject to copyright.
+ *
+ * Contribution by contractors to the US Veterans Health Administration
+ * during this period are contractually contributed under the
+ * Apache License, Version 2.0.
+ *
+ * See: https://www.usa.gov/government-works
+ *
+ */
+package sh.isaac.provider.qa;
+
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+import sh.isaac.api.qa.QAInfo;
+import sh.isaac.api.qa.Severity;
+
+/**
+ * {@link QARuleIndexTest}.
+ */
+public class QARuleIndexTest
+{
+	private static final int ENGLISH = 100;
+	private static final int SPANISH = 200;
+
+	private static QARuleIndex.ConceptState state(int descriptionNid, int languageNid, String fqn)
+	{
+		QARuleIndex.ConceptState state = new QARuleIndex.ConceptState();
+		state.addFullyQualifiedName(descriptionNid, languageNid, fqn);
+		return state;
+	}
+
+	private static QARuleIndex indexWithDuplicate()
+	{
+		QARuleIndex index = new QARuleIndex();
+		index.update(1, state(11, ENGLISH, "Heart (body structure)"));
+		index.update(2, state(21, ENGLISH, "Heart (body structure)"));
+		index.update(3, state(31, SPANISH, "Heart (body structure)"));
+		return index;
+	}
+
+	private static void assertDuplicate(List<QAInfo> results, int descriptionNid)
+	{
+		Assert.assertEquals(1, results.size());
+		Assert.assertEquals(Severity.ERROR, results.get(0).getSeverity());
+		Assert.assertEquals(descriptionNid, results.get(0).getComponent());
+		Assert.assertEquals("Duplicate Fully Qualified Name", results.get(0).getMessage());
+	}
+
+	@Test
+	public void duplicateAcrossConcepts()
+	{
+		QARuleIndex index = indexWithDuplicate();
+		assertDuplicate(index.getResults(new int[] {1}).getResult(), 11);
+		assertDuplicate(index.getResults(new int[] {2}).getResult(), 21);
+		//The same text in another language is not a duplicate
+		Assert.assertTrue(index.getResults(new int[] {3}).getResult().isEmpty());
+		Assert.assertEquals(2, index.getResults().getResult().size());
+	}
+
+	@Test
+	public void duplicateGoneWhenNameChanges()
+	{
+		QARuleIndex index = indexWithDuplicate();
+		index.update(2, state(21, ENGLISH, "Heart structure (body structure)"));
+		Assert.assertTrue(index.getResults(new int[] {1}).getResult().isEmpty());
+		Assert.assertTrue(index.getResults(new int[] {2}).getResult().isEmpty());
+		Assert.assertTrue(index.getResults().getResult().isEmpty());
+	}
+
+	@Test
+	public void duplicateGoneWhenConceptRetired()
+	{
+		QARuleIndex index = indexWithDuplicate();
+		index.update(2, null);
+		Assert.assertTrue(index.getResults(new int[] {1}).getResult().isEmpty());
+		Assert.assertTrue(index.getResults(new int[] {2}).getResult().isEmpty());
+		Assert.assertTrue(index.getResults().getResult().isEmpty());
+	}
+
+	@Test
+	public void conceptResultsReplaced()
+	{
+		QARuleIndex index = new QARuleIndex();
+		QARuleIndex.ConceptState failed = state(11, ENGLISH, "Heart");
+		failed.addResult(new QAInfo(Severity.WARNING, 11, "Missing semantic tag", "Heart"));
+		index.update(1, failed);
+		Assert.assertEquals(1, index.getResults(new int[] {1}).getResult().size());
+
+		index.update(1, state(11, ENGLISH, "Heart (body structure)"));
+		Assert.assertTrue(index.getResults(new int[] {1}).getResult().isEmpty());
+	}
+}
@@ -20,14 +20,14 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.NoSuchElementException;
 import java.util.function.Predicate;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.apache.lucene.document.Document;
+import org.apache.lucene.index.DocValues;
 import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.NumericDocValues;
 import org.apache.lucene.search.Collector;
 import org.apache.lucene.search.CollectorManager;
 import org.apache.lucene.search.LeafCollector;
@@ -38,7 +38,9 @@ import org.apache.lucene.search.ScoreMode;
 import org.apache.lucene.search.TopDocs;
 import org.apache.lucene.search.TopScoreDocCollector;
 import org.apache.lucene.search.TotalHits;
-import javafx.util.Pair;
+import org.eclipse.collections.impl.map.mutable.primitive.IntFloatHashMap;
+import org.eclipse.collections.impl.map.mutable.primitive.IntIntHashMap;
+import org.eclipse.collections.impl.map.mutable.primitive.IntLongHashMap;
 import sh.isaac.api.Get;
 import sh.isaac.api.externalizable.IsaacObjectType;
 
@@ -81,6 +83,19 @@ public class IsaacFilteredCollectorManager implements CollectorManager<IsaacFilt
 		return collector;
 	}
 
+	/**
+	 * @param doc the id of a document in the results, relative to the whole index
+	 * @return the component nid of the document, as read when the document was collected
+	 */
+	int getComponentNid(int doc) {
+		for (IsaacFilteredCollector collector : collectors) {
+			if (collector.docToNid.containsKey(doc)) {
+				return collector.docToNid.get(doc);
+			}
+		}
+		throw new NoSuchElementException("No component nid collected for document " + doc);
+	}
+
 	@Override
 	public TopDocs reduce(Collection<IsaacFilteredCollectorManager.IsaacFilteredCollector> collectors) throws IOException {
 		//We may have duplicates in our index, if a single semantic version is indexed multiple times, by accident, or, 
@@ -90,92 +105,85 @@ public class IsaacFilteredCollectorManager implements CollectorManager<IsaacFilt
 		//Note, that each searcher already removes some duplicate nids, (especially cases where things were indexed more than once)
 		//But will not remove duplicate nids that have differing scores for different versions of a semantic.  Must handle here
 		//after we have sorted scores per searcher
-		HashMap<Integer, HashSet<Integer>> itemsToRemove = new HashMap<>(); //collector id / docs to skip
-		HashMap<Integer, Pair<Float, Runnable>> nidsBeingReturned = new HashMap<>(); //semantic nid / {score,function that will add itself into itemsToRemove}
-		HashMap<Integer, Integer> nidsToDocId = new HashMap<>(); //semantic nid / docId
+		final ArrayList<IsaacFilteredCollector> collectorList = new ArrayList<>(collectors);
+		final boolean[][] itemsToRemove = new boolean[collectorList.size()][]; //collector id / doc positions to skip
+		final int[] removedCounts = new int[collectorList.size()];
+		final IntLongHashMap nidsBeingReturned = new IntLongHashMap(); //semantic nid / collector id and doc position being returned for it
 		
-		int collectorId = 0;
-		for (IsaacFilteredCollectorManager.IsaacFilteredCollector collector : collectors) {
-			itemsToRemove.put(collectorId, new HashSet<>());
+		for (int collectorId = 0; collectorId < collectorList.size(); collectorId++) {
+			final IsaacFilteredCollector collector = collectorList.get(collectorId);
+			final ScoreDoc[] scoreDocs = collector.getTopDocs().scoreDocs;
+			itemsToRemove[collectorId] = new boolean[scoreDocs.length];
 			
-			for (int docPosition = 0; docPosition < collector.getTopDocs().scoreDocs.length; docPosition++)
+			for (int docPosition = 0; docPosition < scoreDocs.length; docPosition++)
 			{
-				final int collectorIdFinal = collectorId;
-				final int docPositionFinal = docPosition;
-
-				int componentNid = collector.docToNid.get(collector.getTopDocs().scoreDocs[docPosition].doc);
-				float score = collector.getTopDocs().scoreDocs[docPosition].score;
-				if (after != null && (after.includedDocIds.contains(collector.getTopDocs().scoreDocs[docPosition].doc) || after.includedNids.contains(componentNid))) {
+				final ScoreDoc scoreDoc = scoreDocs[docPosition];
+				final int componentNid = collector.docToNid.get(scoreDoc.doc);
+				if (after != null && (after.includedDocIds.contains(scoreDoc.doc) || after.includedNids.contains(componentNid))) {
 					//Ignore this one
-					itemsToRemove.get(collectorId).add(docPosition);
-					LOG.trace("Ignore nid " + componentNid + " from doc " + collector.getTopDocs().scoreDocs[docPosition].doc + " for being on previous page");
+					itemsToRemove[collectorId][docPosition] = true;
+					removedCounts[collectorId]++;
+					LOG.trace("Ignore nid " + componentNid + " from doc " + scoreDoc.doc + " for being on previous page");
 				}
 				else if (nidsBeingReturned.containsKey(componentNid)) {
-					Pair<Float, Runnable> info = nidsBeingReturned.get(componentNid);
-					if (info.getKey() < score) {
-						//The one we already saw has a lower score than us... need to mark that one for removal and keep this one
-						info.getValue().run();  //This marks the existing one for removal
-						nidsBeingReturned.put(componentNid, new Pair<>(score, () -> itemsToRemove.get(collectorIdFinal).add(docPositionFinal)));
-					}
-					else if (info.getKey() == score) {
-						//The one we already saw has an identical score.  Keep the lower doc ID, to keep us sane / working on the next paged query.
-						if (nidsToDocId.get(componentNid) < (collector.getTopDocs().scoreDocs[docPosition].doc))
-						{
-							//Ignore this one
-							itemsToRemove.get(collectorId).add(docPosition);
-						}
-						else
-						{
-							info.getValue().run();  //This marks the existing one for removal
-							nidsBeingReturned.put(componentNid, new Pair<>(score, () -> itemsToRemove.get(collectorIdFinal).add(docPositionFinal)));
-							nidsToDocId.put(componentNid, collector.getTopDocs().scoreDocs[docPosition].doc);
-						}
+					final long returned = nidsBeingReturned.get(componentNid);
+					final int returnedCollectorId = (int) (returned >>> 32);
+					final int returnedDocPosition = (int) returned;
+					final ScoreDoc returnedDoc = collectorList.get(returnedCollectorId).getTopDocs().scoreDocs[returnedDocPosition];
+					//If the one we already saw has a lower score than us, keep this one.  If the scores are identical, keep the lower 
+					//doc ID, to keep us sane / working on the next paged query.
+					if (returnedDoc.score < scoreDoc.score || (returnedDoc.score == scoreDoc.score && scoreDoc.doc < returnedDoc.doc)) {
+						itemsToRemove[returnedCollectorId][returnedDocPosition] = true;
+						removedCounts[returnedCollectorId]++;
+						nidsBeingReturned.put(componentNid, toReturnedHit(collectorId, docPosition));
 					}
 					else {
 						//Ignore this one
-						itemsToRemove.get(collectorId).add(docPosition);
+						itemsToRemove[collectorId][docPosition] = true;
+						removedCounts[collectorId]++;
 					}
-				 }
-				 else {
-					nidsBeingReturned.put(componentNid, new Pair<>(score, () -> itemsToRemove.get(collectorIdFinal).add(docPositionFinal)));
-					nidsToDocId.put(componentNid, collector.getTopDocs().scoreDocs[docPosition].doc);
+				}
+				else {
+					nidsBeingReturned.put(componentNid, toReturnedHit(collectorId, docPosition));
 				}
 			}
-			collectorId++;
 		}
 
 		//We should now have a proper set of itemsToRemove we can use to filter our getTopDocs arrays
 		
-		collectorId = 0;
-		final TopDocs[] topDocs = new TopDocs[collectors.size()];
+		final TopDocs[] topDocs = new TopDocs[collectorList.size()];
 		
-		for (IsaacFilteredCollectorManager.IsaacFilteredCollector collector : collectors) {
-			ArrayList<ScoreDoc> scoreDocsToKeep = new ArrayList<>(collector.getTopDocs().scoreDocs.length);
-			for (int docPos = 0; docPos < collector.getTopDocs().scoreDocs.length; docPos++) {
-				if (!itemsToRemove.get(collectorId).contains(docPos)) {
-					scoreDocsToKeep.add(collector.getTopDocs().scoreDocs[docPos]);
+		for (int collectorId = 0; collectorId < collectorList.size(); collectorId++) {
+			final TopDocs collectorTopDocs = collectorList.get(collectorId).getTopDocs();
+			final ScoreDoc[] scoreDocsToKeep = new ScoreDoc[collectorTopDocs.scoreDocs.length - removedCounts[collectorId]];
+			int keptCount = 0;
+			for (int docPos = 0; docPos < collectorTopDocs.scoreDocs.length; docPos++) {
+				if (!itemsToRemove[collectorId][docPos]) {
+					scoreDocsToKeep[keptCount++] = collectorTopDocs.scoreDocs[docPos];
 					LOG.trace("Keeping document {} with score {} in the results", 
-							collector.getTopDocs().scoreDocs[docPos].doc, collector.getTopDocs().scoreDocs[docPos].score);
+							collectorTopDocs.scoreDocs[docPos].doc, collectorTopDocs.scoreDocs[docPos].score);
 				}
 				else {
 					LOG.trace("Skipping document {} with score {} as it duplicates a nid already in the results", 
-							collector.getTopDocs().scoreDocs[docPos].doc, collector.getTopDocs().scoreDocs[docPos].score);
+							collectorTopDocs.scoreDocs[docPos].doc, collectorTopDocs.scoreDocs[docPos].score);
 				}
 			}
 			
-			TopDocs td = new TopDocs(new TotalHits((collector.getTopDocs().totalHits.value - (itemsToRemove.get(collectorId).size())), collector.getTopDocs().totalHits.relation), 
-					scoreDocsToKeep.toArray(new ScoreDoc[scoreDocsToKeep.size()]));
-			topDocs[collectorId] = td;
-			collectorId++;
+			topDocs[collectorId] = new TopDocs(new TotalHits((collectorTopDocs.totalHits.value - removedCounts[collectorId]), collectorTopDocs.totalHits.relation), 
+					scoreDocsToKeep);
 		}
 		TopDocs result = TopDocs.merge(sizeLimit, topDocs);
 		return result;
 	}
 
+	private static long toReturnedHit(int collectorId, int docPosition) {
+		return ((long) collectorId << 32) | docPosition;
+	}
+
 	public class IsaacFilteredCollector implements Collector {
 		private TopScoreDocCollector collector;
-		HashMap<Integer, Integer> docToNid = new HashMap<>();
-		HashMap<Integer, Float> nidToScore = new HashMap<>();
+		final IntIntHashMap docToNid = new IntIntHashMap();
+		IntFloatHashMap nidToScore = new IntFloatHashMap();
 		private TopDocs topDocs;
 		
 		protected IsaacFilteredCollector() {
@@ -203,6 +211,8 @@ public class IsaacFilteredCollectorManager implements CollectorManager<IsaacFilt
 			{
 				private Scorable scorer;
 				LeafCollector lf = collector.getLeafCollector(context);
+				//Read from doc values, so that collecting a hit doesn't have to load the stored fields of its document
+				final NumericDocValues componentNids = DocValues.getNumeric(context.reader(), LuceneIndexer.FIELD_COMPONENT_NID);
 		
 				@Override
 				public void setScorer(Scorable scorer) throws IOException
@@ -215,10 +225,14 @@ public class IsaacFilteredCollectorManager implements CollectorManager<IsaacFilt
 				public void collect(int doc) throws IOException
 				{
 					boolean filterPass = false;
-					final Document document = context.reader().document(doc);
-					final int componentNid = document.getField(LuceneIndexer.FIELD_COMPONENT_NID).numericValue().intValue();
+					final int indexDoc = doc + context.docBase;
+					if (!componentNids.advanceExact(doc)) {
+						LOG.warn("No component nid indexed for document {}", indexDoc);
+						return;
+					}
+					final int componentNid = (int) componentNids.longValue();
 					
-					if (after != null && (after.includedDocIds.contains(doc) || after.includedNids.contains(componentNid))) {
+					if (after != null && (after.includedDocIds.contains(indexDoc) || after.includedNids.contains(componentNid))) {
 						LOG.trace("skipping filter eval of doc {} and collect for item before page 1 {}", doc, componentNid);
 						return;
 					}
@@ -237,13 +251,13 @@ public class IsaacFilteredCollectorManager implements CollectorManager<IsaacFilt
 							} catch (NoSuchElementException | IllegalStateException e) {
 								StringBuilder b = new StringBuilder();
 								b.append(e.getLocalizedMessage()).append("\n");
-								b.append("Filtering document: ").append(document).append("\n");
+								b.append("Filtering document: ").append(indexDoc).append("\n");
 								b.append("Evaluating: ").append(componentNid).append(" uuids: ")
 										.append(Arrays.toString(Get.identifierService().getUuidArrayForNid(componentNid)));
 								LOG.error(b.toString());
 							}
 						} else {
-							LOG.warn("Concept nid in search results: " + componentNid + " " + document);
+							LOG.warn("Concept nid in search results: " + componentNid + " in document " + indexDoc);
 						}
 					}
 					else
@@ -253,9 +267,9 @@ public class IsaacFilteredCollectorManager implements CollectorManager<IsaacFilt
 					
 					if (filterPass)
 					{
-						LOG.trace("Collect on " + (doc + context.docBase) + " with collector " + IsaacFilteredCollector.this.hashCode() + " for " + componentNid);
+						LOG.trace("Collect on " + indexDoc + " with collector " + IsaacFilteredCollector.this.hashCode() + " for " + componentNid);
 						lf.collect(doc);
-						docToNid.put((doc + context.docBase), componentNid);
+						docToNid.put(indexDoc, componentNid);
 						nidToScore.put(componentNid, scorer.score());
 					}
 				}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2017 Organizations participating in ISAAC, ISAAC's KOMET, and SOLOR development include the
+         US Veterans Health Administration, OSHERA, and the Health Services Platform Consortium..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.provider.query.lucene;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.NumericDocValues;
+import org.apache.lucene.search.Collector;
+import org.apache.lucene.search.CollectorManager;
+import org.apache.lucene.search.LeafCollector;
+import org.apache.lucene.search.Scorable;
+import org.apache.lucene.search.ScoreMode;
+import sh.isaac.api.Get;
+import sh.isaac.api.collections.NidSet;
+import sh.isaac.api.externalizable.IsaacObjectType;
+
+/**
+ * Collects the nids of every component matching a query, without scoring or ranking the matches, for callers that
+ * need the whole set of matches rather than the best of them. Unlike the {@link IsaacFilteredCollectorManager},
+ * nothing is allocated up front for the number of expected matches.
+ */
+public class IsaacNidCollectorManager implements CollectorManager<IsaacNidCollectorManager.IsaacNidCollector, NidSet> {
+
+	final Predicate<Integer> filter;
+
+	protected static final Logger LOG = LogManager.getLogger();
+
+	/**
+	 * @param filter - optional - arbitrary filtering
+	 */
+	public IsaacNidCollectorManager(Predicate<Integer> filter) {
+		this.filter = filter;
+	}
+
+	@Override
+	public IsaacNidCollector newCollector() throws IOException {
+		return new IsaacNidCollector();
+	}
+
+	@Override
+	public NidSet reduce(Collection<IsaacNidCollector> collectors) throws IOException {
+		final NidSet result = new NidSet();
+		for (IsaacNidCollector collector : collectors) {
+			result.or(collector.nids);
+		}
+		return result;
+	}
+
+	public class IsaacNidCollector implements Collector {
+		final NidSet nids = new NidSet();
+
+		@Override
+		public LeafCollector getLeafCollector(LeafReaderContext context) throws IOException
+		{
+			return new LeafCollector()
+			{
+				final NumericDocValues componentNids = DocValues.getNumeric(context.reader(), LuceneIndexer.FIELD_COMPONENT_NID);
+
+				@Override
+				public void setScorer(Scorable scorer) throws IOException
+				{
+					// not scored
+				}
+
+				@Override
+				public void collect(int doc) throws IOException
+				{
+					if (!componentNids.advanceExact(doc)) {
+						LOG.warn("No component nid indexed for document {}", doc + context.docBase);
+						return;
+					}
+					final int componentNid = (int) componentNids.longValue();
+					if (nids.contains(componentNid)) {
+						return;
+					}
+					if (filter == null) {
+						nids.add(componentNid);
+					}
+					else if (Get.identifierService().getObjectTypeForComponent(componentNid) == IsaacObjectType.SEMANTIC) {
+						try {
+							if (filter.test(componentNid)) {
+								nids.add(componentNid);
+							}
+						} catch (NoSuchElementException | IllegalStateException e) {
+							LOG.error("Error filtering document {} for component {}", doc + context.docBase, componentNid, e);
+						}
+					}
+					else {
+						LOG.warn("Concept nid in search results: " + componentNid + " in document " + (doc + context.docBase));
+					}
+				}
+			};
+		}
+
+		@Override
+		public ScoreMode scoreMode()
+		{
+			return ScoreMode.COMPLETE_NO_SCORES;
+		}
+	}
+}
@@ -73,8 +73,14 @@ import org.apache.lucene.analysis.TokenStream;
 import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
 import org.apache.lucene.document.Document;
 import org.apache.lucene.document.Field;
+import org.apache.lucene.document.IntPoint;
+import org.apache.lucene.document.NumericDocValuesField;
 import org.apache.lucene.document.StoredField;
-import org.apache.lucene.document.TextField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.DocValuesType;
+import org.apache.lucene.index.FieldInfo;
+import org.apache.lucene.index.FieldInfos;
 import org.apache.lucene.index.IndexFormatTooOldException;
 import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.IndexWriter;
@@ -86,6 +92,7 @@ import org.apache.lucene.queryparser.classic.ParseException;
 import org.apache.lucene.queryparser.classic.QueryParser;
 import org.apache.lucene.search.BooleanClause.Occur;
 import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.ConstantScoreQuery;
 import org.apache.lucene.search.ControlledRealTimeReopenThread;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.PrefixQuery;
@@ -109,6 +116,7 @@ import sh.isaac.api.LookupService;
 import sh.isaac.api.SystemStatusService;
 import sh.isaac.api.chronicle.Chronology;
 import sh.isaac.api.chronicle.Version;
+import sh.isaac.api.collections.NidSet;
 import sh.isaac.api.commit.ChronologyChangeListener;
 import sh.isaac.api.commit.CommitRecord;
 import sh.isaac.api.component.concept.ConceptChronology;
@@ -155,11 +163,14 @@ public abstract class LuceneIndexer implements IndexBuilderService
 	protected static final String FIELD_CONCEPT_IS_METADATA = "_concept_metadata_marker_" + PerFieldAnalyzer.WHITE_SPACE_FIELD_MARKER;
 	protected static final String FIELD_CONCEPT_IS_METADATA_VALUE = "t";
 
-	// this isn't indexed
+	// this isn't indexed, it is stored, and kept as a doc value, so collectors can read it without loading the stored fields.
 	public static final String FIELD_COMPONENT_NID = "_component_nid_";
-	private static final String FIELD_INDEXED_MODULE_NID = "_module_content_" + PerFieldAnalyzer.WHITE_SPACE_FIELD_MARKER;
-	private static final String FIELD_INDEXED_PATH_NID = "_path_content_" + PerFieldAnalyzer.WHITE_SPACE_FIELD_MARKER;
-	private static final String FIELD_INDEXED_AUTHOR_NID = "_author_content_" + PerFieldAnalyzer.WHITE_SPACE_FIELD_MARKER;
+	// the nid as an untokenized term, which identifies the document of a component, so reindexing a component replaces its document.
+	private static final String FIELD_COMPONENT_NID_KEY = "_component_nid_key_";
+	// the stamp nids are indexed as points, since we only do exact matches on them.
+	private static final String FIELD_INDEXED_MODULE_NID = "_module_nid_";
+	private static final String FIELD_INDEXED_PATH_NID = "_path_nid_";
+	private static final String FIELD_INDEXED_AUTHOR_NID = "_author_nid_";
 
 	private final Cache<Integer, PreviousResult> lastDocCache = Caffeine.newBuilder().maximumSize(100).build();
 
@@ -433,6 +444,35 @@ public abstract class LuceneIndexer implements IndexBuilderService
 	 */
 	protected abstract void addFields(Chronology chronicle, Document doc, Set<Integer> pathNids);
 
+	/**
+	 * Subclasses that also index a field with the {@link PerFieldAnalyzer#EDGE_NGRAM_FIELD_MARKER}, and the field with 
+	 * the {@link PerFieldAnalyzer#WHITE_SPACE_FIELD_MARKER} with both markers, return true for that field, so prefix 
+	 * searches on it match the edge n-gram terms instead of expanding a prefix query.
+	 *
+	 * @param field the field
+	 * @return true if the field has edge n-gram fields
+	 */
+	protected boolean hasEdgeNGramFields(String field)
+	{
+		return false;
+	}
+
+	/**
+	 * Check whether an existing index has the fields this indexer expects. The index is rebuilt if it does not. 
+	 * Indexes written before component nids were kept as doc values are rebuilt, since the collectors read the nids 
+	 * from the doc values, as are indexes written before documents carried the nid key, since they may hold more than 
+	 * one document for a component.
+	 *
+	 * @param fieldInfos the fields of a non-empty index
+	 * @return true if the index can be used as is
+	 */
+	protected boolean isIndexFormatCurrent(FieldInfos fieldInfos)
+	{
+		FieldInfo fieldInfo = fieldInfos.fieldInfo(FIELD_COMPONENT_NID);
+		return fieldInfo != null && fieldInfo.getDocValuesType() == DocValuesType.NUMERIC 
+				&& fieldInfos.fieldInfo(FIELD_COMPONENT_NID_KEY) != null;
+	}
+
 	/**
 	 * Builds the prefix query.
 	 *
@@ -443,6 +483,21 @@ public abstract class LuceneIndexer implements IndexBuilderService
 	 * @throws IOException Signals that an I/O exception has occurred.
 	 */
 	protected Query buildPrefixQuery(String searchString, String field, Analyzer analyzer) throws IOException
+	{
+		return buildPrefixQuery(searchString, field, analyzer, false);
+	}
+
+	/**
+	 * Builds the prefix query.
+	 *
+	 * @param searchString the search string
+	 * @param field the field
+	 * @param analyzer the analyzer
+	 * @param edgeNGrams true to match the last term as a prefix against the edge n-gram field of the field
+	 * @return the query
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	protected Query buildPrefixQuery(String searchString, String field, Analyzer analyzer, boolean edgeNGrams) throws IOException
 	{
 		final TokenStream tokenStream;
 		final List<String> terms;
@@ -468,8 +523,15 @@ public abstract class LuceneIndexer implements IndexBuilderService
 			BooleanQuery.Builder nested = new BooleanQuery.Builder();
 
 			//If the last term does not end with a space, we allow it to be treated as an exact query, 
-			//or a prefix query.
-			nested.add(new PrefixQuery((new Term(field, last))), Occur.SHOULD);
+			//or a prefix query.  A prefix that was indexed as an edge n-gram is a single term, scored like a prefix query.
+			if (edgeNGrams && last.codePointCount(0, last.length()) <= PerFieldAnalyzer.MAX_EDGE_NGRAM_LENGTH)
+			{
+				nested.add(new ConstantScoreQuery(new TermQuery(new Term(field + PerFieldAnalyzer.EDGE_NGRAM_FIELD_MARKER, last))), Occur.SHOULD);
+			}
+			else
+			{
+				nested.add(new PrefixQuery((new Term(field, last))), Occur.SHOULD);
+			}
 			nested.add(new TermQuery((new Term(field, last))), Occur.SHOULD);
 			
 			bq.add(nested.build(), Occur.MUST);
@@ -506,8 +568,9 @@ public abstract class LuceneIndexer implements IndexBuilderService
 			if (prefixSearch)
 			{
 				BooleanQuery.Builder bqParts = new BooleanQuery.Builder();
-				bqParts.add(buildPrefixQuery(query, field, new PerFieldAnalyzer()), Occur.SHOULD);
-				bqParts.add(buildPrefixQuery(query, field + PerFieldAnalyzer.WHITE_SPACE_FIELD_MARKER, new PerFieldAnalyzer()), Occur.SHOULD);
+				final boolean edgeNGrams = hasEdgeNGramFields(field);
+				bqParts.add(buildPrefixQuery(query, field, new PerFieldAnalyzer(), edgeNGrams), Occur.SHOULD);
+				bqParts.add(buildPrefixQuery(query, field + PerFieldAnalyzer.WHITE_SPACE_FIELD_MARKER, new PerFieldAnalyzer(), edgeNGrams), Occur.SHOULD);
 				booleanQueryBuilder.add(bqParts.build(), Occur.MUST);
 			}
 			else
@@ -575,35 +638,17 @@ public abstract class LuceneIndexer implements IndexBuilderService
 
 		if (amp.getAuthors() != null && !amp.getAuthors().isEmpty())
 		{
-			BooleanQuery.Builder inner = new BooleanQuery.Builder();
-
-			for (Integer authorNid : amp.getAuthors().asArray())
-			{
-				inner.add(new TermQuery(new Term(FIELD_INDEXED_AUTHOR_NID, authorNid.toString())), Occur.SHOULD);
-			}
-			bq.add(inner.build(), Occur.MUST);
+			bq.add(IntPoint.newSetQuery(FIELD_INDEXED_AUTHOR_NID, amp.getAuthors().asArray()), Occur.MUST);
 		}
 
 		if (amp.getModules() != null && !amp.getModules().isEmpty())
 		{
-			BooleanQuery.Builder inner = new BooleanQuery.Builder();
-
-			for (Integer moduleNid : amp.getModules().asArray())
-			{
-				inner.add(new TermQuery(new Term(FIELD_INDEXED_MODULE_NID, moduleNid.toString())), Occur.SHOULD);
-			}
-			bq.add(inner.build(), Occur.MUST);
+			bq.add(IntPoint.newSetQuery(FIELD_INDEXED_MODULE_NID, amp.getModules().asArray()), Occur.MUST);
 		}
 
 		if (amp.getPaths() != null && !amp.getPaths().isEmpty())
 		{
-			BooleanQuery.Builder inner = new BooleanQuery.Builder();
-
-			for (Integer pathNid : amp.getPaths().asArray())
-			{
-				inner.add(new TermQuery(new Term(FIELD_INDEXED_PATH_NID, pathNid.toString())), Occur.SHOULD);
-			}
-			bq.add(inner.build(), Occur.MUST);
+			bq.add(IntPoint.newSetQuery(FIELD_INDEXED_PATH_NID, amp.getPaths().asArray()), Occur.MUST);
 		}
 
 		return bq.build();
@@ -772,6 +817,48 @@ public abstract class LuceneIndexer implements IndexBuilderService
 		return searchInternal(q, filter, amp, pageNum, sizeLimit, targetGeneration, null);
 	}
 
+	/**
+	 * Find the nids of every component matching a query, without scoring the matches or collecting them in rank order.
+	 * See {@link #search(Query, Predicate, AuthorModulePathRestriction, Integer, Integer, Long)} for the parameters.
+	 *
+	 * @param q - the query
+	 * @param filter - an optional filter on results
+	 * @param targetGeneration - optional - target generation that must be waited for prior to performing the search
+	 * @return the nids of the matching components
+	 */
+	protected final NidSet searchNids(Query q, Predicate<Integer> filter, Long targetGeneration)
+	{
+		IndexSearcher searcher = null;
+		try
+		{
+			searcher = getIndexSearcher(targetGeneration);
+			LOG.debug("Running query for nids: {}", q.toString());
+			NidSet results = searcher.search(q, new IsaacNidCollectorManager(filter));
+			LOG.debug("Returning {} nids from query", results.size());
+			return results;
+		}
+		catch (IOException e)
+		{
+			LOG.error("Unexpected error during search", e);
+			throw new RuntimeException(e);
+		}
+		finally
+		{
+			if (searcher != null)
+			{
+				try
+				{
+					this.referenceManager.release(searcher);
+				}
+				catch (IOException e)
+				{
+					LOG.error("Unexpected error releasing searcher", e);
+					throw new RuntimeException(e);
+				}
+			}
+		}
+	}
+
 	/**
 	 * see {@link #search(Query, Predicate, AuthorModulePathRestriction, Integer, Integer, Long)} for details on this method.
 	 * 
@@ -833,8 +920,7 @@ public abstract class LuceneIndexer implements IndexBuilderService
 					
 					for (ScoreDoc hit : topDocs.scoreDocs)
 					{
-						Document doc = searcher.doc(hit.doc);
-						int componentNid = doc.getField(FIELD_COMPONENT_NID).numericValue().intValue();
+						int componentNid = ifcm.getComponentNid(hit.doc);
 						LOG.trace("Hit: {} Score: {}, Nid {}", hit.doc, hit.score, componentNid);
 						
 						if (includedNids.contains(componentNid))
@@ -1073,6 +1159,10 @@ public abstract class LuceneIndexer implements IndexBuilderService
 
 				try
 				{
+					if (!isIndexFormatCurrent(indexDirectory))
+					{
+						throw new IndexFormatTooOldException("Index Mismatch", "Index is missing fields");
+					}
 					this.indexWriter = new IndexWriter(indexDirectory, getIndexWriterConfig());
 
 					Optional<UUID> temp = getDataStoreId();
@@ -1347,6 +1437,27 @@ public abstract class LuceneIndexer implements IndexBuilderService
 		return t;
 	}
 
+	/**
+	 * @param indexDirectory the index
+	 * @return true if the index is empty, or has the fields this indexer expects
+	 * @throws IOException if the index can't be read
+	 */
+	private boolean isIndexFormatCurrent(Directory indexDirectory) throws IOException
+	{
+		if (!DirectoryReader.indexExists(indexDirectory))
+		{
+			return true;
+		}
+		try (DirectoryReader reader = DirectoryReader.open(indexDirectory))
+		{
+			if (reader.numDocs() == 0)
+			{
+				return true;
+			}
+			return isIndexFormatCurrent(FieldInfos.getMergedFieldInfos(reader));
+		}
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -1541,20 +1652,14 @@ public abstract class LuceneIndexer implements IndexBuilderService
 			try
 			{
 				final Document doc = new Document();
+				final String nidKey = Integer.toString(this.chronicle.getNid());
 				doc.add(new StoredField(FIELD_COMPONENT_NID, this.chronicle.getNid()));
+				doc.add(new NumericDocValuesField(FIELD_COMPONENT_NID, this.chronicle.getNid()));
+				doc.add(new StringField(FIELD_COMPONENT_NID_KEY, nidKey, Field.Store.NO));
 				Set<Integer> foundPathNids = indexStamp(chronicle, doc);
 				addFields(this.chronicle, doc, foundPathNids);
-				// Note that the addDocument operation could cause duplicate documents to be
-				// added to the index if a new version is added after initial index
-				// creation. It does this to avoid the performance penalty of
-				// finding and deleting documents prior to inserting a new one.
-				//
-				// At this point, the number of duplicates should be
-				// small, and we are willing to accept a small number of duplicates
-				// because the new versions are additive (we don't allow deletion of content)
-				// so the search results will be the same. Duplicates can be removed
-				// by regenerating the index.
-				final long indexGeneration = LuceneIndexer.this.indexWriter.addDocument(doc);
+				// Replace any document previously indexed for the component, so new versions don't add duplicate documents. 
+				final long indexGeneration = LuceneIndexer.this.indexWriter.updateDocument(new Term(FIELD_COMPONENT_NID_KEY, nidKey), doc);
 
 				releaseLatch(getNid(), indexGeneration);
 				return indexGeneration;
@@ -1582,21 +1687,21 @@ public abstract class LuceneIndexer implements IndexBuilderService
 			{
 				if (!uniqAuthorNid.contains(sv.getAuthorNid()))
 				{
-					doc.add(new TextField(FIELD_INDEXED_AUTHOR_NID, sv.getAuthorNid() + "", Field.Store.NO));
+					doc.add(new IntPoint(FIELD_INDEXED_AUTHOR_NID, sv.getAuthorNid()));
 					incrementIndexedItemCount("Author");
 					uniqAuthorNid.add(sv.getAuthorNid());
 				}
 
 				if (!uniqModuleNid.contains(sv.getModuleNid()))
 				{
-					doc.add(new TextField(FIELD_INDEXED_MODULE_NID, sv.getModuleNid() + "", Field.Store.NO));
+					doc.add(new IntPoint(FIELD_INDEXED_MODULE_NID, sv.getModuleNid()));
 					incrementIndexedItemCount("Module");
 					uniqModuleNid.add(sv.getModuleNid());
 				}
 
 				if (!uniqPathNid.contains(sv.getPathNid()))
 				{
-					doc.add(new TextField(FIELD_INDEXED_PATH_NID, sv.getPathNid() + "", Field.Store.NO));
+					doc.add(new IntPoint(FIELD_INDEXED_PATH_NID, sv.getPathNid()));
 					incrementIndexedItemCount("Path");
 					uniqPathNid.add(sv.getPathNid());
 				}
@@ -45,6 +45,7 @@ import org.apache.lucene.analysis.Analyzer;
 import org.apache.lucene.analysis.AnalyzerWrapper;
 import org.apache.lucene.analysis.core.LowerCaseFilter;
 import org.apache.lucene.analysis.core.WhitespaceAnalyzer;
+import org.apache.lucene.analysis.ngram.EdgeNGramTokenFilter;
 import org.apache.lucene.analysis.standard.StandardAnalyzer;
 
 //~--- classes ----------------------------------------------------------------
@@ -55,6 +56,10 @@ import org.apache.lucene.analysis.standard.StandardAnalyzer;
  * with the string "_wsa" - in which case, it is indexed with the {@link WhitespaceAnalyzer} and
  * a {@link LowerCaseFilter}
  *
+ * Fields that end with the string "_edge" are analyzed as the field without that suffix would be, and each token is
+ * then indexed along with its leading edge n-grams, up to {@link #MAX_EDGE_NGRAM_LENGTH} characters, so that a prefix
+ * of a token can be matched with a single term, rather than by expanding a prefix query.
+ *
  * This can be enhanced in the future to properly handle other languages as well.
  *
  * @author <a href="mailto:daniel.armbrust.list@gmail.com">Dan Armbrust</a>
@@ -64,6 +69,12 @@ public class PerFieldAnalyzer
    /** The Constant WHITE_SPACE_FIELD_MARKER. */
    public static final String WHITE_SPACE_FIELD_MARKER = "_wsa";
 
+   /** The Constant EDGE_NGRAM_FIELD_MARKER. */
+   public static final String EDGE_NGRAM_FIELD_MARKER = "_edge";
+
+   /** The longest prefix indexed in an edge n-gram field. Longer prefixes must be matched with a prefix query. */
+   public static final int MAX_EDGE_NGRAM_LENGTH = 20;
+
    //~--- fields --------------------------------------------------------------
 
    /** The wa. */
@@ -91,7 +102,7 @@ public class PerFieldAnalyzer
    @Override
    public String toString() {
       return "PerFieldAnalyzer(default=" + this.sa + ", fields ending with '" + WHITE_SPACE_FIELD_MARKER + "': " +
-             this.wa + ")";
+             this.wa + ", fields ending with '" + EDGE_NGRAM_FIELD_MARKER + "': edge n-grams)";
    }
 
    /**
@@ -104,13 +115,27 @@ public class PerFieldAnalyzer
     */
    @Override
    protected TokenStreamComponents wrapComponents(String fieldName, TokenStreamComponents components) {
-      if (fieldName.endsWith(WHITE_SPACE_FIELD_MARKER)) {
+      if (fieldName.endsWith(EDGE_NGRAM_FIELD_MARKER)) {
+         TokenStreamComponents baseComponents = wrapComponents(stripEdgeNGramMarker(fieldName), components);
+         return new TokenStreamComponents(baseComponents.getSource(), 
+               new EdgeNGramTokenFilter(baseComponents.getTokenStream(), 1, MAX_EDGE_NGRAM_LENGTH, true));
+      } else if (fieldName.endsWith(WHITE_SPACE_FIELD_MARKER)) {
          return new TokenStreamComponents(components.getSource(), new LowerCaseFilter(components.getTokenStream()));
       } else {
          return components;
       }
    }
 
+   /**
+    * Strip edge n-gram marker.
+    *
+    * @param fieldName the field name
+    * @return the name of the field an edge n-gram field is derived from
+    */
+   private static String stripEdgeNGramMarker(String fieldName) {
+      return fieldName.substring(0, fieldName.length() - EDGE_NGRAM_FIELD_MARKER.length());
+   }
+
    //~--- get methods ---------------------------------------------------------
 
    /**
@@ -122,7 +147,9 @@ public class PerFieldAnalyzer
     */
    @Override
    protected Analyzer getWrappedAnalyzer(String fieldName) {
-      if (fieldName.endsWith(WHITE_SPACE_FIELD_MARKER)) {
+      if (fieldName.endsWith(EDGE_NGRAM_FIELD_MARKER)) {
+         return getWrappedAnalyzer(stripEdgeNGramMarker(fieldName));
+      } else if (fieldName.endsWith(WHITE_SPACE_FIELD_MARKER)) {
          return this.wa;
       } else {
          return this.sa;
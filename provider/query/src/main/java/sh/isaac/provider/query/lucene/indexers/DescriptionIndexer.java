@@ -28,6 +28,7 @@ import java.util.function.Predicate;
 import org.apache.lucene.document.Document;
 import org.apache.lucene.document.Field;
 import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.FieldInfos;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.search.BooleanClause.Occur;
 import org.apache.lucene.search.BooleanQuery;
@@ -44,6 +45,7 @@ import sh.isaac.api.chronicle.Chronology;
 import sh.isaac.api.chronicle.LatestVersion;
 import sh.isaac.api.chronicle.Version;
 import sh.isaac.api.chronicle.VersionType;
+import sh.isaac.api.collections.NidSet;
 import sh.isaac.api.component.semantic.SemanticChronology;
 import sh.isaac.api.component.semantic.version.DescriptionVersion;
 import sh.isaac.api.component.semantic.version.DynamicVersion;
@@ -251,6 +253,33 @@ public class DescriptionIndexer extends LuceneIndexer
 		}
 
 		doc.add(new TextField(fieldName + PerFieldAnalyzer.WHITE_SPACE_FIELD_MARKER, value, Field.Store.NO));
+		
+		// and the prefixes of each of those tokens, for type-ahead prefix searches.
+		if (tokenize && hasEdgeNGramFields(fieldName)) {
+			doc.add(new TextField(fieldName + PerFieldAnalyzer.EDGE_NGRAM_FIELD_MARKER, value, Field.Store.NO));
+			doc.add(new TextField(fieldName + PerFieldAnalyzer.WHITE_SPACE_FIELD_MARKER + PerFieldAnalyzer.EDGE_NGRAM_FIELD_MARKER, value, 
+					Field.Store.NO));
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * Only the column that gets all descriptions is indexed with edge n-grams, since prefix searches are not restricted 
+	 * to other columns.
+	 */
+	@Override
+	protected boolean hasEdgeNGramFields(String field) {
+		return FIELD_INDEXED_STRING_VALUE.equals(field);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected boolean isIndexFormatCurrent(FieldInfos fieldInfos) {
+		return super.isIndexFormatCurrent(fieldInfos) 
+				&& fieldInfos.fieldInfo(FIELD_INDEXED_STRING_VALUE + PerFieldAnalyzer.EDGE_NGRAM_FIELD_MARKER) != null;
 	}
 
 	/**
@@ -281,60 +310,7 @@ public class DescriptionIndexer extends LuceneIndexer
 			Integer sizeLimit,
 			Long targetGeneration) {
 		
-		//don't trim trailing spaces on a prefix search, they tell us to not do a wildcard for the previous term.
-		String queryLocal = prefixSearch ? query.stripLeading() : query.trim();
-		
-		if (!prefixSearch && !queryLocal.startsWith("/") && !queryLocal.endsWith("/")) {
-			//don't activate this block, if it is a regexp, or if it is a prefix search
-			if (SemanticTags.containsSemanticTag(query)) {
-				//If they include a semantic tag, adjust their query so that the tag is not treated like a lucene grouping rule.
-				//Note, grouping rules are still allowed, so long as they aren't at the very end of the query (so they don't look like a semantic tag)
-				queryLocal = SemanticTags.stripSemanticTagIfPresent(queryLocal) + " \\(" + SemanticTags.findSemanticTagIfPresent(queryLocal).get() + "\\)";
-			}
-			
-			//If they include a [ or ], we want to auto escape them, unless they are a valid range query, which would be 
-			// [xx TO yy] 
-			//Also applies to {}
-			queryLocal = handleBrackets(queryLocal, '[', ']');
-			queryLocal = handleBrackets(queryLocal, '{', '}');
-			queryLocal = handleUnsupportedEscapeChars(queryLocal);
-		}
-		
-		Query q = buildTokenizedStringQuery(queryLocal, FIELD_INDEXED_STRING_VALUE, prefixSearch, metadataOnly, false);
-
-		q = restrictToSemantic(q, assemblageConcepts);
-
-		if (descriptionTypes != null && descriptionTypes.length > 0) {
-			final BooleanQuery.Builder outerWrapQueryBuilder = new BooleanQuery.Builder();
-			outerWrapQueryBuilder.add(q, Occur.MUST);
-			
-			final BooleanQuery.Builder innerQueryBuilder = new BooleanQuery.Builder();
-			for (Integer i : descriptionTypes)
-			{
-				innerQueryBuilder.add(new TermQuery(new Term(FIELD_INDEXED_DESCRIPTION_TYPE_NID + PerFieldAnalyzer.WHITE_SPACE_FIELD_MARKER, i.toString())), Occur.SHOULD);
-			}
-			
-			outerWrapQueryBuilder.add(innerQueryBuilder.build(), Occur.MUST);
-			q = outerWrapQueryBuilder.build();
-		}
-		
-		if (extendedDescriptionTypes != null && extendedDescriptionTypes.length > 0) {
-			final BooleanQuery.Builder outerWrapQueryBuilder = new BooleanQuery.Builder();
-			outerWrapQueryBuilder.add(q, Occur.MUST);
-			
-			final BooleanQuery.Builder innerQueryBuilder = new BooleanQuery.Builder();
-			for (int i : extendedDescriptionTypes)
-			{
-				for (UUID uuid : Get.identifierService().getUuidsForNid(i))
-				{
-					innerQueryBuilder.add(new TermQuery(new Term(FIELD_INDEXED_EXTENDED_DESCRIPTION_TYPE_UUID + PerFieldAnalyzer.WHITE_SPACE_FIELD_MARKER, uuid.toString())), 
-							Occur.SHOULD);
-				}
-			}
-			
-			outerWrapQueryBuilder.add(innerQueryBuilder.build(), Occur.MUST);
-			q = outerWrapQueryBuilder.build();
-		}
+		Query q = buildDescriptionQuery(query, prefixSearch, assemblageConcepts, metadataOnly, descriptionTypes, extendedDescriptionTypes);
 		List<SearchResult> results = search(q, filter, amp, pageNum, sizeLimit, targetGeneration);
 		
 		if (prefixSearch) {
@@ -514,6 +490,78 @@ public class DescriptionIndexer extends LuceneIndexer
 	}
 	
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public NidSet queryMatchingNids(String query, Predicate<Integer> filter, Long targetGeneration) {
+		return searchNids(buildDescriptionQuery(query, false, null, false, null, null), filter, targetGeneration);
+	}
+
+	private Query buildDescriptionQuery(final String query,
+			boolean prefixSearch,
+			int[] assemblageConcepts,
+			boolean metadataOnly,
+			int[] descriptionTypes,
+			int[] extendedDescriptionTypes) {
+		
+		//don't trim trailing spaces on a prefix search, they tell us to not do a wildcard for the previous term.
+		String queryLocal = prefixSearch ? query.stripLeading() : query.trim();
+		
+		if (!prefixSearch && !queryLocal.startsWith("/") && !queryLocal.endsWith("/")) {
+			//don't activate this block, if it is a regexp, or if it is a prefix search
+			if (SemanticTags.containsSemanticTag(query)) {
+				//If they include a semantic tag, adjust their query so that the tag is not treated like a lucene grouping rule.
+				//Note, grouping rules are still allowed, so long as they aren't at the very end of the query (so they don't look like a semantic tag)
+				queryLocal = SemanticTags.stripSemanticTagIfPresent(queryLocal) + " \\(" + SemanticTags.findSemanticTagIfPresent(queryLocal).get() + "\\)";
+			}
+			
+			//If they include a [ or ], we want to auto escape them, unless they are a valid range query, which would be 
+			// [xx TO yy] 
+			//Also applies to {}
+			queryLocal = handleBrackets(queryLocal, '[', ']');
+			queryLocal = handleBrackets(queryLocal, '{', '}');
+			queryLocal = handleUnsupportedEscapeChars(queryLocal);
+		}
+		
+		Query q = buildTokenizedStringQuery(queryLocal, FIELD_INDEXED_STRING_VALUE, prefixSearch, metadataOnly, false);
+
+		q = restrictToSemantic(q, assemblageConcepts);
+
+		if (descriptionTypes != null && descriptionTypes.length > 0) {
+			final BooleanQuery.Builder outerWrapQueryBuilder = new BooleanQuery.Builder();
+			outerWrapQueryBuilder.add(q, Occur.MUST);
+			
+			final BooleanQuery.Builder innerQueryBuilder = new BooleanQuery.Builder();
+			for (Integer i : descriptionTypes)
+			{
+				innerQueryBuilder.add(new TermQuery(new Term(FIELD_INDEXED_DESCRIPTION_TYPE_NID + PerFieldAnalyzer.WHITE_SPACE_FIELD_MARKER, i.toString())), Occur.SHOULD);
+			}
+			
+			outerWrapQueryBuilder.add(innerQueryBuilder.build(), Occur.MUST);
+			q = outerWrapQueryBuilder.build();
+		}
+		
+		if (extendedDescriptionTypes != null && extendedDescriptionTypes.length > 0) {
+			final BooleanQuery.Builder outerWrapQueryBuilder = new BooleanQuery.Builder();
+			outerWrapQueryBuilder.add(q, Occur.MUST);
+			
+			final BooleanQuery.Builder innerQueryBuilder = new BooleanQuery.Builder();
+			for (int i : extendedDescriptionTypes)
+			{
+				for (UUID uuid : Get.identifierService().getUuidsForNid(i))
+				{
+					innerQueryBuilder.add(new TermQuery(new Term(FIELD_INDEXED_EXTENDED_DESCRIPTION_TYPE_UUID + PerFieldAnalyzer.WHITE_SPACE_FIELD_MARKER, uuid.toString())), 
+							Occur.SHOULD);
+				}
+			}
+			
+			outerWrapQueryBuilder.add(innerQueryBuilder.build(), Occur.MUST);
+			q = outerWrapQueryBuilder.build();
+		}
+		return q;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -125,10 +125,10 @@ public class StampProvider
     private transient final ConcurrentHashMap<Stamp, int[]> stampMap = new ConcurrentHashMap<>();
 
     /**
-     * The stamp sequence path nid map - performance cache only
+     * Primitive copy of the committed stamps in the inverse stamp map - performance cache only
      */
-    private transient final ConcurrentHashMap<Integer, Integer> stampSequence_PathNid_Map = new ConcurrentHashMap<>();
-    
+    private transient StampTable stampTable = null;
+
     /**
      * Inverse of sequenceToUncommittedStamp - does not need to be serialized
      */
@@ -140,6 +140,7 @@ public class StampProvider
     
     private static final String INVERSE_STAMP_MAP_STORAGE_NAME = "inverseStampMap";
     private static final String SEQUENCE_TO_UNCOMITTED_STAMP_STORAGE_NAME = "sequenceToUncommittedStamp";
+    private static final String STAMP_TABLE_FILE_NAME = "stampTable";
 
     /*
      * Instantiates a new stamp provider.  For HK2 only
@@ -159,6 +160,7 @@ public class StampProvider
     public void addStamp(Stamp stamp, int stampSequence) {
         this.stampMap.merge(stamp, new int[]{stampSequence}, this::mergeSequences);
         this.inverseStampMap.put(stampSequence, stamp);
+        this.stampTable.put(stampSequence, stamp);
          LOG.trace("Added stamp {}", stamp);
     }
 
@@ -465,6 +467,9 @@ public class StampProvider
         LOG.info("Starting StampProvider post-construct");
         try {
             this.dataStore = Get.dataStore();
+            Path dbFolderPath = Get.configurationService().getDataStoreFolderPath().resolve(DEFAULT_STAMP_MANAGER_NAME);
+            Files.createDirectories(dbFolderPath);
+            this.stampTable = new StampTable(new File(dbFolderPath.toFile(), STAMP_TABLE_FILE_NAME));
             if (Get.dataStore().implementsExtendedStoreAPI()) {
                 LOG.info("DataStore implements extended API, will be used for Stamp Provider");
                 this.inverseStampMap = ((ExtendedStore)dataStore).<Integer, byte[], Stamp>getStore(INVERSE_STAMP_MAP_STORAGE_NAME,
@@ -488,8 +493,6 @@ public class StampProvider
                         });
             } else {
                 LOG.info("DataStore does not implement extended API, local file store will be used for Stamp Provider");
-                Path dbFolderPath = Get.configurationService().getDataStoreFolderPath().resolve(DEFAULT_STAMP_MANAGER_NAME);
-                Files.createDirectories(dbFolderPath);
 
                 this.inverseStampMap = new ExtendedStoreStandAlone<Integer, byte[], Stamp>(new File(dbFolderPath.toFile(), INVERSE_STAMP_MAP_STORAGE_NAME),
                         (toSerialize) -> toSerialize == null ? null : DataToBytesUtils.getBytes(toSerialize::write),
@@ -516,22 +519,24 @@ public class StampProvider
             LOG.debug("Looking for data store based stamp data");
             this.nextStampSequence.set(FIRST_STAMP_SEQUENCE);
             this.stampMap.clear();
-            this.stampSequence_PathNid_Map.clear();
             this.uncommittedStampIntegerConcurrentHashMap.clear();
-            
+
+            sequenceToUncommittedStamp.getStream(true).forEach(stampPair ->
+            {
+                this.uncommittedStampIntegerConcurrentHashMap.put(stampPair.getValue(), stampPair.getKey());
+            });
+
             inverseStampMap.getStream(false).forEach(stampPair ->
             {
                 this.stampMap.merge(stampPair.getValue(), new int[]{stampPair.getKey()}, this::mergeSequences);
+                if (!sequenceToUncommittedStamp.containsKey(stampPair.getKey())) {
+                    this.stampTable.put(stampPair.getKey(), stampPair.getValue());
+                }
                 if (stampPair.getKey() >= nextStampSequence.get()) {
                     nextStampSequence.set(stampPair.getKey() + 1);
                 }
             });
 
-            sequenceToUncommittedStamp.getStream(true).forEach(stampPair ->
-            {
-                this.uncommittedStampIntegerConcurrentHashMap.put(stampPair.getValue(), stampPair.getKey());
-            });
-
         }
         catch (IOException e1) {
             throw new RuntimeException(e1);
@@ -555,7 +560,8 @@ public class StampProvider
         uncommittedStampIntegerConcurrentHashMap.clear();
         this.nextStampSequence.set(FIRST_STAMP_SEQUENCE);
         this.stampMap.clear();
-        this.stampSequence_PathNid_Map.clear();
+        this.stampTable.close();
+        this.stampTable = null;
         this.sequenceToUncommittedStamp = null;
         this.inverseStampMap = null;
         this.dataStore = null;
@@ -588,9 +594,8 @@ public class StampProvider
             return TermAux.USER.getNid();
         }
 
-        if (this.inverseStampMap.containsKey(stampSequence)) {
-            return this.inverseStampMap.get(stampSequence)
-                    .getAuthorNid();
+        if (this.stampTable.contains(stampSequence)) {
+            return this.stampTable.getAuthorNid(stampSequence);
         }
         UncommittedStamp us = sequenceToUncommittedStamp.get(stampSequence);
         if (us != null) {
@@ -637,9 +642,8 @@ public class StampProvider
             return TermAux.UNSPECIFIED_MODULE.getNid();
         }
 
-        if (this.inverseStampMap.containsKey(stampSequence)) {
-            return this.inverseStampMap.get(stampSequence)
-                    .getModuleNid();
+        if (this.stampTable.contains(stampSequence)) {
+            return this.stampTable.getModuleNid(stampSequence);
         }
         UncommittedStamp us = sequenceToUncommittedStamp.get(stampSequence);
         if (us != null) {
@@ -680,14 +684,8 @@ public class StampProvider
             return TermAux.DEVELOPMENT_PATH.getNid();
         }
 
-        if (this.stampSequence_PathNid_Map.containsKey(stampSequence)) {
-            return this.stampSequence_PathNid_Map.get(stampSequence);
-        }
-
-        if (this.inverseStampMap.containsKey(stampSequence)) {
-            this.stampSequence_PathNid_Map.put(stampSequence, this.inverseStampMap.get(stampSequence)
-                    .getPathNid());
-            return this.stampSequence_PathNid_Map.get(stampSequence);
+        if (this.stampTable.contains(stampSequence)) {
+            return this.stampTable.getPathNid(stampSequence);
         }
         UncommittedStamp us = sequenceToUncommittedStamp.get(stampSequence);
         if (us != null) {
@@ -787,6 +785,7 @@ public class StampProvider
                     OptionalInt stampValue = OptionalInt.of(this.nextStampSequence.getAndIncrement());
 
                     this.inverseStampMap.put(stampValue.getAsInt(), stampKey);
+                    this.stampTable.put(stampValue.getAsInt(), stampKey);
                     this.stampMap.merge(stampKey, new int[]{stampValue.getAsInt()}, this::mergeSequences);
                 }
             } finally {
@@ -820,9 +819,9 @@ public class StampProvider
             return Status.CANCELED;
         }
 
-        if (this.inverseStampMap.containsKey(stampSequence)) {
-            return this.inverseStampMap.get(stampSequence)
-                    .getStatus();
+        Status status = this.stampTable.getStatus(stampSequence);
+        if (status != null) {
+            return status;
         }
         UncommittedStamp us = sequenceToUncommittedStamp.get(stampSequence);
         if (us != null) {
@@ -847,9 +846,8 @@ public class StampProvider
             return Long.MIN_VALUE;
         }
 
-        if (this.inverseStampMap.containsKey(stampSequence)) {
-            return this.inverseStampMap.get(stampSequence)
-                    .getTime();
+        if (this.stampTable.contains(stampSequence)) {
+            return this.stampTable.getTime(stampSequence);
         }
         UncommittedStamp us = sequenceToUncommittedStamp.get(stampSequence);
         if (us != null) {
@@ -910,7 +908,8 @@ public class StampProvider
     @Override
     public ImmutableIntSet getPathsInUse() {
         MutableIntSet pathsInUse = IntSets.mutable.empty();
-        stampSequence_PathNid_Map.values().forEach(pathNid -> pathsInUse.add(pathNid));
+        stampTable.forEachPathNid(pathsInUse::add);
+        uncommittedStampIntegerConcurrentHashMap.keySet().forEach(uncommittedStamp -> pathsInUse.add(uncommittedStamp.getPathNid()));
         return pathsInUse.toImmutable();
     }
 
@@ -931,18 +930,16 @@ public class StampProvider
     @Override
     public ImmutableIntSet getAuthorsInUse() {
         MutableIntSet authorsInUse = IntSets.mutable.empty();
-        for (Entry<Integer, Stamp> stamp: inverseStampMap.getEntrySet()) {
-            authorsInUse.add(stamp.getValue().getAuthorNid());
-        }
+        stampTable.forEachAuthorNid(authorsInUse::add);
+        uncommittedStampIntegerConcurrentHashMap.keySet().forEach(uncommittedStamp -> authorsInUse.add(uncommittedStamp.getAuthorNid()));
         return authorsInUse.toImmutable();
     }
 
     @Override
     public ImmutableLongList getTimesInUse() {
         MutableLongSet timesInUse = LongSets.mutable.empty();
-        for (Entry<Integer, Stamp> stamp: inverseStampMap.getEntrySet()) {
-            timesInUse.add(stamp.getValue().getTime());
-        }
+        stampTable.forEachTime(timesInUse::add);
+        uncommittedStampIntegerConcurrentHashMap.keySet().forEach(uncommittedStamp -> timesInUse.add(uncommittedStamp.getTime()));
         return timesInUse.toSortedList().toImmutable();
     }
 }
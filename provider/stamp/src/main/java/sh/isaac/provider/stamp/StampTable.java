@@ -0,0 +1,182 @@
+package sh.isaac.provider.stamp;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import sh.isaac.api.Status;
+import sh.isaac.api.commit.Stamp;
+import sh.isaac.model.collections.ConcurrentSpineList;
+
+/**
+ * Committed stamps, indexed by stamp sequence, held as primitive fields so that the stamp
+ * accessors neither box the sequence nor dereference a {@link Stamp}.
+ * <p>
+ * The table is memory mapped, in chunks of {@link #STAMPS_PER_CHUNK} stamps. Each stamp is a
+ * fixed width row of time, author, module, path, and status, rather than a set of parallel
+ * columns, since version resolution reads several fields of one stamp at a time, and a row
+ * keeps them in a single cache line. The table is a cache of the inverse stamp map: it is
+ * rebuilt from that map at startup, so a chunk's status fields are cleared when the chunk is
+ * mapped, and the file is never forced.
+ * <p>
+ * A stamp is present once its status is non-zero. The status is written last, with release
+ * semantics, so a reader that sees the status also sees the other fields.
+ *
+ * @author kec
+ */
+class StampTable {
+
+    private static final Logger LOG = LogManager.getLogger();
+
+    private static final int CHUNK_SHIFT = 12;
+    private static final int STAMPS_PER_CHUNK = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = STAMPS_PER_CHUNK - 1;
+
+    private static final int TIME_FIELD = 0;
+    private static final int AUTHOR_FIELD = TIME_FIELD + Long.BYTES;
+    private static final int MODULE_FIELD = AUTHOR_FIELD + Integer.BYTES;
+    private static final int PATH_FIELD = MODULE_FIELD + Integer.BYTES;
+    private static final int STATUS_FIELD = PATH_FIELD + Integer.BYTES;
+    private static final int ROW_BYTES = STATUS_FIELD + Integer.BYTES;
+    private static final int CHUNK_BYTES = STAMPS_PER_CHUNK * ROW_BYTES;
+
+    private static final VarHandle INT_HANDLE = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+
+    private static final Status[] STATUS_VALUES = Status.values();
+
+    private final File tableFile;
+    private final RandomAccessFile file;
+    private final FileChannel channel;
+    private final ConcurrentSpineList<MappedByteBuffer> chunks = new ConcurrentSpineList<>(16, this::mapChunk);
+
+    StampTable(File tableFile) throws IOException {
+        this.tableFile = tableFile;
+        this.file = new RandomAccessFile(tableFile, "rw");
+        this.channel = this.file.getChannel();
+    }
+
+    private MappedByteBuffer mapChunk(int chunkIndex) {
+        try {
+            MappedByteBuffer chunk = this.channel.map(FileChannel.MapMode.READ_WRITE, (long) chunkIndex * CHUNK_BYTES, CHUNK_BYTES);
+            chunk.order(ByteOrder.nativeOrder());
+            for (int i = 0; i < STAMPS_PER_CHUNK; i++) {
+                chunk.putInt(i * ROW_BYTES + STATUS_FIELD, 0);
+            }
+            return chunk;
+        } catch (IOException ex) {
+            LOG.error("Unable to map stamp table: " + this.tableFile, ex);
+            throw new RuntimeException(ex);
+        }
+    }
+
+    private static int toRow(int stampSequence) {
+        return (stampSequence & CHUNK_MASK) * ROW_BYTES;
+    }
+
+    void put(int stampSequence, Stamp stamp) {
+        MappedByteBuffer chunk = this.chunks.getSpine(stampSequence >>> CHUNK_SHIFT);
+        int row = toRow(stampSequence);
+        chunk.putLong(row + TIME_FIELD, stamp.getTime());
+        chunk.putInt(row + AUTHOR_FIELD, stamp.getAuthorNid());
+        chunk.putInt(row + MODULE_FIELD, stamp.getModuleNid());
+        chunk.putInt(row + PATH_FIELD, stamp.getPathNid());
+        INT_HANDLE.setRelease(chunk, row + STATUS_FIELD, stamp.getStatus().ordinal() + 1);
+    }
+
+    /**
+     * @return the chunk holding the stamp, or null if the stamp is not in the table.
+     */
+    private MappedByteBuffer getChunk(int stampSequence) {
+        MappedByteBuffer chunk = this.chunks.getSpineIfPresent(stampSequence >>> CHUNK_SHIFT);
+        if (chunk != null && (int) INT_HANDLE.getAcquire(chunk, toRow(stampSequence) + STATUS_FIELD) != 0) {
+            return chunk;
+        }
+        return null;
+    }
+
+    boolean contains(int stampSequence) {
+        return getChunk(stampSequence) != null;
+    }
+
+    /**
+     * @return the status of the stamp, or null if the stamp is not in the table.
+     */
+    Status getStatus(int stampSequence) {
+        MappedByteBuffer chunk = this.chunks.getSpineIfPresent(stampSequence >>> CHUNK_SHIFT);
+        if (chunk == null) {
+            return null;
+        }
+        int status = (int) INT_HANDLE.getAcquire(chunk, toRow(stampSequence) + STATUS_FIELD);
+        return status == 0 ? null : STATUS_VALUES[status - 1];
+    }
+
+    /**
+     * The field accessors below must only be called for stamps the table contains.
+     */
+    long getTime(int stampSequence) {
+        return getChunk(stampSequence).getLong(toRow(stampSequence) + TIME_FIELD);
+    }
+
+    int getAuthorNid(int stampSequence) {
+        return getChunk(stampSequence).getInt(toRow(stampSequence) + AUTHOR_FIELD);
+    }
+
+    int getModuleNid(int stampSequence) {
+        return getChunk(stampSequence).getInt(toRow(stampSequence) + MODULE_FIELD);
+    }
+
+    int getPathNid(int stampSequence) {
+        return getChunk(stampSequence).getInt(toRow(stampSequence) + PATH_FIELD);
+    }
+
+    void forEachTime(LongConsumer consumer) {
+        forEachStamp((chunk, row) -> consumer.accept(chunk.getLong(row + TIME_FIELD)));
+    }
+
+    void forEachAuthorNid(IntConsumer consumer) {
+        forEachInt(AUTHOR_FIELD, consumer);
+    }
+
+    void forEachPathNid(IntConsumer consumer) {
+        forEachInt(PATH_FIELD, consumer);
+    }
+
+    private void forEachInt(int field, IntConsumer consumer) {
+        forEachStamp((chunk, row) -> consumer.accept(chunk.getInt(row + field)));
+    }
+
+    private interface ChunkRowConsumer {
+        void accept(MappedByteBuffer chunk, int row);
+    }
+
+    private void forEachStamp(ChunkRowConsumer consumer) {
+        for (int chunkIndex = 0; chunkIndex < this.chunks.getSpineCount(); chunkIndex++) {
+            MappedByteBuffer chunk = this.chunks.getSpineIfPresent(chunkIndex);
+            if (chunk != null) {
+                for (int row = 0; row < CHUNK_BYTES; row += ROW_BYTES) {
+                    if ((int) INT_HANDLE.getAcquire(chunk, row + STATUS_FIELD) != 0) {
+                        consumer.accept(chunk, row);
+                    }
+                }
+            }
+        }
+    }
+
+    void close() {
+        this.chunks.clear();
+        try {
+            this.channel.close();
+            this.file.close();
+        } catch (IOException ex) {
+            LOG.warn("Error closing stamp table: " + this.tableFile, ex);
+        }
+    }
+}
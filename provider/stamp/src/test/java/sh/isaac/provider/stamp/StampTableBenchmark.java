@@ -0,0 +1,123 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.provider.stamp;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import sh.isaac.api.Status;
+import sh.isaac.api.commit.Stamp;
+
+/**
+ * Compares the latency of the time, path, and status accessors, the ones version resolution calls
+ * most, when served by {@link StampTable} and by the boxed {@code Integer} to {@link Stamp} map
+ * they previously read. Run the main method with an optional
+ * stamp count and lookup count.
+ *
+ * @author kec
+ */
+public class StampTableBenchmark {
+
+    private interface StampAccessor {
+        long read(int stampSequence);
+    }
+
+    public static void main(String[] args) throws IOException {
+        int stampCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int lookupCount = args.length > 1 ? Integer.parseInt(args[1]) : 50_000_000;
+
+        File directory = Files.createTempDirectory("stamp-table").toFile();
+        File tableFile = new File(directory, "stampTable");
+        StampTable stampTable = new StampTable(tableFile);
+        ConcurrentHashMap<Integer, Stamp> inverseStampMap = new ConcurrentHashMap<>();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int stampSequence = 1; stampSequence <= stampCount; stampSequence++) {
+            Stamp stamp = new Stamp(random.nextBoolean() ? Status.ACTIVE : Status.INACTIVE, random.nextLong(1, Long.MAX_VALUE),
+                    -random.nextInt(1, 100), -random.nextInt(1, 100), -random.nextInt(1, 10));
+            inverseStampMap.put(stampSequence, stamp);
+            stampTable.put(stampSequence, stamp);
+        }
+        System.out.println("Stamps: " + stampCount + " lookups: " + lookupCount);
+
+        // Each accessor is read the way StampProvider reads it: a contains check, then the lookup.
+        StampAccessor mapAccessor = stampSequence -> {
+            long sum = 0;
+            if (inverseStampMap.containsKey(stampSequence)) {
+                sum += inverseStampMap.get(stampSequence).getTime();
+            }
+            if (inverseStampMap.containsKey(stampSequence)) {
+                sum += inverseStampMap.get(stampSequence).getPathNid();
+            }
+            if (inverseStampMap.containsKey(stampSequence)) {
+                sum += inverseStampMap.get(stampSequence).getStatus().ordinal();
+            }
+            return sum;
+        };
+        StampAccessor tableAccessor = stampSequence -> {
+            long sum = 0;
+            if (stampTable.contains(stampSequence)) {
+                sum += stampTable.getTime(stampSequence);
+            }
+            if (stampTable.contains(stampSequence)) {
+                sum += stampTable.getPathNid(stampSequence);
+            }
+            Status status = stampTable.getStatus(stampSequence);
+            if (status != null) {
+                sum += status.ordinal();
+            }
+            return sum;
+        };
+
+        // Warm up both paths before measuring.
+        run("warmup map", mapAccessor, stampCount, lookupCount / 10);
+        run("warmup table", tableAccessor, stampCount, lookupCount / 10);
+
+        double mapNanos = run("Integer to Stamp map", mapAccessor, stampCount, lookupCount);
+        double tableNanos = run("Stamp table", tableAccessor, stampCount, lookupCount);
+        System.out.println(String.format("Speedup: %.2fx", mapNanos / tableNanos));
+
+        stampTable.close();
+        tableFile.delete();
+        directory.delete();
+    }
+
+    private static double run(String name, StampAccessor accessor, int stampCount, int lookupCount) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long gcCountBefore = getGcCount();
+        long checksum = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < lookupCount; i++) {
+            checksum += accessor.read(random.nextInt(1, stampCount + 1));
+        }
+        double nanosPerLookup = (System.nanoTime() - start) / (double) lookupCount;
+        System.out.println(String.format("%s: %.1f ns/stamp for time, path and status, %d collections (checksum %d)",
+                name, nanosPerLookup, getGcCount() - gcCountBefore, checksum));
+        return nanosPerLookup;
+    }
+
+    private static long getGcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gcBean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gcBean.getCollectionCount());
+        }
+        return count;
+    }
+}
@@ -1,7 +1,7 @@
 package sh.isaac.solor.rf2;
 
-import javafx.collections.SetChangeListener;
-import javafx.concurrent.Task;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import sh.isaac.MetaData;
 import sh.isaac.api.Get;
 import sh.isaac.api.TaxonomySnapshot;
@@ -13,32 +13,36 @@ import sh.isaac.api.util.UuidT3Generator;
 import sh.isaac.solor.rf2.config.RF2FileType;
 import sh.isaac.solor.rf2.config.RF2Configuration;
 import sh.isaac.solor.rf2.config.RF2ReleaseType;
+import sh.isaac.solor.rf2.exporters.RF2AbstractExporter;
 import sh.isaac.solor.rf2.exporters.core.*;
 import sh.isaac.solor.rf2.exporters.refsets.RF2LanguageRefsetExporter;
 import sh.isaac.solor.rf2.exporters.refsets.RF2RefsetExporter;
 import sh.isaac.solor.rf2.utility.PreExportUtility;
 import sh.isaac.solor.rf2.utility.RF2ExportHelper;
-import sh.isaac.solor.rf2.utility.ZipExportDirectory;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.concurrent.Semaphore;
+import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
+import java.util.zip.ZipOutputStream;
 
 public class RF2DirectExporter extends TimedTaskWithProgressTracker<Void> implements PersistTaskResult {
 
+    private static final Logger LOG = LogManager.getLogger();
+    private static final int ZIP_BUFFER_SIZE = 1 << 20;
     private final File exportDirectory;
     private final ManifoldCoordinate manifold;
     private final String exportMessage;
     private final LocalDateTime localDateTimeNow;
     private List<RF2Configuration> exportConfigurations;
-    // TODO consider replacing readSemaphore with TaskCountManager
-    private static final int READ_PERMITS = Runtime.getRuntime().availableProcessors() * 2;
-    private final Semaphore readSemaphore = new Semaphore(READ_PERMITS);
     private final RF2ExportHelper rf2ExportHelper;
     private final PreExportUtility preExportUtility;
     private boolean isDescriptorAssemblagePresent;
@@ -103,97 +107,71 @@ public class RF2DirectExporter extends TimedTaskWithProgressTracker<Void> implem
         }
 
         updateTitle("Export " + this.exportMessage);
-        addToTotalWork(exportConfigurations.size() + 4);
+        addToTotalWork(exportConfigurations.size() + (isDescriptorAssemblagePresent ? 3 : 1));
 
-        Get.activeTasks().addListener((SetChangeListener<? super Task<?>>) change -> {
-            if(change.wasRemoved()) {
-                this.completedUnitOfWork();
-            }
-        });
-
-        try {
-
-            RF2Configuration fullDescriptorAssemblageConfiguration = null;
-            RF2Configuration snapshotDescriptorAssemblageConfiguration = null;
+        RF2Configuration fullDescriptorAssemblageConfiguration = null;
+        RF2Configuration snapshotDescriptorAssemblageConfiguration = null;
 
-            if (isDescriptorAssemblagePresent) {
-                fullDescriptorAssemblageConfiguration = new RF2Configuration(RF2FileType.REFSET, RF2ReleaseType.FULL, this.localDateTimeNow,
-                        descriptorAssemblageNid, Get.concept(descriptorAssemblageNid).getFullyQualifiedName(),
-                        Get.assemblageService().getVersionTypeForAssemblage(descriptorAssemblageNid),
-                        this.exportDirectory, this.preExportUtility, this.isDescriptorAssemblagePresent, noTreeTaxonomy, this.rf2ExportHelper);
+        if (isDescriptorAssemblagePresent) {
+            fullDescriptorAssemblageConfiguration = new RF2Configuration(RF2FileType.REFSET, RF2ReleaseType.FULL, this.localDateTimeNow,
+                    descriptorAssemblageNid, Get.concept(descriptorAssemblageNid).getFullyQualifiedName(),
+                    Get.assemblageService().getVersionTypeForAssemblage(descriptorAssemblageNid),
+                    this.exportDirectory, this.preExportUtility, this.isDescriptorAssemblagePresent, noTreeTaxonomy, this.rf2ExportHelper);
 
-                snapshotDescriptorAssemblageConfiguration = new RF2Configuration(RF2FileType.REFSET, RF2ReleaseType.SNAPSHOT, this.localDateTimeNow,
-                        descriptorAssemblageNid, Get.concept(descriptorAssemblageNid).getFullyQualifiedName(),
-                        Get.assemblageService().getVersionTypeForAssemblage(descriptorAssemblageNid),
-                        this.exportDirectory, this.preExportUtility, this.isDescriptorAssemblagePresent, noTreeTaxonomy, this.rf2ExportHelper);
+            snapshotDescriptorAssemblageConfiguration = new RF2Configuration(RF2FileType.REFSET, RF2ReleaseType.SNAPSHOT, this.localDateTimeNow,
+                    descriptorAssemblageNid, Get.concept(descriptorAssemblageNid).getFullyQualifiedName(),
+                    Get.assemblageService().getVersionTypeForAssemblage(descriptorAssemblageNid),
+                    this.exportDirectory, this.preExportUtility, this.isDescriptorAssemblagePresent, noTreeTaxonomy, this.rf2ExportHelper);
 
+            for (RF2Configuration rf2Configuration : this.exportConfigurations) {
+                fullDescriptorAssemblageConfiguration.getRefsetDescriptorDefinitions().addAll(rf2Configuration.getRefsetDescriptorDefinitions());
+                snapshotDescriptorAssemblageConfiguration.getRefsetDescriptorDefinitions().addAll(rf2Configuration.getRefsetDescriptorDefinitions());
             }
+            this.exportConfigurations.add(fullDescriptorAssemblageConfiguration);
+            this.exportConfigurations.add(snapshotDescriptorAssemblageConfiguration);
+        }
+        completedUnitOfWork();
+
+        // A zip file is written one entry at a time, so the files are exported one after the other, each by several threads.
+        Path zipPath = Paths.get(this.exportConfigurations.get(0).getZipDirectory());
+        try (ZipOutputStream zipOutputStream = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(zipPath), ZIP_BUFFER_SIZE))) {
 
             for (RF2Configuration rf2Configuration : this.exportConfigurations) {
+                RF2AbstractExporter exporter;
 
                 switch (rf2Configuration.getRf2FileType()){
                     case CONCEPT:
-
-                        Get.executor().submit(
-                                new RF2ConceptExporter(rf2Configuration, rf2ExportHelper, rf2Configuration.getIntStream(), readSemaphore));
+                        exporter = new RF2ConceptExporter(rf2Configuration, rf2ExportHelper, zipOutputStream);
                         break;
                     case DESCRIPTION:
-
-                        Get.executor().submit(
-                                new RF2DescriptionExporter(rf2Configuration, rf2ExportHelper, rf2Configuration.getIntStream(), readSemaphore));
+                        exporter = new RF2DescriptionExporter(rf2Configuration, rf2ExportHelper, zipOutputStream);
                         break;
                     case RELATIONSHIP:
                     case STATED_RELATIONSHIP:
-
-                        Get.executor().submit(
-                                new RF2RelationshipExporter(rf2Configuration, rf2ExportHelper, rf2Configuration.getIntStream(), readSemaphore));
+                        exporter = new RF2RelationshipExporter(rf2Configuration, rf2ExportHelper, zipOutputStream);
                         break;
                     case IDENTIFIER:
-
-                        Get.executor().submit(
-                                new RF2IdentifierExporter(rf2Configuration, rf2ExportHelper, rf2Configuration.getIntStream(), readSemaphore));
+                        exporter = new RF2IdentifierExporter(rf2Configuration, rf2ExportHelper, zipOutputStream);
                         break;
                     case LANGUAGE_REFSET:
-
-                        Get.executor().submit(
-                                new RF2LanguageRefsetExporter(rf2Configuration, rf2ExportHelper, rf2Configuration.getIntStream(), readSemaphore));
+                        exporter = new RF2LanguageRefsetExporter(rf2Configuration, rf2ExportHelper, zipOutputStream);
                         break;
                     case REFSET:
-
-                        Get.executor().submit(
-                                new RF2RefsetExporter(rf2Configuration, rf2ExportHelper, rf2Configuration.getIntStream(), readSemaphore));
+                        exporter = new RF2RefsetExporter(rf2Configuration, rf2ExportHelper, zipOutputStream);
                         break;
+                    default:
+                        throw new RuntimeException("Unsupported RF2 File Type " + rf2Configuration.getRf2FileType());
                 }
-                if(isDescriptorAssemblagePresent && rf2Configuration.getRefsetDescriptorDefinitions().size() > 0) {
-                    fullDescriptorAssemblageConfiguration.getRefsetDescriptorDefinitions().addAll(rf2Configuration.getRefsetDescriptorDefinitions());
-                    snapshotDescriptorAssemblageConfiguration.getRefsetDescriptorDefinitions().addAll(rf2Configuration.getRefsetDescriptorDefinitions());
-
-                }
-            }
 
-            if(isDescriptorAssemblagePresent) {
-                Get.executor().submit(
-                        new RF2RefsetExporter(fullDescriptorAssemblageConfiguration, rf2ExportHelper,
-                                fullDescriptorAssemblageConfiguration.getIntStream(), readSemaphore));
-                Get.executor().submit(
-                        new RF2RefsetExporter(snapshotDescriptorAssemblageConfiguration, rf2ExportHelper,
-                                fullDescriptorAssemblageConfiguration.getIntStream(), readSemaphore));
+                Get.executor().submit(exporter).get();
+                completedUnitOfWork();
             }
 
-            completedUnitOfWork();
-
-            readSemaphore.acquireUninterruptibly(READ_PERMITS);
-            readSemaphore.release(READ_PERMITS);
-
-            Get.executor().submit(new ZipExportDirectory(Paths.get(this.exportConfigurations.get(0).getZipDirectory()), this.readSemaphore, READ_PERMITS, this.exportConfigurations.size()));
-            completedUnitOfWork();
-
-            readSemaphore.acquireUninterruptibly(READ_PERMITS);
-
-        }finally {
+        } catch (IOException | InterruptedException | ExecutionException e) {
+            LOG.error("Error exporting RF2 to " + zipPath, e);
+            throw new RuntimeException(e);
+        } finally {
             Get.activeTasks().remove(this);
-            readSemaphore.release(READ_PERMITS);
-
         }
 
         return null;
@@ -386,6 +386,14 @@ public class RF2Configuration {
         return zipDirectory;
     }
 
+    /**
+     * @return the name of the file in the export zip file, under the directory named for the zip file
+     */
+    public String getZipEntryName() {
+        Path rootDirectory = Paths.get(this.exportDirectory + this.parentDirectory);
+        return rootDirectory.getFileName() + "/" + rootDirectory.relativize(this.filePath).toString().replace(File.separatorChar, '/');
+    }
+
     public String getFileHeader() {
         return fileHeader;
     }
@@ -2,89 +2,99 @@ package sh.isaac.solor.rf2.exporters;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import sh.isaac.api.Get;
 import sh.isaac.api.task.TimedTaskWithProgressTracker;
 import sh.isaac.solor.rf2.config.RF2Configuration;
+import sh.isaac.solor.rf2.utility.RF2FileWriter;
 
 import java.io.IOException;
-import java.nio.charset.Charset;
-import java.nio.file.Files;
-import java.nio.file.StandardOpenOption;
-import java.util.List;
+import java.util.Arrays;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 /**
  * 2019-01-23
  * aks8m - https://github.com/aks8m
+ *
+ * Writes the file of an {@link RF2Configuration} as an entry of the export zip file. The rows of the components
+ * are produced in parallel, a batch of components at a time, and written in the order of the component nids, so
+ * that exports of the same content have the same files.
  */
 public abstract class RF2AbstractExporter extends TimedTaskWithProgressTracker<Void> {
 
     protected static final Logger LOG = LogManager.getLogger();
+    private static final int BATCH_SIZE = 10000;
     private final RF2Configuration rf2Configuration;
-    private final int progressStep = 10000;
-    private int progressCount =  0;
-    protected final StringBuilder outputToWrite;
+    private final ZipOutputStream zipOutputStream;
 
-    public RF2AbstractExporter(RF2Configuration rf2Configuration) {
+    public RF2AbstractExporter(RF2Configuration rf2Configuration, ZipOutputStream zipOutputStream) {
         this.rf2Configuration = rf2Configuration;
-        this.outputToWrite = new StringBuilder();
-
-        initDirectoryAndFile();
-        this.clearLineOutput();
-        this.outputToWrite.append(rf2Configuration.getFileHeader());
-        this.writeToFile();
-        this.clearLineOutput();
+        this.zipOutputStream = zipOutputStream;
 
         updateTitle("Exporting " + rf2Configuration.getMessage() + " " + rf2Configuration.getRf2ReleaseType());
         updateMessage(rf2Configuration.getFilePath().getFileName().toString());
-        addToTotalWork(this.rf2Configuration.getExportCount() / progressStep);
+        addToTotalWork(this.rf2Configuration.getExportCount() / BATCH_SIZE + 1);
+        Get.activeTasks().add(this);
     }
 
-    protected void clearLineOutput(){
-        this.outputToWrite.setLength(0);
-    }
+    /**
+     * Append the rows of a component, each ending with a line break. Called from several threads at once,
+     * each with its own rows.
+     *
+     * @param nid the component
+     * @param rows the rows to append to
+     */
+    protected abstract void writeRows(int nid, StringBuilder rows);
 
-    protected void incrementProgressCount(){
-        this.progressCount++;
-    }
-
-    protected void tryAndUpdateProgressTracker(){
-        if(this.progressCount % this.progressStep == 0){
-            this.completedUnitOfWork();
-        }
+    /**
+     * Append the rows that follow the rows of the components, each ending with a line break.
+     *
+     * @param rows the rows to append to
+     */
+    protected void writeTrailingRows(StringBuilder rows) {
     }
 
-    private void initDirectoryAndFile(){
+    @Override
+    protected Void call() throws IOException {
         try {
-            Files.createDirectories(rf2Configuration.getFilePath().getParent());
-            Files.createFile(rf2Configuration.getFilePath());
-        }catch (IOException ioE){
-            ioE.printStackTrace();
-            LOG.warn("Can't init directory and file: " + this.rf2Configuration.getFilePath());
-        }
-    }
+            this.zipOutputStream.putNextEntry(new ZipEntry(this.rf2Configuration.getZipEntryName()));
+            try (RF2FileWriter fileWriter = new RF2FileWriter(this.zipOutputStream)) {
+                fileWriter.write(this.rf2Configuration.getFileHeader());
 
-    protected void writeToFile(){
+                final int[] nids = this.rf2Configuration.getIntStream().sorted().toArray();
+                for (int start = 0; start < nids.length; start += BATCH_SIZE) {
+                    // The rows of a batch keep the order of its nids. The writer writes them while the next batch is produced.
+                    final String[] batchRows = Arrays.stream(nids, start, Math.min(start + BATCH_SIZE, nids.length))
+                            .parallel()
+                            .mapToObj(nid -> {
+                                StringBuilder rows = new StringBuilder();
+                                writeRows(nid, rows);
+                                return rows.toString();
+                            })
+                            .toArray(String[]::new);
+                    for (String rows : batchRows) {
+                        if (!rows.isEmpty()) {
+                            fileWriter.write(rows);
+                        }
+                    }
+                    updateMessage(String.format("%s: %,d rows, %,d KB", this.rf2Configuration.getFilePath().getFileName(),
+                            fileWriter.getRowsWritten(), fileWriter.getBytesWritten() / 1024));
+                    completedUnitOfWork();
+                }
 
-        if(this.outputToWrite != null) {
-            try {
-                Files.write(rf2Configuration.getFilePath(), this.outputToWrite.toString().getBytes(Charset.forName("UTF-8")), StandardOpenOption.APPEND);
-            } catch (Exception ioE) {
-                ioE.printStackTrace();
+                final StringBuilder trailingRows = new StringBuilder();
+                writeTrailingRows(trailingRows);
+                if (trailingRows.length() > 0) {
+                    fileWriter.write(trailingRows.toString());
+                }
+                fileWriter.close();
+                LOG.info("Exported {}: {} rows, {} bytes", this.rf2Configuration.getZipEntryName(),
+                        fileWriter.getRowsWritten(), fileWriter.getBytesWritten());
             }
-        }else{
-            LOG.warn("Can't write NULL string to file: " + this.rf2Configuration.getFilePath());
-        }
-    }
-
-    protected void writeToFile(List<String> strings){
-        if(strings.size() > 0){
-            strings.stream()
-                    .forEach(string -> {
-                        this.clearLineOutput();
-                        this.outputToWrite.append(string);
-                        this.writeToFile();
-                    });
-        }else {
-            LOG.warn("Can't write NULL List<String> to file: " + this.rf2Configuration.getFilePath());
+            this.zipOutputStream.closeEntry();
+        } finally {
+            Get.activeTasks().remove(this);
         }
+        return null;
     }
 }
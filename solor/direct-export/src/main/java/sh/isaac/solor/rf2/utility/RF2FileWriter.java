@@ -0,0 +1,122 @@
+package sh.isaac.solor.rf2.utility;
+
+import sh.isaac.api.Get;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes the rows of one RF2 file to an output stream, such as the open entry of a zip file, from a thread of
+ * the IO executor. Rows are handed over through a bounded queue, so an exporter is held back when the output
+ * can't keep up, and they reach the output in large buffered writes, rather than a write per row.
+ * <p>
+ * The output stream is flushed, but not closed, by {@link #close()}.
+ */
+public class RF2FileWriter implements AutoCloseable {
+
+    private static final int QUEUE_CAPACITY = 256;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    // Compared by identity, so it can't be confused with rows that happen to be empty.
+    private static final String END_OF_ROWS = new String();
+
+    private final ArrayBlockingQueue<String> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final BufferedOutputStream output;
+    private final AtomicLong bytesWritten = new AtomicLong();
+    private final AtomicLong rowsWritten = new AtomicLong();
+    private final Future<Void> writeTask;
+    private boolean closed = false;
+
+    public RF2FileWriter(OutputStream output) {
+        this.output = new BufferedOutputStream(output, BUFFER_SIZE);
+        this.writeTask = Get.workExecutors().getIOExecutor().submit(this::writeRows);
+    }
+
+    private Void writeRows() throws IOException, InterruptedException {
+        for (String rows = this.queue.take(); rows != END_OF_ROWS; rows = this.queue.take()) {
+            final byte[] bytes = rows.getBytes(StandardCharsets.UTF_8);
+            this.output.write(bytes);
+            this.bytesWritten.addAndGet(bytes.length);
+            this.rowsWritten.addAndGet(countRows(rows));
+        }
+        this.output.flush();
+        return null;
+    }
+
+    private static int countRows(String rows) {
+        int count = 0;
+        for (int i = rows.indexOf('\n'); i >= 0; i = rows.indexOf('\n', i + 1)) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Queue rows to be written, waiting while the queue is full.
+     *
+     * @param rows one or more rows, each ending with a line break
+     */
+    public void write(String rows) {
+        try {
+            while (!this.queue.offer(rows, 100, TimeUnit.MILLISECONDS)) {
+                if (this.writeTask.isDone()) {
+                    getWriteTask();
+                    throw new IllegalStateException("RF2 file writer stopped before the end of the rows");
+                }
+            }
+        } catch (InterruptedException | IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * @return the bytes written to the output so far
+     */
+    public long getBytesWritten() {
+        return this.bytesWritten.get();
+    }
+
+    /**
+     * @return the rows written to the output so far, including the header
+     */
+    public long getRowsWritten() {
+        return this.rowsWritten.get();
+    }
+
+    /**
+     * Wait for the queued rows to be written, and flush the output. Later calls do nothing.
+     *
+     * @throws IOException if the rows couldn't be written
+     */
+    @Override
+    public void close() throws IOException {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        write(END_OF_ROWS);
+        try {
+            getWriteTask();
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void getWriteTask() throws IOException, InterruptedException {
+        try {
+            this.writeTask.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        }
+    }
+}